@@ -0,0 +1,35 @@
+-- =====================================================
+-- Migration SQL - Idempotency-Key
+-- Date: 2026-10-16
+-- Description: Table idempotency_keys qui mémorise la première réponse
+--              des POST/PUT/PATCH sur /api/sales-orders et /api/purchase-orders
+--              envoyés avec un en-tête Idempotency-Key.
+--              Une ligne sans status_code = requête en cours d'exécution,
+--              jusqu'à locked_until ; au-delà, une nouvelle tentative reprend la clé.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id            VARCHAR(300) PRIMARY KEY,
+    request_hash  VARCHAR(64)  NOT NULL,
+    status_code   INTEGER,
+    content_type  VARCHAR(100),
+    response_body BYTEA,
+    created_at    TIMESTAMP    NOT NULL,
+    expires_at    TIMESTAMP    NOT NULL,
+    locked_until  TIMESTAMP
+);
+
+-- Bases déjà migrées avant l'ajout du bail
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS locked_until TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at
+    ON idempotency_keys (expires_at);
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Table idempotency_keys créée avec succès!';
+END $$;
+
+-- =====================================================
+-- Fin de la migration
+-- =====================================================
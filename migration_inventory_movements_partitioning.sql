@@ -0,0 +1,93 @@
+-- =====================================================
+-- Migration SQL - Partitionnement mensuel des mouvements de stock
+-- Date: 2026-10-16
+-- Description: Convertit inventory_movements en table partitionnée par mois
+--              sur occurred_at (une partition inventory_movements_pYYYY_MM par
+--              mois d'historique, jusqu'à 3 mois à l'avance) et crée
+--              inventory_movement_rollups, le résumé mensuel des partitions
+--              supprimées par la rétention.
+--              Activer ensuite business.movement-partitioning-enabled=true :
+--              MovementPartitionManager crée les mois suivants et applique
+--              business.movement-retention-months.
+--              La clé primaire devient (id, occurred_at) : PostgreSQL impose la
+--              clé de partition dans toute contrainte unique.
+-- =====================================================
+
+BEGIN;
+
+ALTER TABLE inventory_movements RENAME TO inventory_movements_unpartitioned;
+ALTER INDEX IF EXISTS idx_inventory_movements_inventory_occurred_at
+    RENAME TO idx_inventory_movements_unpartitioned_inventory_occurred_at;
+
+CREATE TABLE inventory_movements (
+    id                 BIGINT       NOT NULL,
+    inventory_id       BIGINT       NOT NULL REFERENCES inventories (id),
+    type               VARCHAR(20)  NOT NULL,
+    quantity           INTEGER      NOT NULL,
+    occurred_at        TIMESTAMP    NOT NULL,
+    reference_document VARCHAR(255),
+    description        TEXT,
+    PRIMARY KEY (id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+
+CREATE INDEX idx_inventory_movements_inventory_occurred_at
+    ON inventory_movements (inventory_id, occurred_at);
+
+DO $$
+DECLARE
+    month_start DATE;
+    last_month  DATE := date_trunc('month', CURRENT_DATE + INTERVAL '3 months');
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(occurred_at), CURRENT_DATE))
+    INTO month_start
+    FROM inventory_movements_unpartitioned;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF inventory_movements FOR VALUES FROM (%L) TO (%L)',
+                       'inventory_movements_p' || to_char(month_start, 'YYYY_MM'),
+                       month_start, (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Filet de sécurité : doit rester vide (une partition ne peut pas être créée
+-- pour un mois dont des lignes sont déjà dans la partition DEFAULT)
+CREATE TABLE IF NOT EXISTS inventory_movements_default PARTITION OF inventory_movements DEFAULT;
+
+INSERT INTO inventory_movements (id, inventory_id, type, quantity, occurred_at, reference_document, description)
+SELECT id, inventory_id, type, quantity, occurred_at, reference_document, description
+FROM inventory_movements_unpartitioned;
+
+CREATE TABLE IF NOT EXISTS inventory_movement_rollups (
+    inventory_id   BIGINT      NOT NULL,
+    month          DATE        NOT NULL,
+    type           VARCHAR(20) NOT NULL,
+    quantity       BIGINT      NOT NULL,
+    movement_count BIGINT      NOT NULL,
+    PRIMARY KEY (inventory_id, month, type)
+);
+
+COMMIT;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Table inventory_movements partitionnée par mois avec succès!';
+END $$;
+
+-- =====================================================
+-- Vérification (optionnel)
+-- =====================================================
+
+SELECT c.relname AS partition, pg_get_expr(c.relpartbound, c.oid) AS bounds
+FROM pg_inherits i
+JOIN pg_class c ON c.oid = i.inhrelid
+JOIN pg_class p ON p.oid = i.inhparent
+WHERE p.relname = 'inventory_movements'
+ORDER BY c.relname;
+
+-- Une fois les comptes vérifiés :
+-- DROP TABLE inventory_movements_unpartitioned;
+
+-- =====================================================
+-- Fin de la migration
+-- =====================================================
@@ -0,0 +1,26 @@
+-- =====================================================
+-- Migration SQL - Séquence des mouvements de stock
+-- Date: 2026-10-16
+-- Description: Les ids de inventory_movements viennent d'une séquence poolée
+--              (pas de 50, comme allocationSize) au lieu de la colonne IDENTITY,
+--              ce qui permet à Hibernate d'envoyer les INSERT en batch JDBC.
+--              A utiliser avec reWriteBatchedInserts=true dans l'URL JDBC.
+-- =====================================================
+
+CREATE SEQUENCE IF NOT EXISTS inventory_movements_seq INCREMENT BY 50;
+
+-- Repartir après le plus grand id existant
+SELECT setval('inventory_movements_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM inventory_movements));
+
+-- Une seule source d'ids: Hibernate fournit toujours l'id
+ALTER TABLE inventory_movements ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE inventory_movements ALTER COLUMN id DROP DEFAULT;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Séquence inventory_movements_seq créée avec succès!';
+END $$;
+
+-- =====================================================
+-- Fin de la migration
+-- =====================================================
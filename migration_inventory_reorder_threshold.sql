@@ -0,0 +1,22 @@
+-- =====================================================
+-- Migration SQL - Seuils de réapprovisionnement des inventaires
+-- Date: 2026-10-16
+-- Description: Colonne reorder_threshold (nullable) par ligne d'inventaire.
+--              Une ligne dont la quantité disponible passe sous son seuil
+--              entre dans l'ensemble de stock bas du LowStockMonitor.
+-- =====================================================
+
+ALTER TABLE inventories ADD COLUMN IF NOT EXISTS reorder_threshold INTEGER;
+
+ALTER TABLE inventories DROP CONSTRAINT IF EXISTS chk_inventories_reorder_threshold;
+ALTER TABLE inventories ADD CONSTRAINT chk_inventories_reorder_threshold
+    CHECK (reorder_threshold IS NULL OR reorder_threshold >= 0);
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Colonne inventories.reorder_threshold ajoutée avec succès!';
+END $$;
+
+-- =====================================================
+-- Fin de la migration
+-- =====================================================
@@ -0,0 +1,49 @@
+-- =====================================================
+-- Migration SQL - Snapshots d'inventaire
+-- Date: 2026-10-16
+-- Description: Table inventory_snapshots (qty_on_hand de chaque inventaire,
+--              photographiée chaque nuit par InventorySnapshotScheduler) et
+--              index (inventory_id, occurred_at) sur inventory_movements pour
+--              rejouer uniquement les mouvements entre une photo et la date
+--              demandée.
+--              Les ADJUSTMENT sont désormais signés (négatifs quand du stock
+--              est retiré) : les anciennes lignes "Removed" sont corrigées.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS inventory_snapshots (
+    id           BIGSERIAL PRIMARY KEY,
+    inventory_id BIGINT    NOT NULL,
+    warehouse_id BIGINT    NOT NULL,
+    product_id   BIGINT    NOT NULL,
+    qty_on_hand  INTEGER   NOT NULL,
+    taken_at     TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_snapshots_inventory_taken_at
+    ON inventory_snapshots (inventory_id, taken_at);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_snapshots_warehouse_taken_at
+    ON inventory_snapshots (warehouse_id, taken_at);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_movements_inventory_occurred_at
+    ON inventory_movements (inventory_id, occurred_at);
+
+UPDATE inventory_movements
+SET quantity = -quantity
+WHERE type = 'ADJUSTMENT'
+  AND quantity > 0
+  AND description LIKE 'Inventory adjustment - Removed %';
+
+-- Première photo : les reconstructions n'ont pas à attendre la nuit suivante
+INSERT INTO inventory_snapshots (inventory_id, warehouse_id, product_id, qty_on_hand, taken_at)
+SELECT id, warehouse_id, product_id, qty_on_hand, CURRENT_TIMESTAMP
+FROM inventories;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Table inventory_snapshots créée avec succès!';
+END $$;
+
+-- =====================================================
+-- Fin de la migration
+-- =====================================================
@@ -0,0 +1,19 @@
+-- =====================================================
+-- Migration SQL - Verrouillage optimiste des inventaires
+-- Date: 2026-10-16
+-- Description: Colonne version (@Version de Inventory). Chaque écriture
+--              l'incrémente : une transaction qui a lu une ancienne version
+--              échoue à la validation au lieu d'écraser l'autre, puis elle
+--              est rejouée par @RetryOnConflict.
+-- =====================================================
+
+ALTER TABLE inventories ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Colonne inventories.version ajoutée avec succès!';
+END $$;
+
+-- =====================================================
+-- Fin de la migration
+-- =====================================================
@@ -0,0 +1,33 @@
+-- =====================================================
+-- Migration SQL - Index pour le réapprovisionnement planifié
+-- Date: 2026-10-16
+-- Description: Index utilisés par le ReorderEngine pour sommer, par produit,
+--              les quantités des bons de commande ouverts (CREATED, APPROVED)
+--              et retrouver le dernier fournisseur de chaque produit.
+--              CONCURRENTLY : ne bloque pas les écritures sur les bons de
+--              commande (à exécuter hors transaction).
+-- =====================================================
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_purchase_orders_status
+    ON purchase_orders (status, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_purchase_order_lines_order_product
+    ON purchase_order_lines (purchase_order_id, product_id, quantity);
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Index idx_purchase_orders_status et idx_purchase_order_lines_order_product créés avec succès!';
+END $$;
+
+-- =====================================================
+-- Vérification (optionnel)
+-- =====================================================
+
+SELECT indexname, indexdef
+FROM pg_indexes
+WHERE tablename IN ('purchase_orders', 'purchase_order_lines')
+  AND indexname IN ('idx_purchase_orders_status', 'idx_purchase_order_lines_order_product');
+
+-- =====================================================
+-- Fin de la migration
+-- =====================================================
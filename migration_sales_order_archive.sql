@@ -0,0 +1,35 @@
+-- =====================================================
+-- Migration SQL - Archivage des commandes terminées
+-- Date: 2026-10-16
+-- Description: Table archived_sales_orders (snapshot JSON des commandes
+--              CANCELED / DELIVERED et de leur expédition) et index
+--              (status, created_at) utilisé pour sélectionner les commandes
+--              à archiver. Hibernate (ddl-auto=update) crée aussi la table,
+--              ce script sert pour les bases gérées manuellement.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS archived_sales_orders (
+    id               BIGINT       PRIMARY KEY,
+    client_id        BIGINT,
+    status           VARCHAR(20)  NOT NULL,
+    created_at       TIMESTAMP    NOT NULL,
+    archived_at      TIMESTAMP    NOT NULL,
+    order_payload    TEXT         NOT NULL,
+    shipment_payload TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_archived_sales_orders_client_id
+    ON archived_sales_orders (client_id);
+
+-- CONCURRENTLY : ne bloque pas les écritures sur sales_orders (à exécuter hors transaction)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sales_orders_status_created_at
+    ON sales_orders (status, created_at);
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Table archived_sales_orders et index idx_sales_orders_status_created_at créés avec succès!';
+END $$;
+
+-- =====================================================
+-- Fin de la migration
+-- =====================================================
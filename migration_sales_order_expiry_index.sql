@@ -0,0 +1,30 @@
+-- =====================================================
+-- Migration SQL - Index pour l'expiration des réservations
+-- Date: 2026-10-16
+-- Description: Index composite (status, reserved_at, id) utilisé par
+--              SalesOrderValidationScheduler pour parcourir les réservations
+--              expirées par keyset au lieu de charger toutes les commandes.
+--              CONCURRENTLY : ne bloque pas les écritures sur sales_orders
+--              (à exécuter hors transaction).
+-- =====================================================
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sales_orders_status_reserved_at
+    ON sales_orders (status, reserved_at, id);
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Index idx_sales_orders_status_reserved_at créé avec succès!';
+END $$;
+
+-- =====================================================
+-- Vérification (optionnel)
+-- =====================================================
+
+SELECT indexname, indexdef
+FROM pg_indexes
+WHERE tablename = 'sales_orders'
+  AND indexname = 'idx_sales_orders_status_reserved_at';
+
+-- =====================================================
+-- Fin de la migration
+-- =====================================================
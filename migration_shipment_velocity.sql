@@ -0,0 +1,30 @@
+-- =====================================================
+-- Migration SQL - Vélocité des expéditions
+-- Date: 2026-10-16
+-- Description: Table shipment_velocity_days (unités expédiées par produit,
+--              entrepôt et jour). Alimentée par les enregistrements périodiques
+--              du ShipmentVelocityTracker ; les jours de plus de 90 jours sont
+--              supprimés. Au démarrage, les compteurs sont reconstruits depuis
+--              cette table et les mouvements OUTBOUND postérieurs à flushed_at.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS shipment_velocity_days (
+    id           BIGSERIAL PRIMARY KEY,
+    product_id   BIGINT    NOT NULL,
+    warehouse_id BIGINT    NOT NULL,
+    ship_date    DATE      NOT NULL,
+    shipped_qty  BIGINT    NOT NULL DEFAULT 0,
+    flushed_at   TIMESTAMP NOT NULL,
+    CONSTRAINT uk_shipment_velocity_days_cell_date UNIQUE (product_id, warehouse_id, ship_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_shipment_velocity_days_ship_date ON shipment_velocity_days (ship_date);
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Table shipment_velocity_days créée avec succès!';
+END $$;
+
+-- =====================================================
+-- Fin de la migration
+-- =====================================================
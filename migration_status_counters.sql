@@ -0,0 +1,37 @@
+-- =====================================================
+-- Migration SQL - Compteurs de statuts
+-- Date: 2026-10-16
+-- Description: Table status_counters (nombre de lignes par statut pour
+--              sales_orders, shipments et purchase_orders), mise à jour à
+--              chaque transition et recomptée chaque nuit.
+--              Le recomptage au démarrage de l'application remplit la table.
+--              Chaque statut est réparti sur plusieurs créneaux (slot) que les
+--              lectures additionnent, pour ne pas sérialiser les transitions.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS status_counters (
+    id           BIGSERIAL   PRIMARY KEY,
+    entity_type  VARCHAR(20) NOT NULL,
+    status       VARCHAR(20) NOT NULL,
+    slot         INTEGER     NOT NULL DEFAULT 0,
+    row_count    BIGINT      NOT NULL DEFAULT 0,
+    recounted_at TIMESTAMP,
+    CONSTRAINT uk_status_counters_type_status_slot UNIQUE (entity_type, status, slot)
+);
+
+-- Bases déjà migrées avant la répartition en créneaux
+ALTER TABLE status_counters ADD COLUMN IF NOT EXISTS slot INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE status_counters DROP CONSTRAINT IF EXISTS uk_status_counters_type_status;
+ALTER TABLE status_counters DROP CONSTRAINT IF EXISTS uk_status_counters_type_status_slot;
+ALTER TABLE status_counters ADD CONSTRAINT uk_status_counters_type_status_slot
+    UNIQUE (entity_type, status, slot);
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Table status_counters créée avec succès!';
+END $$;
+
+-- =====================================================
+-- Fin de la migration
+-- =====================================================
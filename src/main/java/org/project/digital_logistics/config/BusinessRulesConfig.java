@@ -1,6 +1,7 @@
 package org.project.digital_logistics.config;
 
 import lombok.Data;
+import org.project.digital_logistics.service.allocation.AllocationStrategyType;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,8 +12,98 @@ public class BusinessRulesConfig {
 
     private Integer reservationTtlHours = 24;
 
+    private Integer reservationExpiryChunkSize = 500;
+
+    private Integer archiveAfterDays = 30;
+
+    private Integer archiveChunkSize = 500;
+
     private Integer shipmentCutoffHour = 15;
 
     private Integer shipmentWaitHours = 12;
+
+    private Long ledgerReconcileIntervalMs = 300000L;
+
+    private Integer maxBatchReserveSize = 500;
+
+    private Integer idempotencyTtlHours = 24;
+
+    private Integer idempotencyCacheSize = 10000;
+
+    private Integer idempotencyWaitSeconds = 30;
+
+    private Integer idempotencyLeaseSeconds = 120;
+
+    private Integer statusCounterSlots = 8;
+
+    private Integer listPageSize = 50;
+
+    private Integer maxListPageSize = 500;
+
+    private Integer streamChunkSize = 500;
+
+    private Boolean movementWriteBehindEnabled = false;
+
+    private Integer movementBufferSize = 10000;
+
+    private Integer movementFlushBatchSize = 500;
+
+    private Long movementFlushIntervalMs = 200L;
+
+    private Long movementOfferTimeoutMs = 2000L;
+
+    private String movementSpillDirectory = "data/movement-journal";
+
+    private Integer inventorySnapshotRetentionDays = 400;
+
+    private Integer movementQueryWindowDays = 90;
+
+    private Boolean movementPartitioningEnabled = false;
+
+    private Integer movementPartitionsAhead = 3;
+
+    private Integer movementRetentionMonths = 24;
+
+    private Boolean movementRollupEnabled = true;
+
+    private Integer stockCacheSize = 10000;
+
+    private Long stockCacheTtlSeconds = 60L;
+
+    private Integer maxAvailabilityBatchSize = 500;
+
+    private Integer inventoryImportMaxRows = 100000;
+
+    private Integer maxCycleCountSize = 100000;
+
+    private Integer cycleCountChunkSize = 1000;
+
+    private Integer conflictRetryMaxAttempts = 4;
+
+    private Long conflictRetryBaseDelayMs = 10L;
+
+    private Long conflictRetryMaxDelayMs = 200L;
+
+    private Long lowStockStreamTimeoutMs = 1800000L;
+
+    private Long velocityFlushIntervalMs = 60000L;
+
+    private Integer velocityFlushBatchSize = 500;
+
+    private String reorderCron = "0 30 2 * * ?";
+
+    private Integer reorderLeadTimeDays = 7;
+
+    private Integer reorderSafetyStockDays = 3;
+
+    private Integer reorderCoverDays = 14;
+
+    private Integer reorderParallelism = 0;
+
+    private Integer reorderChunkSize = 1000;
+
+    private Integer reorderInsertBatchSize = 500;
+
+    private AllocationStrategyType allocationStrategy = AllocationStrategyType.LARGEST_FIRST;
 }
 
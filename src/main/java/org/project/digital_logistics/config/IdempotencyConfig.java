@@ -0,0 +1,24 @@
+package org.project.digital_logistics.config;
+
+import org.project.digital_logistics.service.idempotency.IdempotencyService;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link IdempotencyFilter} explicitly rather than as a scanned component,
+ * so @WebMvcTest slices do not pick it up without its IdempotencyService.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyService idempotencyService) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyService));
+        // After the security chain: keys are scoped to the authenticated user
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -93,7 +93,10 @@ public class SecurityConfig {
                         // ========== INVENTORY ==========
                         .requestMatchers(HttpMethod.GET, "/api/inventories/**")
                         .hasAnyRole("ADMIN", "WAREHOUSE_MANAGER")
+                        .requestMatchers(HttpMethod.POST, "/api/inventories/availability")
+                        .hasAnyRole("ADMIN", "WAREHOUSE_MANAGER", "CLIENT")
                         .requestMatchers(HttpMethod.POST, "/api/inventories").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/inventories/import").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/inventories/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PATCH, "/api/inventories/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/inventories/**").hasRole("ADMIN")
@@ -148,6 +151,10 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/api/shipments/**")
                         .hasAnyRole("ADMIN", "WAREHOUSE_MANAGER")
 
+                        // ========== STATS ==========
+                        .requestMatchers(HttpMethod.GET, "/api/stats/**")
+                        .hasAnyRole("ADMIN", "WAREHOUSE_MANAGER")
+
                         // ========== SUPPLIERS ==========
                         .requestMatchers(HttpMethod.GET, "/api/suppliers/**")
                         .hasAnyRole("ADMIN", "WAREHOUSE_MANAGER")
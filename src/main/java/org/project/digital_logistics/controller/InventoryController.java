@@ -1,16 +1,38 @@
 package org.project.digital_logistics.controller;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.CursorPageDto;
+import org.project.digital_logistics.dto.inventory.AvailabilityRequestDto;
+import org.project.digital_logistics.dto.inventory.CycleCountRequestDto;
+import org.project.digital_logistics.dto.inventory.CycleCountResultDto;
+import org.project.digital_logistics.dto.inventory.InventoryImportResultDto;
+import org.project.digital_logistics.dto.inventory.InventoryOnHandDto;
+import org.project.digital_logistics.dto.inventory.LowStockSnapshotDto;
+import org.project.digital_logistics.dto.inventory.ProductAvailabilityDto;
+import org.project.digital_logistics.dto.inventory.ReorderThresholdRequestDto;
+import org.project.digital_logistics.dto.inventory.ShipmentVelocityDto;
 import org.project. digital_logistics.dto.inventory. InventoryRequestDto;
 import org.project.digital_logistics. dto.inventory.InventoryResponseDto;
 import org.project. digital_logistics.service.InventoryService;
+import org.project.digital_logistics.service.CycleCountService;
+import org.project.digital_logistics.service.InventoryImportService;
+import org.project.digital_logistics.service.InventoryImportService.ImportFormat;
+import org.project.digital_logistics.service.InventorySnapshotService;
+import org.project.digital_logistics.service.listing.KeysetListing;
 import org.springframework.beans.factory.annotation. Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -19,11 +41,22 @@ import java.util.List;
 @Tag(name = "Inventories", description = "Inventory Management")
 public class InventoryController {
 
+    private static final String CSV = "text/csv";
+
     private final InventoryService inventoryService;
+    private final InventorySnapshotService inventorySnapshotService;
+    private final InventoryImportService inventoryImportService;
+    private final CycleCountService cycleCountService;
 
     @Autowired
-    public InventoryController(InventoryService inventoryService) {
+    public InventoryController(InventoryService inventoryService,
+                               InventorySnapshotService inventorySnapshotService,
+                               InventoryImportService inventoryImportService,
+                               CycleCountService cycleCountService) {
         this.inventoryService = inventoryService;
+        this.inventorySnapshotService = inventorySnapshotService;
+        this.inventoryImportService = inventoryImportService;
+        this.cycleCountService = cycleCountService;
     }
 
     @PostMapping
@@ -32,6 +65,18 @@ public class InventoryController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    // Raw request body, read as a stream: the upload is never buffered in memory
+    @PostMapping(value = "/import", consumes = {CSV, KeysetListing.NDJSON})
+    public ResponseEntity<ApiResponse<InventoryImportResultDto>> importInventories(HttpServletRequest request)
+            throws IOException {
+        ImportFormat format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.valueOf(CSV))
+                ? ImportFormat.CSV
+                : ImportFormat.NDJSON;
+        ApiResponse<InventoryImportResultDto> response =
+                inventoryImportService.importInventories(request.getInputStream(), format);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<InventoryResponseDto>> getInventoryById(@PathVariable Long id) {
         ApiResponse<InventoryResponseDto> response = inventoryService.getInventoryById(id);
@@ -52,6 +97,20 @@ public class InventoryController {
         return ResponseEntity. ok(response);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<CursorPageDto<InventoryResponseDto>>> getInventoriesPage(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        ApiResponse<CursorPageDto<InventoryResponseDto>> response = inventoryService.getInventoriesPage(after, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/stream", produces = KeysetListing.NDJSON)
+    public void streamAllInventories(HttpServletResponse response) throws IOException {
+        response.setContentType(KeysetListing.NDJSON);
+        inventoryService.streamAllInventories(response.getOutputStream());
+    }
+
     @GetMapping("/warehouse/{warehouseId}")
     public ResponseEntity<ApiResponse<List<InventoryResponseDto>>> getInventoriesByWarehouse(@PathVariable Long warehouseId) {
         ApiResponse<List<InventoryResponseDto>> response = inventoryService.getInventoriesByWarehouse(warehouseId);
@@ -72,6 +131,17 @@ public class InventoryController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/warehouse/{warehouseId}/reorder-alerts")
+    public ResponseEntity<ApiResponse<LowStockSnapshotDto>> getReorderAlerts(@PathVariable Long warehouseId) {
+        ApiResponse<LowStockSnapshotDto> response = inventoryService.getReorderAlerts(warehouseId);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/warehouse/{warehouseId}/reorder-alerts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter watchReorderAlerts(@PathVariable Long warehouseId) {
+        return inventoryService.watchReorderAlerts(warehouseId);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<InventoryResponseDto>> updateInventory(
             @PathVariable Long id,
@@ -89,6 +159,21 @@ public class InventoryController {
         return ResponseEntity.ok(response);
     }
 
+    @PatchMapping("/{id}/reorder-threshold")
+    public ResponseEntity<ApiResponse<InventoryResponseDto>> setReorderThreshold(
+            @PathVariable Long id,
+            @Valid @RequestBody ReorderThresholdRequestDto requestDto) {
+        ApiResponse<InventoryResponseDto> response = inventoryService.setReorderThreshold(id, requestDto);
+        return ResponseEntity.ok(response);
+    }
+
+    @PatchMapping("/adjust/batch")
+    public ResponseEntity<ApiResponse<CycleCountResultDto>> applyCycleCount(
+            @Valid @RequestBody CycleCountRequestDto requestDto) {
+        ApiResponse<CycleCountResultDto> response = cycleCountService.applyCycleCount(requestDto);
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteInventory(@PathVariable Long id) {
         ApiResponse<Void> response = inventoryService.deleteInventory(id);
@@ -115,6 +200,45 @@ public class InventoryController {
         return ResponseEntity. ok(response);
     }
 
+    @GetMapping("/product/{productId}/velocity")
+    public ResponseEntity<ApiResponse<ShipmentVelocityDto>> getShipmentVelocity(
+            @PathVariable Long productId,
+            @RequestParam(required = false) Long warehouseId) {
+        ApiResponse<ShipmentVelocityDto> response = inventoryService.getShipmentVelocity(productId, warehouseId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/availability")
+    public ResponseEntity<ApiResponse<List<ProductAvailabilityDto>>> getAvailability(
+            @Valid @RequestBody AvailabilityRequestDto requestDto) {
+        ApiResponse<List<ProductAvailabilityDto>> response = inventoryService.getAvailability(requestDto);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{id}/on-hand-at")
+    public ResponseEntity<ApiResponse<InventoryOnHandDto>> getOnHandAt(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        ApiResponse<InventoryOnHandDto> response = inventorySnapshotService.getOnHandAt(id, at);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/warehouse/{warehouseId}/on-hand-at")
+    public ResponseEntity<ApiResponse<List<InventoryOnHandDto>>> getWarehouseOnHandAt(
+            @PathVariable Long warehouseId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        ApiResponse<List<InventoryOnHandDto>> response = inventorySnapshotService.getWarehouseOnHandAt(warehouseId, at);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/warehouse/{warehouseId}/product/{productId}/available-stock")
+    public ResponseEntity<ApiResponse<Integer>> getAvailableStock(
+            @PathVariable Long warehouseId,
+            @PathVariable Long productId) {
+        ApiResponse<Integer> response = inventoryService.getAvailableStock(warehouseId, productId);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/count")
     public ResponseEntity<ApiResponse<Long>> countInventories() {
         ApiResponse<Long> response = inventoryService.countInventories();
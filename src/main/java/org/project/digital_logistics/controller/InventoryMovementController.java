@@ -1,13 +1,19 @@
 package org.project.digital_logistics.controller;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.CursorPageDto;
 import org. project.digital_logistics.dto. inventorymovement.InventoryMovementResponseDto;
 import org.project. digital_logistics.service.InventoryMovementService;
+import org.project.digital_logistics.service.listing.KeysetListing;
 import org.springframework.beans.factory.annotation. Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework. web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -29,15 +35,35 @@ public class InventoryMovementController {
         return ResponseEntity. ok(response);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<CursorPageDto<InventoryMovementResponseDto>>> getMovementsPage(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        ApiResponse<CursorPageDto<InventoryMovementResponseDto>> response = movementService.getMovementsPage(after, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/stream", produces = KeysetListing.NDJSON)
+    public void streamAllMovements(HttpServletResponse response) throws IOException {
+        response.setContentType(KeysetListing.NDJSON);
+        movementService.streamAllMovements(response.getOutputStream());
+    }
+
     @GetMapping("/inventory/{inventoryId}")
-    public ResponseEntity<ApiResponse<List<InventoryMovementResponseDto>>> getMovementsByInventory(@PathVariable Long inventoryId) {
-        ApiResponse<List<InventoryMovementResponseDto>> response = movementService.getMovementsByInventory(inventoryId);
+    public ResponseEntity<ApiResponse<List<InventoryMovementResponseDto>>> getMovementsByInventory(
+            @PathVariable Long inventoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        ApiResponse<List<InventoryMovementResponseDto>> response = movementService.getMovementsByInventory(inventoryId, from, to);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/warehouse/{warehouseId}")
-    public ResponseEntity<ApiResponse<List<InventoryMovementResponseDto>>> getMovementsByWarehouse(@PathVariable Long warehouseId) {
-        ApiResponse<List<InventoryMovementResponseDto>> response = movementService.getMovementsByWarehouse(warehouseId);
+    public ResponseEntity<ApiResponse<List<InventoryMovementResponseDto>>> getMovementsByWarehouse(
+            @PathVariable Long warehouseId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        ApiResponse<List<InventoryMovementResponseDto>> response = movementService.getMovementsByWarehouse(warehouseId, from, to);
         return ResponseEntity.ok(response);
     }
 }
\ No newline at end of file
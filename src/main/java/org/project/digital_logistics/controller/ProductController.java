@@ -1,11 +1,14 @@
 package org.project.digital_logistics. controller;
 
 import io.swagger. v3.oas.annotations. tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta. validation.Valid;
 import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.CursorPageDto;
 import org.project. digital_logistics.dto.product. ProductRequestDto;
 import org. project.digital_logistics.dto. product.ProductResponseDto;
 import org.project.digital_logistics. service.ProductService;
+import org.project.digital_logistics.service.listing.KeysetListing;
 import org.project. digital_logistics.service.S3Service;
 import org.springframework. beans.factory.annotation.Autowired;
 import org.springframework. http.HttpStatus;
@@ -14,6 +17,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 
@@ -56,6 +60,20 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<CursorPageDto<ProductResponseDto>>> getProductsPage(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        ApiResponse<CursorPageDto<ProductResponseDto>> response = productService.getProductsPage(after, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/stream", produces = KeysetListing.NDJSON)
+    public void streamAllProducts(HttpServletResponse response) throws IOException {
+        response.setContentType(KeysetListing.NDJSON);
+        productService.streamAllProducts(response.getOutputStream());
+    }
+
     @GetMapping("/category/{category}")
     public ResponseEntity<ApiResponse<List<ProductResponseDto>>> getProductsByCategory(@PathVariable String category) {
         ApiResponse<List<ProductResponseDto>> response = productService.getProductsByCategory(category);
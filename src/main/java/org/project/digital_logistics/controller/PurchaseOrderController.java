@@ -1,17 +1,21 @@
 package org.project.digital_logistics. controller;
 
 import io.swagger. v3.oas.annotations. tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta. validation.Valid;
 import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.CursorPageDto;
 import org.project. digital_logistics.dto.purchaseorder.PurchaseOrderRequestDto;
 import org.project.digital_logistics.dto.purchaseorder.PurchaseOrderResponseDto;
 import org.project.digital_logistics.enums.PurchaseOrderStatus;
 import org.project.digital_logistics.service.PurchaseOrderService;
+import org.project.digital_logistics.service.listing.KeysetListing;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -45,6 +49,20 @@ public class PurchaseOrderController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<CursorPageDto<PurchaseOrderResponseDto>>> getPurchaseOrdersPage(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        ApiResponse<CursorPageDto<PurchaseOrderResponseDto>> response = purchaseOrderService.getPurchaseOrdersPage(after, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/stream", produces = KeysetListing.NDJSON)
+    public void streamAllPurchaseOrders(HttpServletResponse response) throws IOException {
+        response.setContentType(KeysetListing.NDJSON);
+        purchaseOrderService.streamAllPurchaseOrders(response.getOutputStream());
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<ApiResponse<List<PurchaseOrderResponseDto>>> getPurchaseOrdersByStatus(@PathVariable PurchaseOrderStatus status) {
         ApiResponse<List<PurchaseOrderResponseDto>> response = purchaseOrderService.getPurchaseOrdersByStatus(status);
@@ -1,19 +1,25 @@
 package org.project.digital_logistics. controller;
 
 import io.swagger. v3.oas.annotations. tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta. validation.Valid;
 import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.CursorPageDto;
 import org.project. digital_logistics.dto.salesorder.SalesOrderRequestDto;
 import org.project.digital_logistics.dto.salesorder.SalesOrderResponseDto;
+import org.project.digital_logistics.dto.salesorder.SalesOrderBatchReserveRequestDto;
+import org.project.digital_logistics.dto.salesorder.SalesOrderReserveResultDto;
 import org. project.digital_logistics.model. enums.OrderStatus;
 import org.project.digital_logistics. model.User;
 import org.project.digital_logistics.service.SalesOrderService;
+import org.project.digital_logistics.service.listing.KeysetListing;
 import org. springframework.beans.factory.annotation. Autowired;
 import org. springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework. security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -51,6 +57,20 @@ public class SalesOrderController {
         return ResponseEntity. ok(response);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<CursorPageDto<SalesOrderResponseDto>>> getSalesOrdersPage(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        ApiResponse<CursorPageDto<SalesOrderResponseDto>> response = salesOrderService.getSalesOrdersPage(after, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/stream", produces = KeysetListing.NDJSON)
+    public void streamAllSalesOrders(HttpServletResponse response) throws IOException {
+        response.setContentType(KeysetListing.NDJSON);
+        salesOrderService.streamAllSalesOrders(response.getOutputStream());
+    }
+
     @GetMapping("/my-orders")
     public ResponseEntity<ApiResponse<List<SalesOrderResponseDto>>> getMyOrders(Authentication authentication) {
         User user = (User) authentication.getPrincipal();
@@ -76,6 +96,14 @@ public class SalesOrderController {
         return ResponseEntity.ok(response);
     }
 
+    @PatchMapping("/reserve/batch")
+    public ResponseEntity<ApiResponse<List<SalesOrderReserveResultDto>>> reserveStockBatch(
+            @Valid @RequestBody SalesOrderBatchReserveRequestDto requestDto) {
+        ApiResponse<List<SalesOrderReserveResultDto>> response =
+                salesOrderService.reserveStockBatch(requestDto.getOrderIds());
+        return ResponseEntity.ok(response);
+    }
+
     @PatchMapping("/{id}/ship")
     public ResponseEntity<ApiResponse<SalesOrderResponseDto>> shipOrder(@PathVariable Long id) {
         ApiResponse<SalesOrderResponseDto> response = salesOrderService.shipOrder(id);
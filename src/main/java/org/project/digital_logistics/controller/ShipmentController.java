@@ -1,16 +1,20 @@
 package org.project.digital_logistics. controller;
 
 import io.swagger. v3.oas.annotations. tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.CursorPageDto;
 import org. project.digital_logistics.dto. shipment.ShipmentResponseDto;
 import org.project.digital_logistics.model.enums. ShipmentStatus;
 import org.project.digital_logistics.service.ShipmentService;
+import org.project.digital_logistics.service.listing.KeysetListing;
 import org. springframework.beans.factory.annotation. Autowired;
 import org. springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework. web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -50,6 +54,20 @@ public class ShipmentController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<CursorPageDto<ShipmentResponseDto>>> getShipmentsPage(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        ApiResponse<CursorPageDto<ShipmentResponseDto>> response = shipmentService.getShipmentsPage(after, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/stream", produces = KeysetListing.NDJSON)
+    public void streamAllShipments(HttpServletResponse response) throws IOException {
+        response.setContentType(KeysetListing.NDJSON);
+        shipmentService.streamAllShipments(response.getOutputStream());
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<ApiResponse<List<ShipmentResponseDto>>> getShipmentsByStatus(@PathVariable ShipmentStatus status) {
         ApiResponse<List<ShipmentResponseDto>> response = shipmentService. getShipmentsByStatus(status);
@@ -0,0 +1,65 @@
+package org.project.digital_logistics.controller;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.stats.ConflictRetryStatsDto;
+import org.project.digital_logistics.dto.stats.MovementJournalStatsDto;
+import org.project.digital_logistics.dto.stats.StatusCountsDto;
+import org.project.digital_logistics.dto.stats.StockCacheStatsDto;
+import org.project.digital_logistics.service.journal.MovementWriteBehind;
+import org.project.digital_logistics.service.retry.ConflictRetryAspect;
+import org.project.digital_logistics.service.stats.StatusCounterService;
+import org.project.digital_logistics.service.stock.StockLevelCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "*")
+@Tag(name = "Stats", description = "Dashboard Counters")
+public class StatsController {
+
+    private final StatusCounterService statusCounterService;
+    private final MovementWriteBehind movementWriteBehind;
+    private final StockLevelCache stockLevelCache;
+    private final ConflictRetryAspect conflictRetryAspect;
+
+    @Autowired
+    public StatsController(StatusCounterService statusCounterService,
+                           MovementWriteBehind movementWriteBehind,
+                           StockLevelCache stockLevelCache,
+                           ConflictRetryAspect conflictRetryAspect) {
+        this.statusCounterService = statusCounterService;
+        this.movementWriteBehind = movementWriteBehind;
+        this.stockLevelCache = stockLevelCache;
+        this.conflictRetryAspect = conflictRetryAspect;
+    }
+
+    @GetMapping("/status-counts")
+    public ResponseEntity<ApiResponse<StatusCountsDto>> getStatusCounts() {
+        ApiResponse<StatusCountsDto> response = statusCounterService.getStatusCounts();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/movement-journal")
+    public ResponseEntity<ApiResponse<MovementJournalStatsDto>> getMovementJournalStats() {
+        ApiResponse<MovementJournalStatsDto> response =
+                new ApiResponse<>("Movement journal stats retrieved successfully", movementWriteBehind.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stock-cache")
+    public ResponseEntity<ApiResponse<StockCacheStatsDto>> getStockCacheStats() {
+        ApiResponse<StockCacheStatsDto> response =
+                new ApiResponse<>("Stock cache stats retrieved successfully", stockLevelCache.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/conflict-retry")
+    public ResponseEntity<ApiResponse<ConflictRetryStatsDto>> getConflictRetryStats() {
+        ApiResponse<ConflictRetryStatsDto> response =
+                new ApiResponse<>("Conflict retry stats retrieved successfully", conflictRetryAspect.getStats());
+        return ResponseEntity.ok(response);
+    }
+}
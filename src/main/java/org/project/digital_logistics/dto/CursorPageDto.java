@@ -0,0 +1,22 @@
+package org.project.digital_logistics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list. Pass nextCursor back as "after" to get the
+ * next page; it is null once the last row has been returned.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDto<T> {
+    private List<T> items;
+    private Long nextCursor;
+    private boolean hasMore;
+}
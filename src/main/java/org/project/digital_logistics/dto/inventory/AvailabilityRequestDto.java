@@ -0,0 +1,24 @@
+package org.project.digital_logistics.dto.inventory;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailabilityRequestDto {
+
+    @NotNull(message = "Product ids are required")
+    @NotEmpty(message = "At least one product id is required")
+    private List<@NotNull(message = "Product id cannot be null") Long> productIds;
+
+    // Optional: restrict the availability to these warehouses
+    private List<@NotNull(message = "Warehouse id cannot be null") Long> warehouseIds;
+}
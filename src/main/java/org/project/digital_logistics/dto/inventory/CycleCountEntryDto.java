@@ -0,0 +1,28 @@
+package org.project.digital_logistics.dto.inventory;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One counted cell: identified by inventoryId, or by warehouseId and product SKU.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CycleCountEntryDto {
+
+    private Long inventoryId;
+
+    private Long warehouseId;
+
+    private String sku;
+
+    @NotNull(message = "Counted quantity is required")
+    @Min(value = 0, message = "Counted quantity cannot be negative")
+    private Integer countedQty;
+}
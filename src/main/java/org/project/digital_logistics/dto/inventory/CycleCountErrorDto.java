@@ -0,0 +1,17 @@
+package org.project.digital_logistics.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CycleCountErrorDto {
+
+    // Position of the entry in the request, from 0
+    private Integer index;
+    private String message;
+}
@@ -0,0 +1,22 @@
+package org.project.digital_logistics.dto.inventory;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CycleCountRequestDto {
+
+    @NotNull(message = "Entries are required")
+    @NotEmpty(message = "At least one entry is required")
+    private List<@Valid @NotNull(message = "Entry cannot be null") CycleCountEntryDto> entries;
+}
@@ -0,0 +1,21 @@
+package org.project.digital_logistics.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CycleCountResultDto {
+
+    private Integer totalEntries;
+    private Integer adjusted;
+    private Integer unchanged;
+    private Integer rejected;
+    private List<CycleCountErrorDto> errors;
+}
@@ -0,0 +1,16 @@
+package org.project.digital_logistics.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryImportErrorDto {
+
+    private Long line;
+    private String message;
+}
@@ -0,0 +1,22 @@
+package org.project.digital_logistics.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryImportResultDto {
+
+    private Long totalRows;
+    private Integer created;
+    private Integer updated;
+    private Long unchanged;
+    private Integer rejected;
+    private List<InventoryImportErrorDto> errors;
+}
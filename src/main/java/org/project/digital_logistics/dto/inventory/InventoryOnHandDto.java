@@ -0,0 +1,25 @@
+package org.project.digital_logistics.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryOnHandDto {
+
+    private Long inventoryId;
+    private Long warehouseId;
+    private String warehouseCode;
+    private Long productId;
+    private String productSku;
+    private String productName;
+    private LocalDateTime at;
+    private Integer qtyOnHand;
+    private LocalDateTime snapshotTakenAt;  // null when rebuilt from the current row
+}
@@ -27,4 +27,7 @@ public class InventoryRequestDto {
     @NotNull(message = "Quantity reserved is required")
     @Min(value = 0, message = "Quantity reserved must be zero or positive")
     private Integer qtyReserved;
+
+    @Min(value = 0, message = "Reorder threshold must be zero or positive")
+    private Integer reorderThreshold;
 }
\ No newline at end of file
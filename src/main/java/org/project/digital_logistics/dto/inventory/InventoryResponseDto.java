@@ -26,6 +26,7 @@ public class InventoryResponseDto {
     private Integer qtyOnHand;
     private Integer qtyReserved;
     private Integer qtyAvailable;
+    private Integer reorderThreshold;
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -0,0 +1,17 @@
+package org.project.digital_logistics.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LowStockItemDto {
+
+    private Long productId;
+    private Integer available;
+    private Integer reorderThreshold;
+}
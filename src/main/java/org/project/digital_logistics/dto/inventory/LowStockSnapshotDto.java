@@ -0,0 +1,22 @@
+package org.project.digital_logistics.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LowStockSnapshotDto {
+
+    private Long warehouseId;
+
+    // Incremented every time a row enters or leaves the set, 0 when served from the database
+    private Long version;
+
+    private List<LowStockItemDto> items;
+}
@@ -0,0 +1,19 @@
+package org.project.digital_logistics.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductAvailabilityDto {
+
+    private Long productId;
+    private Integer available;
+    private List<WarehouseAvailabilityDto> warehouses;
+}
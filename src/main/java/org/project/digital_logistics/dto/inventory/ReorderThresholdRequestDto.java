@@ -0,0 +1,18 @@
+package org.project.digital_logistics.dto.inventory;
+
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReorderThresholdRequestDto {
+
+    // Null stops watching the row
+    @Min(value = 0, message = "Reorder threshold must be zero or positive")
+    private Integer reorderThreshold;
+}
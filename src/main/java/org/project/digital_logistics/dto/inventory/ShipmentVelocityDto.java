@@ -0,0 +1,30 @@
+package org.project.digital_logistics.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShipmentVelocityDto {
+
+    private Long productId;
+
+    // Null when the velocity covers all warehouses
+    private Long warehouseId;
+
+    private LocalDate asOf;
+
+    private Long shippedLast7Days;
+    private Long shippedLast30Days;
+    private Long shippedLast90Days;
+
+    private Double averagePerDay7Days;
+    private Double averagePerDay30Days;
+    private Double averagePerDay90Days;
+}
@@ -0,0 +1,21 @@
+package org.project.digital_logistics.dto.salesorder;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesOrderBatchReserveRequestDto {
+
+    @NotNull(message = "Order ids are required")
+    @NotEmpty(message = "At least one order id is required")
+    private List<@NotNull(message = "Order id cannot be null") Long> orderIds;
+}
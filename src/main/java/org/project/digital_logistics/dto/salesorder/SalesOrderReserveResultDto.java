@@ -0,0 +1,19 @@
+package org.project.digital_logistics.dto.salesorder;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.project.digital_logistics.model.enums.ReservationOutcome;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesOrderReserveResultDto {
+
+    private Long orderId;
+    private ReservationOutcome outcome;
+    private String message;
+    private SalesOrderResponseDto order;
+}
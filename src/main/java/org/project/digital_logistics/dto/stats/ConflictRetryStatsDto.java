@@ -0,0 +1,22 @@
+package org.project.digital_logistics.dto.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConflictRetryStatsDto {
+
+    private Integer maxAttempts;
+    // Optimistic lock failures caught, retried or not
+    private Long conflicts;
+    private Long retries;
+    // Calls that succeeded after at least one retry
+    private Long recovered;
+    // Calls that still conflicted on their last attempt
+    private Long exhausted;
+}
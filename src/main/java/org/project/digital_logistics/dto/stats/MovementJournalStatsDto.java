@@ -0,0 +1,25 @@
+package org.project.digital_logistics.dto.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovementJournalStatsDto {
+    private boolean writeBehindEnabled;
+    private int queueDepth;
+    private int queueCapacity;
+    private int spillSegments;
+    private long enqueued;
+    private long flushed;
+    private long callerWrites;
+    private long flushes;
+    private long failedFlushes;
+    private long lastFlushMillis;
+    private long maxFlushMillis;
+    private double avgFlushMillis;
+}
@@ -0,0 +1,18 @@
+package org.project.digital_logistics.dto.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatusCountsDto {
+    private Map<String, Long> salesOrders;
+    private Map<String, Long> shipments;
+    private Map<String, Long> purchaseOrders;
+}
@@ -0,0 +1,28 @@
+package org.project.digital_logistics.event;
+
+/**
+ * Published whenever the quantities of an inventory row change.
+ * Carries deltas rather than absolute values so that in-memory views
+ * (stock ledger, caches) can be updated without reading the row back.
+ */
+public record InventoryChangedEvent(Long warehouseId,
+                                    Long productId,
+                                    int onHandDelta,
+                                    int reservedDelta) {
+
+    public static InventoryChangedEvent reserved(Long warehouseId, Long productId, int quantity) {
+        return new InventoryChangedEvent(warehouseId, productId, 0, quantity);
+    }
+
+    public static InventoryChangedEvent released(Long warehouseId, Long productId, int quantity) {
+        return new InventoryChangedEvent(warehouseId, productId, 0, -quantity);
+    }
+
+    public static InventoryChangedEvent shipped(Long warehouseId, Long productId, int quantity) {
+        return new InventoryChangedEvent(warehouseId, productId, -quantity, -quantity);
+    }
+
+    public static InventoryChangedEvent received(Long warehouseId, Long productId, int quantity) {
+        return new InventoryChangedEvent(warehouseId, productId, quantity, 0);
+    }
+}
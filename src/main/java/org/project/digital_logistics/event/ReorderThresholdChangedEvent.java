@@ -0,0 +1,10 @@
+package org.project.digital_logistics.event;
+
+/**
+ * Published when the reorder threshold of an inventory row is set, changed or
+ * cleared (null), including when the row is deleted or moved to another cell.
+ */
+public record ReorderThresholdChangedEvent(Long warehouseId,
+                                           Long productId,
+                                           Integer reorderThreshold) {
+}
@@ -0,0 +1,9 @@
+package org.project.digital_logistics.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a sales order moves to RESERVED.
+ */
+public record SalesOrderReservedEvent(Long salesOrderId, LocalDateTime reservedAt) {
+}
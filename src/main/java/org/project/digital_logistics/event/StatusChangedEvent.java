@@ -0,0 +1,34 @@
+package org.project.digital_logistics.event;
+
+import org.project.digital_logistics.model.enums.StatusCounterType;
+
+/**
+ * Published in the same transaction as a status change of a sales order, shipment
+ * or purchase order. A null fromStatus is a creation, a null toStatus a removal.
+ * count is greater than one for bulk updates.
+ */
+public record StatusChangedEvent(StatusCounterType type,
+                                 String fromStatus,
+                                 String toStatus,
+                                 long count) {
+
+    public static StatusChangedEvent created(StatusCounterType type, Enum<?> status) {
+        return created(type, status, 1);
+    }
+
+    public static StatusChangedEvent created(StatusCounterType type, Enum<?> status, long count) {
+        return new StatusChangedEvent(type, null, status.name(), count);
+    }
+
+    public static StatusChangedEvent transition(StatusCounterType type, Enum<?> from, Enum<?> to) {
+        return transition(type, from, to, 1);
+    }
+
+    public static StatusChangedEvent transition(StatusCounterType type, Enum<?> from, Enum<?> to, long count) {
+        return new StatusChangedEvent(type, from != null ? from.name() : null, to.name(), count);
+    }
+
+    public static StatusChangedEvent removed(StatusCounterType type, Enum<?> status, long count) {
+        return new StatusChangedEvent(type, status.name(), null, count);
+    }
+}
@@ -0,0 +1,9 @@
+package org.project.digital_logistics.event;
+
+/**
+ * Published when an INBOUND movement is recorded, i.e. stock arrived in a warehouse.
+ */
+public record StockReceivedEvent(Long warehouseId,
+                                 Long productId,
+                                 int quantity) {
+}
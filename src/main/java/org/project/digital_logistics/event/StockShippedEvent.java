@@ -0,0 +1,13 @@
+package org.project.digital_logistics.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when an OUTBOUND movement is recorded, i.e. stock left a warehouse.
+ * occurredAt is the occurred_at of the journaled movement.
+ */
+public record StockShippedEvent(Long warehouseId,
+                                Long productId,
+                                int quantity,
+                                LocalDateTime occurredAt) {
+}
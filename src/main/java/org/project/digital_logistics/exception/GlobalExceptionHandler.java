@@ -2,6 +2,7 @@ package org.project.digital_logistics.exception;
 
 import org.project.digital_logistics.dto.ApiResponse;
 import org.springframework. http.HttpStatus;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security. authentication.BadCredentialsException;
 import org.springframework.security. core.userdetails.UsernameNotFoundException;
@@ -29,6 +30,15 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.CONFLICT);
     }
 
+    // Still conflicting after the retries of @RetryOnConflict
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        ApiResponse<Void> response = new ApiResponse<>(
+                "The resource was modified concurrently, please try again", null);
+        response.setSuccess(false);
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(InsufficientStockException.class)
     public ResponseEntity<ApiResponse<Void>> handleInsufficientStock(InsufficientStockException ex) {
         ApiResponse<Void> response = new ApiResponse<>(ex.getMessage(), null);
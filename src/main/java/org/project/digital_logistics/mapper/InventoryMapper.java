@@ -5,6 +5,7 @@ import org.project.digital_logistics.dto.inventory.InventoryResponseDto;
 import org.project.digital_logistics.model.Inventory;
 import org.project.digital_logistics.model.Product;
 import org.project.digital_logistics.model.Warehouse;
+import org.project.digital_logistics.repository.projection.InventoryRow;
 
 public class InventoryMapper {
 
@@ -22,6 +23,7 @@ public class InventoryMapper {
                 .product(product)
                 .qtyOnHand(dto.getQtyOnHand())
                 .qtyReserved(dto.getQtyReserved())
+                .reorderThreshold(dto.getReorderThreshold())
                 .build();
     }
 
@@ -44,6 +46,7 @@ public class InventoryMapper {
                 .qtyOnHand(inventory.getQtyOnHand())
                 .qtyReserved(inventory.getQtyReserved())
                 .qtyAvailable(inventory.getAvailableQuantity())
+                .reorderThreshold(inventory.getReorderThreshold())
                 // Timestamps
                 .createdAt(inventory.getCreatedAt())
                 .updatedAt(inventory.getUpdatedAt())
@@ -68,6 +71,9 @@ public class InventoryMapper {
         if (dto.getQtyReserved() != null) {
             inventory.setQtyReserved(dto.getQtyReserved());
         }
+        if (dto.getReorderThreshold() != null) {
+            inventory.setReorderThreshold(dto.getReorderThreshold());
+        }
     }
 
     public static void updateQuantities(Inventory inventory, Integer qtyOnHand, Integer qtyReserved) {
@@ -81,4 +87,26 @@ public class InventoryMapper {
             inventory.setQtyReserved(qtyReserved);
         }
     }
-}
\ No newline at end of file
+
+    public static InventoryResponseDto toResponseDto(InventoryRow row) {
+        if (row == null) {
+            return null;
+        }
+
+        return InventoryResponseDto.builder()
+                .id(row.id())
+                .warehouseId(row.warehouseId())
+                .warehouseCode(row.warehouseCode())
+                .warehouseName(row.warehouseName())
+                .productId(row.productId())
+                .productSku(row.productSku())
+                .productName(row.productName())
+                .qtyOnHand(row.qtyOnHand())
+                .qtyReserved(row.qtyReserved())
+                .qtyAvailable(row.qtyOnHand() - row.qtyReserved())
+                .reorderThreshold(row.reorderThreshold())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .build();
+    }
+}
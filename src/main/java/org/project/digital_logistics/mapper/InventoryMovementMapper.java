@@ -4,6 +4,7 @@ import org.project.digital_logistics.dto.inventorymovement.InventoryMovementRequ
 import org.project.digital_logistics.dto.inventorymovement.InventoryMovementResponseDto;
 import org.project.digital_logistics.model.Inventory;
 import org.project.digital_logistics.model.InventoryMovement;
+import org.project.digital_logistics.repository.projection.MovementRow;
 
 public class InventoryMovementMapper {
 
@@ -55,4 +56,26 @@ public class InventoryMovementMapper {
                 .description(movement.getDescription())
                 .build();
     }
-}
\ No newline at end of file
+
+    public static InventoryMovementResponseDto toResponseDto(MovementRow row) {
+        if (row == null) {
+            return null;
+        }
+
+        return InventoryMovementResponseDto.builder()
+                .id(row.id())
+                .inventoryId(row.inventoryId())
+                .warehouseId(row.warehouseId())
+                .warehouseCode(row.warehouseCode())
+                .warehouseName(row.warehouseName())
+                .productId(row.productId())
+                .productSku(row.productSku())
+                .productName(row.productName())
+                .type(row.type())
+                .quantity(row.quantity())
+                .occurredAt(row.occurredAt())
+                .referenceDocument(row.referenceDocument())
+                .description(row.description())
+                .build();
+    }
+}
@@ -2,6 +2,8 @@ package org.project.digital_logistics.mapper;
 
 import org.project.digital_logistics.dto.salesorder.*;
 import org.project.digital_logistics.model.*;
+import org.project.digital_logistics.repository.projection.SalesOrderLineRow;
+import org.project.digital_logistics.repository.projection.SalesOrderSummary;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -53,14 +55,6 @@ public class SalesOrderMapper {
                 .map(SalesOrderMapper::toLineResponseDto)
                 .collect(Collectors.toList());
 
-        BigDecimal totalAmount = lines.stream()
-                .map(SalesOrderLineResponseDto::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        Integer totalItems = lines.stream()
-                .map(SalesOrderLineResponseDto::getQuantity)
-                .reduce(0, Integer::sum);
-
         return SalesOrderResponseDto.builder()
                 .id(salesOrder.getId())
                 .clientId(salesOrder.getClient() != null ?
@@ -79,8 +73,8 @@ public class SalesOrderMapper {
                 .shippedAt(salesOrder.getShippedAt())
                 .deliveredAt(salesOrder.getDeliveredAt())
                 .orderLines(lines)
-                .totalAmount(totalAmount)
-                .totalItems(totalItems)
+                .totalAmount(totalAmount(lines))
+                .totalItems(totalItems(lines))
                 .build();
     }
 
@@ -103,4 +97,59 @@ public class SalesOrderMapper {
                 .backOrder(line.getBackOrder())
                 .build();
     }
-}
\ No newline at end of file
+
+    public static SalesOrderResponseDto toResponseDto(SalesOrderSummary summary, List<SalesOrderLineRow> lineRows) {
+        if (summary == null) {
+            return null;
+        }
+
+        List<SalesOrderLineResponseDto> lines = lineRows.stream()
+                .map(SalesOrderMapper::toLineResponseDto)
+                .collect(Collectors.toList());
+
+        return SalesOrderResponseDto.builder()
+                .id(summary.id())
+                .clientId(summary.clientId())
+                .clientName(summary.clientName())
+                .clientEmail(summary.clientEmail())
+                .clientPhoneNumber(summary.clientPhoneNumber())
+                .clientAddress(summary.clientAddress())
+                .status(summary.status())
+                .createdAt(summary.createdAt())
+                .reservedAt(summary.reservedAt())
+                .shippedAt(summary.shippedAt())
+                .deliveredAt(summary.deliveredAt())
+                .orderLines(lines)
+                .totalAmount(totalAmount(lines))
+                .totalItems(totalItems(lines))
+                .build();
+    }
+
+    public static SalesOrderLineResponseDto toLineResponseDto(SalesOrderLineRow row) {
+        return SalesOrderLineResponseDto.builder()
+                .id(row.id())
+                .productId(row.productId())
+                .productSku(row.productSku())
+                .productName(row.productName())
+                .warehouseId(row.warehouseId())
+                .warehouseCode(row.warehouseCode())
+                .warehouseName(row.warehouseName())
+                .quantity(row.quantity())
+                .unitPrice(row.unitPrice())
+                .totalPrice(row.unitPrice().multiply(BigDecimal.valueOf(row.quantity())))
+                .backOrder(row.backOrder())
+                .build();
+    }
+
+    private static BigDecimal totalAmount(List<SalesOrderLineResponseDto> lines) {
+        return lines.stream()
+                .map(SalesOrderLineResponseDto::getTotalPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static Integer totalItems(List<SalesOrderLineResponseDto> lines) {
+        return lines.stream()
+                .map(SalesOrderLineResponseDto::getQuantity)
+                .reduce(0, Integer::sum);
+    }
+}
@@ -2,9 +2,12 @@ package org.project.digital_logistics.mapper;
 
 import org.project.digital_logistics.dto.shipment.ShipmentRequestDto;
 import org.project.digital_logistics.dto.shipment.ShipmentResponseDto;
+import org.project.digital_logistics.model.Carrier;
+import org.project.digital_logistics.model.Client;
 import org.project.digital_logistics.model.enums.ShipmentStatus;
 import org.project.digital_logistics.model.SalesOrder;
 import org.project.digital_logistics.model.Shipment;
+import org.project.digital_logistics.repository.projection.ShipmentRow;
 
 import java.time.LocalDateTime;
 
@@ -45,24 +48,20 @@ public class ShipmentMapper {
             return null;
         }
 
+        SalesOrder salesOrder = shipment.getSalesOrder();
+        Client client = salesOrder != null ? salesOrder.getClient() : null;
+        Carrier carrier = shipment.getCarrier();
+
         return ShipmentResponseDto.builder()
                 .id(shipment.getId())
-                .salesOrderId(shipment.getSalesOrder() != null ?
-                        shipment.getSalesOrder().getId() : null)
-                .clientName(shipment.getSalesOrder() != null ?
-                        shipment.getSalesOrder().getClient().getName() : null)
-                .clientEmail(shipment.getSalesOrder() != null ?
-                        shipment.getSalesOrder().getClient().getEmail() : null)
-                .clientPhoneNumber(shipment.getSalesOrder() != null ?
-                        shipment.getSalesOrder().getClient().getPhoneNumber() : null)
-                .clientAddress(shipment.getSalesOrder() != null ?
-                        shipment.getSalesOrder().getClient().getAddress() : null)
-                .carrierId(shipment.getCarrier() != null ?
-                        shipment.getCarrier().getId() : null)
-                .carrierCode(shipment.getCarrier() != null ?
-                        shipment.getCarrier().getCode() : null)
-                .carrierName(shipment.getCarrier() != null ?
-                        shipment.getCarrier().getName() : null)
+                .salesOrderId(salesOrder != null ? salesOrder.getId() : null)
+                .clientName(client != null ? client.getName() : null)
+                .clientEmail(client != null ? client.getEmail() : null)
+                .clientPhoneNumber(client != null ? client.getPhoneNumber() : null)
+                .clientAddress(client != null ? client.getAddress() : null)
+                .carrierId(carrier != null ? carrier.getId() : null)
+                .carrierCode(carrier != null ? carrier.getCode() : null)
+                .carrierName(carrier != null ? carrier.getName() : null)
                 .trackingNumber(shipment.getTrackingNumber())
                 .status(shipment.getStatus())
                 .plannedDate(shipment.getPlannedDate())
@@ -71,4 +70,28 @@ public class ShipmentMapper {
                 .createdAt(shipment.getCreatedAt())
                 .build();
     }
-}
\ No newline at end of file
+
+    public static ShipmentResponseDto toResponseDto(ShipmentRow row) {
+        if (row == null) {
+            return null;
+        }
+
+        return ShipmentResponseDto.builder()
+                .id(row.id())
+                .salesOrderId(row.salesOrderId())
+                .clientName(row.clientName())
+                .clientEmail(row.clientEmail())
+                .clientPhoneNumber(row.clientPhoneNumber())
+                .clientAddress(row.clientAddress())
+                .carrierId(row.carrierId())
+                .carrierCode(row.carrierCode())
+                .carrierName(row.carrierName())
+                .trackingNumber(row.trackingNumber())
+                .status(row.status())
+                .plannedDate(row.plannedDate())
+                .shippedDate(row.shippedDate())
+                .deliveredDate(row.deliveredDate())
+                .createdAt(row.createdAt())
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package org.project.digital_logistics.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.project.digital_logistics.model.enums.OrderStatus;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sales order moved out of the hot tables (sales_orders, sales_order_lines, shipments).
+ * Keeps the original id and a JSON snapshot of the order and of its shipment.
+ */
+@Entity
+@Table(name = "archived_sales_orders", indexes = {
+        @Index(name = "idx_archived_sales_orders_client_id", columnList = "client_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedSalesOrder implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(name = "client_id")
+    private Long clientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(name = "order_payload", nullable = false, columnDefinition = "TEXT")
+    private String orderPayload;
+
+    @Column(name = "shipment_payload", columnDefinition = "TEXT")
+    private String shipmentPayload;
+
+    // The id is assigned, not generated: tell Spring Data to persist instead of merge
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    @PrePersist
+    protected void onCreate() {
+        if (archivedAt == null) {
+            archivedAt = LocalDateTime.now();
+        }
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedSalesOrder{" +
+                "id=" + id +
+                ", clientId=" + clientId +
+                ", status=" + status +
+                ", createdAt=" + createdAt +
+                ", archivedAt=" + archivedAt +
+                '}';
+    }
+}
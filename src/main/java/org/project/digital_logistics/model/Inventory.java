@@ -39,6 +39,14 @@ public class Inventory {
     @Builder.Default
     private Integer qtyReserved = 0;
 
+    // Reorder point: the row is low on stock while (qtyOnHand - qtyReserved) is below it, null when not watched
+    @Column(name = "reorder_threshold")
+    private Integer reorderThreshold;
+
+    // Optimistic locking: concurrent writers of the same row fail at commit instead of overwriting each other
+    @Version
+    private Long version;
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
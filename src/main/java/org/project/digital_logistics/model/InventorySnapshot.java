@@ -0,0 +1,45 @@
+package org.project.digital_logistics.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * On-hand quantity of one inventory at the time of a snapshot run.
+ * Every row of a run shares the same takenAt. Ids are plain columns, without
+ * foreign keys, so the history survives the deletion of the inventory.
+ */
+@Entity
+@Table(name = "inventory_snapshots", indexes = {
+        @Index(name = "idx_inventory_snapshots_inventory_taken_at", columnList = "inventory_id, taken_at"),
+        @Index(name = "idx_inventory_snapshots_warehouse_taken_at", columnList = "warehouse_id, taken_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventorySnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "inventory_id", nullable = false)
+    private Long inventoryId;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "qty_on_hand", nullable = false)
+    private Integer qtyOnHand;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+}
@@ -12,6 +12,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(name = PurchaseOrder.DETAILS_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("supplier"),
+                @NamedAttributeNode(value = "orderLines", subgraph = "lines")
+        },
+        subgraphs = @NamedSubgraph(name = "lines", attributeNodes = @NamedAttributeNode("product")))
 @Table(name = "purchase_orders")
 @Data
 @NoArgsConstructor
@@ -19,6 +25,9 @@ import java.util.List;
 @Builder
 public class PurchaseOrder {
 
+    /** Everything PurchaseOrderMapper.toResponseDto reads: supplier, lines and their product. */
+    public static final String DETAILS_GRAPH = "PurchaseOrder.details";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -12,13 +12,28 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "sales_orders")
+@NamedEntityGraph(name = SalesOrder.DETAILS_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("client"),
+                @NamedAttributeNode(value = "orderLines", subgraph = "lines")
+        },
+        subgraphs = @NamedSubgraph(name = "lines", attributeNodes = {
+                @NamedAttributeNode("product"),
+                @NamedAttributeNode("warehouse")
+        }))
+@Table(name = "sales_orders", indexes = {
+        @Index(name = "idx_sales_orders_status_reserved_at", columnList = "status, reserved_at, id"),
+        @Index(name = "idx_sales_orders_status_created_at", columnList = "status, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class SalesOrder {
 
+    /** Everything SalesOrderMapper.toResponseDto reads: client, lines, their product and warehouse. */
+    public static final String DETAILS_GRAPH = "SalesOrder.details";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
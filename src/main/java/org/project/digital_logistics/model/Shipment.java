@@ -10,6 +10,12 @@ import org.project.digital_logistics.model.enums.ShipmentStatus;
 import java.time.LocalDateTime;
 
 @Entity
+@NamedEntityGraph(name = Shipment.DETAILS_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "salesOrder", subgraph = "order"),
+                @NamedAttributeNode("carrier")
+        },
+        subgraphs = @NamedSubgraph(name = "order", attributeNodes = @NamedAttributeNode("client")))
 @Table(name = "shipments")
 @Data
 @NoArgsConstructor
@@ -17,6 +23,9 @@ import java.time.LocalDateTime;
 @Builder
 public class Shipment {
 
+    /** Everything ShipmentMapper.toResponseDto reads: sales order with its client, and carrier. */
+    public static final String DETAILS_GRAPH = "Shipment.details";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -0,0 +1,47 @@
+package org.project.digital_logistics.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Units of a product shipped from a warehouse on one day, as counted by the
+ * ShipmentVelocityTracker and saved by its periodic flush. Ids are plain columns,
+ * like the inventory snapshots, and days older than the longest window are purged.
+ */
+@Entity
+@Table(name = "shipment_velocity_days",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"product_id", "warehouse_id", "ship_date"})
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShipmentVelocityDay {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+
+    @Column(name = "ship_date", nullable = false)
+    private LocalDate shipDate;
+
+    @Column(name = "shipped_qty", nullable = false)
+    private Long shippedQty;
+
+    // Time of the flush that wrote the row: movements after it are replayed from the journal at startup
+    @Column(name = "flushed_at", nullable = false)
+    private LocalDateTime flushedAt;
+}
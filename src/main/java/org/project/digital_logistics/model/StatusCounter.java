@@ -0,0 +1,49 @@
+package org.project.digital_logistics.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.project.digital_logistics.model.enums.StatusCounterType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of rows per status, maintained on every status transition
+ * so that dashboards do not have to count the order tables.
+ * Each status is spread over business.status-counter-slots rows: a transition
+ * updates one slot picked at random and readers sum the slots.
+ */
+@Entity
+@Table(name = "status_counters", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_status_counters_type_status_slot", columnNames = {"entity_type", "status", "slot"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatusCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private StatusCounterType entityType;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer slot = 0;
+
+    @Column(name = "row_count", nullable = false)
+    @Builder.Default
+    private Long count = 0L;
+
+    @Column(name = "recounted_at")
+    private LocalDateTime recountedAt;
+}
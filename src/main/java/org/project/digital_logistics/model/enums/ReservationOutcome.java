@@ -0,0 +1,7 @@
+package org.project.digital_logistics.model.enums;
+
+public enum ReservationOutcome {
+    RESERVED,
+    BACKORDER,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package org.project.digital_logistics.model.enums;
+
+public enum StatusCounterType {
+    SALES_ORDER,
+    SHIPMENT,
+    PURCHASE_ORDER
+}
@@ -0,0 +1,9 @@
+package org.project.digital_logistics.repository;
+
+import org.project.digital_logistics.model.ArchivedSalesOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedSalesOrderRepository extends JpaRepository<ArchivedSalesOrder, Long> {
+}
@@ -0,0 +1,42 @@
+package org.project.digital_logistics.repository;
+
+import org.project.digital_logistics.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :statusCode, r.contentType = :contentType, " +
+            "r.responseBody = :body, r.lockedUntil = NULL WHERE r.id = :id")
+    int complete(@Param("id") String id,
+                 @Param("statusCode") int statusCode,
+                 @Param("contentType") String contentType,
+                 @Param("body") byte[] body);
+
+    /**
+     * Take over a claim whose lease ran out: the request holding it died without a response.
+     * Only one retry can win, the others see 0 rows.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.requestHash = :requestHash, r.lockedUntil = :lockedUntil " +
+            "WHERE r.id = :id AND r.statusCode IS NULL AND (r.lockedUntil IS NULL OR r.lockedUntil < :now)")
+    int takeOver(@Param("id") String id,
+                 @Param("requestHash") String requestHash,
+                 @Param("now") LocalDateTime now,
+                 @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
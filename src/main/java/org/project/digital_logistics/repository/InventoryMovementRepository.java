@@ -2,33 +2,127 @@ package org.project.digital_logistics.repository;
 
 import org.project.digital_logistics.model.enums.MovementType;
 import org.project.digital_logistics.model.InventoryMovement;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.project.digital_logistics.repository.projection.InventoryQuantity;
+import org.project.digital_logistics.repository.projection.MovementRow;
+import org.project.digital_logistics.repository.projection.ShippedQuantity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
 
+    // List endpoints map inventory, warehouse and product: load them in the same query
+    @Override
+    @EntityGraph(InventoryMovement.DETAILS_GRAPH)
+    List<InventoryMovement> findAll();
+
+    @EntityGraph(InventoryMovement.DETAILS_GRAPH)
     List<InventoryMovement> findByInventoryId(Long inventoryId);
-    List<InventoryMovement> findByType(MovementType type);
+
+    @EntityGraph(InventoryMovement.DETAILS_GRAPH)
+    List<InventoryMovement> findByTypeAndOccurredAtBetween(MovementType type, LocalDateTime start, LocalDateTime end);
+
+
+    // Read-only list views: projections, no managed entity
+    String ROW_SELECT = "SELECT new org.project.digital_logistics.repository.projection.MovementRow(" +
+            "im.id, i.id, w.id, w.code, w.name, p.id, p.sku, p.name, " +
+            "im.type, im.quantity, im.occurredAt, im.referenceDocument, im.description) " +
+            "FROM InventoryMovement im JOIN im.inventory i JOIN i.warehouse w JOIN i.product p ";
+
+    @Query(ROW_SELECT + "ORDER BY im.id")
+    List<MovementRow> findAllRows();
+
+    // Time-bounded [from, to): on the partitioned table only the matching months are scanned
+    @Query(ROW_SELECT + "WHERE i.id = :inventoryId AND im.occurredAt >= :from AND im.occurredAt < :to " +
+            "ORDER BY im.id")
+    List<MovementRow> findRowsByInventoryId(@Param("inventoryId") Long inventoryId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    @Query(ROW_SELECT + "WHERE w.id = :warehouseId AND im.occurredAt >= :from AND im.occurredAt < :to " +
+            "ORDER BY im.occurredAt DESC")
+    List<MovementRow> findRowsByWarehouseId(@Param("warehouseId") Long warehouseId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    // Keyset pagination on the id, for the list endpoint and its NDJSON stream
+    @Query(ROW_SELECT + "WHERE im.id > :after ORDER BY im.id")
+    List<MovementRow> findRowsAfter(@Param("after") Long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(ROW_SELECT + "ORDER BY im.id")
+    Stream<MovementRow> streamAllRows();
+
+    // Net effect on qtyOnHand: OUTBOUND removes, INBOUND adds, ADJUSTMENT carries its own sign.
+    // Ranges are (from, to] so that a snapshot taken at "from" already includes its movements.
+    String SIGNED_QUANTITY = "CASE WHEN im.type = org.project.digital_logistics.model.enums.MovementType.OUTBOUND " +
+            "THEN -im.quantity ELSE im.quantity END";
+
+    @Query("SELECT COALESCE(SUM(" + SIGNED_QUANTITY + "), 0) FROM InventoryMovement im " +
+            "WHERE im.inventory.id = :inventoryId AND im.occurredAt > :from AND im.occurredAt <= :to")
+    Long sumSignedQuantity(@Param("inventoryId") Long inventoryId,
+                           @Param("from") LocalDateTime from,
+                           @Param("to") LocalDateTime to);
+
+    @Query("SELECT new org.project.digital_logistics.repository.projection.InventoryQuantity(" +
+            "im.inventory.id, SUM(" + SIGNED_QUANTITY + ")) FROM InventoryMovement im " +
+            "WHERE im.inventory.warehouse.id = :warehouseId AND im.occurredAt > :from AND im.occurredAt <= :to " +
+            "GROUP BY im.inventory.id")
+    List<InventoryQuantity> sumSignedQuantityByInventory(@Param("warehouseId") Long warehouseId,
+                                                         @Param("from") LocalDateTime from,
+                                                         @Param("to") LocalDateTime to);
+
+    // Units shipped per (product, warehouse, day), to rebuild the shipment velocity counters
+    String SHIPPED_PER_DAY = "SELECT new org.project.digital_logistics.repository.projection.ShippedQuantity(" +
+            "i.product.id, i.warehouse.id, cast(im.occurredAt as LocalDate), SUM(im.quantity)) " +
+            "FROM InventoryMovement im JOIN im.inventory i " +
+            "WHERE im.type = org.project.digital_logistics.model.enums.MovementType.OUTBOUND AND im.occurredAt > :from ";
+    String SHIPPED_PER_DAY_GROUP = "GROUP BY i.product.id, i.warehouse.id, cast(im.occurredAt as LocalDate)";
+
+    @Query(SHIPPED_PER_DAY + "AND im.occurredAt <= :to " + SHIPPED_PER_DAY_GROUP)
+    List<ShippedQuantity> sumShippedPerDayBetween(@Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to);
+
+    @Query(SHIPPED_PER_DAY + "AND i.product.id = :productId " + SHIPPED_PER_DAY_GROUP)
+    List<ShippedQuantity> sumShippedPerDayOfProductSince(@Param("productId") Long productId,
+                                                         @Param("from") LocalDateTime from);
+
     List<InventoryMovement> findByReferenceDocument(String referenceDocument);
     List<InventoryMovement> findByOccurredAtBetween(LocalDateTime start, LocalDateTime end);
 
+    @EntityGraph(InventoryMovement.DETAILS_GRAPH)
     @Query("SELECT im FROM InventoryMovement im " +
-            "WHERE im.inventory.warehouse.id = :warehouseId " +
+            "WHERE im.inventory.warehouse.id = :warehouseId AND im.occurredAt >= :from AND im.occurredAt < :to " +
             "ORDER BY im.occurredAt DESC")
-    List<InventoryMovement> findByWarehouseId(@Param("warehouseId") Long warehouseId);
+    List<InventoryMovement> findByWarehouseId(@Param("warehouseId") Long warehouseId,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
 
+    @EntityGraph(InventoryMovement.DETAILS_GRAPH)
     @Query("SELECT im FROM InventoryMovement im " +
-            "WHERE im.inventory.product.id = :productId " +
+            "WHERE im.inventory.product.id = :productId AND im.occurredAt >= :from AND im.occurredAt < :to " +
             "ORDER BY im.occurredAt DESC")
-    List<InventoryMovement> findByProductId(@Param("productId") Long productId);
+    List<InventoryMovement> findByProductId(@Param("productId") Long productId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
 
+    /**
+     * Latest movements since the given time, newest first, limited by the pageable.
+     */
+    @EntityGraph(InventoryMovement.DETAILS_GRAPH)
     @Query("SELECT im FROM InventoryMovement im " +
+            "WHERE im.occurredAt >= :since " +
             "ORDER BY im.occurredAt DESC")
-    List<InventoryMovement> findRecentMovements();
+    List<InventoryMovement> findRecentMovements(@Param("since") LocalDateTime since, Pageable pageable);
 }
\ No newline at end of file
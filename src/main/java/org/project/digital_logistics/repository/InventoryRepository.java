@@ -1,12 +1,26 @@
 package org.project.digital_logistics.repository;
 
+import jakarta.persistence.LockModeType;
 import org.project.digital_logistics.model.Inventory;
+import org.project.digital_logistics.repository.projection.AvailableQuantity;
+import org.project.digital_logistics.repository.projection.ReorderLevel;
+import org.project.digital_logistics.repository.projection.StockLevel;
+import org.project.digital_logistics.repository.projection.InventoryRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import java.util.Optional;
 
 @Repository
@@ -22,11 +36,117 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     List<Inventory> findLowStockInWarehouse(@Param("warehouseId") Long warehouseId,
                                             @Param("threshold") Integer threshold);
 
+
+    // Read-only list views: projections, no managed entity
+    String ROW_SELECT = "SELECT new org.project.digital_logistics.repository.projection.InventoryRow(" +
+            "i.id, w.id, w.code, w.name, p.id, p.sku, p.name, i.qtyOnHand, i.qtyReserved, i.reorderThreshold, " +
+            "i.createdAt, i.updatedAt) " +
+            "FROM Inventory i JOIN i.warehouse w JOIN i.product p ";
+
+    @Query(ROW_SELECT + "ORDER BY i.id")
+    List<InventoryRow> findAllRows();
+
+    @Query(ROW_SELECT + "WHERE i.id = :id")
+    Optional<InventoryRow> findRowById(@Param("id") Long id);
+
+    @Query(ROW_SELECT + "WHERE w.id = :warehouseId ORDER BY i.id")
+    List<InventoryRow> findRowsByWarehouseId(@Param("warehouseId") Long warehouseId);
+
+    @Query(ROW_SELECT + "WHERE p.id = :productId ORDER BY i.id")
+    List<InventoryRow> findRowsByProductId(@Param("productId") Long productId);
+
+    @Query(ROW_SELECT + "WHERE w.id = :warehouseId AND (i.qtyOnHand - i.qtyReserved) < :threshold ORDER BY i.id")
+    List<InventoryRow> findLowStockRowsInWarehouse(@Param("warehouseId") Long warehouseId,
+                                                   @Param("threshold") Integer threshold);
+
+    @Query(ROW_SELECT + "WHERE i.id IN :ids")
+    List<InventoryRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(ROW_SELECT + "WHERE w.id = :warehouseId AND p.sku IN :skus")
+    List<InventoryRow> findRowsByWarehouseIdAndSkuIn(@Param("warehouseId") Long warehouseId,
+                                                     @Param("skus") Collection<String> skus);
+
+    // Keyset pagination on the id, for the list endpoint and its NDJSON stream
+    @Query(ROW_SELECT + "WHERE i.id > :after ORDER BY i.id")
+    List<InventoryRow> findRowsAfter(@Param("after") Long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(ROW_SELECT + "ORDER BY i.id")
+    Stream<InventoryRow> streamAllRows();
+
     @Query("SELECT COALESCE(SUM(i.qtyOnHand), 0) FROM Inventory i WHERE i.product.id = :productId")
     Integer getTotalStockByProduct(@Param("productId") Long productId);
 
     @Query("SELECT COALESCE(SUM(i.qtyOnHand - i.qtyReserved), 0) FROM Inventory i WHERE i.product.id = :productId")
     Integer getAvailableStockByProduct(@Param("productId") Long productId);
 
+    @Query("SELECT COALESCE(SUM(i.qtyOnHand - i.qtyReserved), 0) FROM Inventory i " +
+            "WHERE i.warehouse.id = :warehouseId AND i.product.id = :productId")
+    Integer getAvailableStock(@Param("warehouseId") Long warehouseId, @Param("productId") Long productId);
+
+    // Availability of many products in one round trip, one row per (product, warehouse)
+    String AVAILABLE_SELECT = "SELECT new org.project.digital_logistics.repository.projection.AvailableQuantity(" +
+            "i.product.id, i.warehouse.id, SUM(i.qtyOnHand - i.qtyReserved)) FROM Inventory i ";
+
+    @Query(AVAILABLE_SELECT + "WHERE i.product.id IN :productIds " +
+            "GROUP BY i.product.id, i.warehouse.id ORDER BY i.product.id, i.warehouse.id")
+    List<AvailableQuantity> findAvailableByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Query(AVAILABLE_SELECT + "WHERE i.product.id IN :productIds AND i.warehouse.id IN :warehouseIds " +
+            "GROUP BY i.product.id, i.warehouse.id ORDER BY i.product.id, i.warehouse.id")
+    List<AvailableQuantity> findAvailableByProductIdsAndWarehouseIds(@Param("productIds") Collection<Long> productIds,
+                                                                     @Param("warehouseIds") Collection<Long> warehouseIds);
+
     void deleteByWarehouseIdAndProductId(Long warehouseId, Long productId);
+
+    @Query("SELECT new org.project.digital_logistics.repository.projection.StockLevel(" +
+            "i.warehouse.id, i.product.id, i.qtyOnHand, i.qtyReserved) FROM Inventory i")
+    List<StockLevel> findAllStockLevels();
+
+    // Reorder thresholds, for the low-stock monitor
+    String REORDER_SELECT = "SELECT new org.project.digital_logistics.repository.projection.ReorderLevel(" +
+            "i.warehouse.id, i.product.id, i.qtyOnHand - i.qtyReserved, i.reorderThreshold) FROM Inventory i ";
+
+    @Query(REORDER_SELECT)
+    List<ReorderLevel> findAllReorderLevels();
+
+    @Query(REORDER_SELECT + "WHERE i.warehouse.id = :warehouseId AND i.reorderThreshold IS NOT NULL " +
+            "AND (i.qtyOnHand - i.qtyReserved) < i.reorderThreshold ORDER BY i.product.id")
+    List<ReorderLevel> findBelowReorderThreshold(@Param("warehouseId") Long warehouseId);
+
+    /**
+     * Lock (SELECT ... FOR UPDATE) every inventory row of the given products.
+     * Rows are always locked in (productId, warehouseId) order, so two batches
+     * touching the same products can never wait on each other in a cycle.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.product.id IN :productIds " +
+            "ORDER BY i.product.id, i.warehouse.id")
+    List<Inventory> lockByProductIdsInOrder(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Reserve stock in a single guarded statement: the row is only updated if enough
+     * stock is still available, so concurrent reservations never overbook.
+     * Returns the number of updated rows (0 when the stock was taken in the meantime).
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET i.qtyReserved = i.qtyReserved + :quantity, i.updatedAt = CURRENT_TIMESTAMP, " +
+            "i.version = i.version + 1 " +
+            "WHERE i.warehouse.id = :warehouseId AND i.product.id = :productId " +
+            "AND (i.qtyOnHand - i.qtyReserved) >= :quantity")
+    int reserveIfAvailable(@Param("warehouseId") Long warehouseId,
+                           @Param("productId") Long productId,
+                           @Param("quantity") Integer quantity);
+
+    /**
+     * Release previously reserved stock in a single guarded statement.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET i.qtyReserved = i.qtyReserved - :quantity, i.updatedAt = CURRENT_TIMESTAMP, " +
+            "i.version = i.version + 1 " +
+            "WHERE i.warehouse.id = :warehouseId AND i.product.id = :productId " +
+            "AND i.qtyReserved >= :quantity")
+    int releaseReservation(@Param("warehouseId") Long warehouseId,
+                           @Param("productId") Long productId,
+                           @Param("quantity") Integer quantity);
 }
\ No newline at end of file
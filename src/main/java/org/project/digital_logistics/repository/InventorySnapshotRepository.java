@@ -0,0 +1,45 @@
+package org.project.digital_logistics.repository;
+
+import org.project.digital_logistics.model.InventorySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, Long> {
+
+    /**
+     * Snapshot every inventory in a single INSERT ... SELECT, without loading any row.
+     */
+    @Modifying
+    @Query("INSERT INTO InventorySnapshot (inventoryId, warehouseId, productId, qtyOnHand, takenAt) " +
+            "SELECT i.id, i.warehouse.id, i.product.id, i.qtyOnHand, :takenAt FROM Inventory i")
+    int snapshotAll(@Param("takenAt") LocalDateTime takenAt);
+
+    @Modifying
+    @Query("DELETE FROM InventorySnapshot s WHERE s.takenAt < :before")
+    int deleteTakenBefore(@Param("before") LocalDateTime before);
+
+    Optional<InventorySnapshot> findFirstByInventoryIdAndTakenAtLessThanEqualOrderByTakenAtDesc(
+            Long inventoryId, LocalDateTime at);
+
+    Optional<InventorySnapshot> findFirstByInventoryIdAndTakenAtGreaterThanOrderByTakenAt(
+            Long inventoryId, LocalDateTime at);
+
+    // Runs share their takenAt: a warehouse is rebuilt from one run
+    @Query("SELECT MAX(s.takenAt) FROM InventorySnapshot s WHERE s.warehouseId = :warehouseId AND s.takenAt <= :at")
+    Optional<LocalDateTime> findLastRunAtOrBefore(@Param("warehouseId") Long warehouseId,
+                                                  @Param("at") LocalDateTime at);
+
+    @Query("SELECT MIN(s.takenAt) FROM InventorySnapshot s WHERE s.warehouseId = :warehouseId AND s.takenAt > :at")
+    Optional<LocalDateTime> findFirstRunAfter(@Param("warehouseId") Long warehouseId,
+                                              @Param("at") LocalDateTime at);
+
+    List<InventorySnapshot> findByWarehouseIdAndTakenAt(Long warehouseId, LocalDateTime takenAt);
+}
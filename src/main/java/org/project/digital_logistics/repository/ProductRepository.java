@@ -1,11 +1,19 @@
 package org.project.digital_logistics.repository;
 
 import org.project.digital_logistics.model.Product;
+import org.project.digital_logistics.repository.projection.ReorderCandidate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -15,4 +23,16 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByCategory(String category);
     List<Product> findByActive(Boolean active);
     long countByActive(Boolean active);
+
+    // Keyset pagination on the id, for the list endpoint and its NDJSON stream
+    @Query("SELECT p FROM Product p WHERE p.id > :after ORDER BY p.id")
+    List<Product> findPageAfter(@Param("after") Long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAll();
+
+    @Query("SELECT new org.project.digital_logistics.repository.projection.ReorderCandidate(p.id, p.originalPrice) " +
+            "FROM Product p WHERE p.active = true ORDER BY p.id")
+    List<ReorderCandidate> findReorderCandidates();
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package org.project.digital_logistics.repository;
 
+import org.project.digital_logistics.enums.PurchaseOrderStatus;
 import org.project.digital_logistics.model.PurchaseOrderLine;
+import org.project.digital_logistics.repository.projection.OpenPurchaseQuantity;
+import org.project.digital_logistics.repository.projection.ProductSupplier;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +20,14 @@ public interface PurchaseOrderLineRepository extends JpaRepository<PurchaseOrder
     List<PurchaseOrderLine> findByProductId(Long productId);
 
     void deleteByPurchaseOrderId(Long purchaseOrderId);
-}
\ No newline at end of file
+
+    @Query("SELECT new org.project.digital_logistics.repository.projection.OpenPurchaseQuantity(" +
+            "l.product.id, SUM(l.quantity)) " +
+            "FROM PurchaseOrderLine l WHERE l.purchaseOrder.status IN :statuses GROUP BY l.product.id")
+    List<OpenPurchaseQuantity> sumQuantityByProduct(@Param("statuses") Collection<PurchaseOrderStatus> statuses);
+
+    @Query("SELECT new org.project.digital_logistics.repository.projection.ProductSupplier(" +
+            "l.product.id, po.supplier.id, MAX(po.id)) " +
+            "FROM PurchaseOrderLine l JOIN l.purchaseOrder po GROUP BY l.product.id, po.supplier.id")
+    List<ProductSupplier> findProductSuppliers();
+}
@@ -2,19 +2,34 @@ package org.project.digital_logistics.repository;
 
 import org.project.digital_logistics.enums.PurchaseOrderStatus;
 import org.project.digital_logistics.model.PurchaseOrder;
+import org.project.digital_logistics.repository.projection.StatusCount;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long> {
 
+    // List endpoints map supplier, lines and product: load them in the same query
+    @Override
+    @EntityGraph(PurchaseOrder.DETAILS_GRAPH)
+    List<PurchaseOrder> findAll();
+
+    @EntityGraph(PurchaseOrder.DETAILS_GRAPH)
     List<PurchaseOrder> findByStatus(PurchaseOrderStatus status);
 
+    @EntityGraph(PurchaseOrder.DETAILS_GRAPH)
     List<PurchaseOrder> findBySupplierId(Long supplierId);
 
     List<PurchaseOrder> findBySupplierIdAndStatus(Long supplierId, PurchaseOrderStatus status);
@@ -26,4 +41,21 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Lo
     );
 
     long countByStatus(PurchaseOrderStatus status);
-}
\ No newline at end of file
+
+    // Keyset pagination on the id: the page is read as ids first, as a LIMIT
+    // cannot be pushed down to SQL when the order lines are fetched too
+    @Query("SELECT po.id FROM PurchaseOrder po WHERE po.id > :after ORDER BY po.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT po.id FROM PurchaseOrder po ORDER BY po.id")
+    Stream<Long> streamAllIds();
+
+    @EntityGraph(PurchaseOrder.DETAILS_GRAPH)
+    @Query("SELECT po FROM PurchaseOrder po WHERE po.id IN :ids ORDER BY po.id")
+    List<PurchaseOrder> findAllWithLinesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new org.project.digital_logistics.repository.projection.StatusCount(po.status, COUNT(po)) " +
+            "FROM PurchaseOrder po GROUP BY po.status")
+    List<StatusCount> countGroupedByStatus();
+}
@@ -1,18 +1,178 @@
 package org.project.digital_logistics.repository;
 
+import jakarta.persistence.LockModeType;
 import org.project.digital_logistics.model.enums.OrderStatus;
 import org.project.digital_logistics.model.SalesOrder;
+import org.project.digital_logistics.repository.projection.BackorderDemand;
+import org.project.digital_logistics.repository.projection.ExpiredReservation;
+import org.project.digital_logistics.repository.projection.ReservedQuantity;
+import org.project.digital_logistics.repository.projection.SalesOrderLineRow;
+import org.project.digital_logistics.repository.projection.SalesOrderSummary;
+import org.project.digital_logistics.repository.projection.StatusCount;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SalesOrderRepository extends JpaRepository<SalesOrder, Long> {
 
+    // List endpoints map client, lines, product and warehouse: load them in the same query
+    @Override
+    @EntityGraph(SalesOrder.DETAILS_GRAPH)
+    List<SalesOrder> findAll();
+
+    @EntityGraph(SalesOrder.DETAILS_GRAPH)
     List<SalesOrder> findByStatus(OrderStatus status);
 
+    @EntityGraph(SalesOrder.DETAILS_GRAPH)
     List<SalesOrder> findByClientId(Long clientId);
 
     long countByStatus(OrderStatus status);
-}
\ No newline at end of file
+
+    // Read-only list views: headers and lines as projections, no managed entity
+
+    String SUMMARY_SELECT = "SELECT new org.project.digital_logistics.repository.projection.SalesOrderSummary(" +
+            "so.id, c.id, c.name, c.email, c.phoneNumber, c.address, " +
+            "so.status, so.createdAt, so.reservedAt, so.shippedAt, so.deliveredAt) " +
+            "FROM SalesOrder so LEFT JOIN so.client c ";
+
+    String LINE_ROW_SELECT = "SELECT new org.project.digital_logistics.repository.projection.SalesOrderLineRow(" +
+            "l.salesOrder.id, l.id, p.id, p.sku, p.name, w.id, w.code, w.name, l.quantity, l.unitPrice, l.backOrder) " +
+            "FROM SalesOrderLine l LEFT JOIN l.product p LEFT JOIN l.warehouse w ";
+
+    @Query(SUMMARY_SELECT + "ORDER BY so.id")
+    List<SalesOrderSummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE so.status = :status ORDER BY so.id")
+    List<SalesOrderSummary> findSummariesByStatus(@Param("status") OrderStatus status);
+
+    @Query(SUMMARY_SELECT + "WHERE c.id = :clientId ORDER BY so.id")
+    List<SalesOrderSummary> findSummariesByClientId(@Param("clientId") Long clientId);
+
+    @Query(SUMMARY_SELECT + "WHERE so.id IN :ids ORDER BY so.id")
+    List<SalesOrderSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset pagination on the id
+    @Query(SUMMARY_SELECT + "WHERE so.id > :after ORDER BY so.id")
+    List<SalesOrderSummary> findSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT so.id FROM SalesOrder so ORDER BY so.id")
+    Stream<Long> streamAllIds();
+
+    @Query(LINE_ROW_SELECT + "ORDER BY l.id")
+    List<SalesOrderLineRow> findAllLineRows();
+
+    @Query(LINE_ROW_SELECT + "WHERE l.salesOrder.status = :status ORDER BY l.id")
+    List<SalesOrderLineRow> findLineRowsByStatus(@Param("status") OrderStatus status);
+
+    @Query(LINE_ROW_SELECT + "WHERE l.salesOrder.client.id = :clientId ORDER BY l.id")
+    List<SalesOrderLineRow> findLineRowsByClientId(@Param("clientId") Long clientId);
+
+    @Query(LINE_ROW_SELECT + "WHERE l.salesOrder.id IN :orderIds ORDER BY l.id")
+    List<SalesOrderLineRow> findLineRowsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Orders in the given status with at least one line on the product, oldest first,
+     * with the quantity of the product each of them needs.
+     */
+    @Query("SELECT new org.project.digital_logistics.repository.projection.BackorderDemand(so.id, SUM(l.quantity)) " +
+            "FROM SalesOrder so JOIN so.orderLines l " +
+            "WHERE so.status = :status AND l.product.id = :productId " +
+            "GROUP BY so.id, so.createdAt ORDER BY so.createdAt, so.id")
+    List<BackorderDemand> findDemandForProduct(@Param("status") OrderStatus status,
+                                               @Param("productId") Long productId);
+
+    /**
+     * Load an order and lock its row until the end of the transaction, so two writers
+     * changing its status one after the other each see the other's result.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT so FROM SalesOrder so WHERE so.id = :id")
+    Optional<SalesOrder> lockById(@Param("id") Long id);
+
+    /**
+     * First chunk of reservations made before the given time, oldest first.
+     * Served by idx_sales_orders_status_reserved_at.
+     */
+    @Query("SELECT new org.project.digital_logistics.repository.projection.ExpiredReservation(so.id, so.reservedAt) " +
+            "FROM SalesOrder so WHERE so.status = :status AND so.reservedAt < :reservedBefore " +
+            "ORDER BY so.reservedAt, so.id")
+    List<ExpiredReservation> findFirstReservedBefore(@Param("status") OrderStatus status,
+                                                     @Param("reservedBefore") LocalDateTime reservedBefore,
+                                                     Pageable pageable);
+
+    /**
+     * Next chunk after the keyset position (lastReservedAt, lastId).
+     */
+    @Query("SELECT new org.project.digital_logistics.repository.projection.ExpiredReservation(so.id, so.reservedAt) " +
+            "FROM SalesOrder so WHERE so.status = :status AND so.reservedAt < :reservedBefore " +
+            "AND (so.reservedAt > :lastReservedAt OR (so.reservedAt = :lastReservedAt AND so.id > :lastId)) " +
+            "ORDER BY so.reservedAt, so.id")
+    List<ExpiredReservation> findNextReservedBefore(@Param("status") OrderStatus status,
+                                                    @Param("reservedBefore") LocalDateTime reservedBefore,
+                                                    @Param("lastReservedAt") LocalDateTime lastReservedAt,
+                                                    @Param("lastId") Long lastId,
+                                                    Pageable pageable);
+
+    /**
+     * Lock the orders of a chunk that are still in the given status.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT so.id FROM SalesOrder so WHERE so.id IN :ids AND so.status = :status ORDER BY so.id")
+    List<Long> lockIdsInStatus(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status);
+
+    /**
+     * Quantities reserved by the given orders, summed per (warehouse, product).
+     */
+    @Query("SELECT new org.project.digital_logistics.repository.projection.ReservedQuantity(" +
+            "l.warehouse.id, l.product.id, SUM(l.quantity)) " +
+            "FROM SalesOrderLine l WHERE l.salesOrder.id IN :orderIds " +
+            "GROUP BY l.warehouse.id, l.product.id")
+    List<ReservedQuantity> sumQuantitiesByInventory(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query("UPDATE SalesOrder so SET so.status = :status WHERE so.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status);
+
+    /**
+     * Oldest orders in one of the given statuses created before the given time.
+     * Served by idx_sales_orders_status_created_at.
+     */
+    @Query("SELECT so.id FROM SalesOrder so WHERE so.status IN :statuses AND so.createdAt < :createdBefore " +
+            "ORDER BY so.createdAt, so.id")
+    List<Long> findIdsToArchive(@Param("statuses") Collection<OrderStatus> statuses,
+                                @Param("createdBefore") LocalDateTime createdBefore,
+                                Pageable pageable);
+
+    @Query("SELECT DISTINCT so FROM SalesOrder so LEFT JOIN FETCH so.client " +
+            "LEFT JOIN FETCH so.orderLines l LEFT JOIN FETCH l.product LEFT JOIN FETCH l.warehouse " +
+            "WHERE so.id IN :ids ORDER BY so.id")
+    List<SalesOrder> findAllWithLinesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM SalesOrderLine l WHERE l.salesOrder.id IN :orderIds")
+    int deleteLinesByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM SalesOrder so WHERE so.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new org.project.digital_logistics.repository.projection.StatusCount(o.status, COUNT(o)) " +
+            "FROM SalesOrder o GROUP BY o.status")
+    List<StatusCount> countGroupedByStatus();
+}
@@ -2,10 +2,22 @@ package org.project.digital_logistics.repository;
 
 import org.project.digital_logistics.model.enums.ShipmentStatus;
 import org.project.digital_logistics.model.Shipment;
+import org.project.digital_logistics.repository.projection.StatusCount;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.project.digital_logistics.repository.projection.ShipmentRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import java.util.Optional;
 
 @Repository
@@ -15,11 +27,54 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
 
     Optional<Shipment> findByTrackingNumber(String trackingNumber);
 
+    // List endpoints map sales order, client and carrier: load them in the same query
+    @Override
+    @EntityGraph(Shipment.DETAILS_GRAPH)
+    List<Shipment> findAll();
+
+    @EntityGraph(Shipment.DETAILS_GRAPH)
     List<Shipment> findByStatus(ShipmentStatus status);
 
+    long countByStatus(ShipmentStatus status);
+
+    // Read-only list views: projections, no managed entity
+    String ROW_SELECT = "SELECT new org.project.digital_logistics.repository.projection.ShipmentRow(" +
+            "s.id, so.id, c.name, c.email, c.phoneNumber, c.address, ca.id, ca.code, ca.name, " +
+            "s.trackingNumber, s.status, s.plannedDate, s.shippedDate, s.deliveredDate, s.createdAt) " +
+            "FROM Shipment s LEFT JOIN s.salesOrder so LEFT JOIN so.client c LEFT JOIN s.carrier ca ";
+
+    @Query(ROW_SELECT + "ORDER BY s.id")
+    List<ShipmentRow> findAllRows();
+
+    @Query(ROW_SELECT + "WHERE s.status = :status ORDER BY s.id")
+    List<ShipmentRow> findRowsByStatus(@Param("status") ShipmentStatus status);
+
+    @Query(ROW_SELECT + "WHERE ca.id = :carrierId ORDER BY s.id")
+    List<ShipmentRow> findRowsByCarrierId(@Param("carrierId") Long carrierId);
+
+    // Keyset pagination on the id, for the list endpoint and its NDJSON stream
+    @Query(ROW_SELECT + "WHERE s.id > :after ORDER BY s.id")
+    List<ShipmentRow> findRowsAfter(@Param("after") Long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(ROW_SELECT + "ORDER BY s.id")
+    Stream<ShipmentRow> streamAllRows();
+
     boolean existsBySalesOrderId(Long salesOrderId);
 
+    @EntityGraph(Shipment.DETAILS_GRAPH)
     List<Shipment> findByCarrierId(Long carrierId);
 
     List<Shipment> findByStatusAndCarrierIsNull(ShipmentStatus status);
-}
\ No newline at end of file
+
+    @Query("SELECT s FROM Shipment s LEFT JOIN FETCH s.carrier WHERE s.salesOrder.id IN :salesOrderIds")
+    List<Shipment> findBySalesOrderIdIn(@Param("salesOrderIds") Collection<Long> salesOrderIds);
+
+    @Modifying
+    @Query("DELETE FROM Shipment s WHERE s.salesOrder.id IN :salesOrderIds")
+    int deleteBySalesOrderIdIn(@Param("salesOrderIds") Collection<Long> salesOrderIds);
+
+    @Query("SELECT new org.project.digital_logistics.repository.projection.StatusCount(s.status, COUNT(s)) " +
+            "FROM Shipment s GROUP BY s.status")
+    List<StatusCount> countGroupedByStatus();
+}
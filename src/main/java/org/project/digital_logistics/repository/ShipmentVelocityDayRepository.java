@@ -0,0 +1,30 @@
+package org.project.digital_logistics.repository;
+
+import org.project.digital_logistics.model.ShipmentVelocityDay;
+import org.project.digital_logistics.repository.projection.ShippedQuantity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ShipmentVelocityDayRepository extends JpaRepository<ShipmentVelocityDay, Long> {
+
+    @Query("SELECT new org.project.digital_logistics.repository.projection.ShippedQuantity(" +
+            "d.productId, d.warehouseId, d.shipDate, d.shippedQty) FROM ShipmentVelocityDay d " +
+            "WHERE d.shipDate >= :from")
+    List<ShippedQuantity> findShippedSince(@Param("from") LocalDate from);
+
+    @Query("SELECT MAX(d.flushedAt) FROM ShipmentVelocityDay d")
+    Optional<LocalDateTime> findLastFlushedAt();
+
+    @Modifying
+    @Query("DELETE FROM ShipmentVelocityDay d WHERE d.shipDate < :before")
+    int deleteShippedBefore(@Param("before") LocalDate before);
+}
@@ -0,0 +1,39 @@
+package org.project.digital_logistics.repository;
+
+import jakarta.persistence.LockModeType;
+import org.project.digital_logistics.model.StatusCounter;
+import org.project.digital_logistics.model.enums.StatusCounterType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StatusCounterRepository extends JpaRepository<StatusCounter, Long> {
+
+    /**
+     * Adds delta to one slot of a status, creating the slot on first use.
+     * Concurrent first uses of the same slot cannot both insert: the loser updates instead.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO status_counters (entity_type, status, slot, row_count) " +
+            "VALUES (:type, :status, :slot, :delta) " +
+            "ON CONFLICT (entity_type, status, slot) " +
+            "DO UPDATE SET row_count = status_counters.row_count + EXCLUDED.row_count",
+            nativeQuery = true)
+    int increment(@Param("type") String type,
+                  @Param("status") String status,
+                  @Param("slot") int slot,
+                  @Param("delta") long delta);
+
+    /**
+     * Locks the counters of one type: transitions of that type wait until the recount commits.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM StatusCounter c WHERE c.entityType = :type")
+    List<StatusCounter> lockByEntityType(@Param("type") StatusCounterType type);
+}
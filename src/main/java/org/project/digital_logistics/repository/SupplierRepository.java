@@ -3,6 +3,10 @@ package org.project.digital_logistics.repository;
 import org.project.digital_logistics.model.Supplier;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Optional;
+
 public interface SupplierRepository extends JpaRepository<Supplier, Long> {
     boolean existsByMatricule(String matricule);
+
+    Optional<Supplier> findFirstByOrderByIdAsc();
 }
@@ -0,0 +1,9 @@
+package org.project.digital_logistics.repository.projection;
+
+/**
+ * Available quantity (on hand - reserved) of one product in one warehouse.
+ */
+public record AvailableQuantity(Long productId,
+                                Long warehouseId,
+                                Long available) {
+}
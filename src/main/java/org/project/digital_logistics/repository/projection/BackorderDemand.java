@@ -0,0 +1,8 @@
+package org.project.digital_logistics.repository.projection;
+
+/**
+ * Quantity of one product a BACKORDER sales order is waiting for.
+ */
+public record BackorderDemand(Long orderId,
+                              Long quantity) {
+}
@@ -0,0 +1,9 @@
+package org.project.digital_logistics.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset position of a RESERVED sales order: (reservedAt, id).
+ */
+public record ExpiredReservation(Long id, LocalDateTime reservedAt) {
+}
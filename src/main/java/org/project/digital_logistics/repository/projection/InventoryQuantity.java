@@ -0,0 +1,7 @@
+package org.project.digital_logistics.repository.projection;
+
+/**
+ * Net quantity of the movements of one inventory row over a time range.
+ */
+public record InventoryQuantity(Long inventoryId, Long quantity) {
+}
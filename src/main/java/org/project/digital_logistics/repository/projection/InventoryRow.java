@@ -0,0 +1,20 @@
+package org.project.digital_logistics.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inventory row with its warehouse and product, for the read-only list views.
+ */
+public record InventoryRow(Long id,
+                           Long warehouseId,
+                           String warehouseCode,
+                           String warehouseName,
+                           Long productId,
+                           String productSku,
+                           String productName,
+                           Integer qtyOnHand,
+                           Integer qtyReserved,
+                           Integer reorderThreshold,
+                           LocalDateTime createdAt,
+                           LocalDateTime updatedAt) {
+}
@@ -0,0 +1,23 @@
+package org.project.digital_logistics.repository.projection;
+
+import org.project.digital_logistics.model.enums.MovementType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inventory movement with the warehouse and product of its inventory, for the read-only list views.
+ */
+public record MovementRow(Long id,
+                          Long inventoryId,
+                          Long warehouseId,
+                          String warehouseCode,
+                          String warehouseName,
+                          Long productId,
+                          String productSku,
+                          String productName,
+                          MovementType type,
+                          Integer quantity,
+                          LocalDateTime occurredAt,
+                          String referenceDocument,
+                          String description) {
+}
@@ -0,0 +1,8 @@
+package org.project.digital_logistics.repository.projection;
+
+/**
+ * Quantity of a product still expected from purchase orders not received nor canceled.
+ */
+public record OpenPurchaseQuantity(Long productId,
+                                   Long quantity) {
+}
@@ -0,0 +1,9 @@
+package org.project.digital_logistics.repository.projection;
+
+/**
+ * A supplier a product was ordered from, with the latest purchase order id of the pair.
+ */
+public record ProductSupplier(Long productId,
+                              Long supplierId,
+                              Long lastPurchaseOrderId) {
+}
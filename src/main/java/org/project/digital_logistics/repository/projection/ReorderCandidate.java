@@ -0,0 +1,8 @@
+package org.project.digital_logistics.repository.projection;
+
+/**
+ * An active product considered by the reorder engine, with the price its lines are ordered at.
+ */
+public record ReorderCandidate(Long productId,
+                               Long originalPrice) {
+}
@@ -0,0 +1,10 @@
+package org.project.digital_logistics.repository.projection;
+
+/**
+ * Available quantity of one inventory row next to its reorder threshold.
+ */
+public record ReorderLevel(Long warehouseId,
+                           Long productId,
+                           Integer available,
+                           Integer reorderThreshold) {
+}
@@ -0,0 +1,7 @@
+package org.project.digital_logistics.repository.projection;
+
+/**
+ * Quantity reserved by a set of sales orders on one inventory row.
+ */
+public record ReservedQuantity(Long warehouseId, Long productId, Long quantity) {
+}
@@ -0,0 +1,19 @@
+package org.project.digital_logistics.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * One sales order line with its product and warehouse, for the read-only list views.
+ */
+public record SalesOrderLineRow(Long salesOrderId,
+                                Long id,
+                                Long productId,
+                                String productSku,
+                                String productName,
+                                Long warehouseId,
+                                String warehouseCode,
+                                String warehouseName,
+                                Integer quantity,
+                                BigDecimal unitPrice,
+                                Boolean backOrder) {
+}
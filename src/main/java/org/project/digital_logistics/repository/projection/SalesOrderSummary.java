@@ -0,0 +1,22 @@
+package org.project.digital_logistics.repository.projection;
+
+import org.project.digital_logistics.model.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Header of a sales order with its client, for the read-only list views.
+ * The lines come separately as {@link SalesOrderLineRow}s.
+ */
+public record SalesOrderSummary(Long id,
+                                Long clientId,
+                                String clientName,
+                                String clientEmail,
+                                String clientPhoneNumber,
+                                String clientAddress,
+                                OrderStatus status,
+                                LocalDateTime createdAt,
+                                LocalDateTime reservedAt,
+                                LocalDateTime shippedAt,
+                                LocalDateTime deliveredAt) {
+}
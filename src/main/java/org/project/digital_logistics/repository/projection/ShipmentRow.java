@@ -0,0 +1,25 @@
+package org.project.digital_logistics.repository.projection;
+
+import org.project.digital_logistics.model.enums.ShipmentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Shipment with its order's client and its carrier, for the read-only list views.
+ */
+public record ShipmentRow(Long id,
+                          Long salesOrderId,
+                          String clientName,
+                          String clientEmail,
+                          String clientPhoneNumber,
+                          String clientAddress,
+                          Long carrierId,
+                          String carrierCode,
+                          String carrierName,
+                          String trackingNumber,
+                          ShipmentStatus status,
+                          LocalDateTime plannedDate,
+                          LocalDateTime shippedDate,
+                          LocalDateTime deliveredDate,
+                          LocalDateTime createdAt) {
+}
@@ -0,0 +1,12 @@
+package org.project.digital_logistics.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Units of a product shipped from a warehouse on one day.
+ */
+public record ShippedQuantity(Long productId,
+                              Long warehouseId,
+                              LocalDate day,
+                              Long quantity) {
+}
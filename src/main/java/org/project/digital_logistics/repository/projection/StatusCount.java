@@ -0,0 +1,7 @@
+package org.project.digital_logistics.repository.projection;
+
+/**
+ * Number of rows having one status, from a GROUP BY status query.
+ */
+public record StatusCount(Enum<?> status, Long count) {
+}
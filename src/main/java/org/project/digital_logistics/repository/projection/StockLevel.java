@@ -0,0 +1,10 @@
+package org.project.digital_logistics.repository.projection;
+
+/**
+ * Quantities of one inventory row, without loading the Inventory entity.
+ */
+public record StockLevel(Long warehouseId,
+                         Long productId,
+                         Integer qtyOnHand,
+                         Integer qtyReserved) {
+}
@@ -0,0 +1,229 @@
+package org.project.digital_logistics.service;
+
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.inventory.CycleCountEntryDto;
+import org.project.digital_logistics.dto.inventory.CycleCountErrorDto;
+import org.project.digital_logistics.dto.inventory.CycleCountRequestDto;
+import org.project.digital_logistics.dto.inventory.CycleCountResultDto;
+import org.project.digital_logistics.event.InventoryChangedEvent;
+import org.project.digital_logistics.exception.InvalidOperationException;
+import org.project.digital_logistics.model.enums.MovementType;
+import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.repository.projection.InventoryRow;
+import org.project.digital_logistics.service.InventoryMovementService.MovementEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Applies a cycle count: many counted quantities at once, instead of one
+ * {@code adjustQuantities} call (find, save, journal) per inventory.
+ * <p>
+ * Counted cells are read as projections in chunks, the deltas are computed in memory,
+ * the new quantities are written with batched JDBC updates and every ADJUSTMENT is
+ * journaled in a single {@code recordMovements} call. Invalid entries are reported,
+ * they do not fail the whole count.
+ */
+@Service
+public class CycleCountService {
+
+    private static final String UPDATE_ON_HAND = "UPDATE inventories SET qty_on_hand = ?, updated_at = ?, " +
+            "version = version + 1 WHERE id = ? AND qty_on_hand = ? AND qty_reserved <= ?";
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryMovementService movementService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final BusinessRulesConfig businessRulesConfig;
+
+    @Autowired
+    public CycleCountService(InventoryRepository inventoryRepository,
+                             InventoryMovementService movementService,
+                             ApplicationEventPublisher eventPublisher,
+                             JdbcTemplate jdbcTemplate,
+                             BusinessRulesConfig businessRulesConfig) {
+        this.inventoryRepository = inventoryRepository;
+        this.movementService = movementService;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.businessRulesConfig = businessRulesConfig;
+    }
+
+    @Transactional
+    public ApiResponse<CycleCountResultDto> applyCycleCount(CycleCountRequestDto requestDto) {
+        List<CycleCountEntryDto> entries = requestDto.getEntries();
+        int maxSize = businessRulesConfig.getMaxCycleCountSize();
+        if (entries.size() > maxSize) {
+            throw new InvalidOperationException(
+                    "Too many entries in one cycle count: " + entries.size() + " (max " + maxSize + ")"
+            );
+        }
+
+        List<CycleCountErrorDto> errors = new ArrayList<>();
+
+        // 1. Resolve every entry to its inventory row, the last entry of a row wins
+        InventoryRow[] rows = resolve(entries, errors);
+        Map<Long, Integer> lastEntryByInventory = new LinkedHashMap<>();
+        for (int index = 0; index < rows.length; index++) {
+            if (rows[index] != null) {
+                Integer superseded = lastEntryByInventory.put(rows[index].id(), index);
+                if (superseded != null) {
+                    errors.add(new CycleCountErrorDto(superseded, "Superseded by entry " + index));
+                }
+            }
+        }
+
+        // 2. Deltas
+        List<Adjustment> adjustments = new ArrayList<>();
+        int unchanged = 0;
+        for (int index : lastEntryByInventory.values()) {
+            InventoryRow row = rows[index];
+            int counted = entries.get(index).getCountedQty();
+            if (counted < row.qtyReserved()) {
+                errors.add(new CycleCountErrorDto(index,
+                        "Counted quantity (" + counted + ") is below the reserved quantity (" + row.qtyReserved() + ")"));
+            } else if (counted == row.qtyOnHand()) {
+                unchanged++;
+            } else {
+                adjustments.add(new Adjustment(index, row, counted));
+            }
+        }
+
+        // 3. Batched updates, guarded on the quantity the delta was computed from
+        List<Adjustment> applied = applyAdjustments(adjustments, errors);
+
+        // 4. One batch of ADJUSTMENT movements
+        String reference = "COUNT-" + System.currentTimeMillis();
+        if (!applied.isEmpty()) {
+            movementService.recordMovements(applied.stream()
+                    .map(adjustment -> new MovementEntry(
+                            adjustment.row().id(),
+                            adjustment.row().warehouseId(),
+                            adjustment.row().productId(),
+                            MovementType.ADJUSTMENT,
+                            adjustment.delta(), // Signed: negative when stock was removed
+                            reference,
+                            "Cycle count - counted " + adjustment.counted() + " units - " +
+                                    adjustment.row().productName()
+                    ))
+                    .toList());
+        }
+        applied.forEach(adjustment -> eventPublisher.publishEvent(new InventoryChangedEvent(
+                adjustment.row().warehouseId(), adjustment.row().productId(), adjustment.delta(), 0)));
+
+        errors.sort(Comparator.comparing(CycleCountErrorDto::getIndex));
+        CycleCountResultDto result = CycleCountResultDto.builder()
+                .totalEntries(entries.size())
+                .adjusted(applied.size())
+                .unchanged(unchanged)
+                .rejected(errors.size())
+                .errors(errors)
+                .build();
+        return new ApiResponse<>("Cycle count applied successfully", result);
+    }
+
+    private InventoryRow[] resolve(List<CycleCountEntryDto> entries, List<CycleCountErrorDto> errors) {
+        Set<Long> inventoryIds = new HashSet<>();
+        Map<Long, Set<String>> skusByWarehouse = new HashMap<>();
+        for (int index = 0; index < entries.size(); index++) {
+            CycleCountEntryDto entry = entries.get(index);
+            if (entry.getInventoryId() != null) {
+                inventoryIds.add(entry.getInventoryId());
+            } else if (identifiesCell(entry)) {
+                skusByWarehouse.computeIfAbsent(entry.getWarehouseId(), id -> new HashSet<>()).add(entry.getSku());
+            } else {
+                errors.add(new CycleCountErrorDto(index, "Either inventoryId or warehouseId and sku are required"));
+            }
+        }
+
+        Map<Long, InventoryRow> byId = new HashMap<>();
+        inChunks(inventoryIds, inventoryRepository::findRowsByIdIn).forEach(row -> byId.put(row.id(), row));
+        Map<Long, Map<String, InventoryRow>> bySku = new HashMap<>();
+        skusByWarehouse.forEach((warehouseId, skus) ->
+                inChunks(skus, chunk -> inventoryRepository.findRowsByWarehouseIdAndSkuIn(warehouseId, chunk))
+                        .forEach(row -> bySku.computeIfAbsent(warehouseId, id -> new HashMap<>())
+                                .put(row.productSku(), row)));
+
+        InventoryRow[] rows = new InventoryRow[entries.size()];
+        for (int index = 0; index < entries.size(); index++) {
+            CycleCountEntryDto entry = entries.get(index);
+            if (entry.getInventoryId() != null) {
+                rows[index] = byId.get(entry.getInventoryId());
+                if (rows[index] == null) {
+                    errors.add(new CycleCountErrorDto(index, "Inventory not found with id: " + entry.getInventoryId()));
+                }
+            } else if (identifiesCell(entry)) {
+                rows[index] = bySku.getOrDefault(entry.getWarehouseId(), Map.of()).get(entry.getSku());
+                if (rows[index] == null) {
+                    errors.add(new CycleCountErrorDto(index, "Inventory not found for warehouse " +
+                            entry.getWarehouseId() + " and sku " + entry.getSku()));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static boolean identifiesCell(CycleCountEntryDto entry) {
+        return entry.getWarehouseId() != null && entry.getSku() != null && !entry.getSku().isBlank();
+    }
+
+    /**
+     * A row whose on-hand quantity moved since it was read, or whose reservations grew past
+     * the counted quantity, is left alone and reported: the count has to be taken again.
+     */
+    private List<Adjustment> applyAdjustments(List<Adjustment> adjustments, List<CycleCountErrorDto> errors) {
+        if (adjustments.isEmpty()) {
+            return adjustments;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_ON_HAND, adjustments,
+                businessRulesConfig.getCycleCountChunkSize(), (ps, adjustment) -> {
+                    ps.setInt(1, adjustment.counted());
+                    ps.setTimestamp(2, now);
+                    ps.setLong(3, adjustment.row().id());
+                    ps.setInt(4, adjustment.row().qtyOnHand());
+                    ps.setInt(5, adjustment.counted());
+                });
+
+        List<Adjustment> applied = new ArrayList<>(adjustments.size());
+        int position = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                Adjustment adjustment = adjustments.get(position++);
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    applied.add(adjustment);
+                } else {
+                    errors.add(new CycleCountErrorDto(adjustment.index(),
+                            "Inventory " + adjustment.row().id() + " changed during the count"));
+                }
+            }
+        }
+        return applied;
+    }
+
+    private <K> List<InventoryRow> inChunks(Collection<K> keys, Function<List<K>, List<InventoryRow>> query) {
+        List<K> all = new ArrayList<>(keys);
+        int chunkSize = businessRulesConfig.getCycleCountChunkSize();
+        List<InventoryRow> rows = new ArrayList<>(all.size());
+        for (int from = 0; from < all.size(); from += chunkSize) {
+            rows.addAll(query.apply(all.subList(from, Math.min(from + chunkSize, all.size()))));
+        }
+        return rows;
+    }
+
+    private record Adjustment(int index, InventoryRow row, int counted) {
+
+        int delta() {
+            return counted - row.qtyOnHand();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package org.project.digital_logistics.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.inventory.InventoryImportErrorDto;
+import org.project.digital_logistics.dto.inventory.InventoryImportResultDto;
+import org.project.digital_logistics.event.InventoryChangedEvent;
+import org.project.digital_logistics.exception.InvalidOperationException;
+import org.project.digital_logistics.model.enums.MovementType;
+import org.project.digital_logistics.service.InventoryMovementService.MovementEntry;
+import org.project.digital_logistics.service.importing.InventoryImportStaging;
+import org.project.digital_logistics.service.importing.InventoryImportStaging.StagedChange;
+import org.project.digital_logistics.service.importing.InventoryImportStaging.StagingCopy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bulk inventory import from a CSV or NDJSON upload.
+ * <p>
+ * The upload is read line by line and streamed into a staging table, never held in
+ * memory. Validation and the upsert into inventories run set-based in the database,
+ * and the resulting on-hand changes are journaled as ADJUSTMENT movements in one batch.
+ * Invalid lines do not stop the import: they are returned in the error report.
+ */
+@Service
+public class InventoryImportService {
+
+    private static final String WAREHOUSE_ID = "warehouseId";
+    private static final String PRODUCT_ID = "productId";
+    private static final String QTY_ON_HAND = "qtyOnHand";
+
+    private final InventoryImportStaging staging;
+    private final InventoryMovementService movementService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final BusinessRulesConfig businessRulesConfig;
+
+    @Autowired
+    public InventoryImportService(InventoryImportStaging staging,
+                                  InventoryMovementService movementService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  ObjectMapper objectMapper,
+                                  BusinessRulesConfig businessRulesConfig) {
+        this.staging = staging;
+        this.movementService = movementService;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.businessRulesConfig = businessRulesConfig;
+    }
+
+    public enum ImportFormat {
+        CSV,
+        NDJSON
+    }
+
+    @Transactional
+    public ApiResponse<InventoryImportResultDto> importInventories(InputStream input, ImportFormat format)
+            throws IOException {
+        List<InventoryImportErrorDto> errors = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        long staged;
+        try (StagingCopy copy = staging.beginCopy()) {
+            if (format == ImportFormat.CSV) {
+                stageCsv(reader, copy, errors);
+            } else {
+                stageNdjson(reader, copy, errors);
+            }
+            staged = copy.finish();
+        }
+
+        long totalRows = staged + errors.size();
+
+        staging.validate();
+        List<StagedChange> changes = staging.upsert();
+        staging.errors().forEach(error -> errors.add(new InventoryImportErrorDto(error.line(), error.message())));
+        errors.sort(Comparator.comparing(InventoryImportErrorDto::getLine));
+
+        String reference = "IMPORT-" + System.currentTimeMillis();
+        List<MovementEntry> movements = changes.stream()
+                .filter(change -> change.delta() != 0)
+                .map(change -> new MovementEntry(
+                        change.inventoryId(),
+                        change.warehouseId(),
+                        change.productId(),
+                        MovementType.ADJUSTMENT,
+                        change.delta(), // Signed: negative when stock was removed
+                        reference,
+                        "Bulk import - line " + change.line()
+                ))
+                .toList();
+        if (!movements.isEmpty()) {
+            movementService.recordMovements(movements);
+        }
+        movements.forEach(movement -> eventPublisher.publishEvent(new InventoryChangedEvent(
+                movement.warehouseId(), movement.productId(), movement.quantity(), 0)));
+
+        int created = (int) changes.stream().filter(StagedChange::created).count();
+        InventoryImportResultDto result = InventoryImportResultDto.builder()
+                .totalRows(totalRows)
+                .created(created)
+                .updated(changes.size() - created)
+                .unchanged(totalRows - errors.size() - changes.size())
+                .rejected(errors.size())
+                .errors(errors)
+                .build();
+        return new ApiResponse<>("Inventories imported successfully", result);
+    }
+
+    private void stageCsv(BufferedReader reader, StagingCopy copy, List<InventoryImportErrorDto> errors)
+            throws IOException {
+        String[] header = null;
+        int warehouseColumn = -1;
+        int productColumn = -1;
+        int quantityColumn = -1;
+
+        String line;
+        long lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] fields = splitCsv(line);
+            if (header == null) {
+                header = fields;
+                List<String> columns = Arrays.stream(fields).map(name -> name.toLowerCase(Locale.ROOT)).toList();
+                warehouseColumn = columns.indexOf(WAREHOUSE_ID.toLowerCase(Locale.ROOT));
+                productColumn = columns.indexOf(PRODUCT_ID.toLowerCase(Locale.ROOT));
+                quantityColumn = columns.indexOf(QTY_ON_HAND.toLowerCase(Locale.ROOT));
+                if (warehouseColumn < 0 || productColumn < 0 || quantityColumn < 0) {
+                    throw new InvalidOperationException(
+                            "CSV header must contain " + WAREHOUSE_ID + ", " + PRODUCT_ID + " and " + QTY_ON_HAND);
+                }
+                continue;
+            }
+
+            checkRowLimit(copy, errors);
+            if (fields.length != header.length) {
+                errors.add(new InventoryImportErrorDto(lineNo,
+                        "Expected " + header.length + " columns, found " + fields.length));
+                continue;
+            }
+            copy.add(lineNo, fields[warehouseColumn], fields[productColumn], fields[quantityColumn]);
+        }
+    }
+
+    private void stageNdjson(BufferedReader reader, StagingCopy copy, List<InventoryImportErrorDto> errors)
+            throws IOException {
+        String line;
+        long lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            checkRowLimit(copy, errors);
+            JsonNode row;
+            try {
+                row = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                errors.add(new InventoryImportErrorDto(lineNo, "Invalid JSON"));
+                continue;
+            }
+            if (!row.isObject()) {
+                errors.add(new InventoryImportErrorDto(lineNo, "Expected a JSON object"));
+                continue;
+            }
+            copy.add(lineNo, text(row, WAREHOUSE_ID), text(row, PRODUCT_ID), text(row, QTY_ON_HAND));
+        }
+    }
+
+    private void checkRowLimit(StagingCopy copy, List<InventoryImportErrorDto> errors) {
+        int maxRows = businessRulesConfig.getInventoryImportMaxRows();
+        if (copy.rows() + errors.size() >= maxRows) {
+            throw new InvalidOperationException("Too many rows in one import (max " + maxRows + ")");
+        }
+    }
+
+    // Ids and quantities never contain commas: a plain split, with optional quotes around values
+    private static String[] splitCsv(String line) {
+        String[] fields = line.split(",", -1);
+        for (int i = 0; i < fields.length; i++) {
+            String field = fields[i].trim();
+            if (field.length() >= 2 && field.startsWith("\"") && field.endsWith("\"")) {
+                field = field.substring(1, field.length() - 1);
+            }
+            fields[i] = field;
+        }
+        return fields;
+    }
+
+    private static String text(JsonNode row, String field) {
+        JsonNode value = row.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
@@ -1,19 +1,31 @@
 package org.project.digital_logistics.service;
 
+import org.project.digital_logistics.config.BusinessRulesConfig;
 import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.CursorPageDto;
 import org.project.digital_logistics.dto.inventorymovement.InventoryMovementRequestDto;
 import org.project.digital_logistics.dto.inventorymovement.InventoryMovementResponseDto;
+import org.project.digital_logistics.event.StockReceivedEvent;
+import org.project.digital_logistics.event.StockShippedEvent;
 import org.project.digital_logistics.model.enums.MovementType;
+import org.project.digital_logistics.exception.InvalidOperationException;
 import org.project.digital_logistics.exception.ResourceNotFoundException;
 import org.project.digital_logistics.mapper.InventoryMovementMapper;
 import org.project.digital_logistics.model.Inventory;
 import org.project.digital_logistics.model.InventoryMovement;
 import org.project.digital_logistics.repository.InventoryMovementRepository;
 import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.repository.projection.MovementRow;
+import org.project.digital_logistics.service.journal.MovementWriteBehind;
+import org.project.digital_logistics.service.listing.KeysetListing;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -22,12 +34,24 @@ public class InventoryMovementService {
 
     private final InventoryMovementRepository movementRepository;
     private final InventoryRepository inventoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetListing keysetListing;
+    private final MovementWriteBehind movementWriteBehind;
+    private final BusinessRulesConfig businessRulesConfig;
 
     @Autowired
     public InventoryMovementService(InventoryMovementRepository movementRepository,
-                                    InventoryRepository inventoryRepository) {
+                                    InventoryRepository inventoryRepository,
+                                    ApplicationEventPublisher eventPublisher,
+                                    KeysetListing keysetListing,
+                                    MovementWriteBehind movementWriteBehind,
+                                    BusinessRulesConfig businessRulesConfig) {
         this.movementRepository = movementRepository;
         this.inventoryRepository = inventoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.keysetListing = keysetListing;
+        this.movementWriteBehind = movementWriteBehind;
+        this.businessRulesConfig = businessRulesConfig;
     }
 
     @Transactional
@@ -37,55 +61,133 @@ public class InventoryMovementService {
 
         InventoryMovement movement = InventoryMovementMapper.toEntity(requestDto, inventory);
         InventoryMovement savedMovement = movementRepository.save(movement);
+        publishStockEvent(movement);
 
         InventoryMovementResponseDto responseDto = InventoryMovementMapper.toResponseDto(savedMovement);
 
         return new ApiResponse<>("Inventory movement recorded successfully", responseDto);
     }
 
+    /**
+     * Journal the movements of one operation (shipment, reception, adjustment) as a batch.
+     * Inventories are only referenced, never loaded, and ids come from a pooled sequence,
+     * so Hibernate sends all the INSERTs in one JDBC batch when the transaction flushes.
+     * In write-behind mode the rows are handed to {@link MovementWriteBehind} after commit instead.
+     */
     @Transactional
-    public void recordMovement(Long inventoryId, MovementType type, Integer quantity,
-                               String referenceDocument, String description) {
-        Inventory inventory = inventoryRepository.findById(inventoryId)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "id", inventoryId));
-
-        InventoryMovement movement = InventoryMovement.builder()
-                .inventory(inventory)
-                .type(type)
-                .quantity(quantity)
-                .referenceDocument(referenceDocument)
-                .description(description)
-                .build();
-
-        movementRepository.save(movement);
+    public void recordMovements(List<MovementEntry> entries) {
+        // One timestamp for the rows and their events
+        LocalDateTime occurredAt = LocalDateTime.now();
+        if (movementWriteBehind.isEnabled()) {
+            movementWriteBehind.submit(entries, occurredAt);
+        } else {
+            List<InventoryMovement> movements = entries.stream()
+                    .map(entry -> InventoryMovement.builder()
+                            .inventory(inventoryRepository.getReferenceById(entry.inventoryId()))
+                            .type(entry.type())
+                            .quantity(entry.quantity())
+                            .referenceDocument(entry.referenceDocument())
+                            .description(entry.description())
+                            .occurredAt(occurredAt)
+                            .build())
+                    .toList();
+            movementRepository.saveAll(movements);
+        }
+
+        entries.forEach(entry -> publishStockEvent(
+                entry.warehouseId(), entry.productId(), entry.type(), entry.quantity(), occurredAt));
+    }
+
+    private void publishStockEvent(InventoryMovement movement) {
+        if (movement.getType() == MovementType.INBOUND || movement.getType() == MovementType.OUTBOUND) {
+            Inventory inventory = movement.getInventory();
+            publishStockEvent(inventory.getWarehouse().getId(), inventory.getProduct().getId(),
+                    movement.getType(), movement.getQuantity(), movement.getOccurredAt());
+        }
+    }
+
+    // INBOUND wakes up the backorders, OUTBOUND feeds the shipment velocity
+    private void publishStockEvent(Long warehouseId, Long productId, MovementType type, Integer quantity,
+                                   LocalDateTime occurredAt) {
+        if (type == MovementType.INBOUND) {
+            eventPublisher.publishEvent(new StockReceivedEvent(warehouseId, productId, quantity));
+        } else if (type == MovementType.OUTBOUND) {
+            eventPublisher.publishEvent(new StockShippedEvent(warehouseId, productId, quantity, occurredAt));
+        }
     }
 
     public ApiResponse<List<InventoryMovementResponseDto>> getAllMovements() {
-        List<InventoryMovementResponseDto> movements = movementRepository.findAll()
+        List<InventoryMovementResponseDto> movements = movementRepository.findAllRows()
                 .stream()
                 .map(InventoryMovementMapper::toResponseDto)
                 .toList();
         return new ApiResponse<>("Inventory movements retrieved successfully", movements);
     }
 
-    public ApiResponse<List<InventoryMovementResponseDto>> getMovementsByInventory(Long inventoryId) {
+    public ApiResponse<CursorPageDto<InventoryMovementResponseDto>> getMovementsPage(Long after, Integer limit) {
+        int size = keysetListing.limit(limit);
+        List<MovementRow> rows = movementRepository.findRowsAfter(after, keysetListing.window(size));
+        return new ApiResponse<>("Inventory movements retrieved successfully",
+                keysetListing.page(rows, size, MovementRow::id, InventoryMovementMapper::toResponseDto));
+    }
+
+    public long streamAllMovements(OutputStream out) throws IOException {
+        return keysetListing.writeNdjson(out, movementRepository.streamAllRows(), InventoryMovementMapper::toResponseDto);
+    }
+
+    public ApiResponse<List<InventoryMovementResponseDto>> getMovementsByInventory(Long inventoryId,
+                                                                                   LocalDateTime from,
+                                                                                   LocalDateTime to) {
         // Verify inventory exists
         if (!inventoryRepository.existsById(inventoryId)) {
             throw new ResourceNotFoundException("Inventory", "id", inventoryId);
         }
 
-        List<InventoryMovementResponseDto> movements = movementRepository.findByInventoryId(inventoryId)
+        LocalDateTime end = endOf(to);
+        List<InventoryMovementResponseDto> movements = movementRepository
+                .findRowsByInventoryId(inventoryId, startOf(from, end), end)
                 .stream()
                 .map(InventoryMovementMapper::toResponseDto)
                 .toList();
         return new ApiResponse<>("Inventory movements retrieved successfully", movements);
     }
 
-    public ApiResponse<List<InventoryMovementResponseDto>> getMovementsByWarehouse(Long warehouseId) {
-        List<InventoryMovementResponseDto> movements = movementRepository.findByWarehouseId(warehouseId)
+    public ApiResponse<List<InventoryMovementResponseDto>> getMovementsByWarehouse(Long warehouseId,
+                                                                                   LocalDateTime from,
+                                                                                   LocalDateTime to) {
+        LocalDateTime end = endOf(to);
+        List<InventoryMovementResponseDto> movements = movementRepository
+                .findRowsByWarehouseId(warehouseId, startOf(from, end), end)
                 .stream()
                 .map(InventoryMovementMapper::toResponseDto)
                 .toList();
         return new ApiResponse<>("Warehouse movements retrieved successfully", movements);
     }
-}
\ No newline at end of file
+
+    // Journal reads are always time-bounded: [from, to), by default the last
+    // business.movement-query-window-days days, so that only recent partitions are scanned
+    private static LocalDateTime endOf(LocalDateTime to) {
+        return to != null ? to : LocalDateTime.now();
+    }
+
+    private LocalDateTime startOf(LocalDateTime from, LocalDateTime end) {
+        LocalDateTime start = from != null ? from : end.minusDays(businessRulesConfig.getMovementQueryWindowDays());
+        if (!start.isBefore(end)) {
+            throw new InvalidOperationException("The start of the period must be before its end");
+        }
+        return start;
+    }
+
+    /**
+     * One line of the movement journal. The warehouse and product ids travel with it
+     * so that the inventory never has to be loaded.
+     */
+    public record MovementEntry(Long inventoryId,
+                                Long warehouseId,
+                                Long productId,
+                                MovementType type,
+                                Integer quantity,
+                                String referenceDocument,
+                                String description) {
+    }
+}
@@ -1,9 +1,21 @@
 package org.project.digital_logistics.service;
 
+import org.project.digital_logistics.config.BusinessRulesConfig;
 import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.CursorPageDto;
+import org.project.digital_logistics.dto.inventory.AvailabilityRequestDto;
 import org.project.digital_logistics.dto.inventory.InventoryRequestDto;
 import org.project.digital_logistics.dto.inventory.InventoryResponseDto;
+import org.project.digital_logistics.dto.inventory.LowStockItemDto;
+import org.project.digital_logistics.dto.inventory.LowStockSnapshotDto;
+import org.project.digital_logistics.dto.inventory.ProductAvailabilityDto;
+import org.project.digital_logistics.dto.inventory.ReorderThresholdRequestDto;
+import org.project.digital_logistics.dto.inventory.ShipmentVelocityDto;
+import org.project.digital_logistics.dto.inventory.WarehouseAvailabilityDto;
+import org.project.digital_logistics.event.InventoryChangedEvent;
+import org.project.digital_logistics.event.ReorderThresholdChangedEvent;
 import org.project.digital_logistics.exception.DuplicateResourceException;
+import org.project.digital_logistics.exception.InvalidOperationException;
 import org.project.digital_logistics.exception.ResourceNotFoundException;
 import org.project.digital_logistics.mapper.InventoryMapper;
 import org.project.digital_logistics.model.Inventory;
@@ -13,11 +25,28 @@ import org.project.digital_logistics.model.enums.MovementType;
 import org.project.digital_logistics.repository.InventoryRepository;
 import org.project.digital_logistics.repository.ProductRepository;
 import org.project.digital_logistics.repository.WarehouseRepository;
+import org.project.digital_logistics.repository.projection.AvailableQuantity;
+import org.project.digital_logistics.repository.projection.InventoryRow;
+import org.project.digital_logistics.service.InventoryMovementService.MovementEntry;
+import org.project.digital_logistics.service.listing.KeysetListing;
+import org.project.digital_logistics.service.stock.LowStockMonitor;
+import org.project.digital_logistics.service.stock.ShipmentVelocityTracker;
+import org.project.digital_logistics.service.stock.StockLevelCache;
+import org.project.digital_logistics.service.retry.RetryOnConflict;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @Transactional(readOnly = true)
@@ -27,19 +56,38 @@ public class InventoryService {
     private final WarehouseRepository warehouseRepository;
     private final ProductRepository productRepository;
     private final InventoryMovementService movementService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetListing keysetListing;
+    private final StockLevelCache stockLevelCache;
+    private final LowStockMonitor lowStockMonitor;
+    private final ShipmentVelocityTracker shipmentVelocityTracker;
+    private final BusinessRulesConfig businessRulesConfig;
 
     @Autowired
     public InventoryService(InventoryRepository inventoryRepository,
                             WarehouseRepository warehouseRepository,
                             ProductRepository productRepository,
-                            InventoryMovementService movementService) {
+                            InventoryMovementService movementService,
+                            ApplicationEventPublisher eventPublisher,
+                            KeysetListing keysetListing,
+                            StockLevelCache stockLevelCache,
+                            LowStockMonitor lowStockMonitor,
+                            ShipmentVelocityTracker shipmentVelocityTracker,
+                            BusinessRulesConfig businessRulesConfig) {
         this.inventoryRepository = inventoryRepository;
         this.warehouseRepository = warehouseRepository;
         this.productRepository = productRepository;
         this.movementService = movementService;
+        this.eventPublisher = eventPublisher;
+        this.keysetListing = keysetListing;
+        this.stockLevelCache = stockLevelCache;
+        this.lowStockMonitor = lowStockMonitor;
+        this.shipmentVelocityTracker = shipmentVelocityTracker;
+        this.businessRulesConfig = businessRulesConfig;
     }
 
     @Transactional
+    @RetryOnConflict
     public ApiResponse<InventoryResponseDto> createInventory(InventoryRequestDto requestDto) {
         // 1. Check if inventory already exists for this warehouse-product combination
         if (inventoryRepository.existsByWarehouseIdAndProductId(
@@ -64,6 +112,15 @@ public class InventoryService {
         // 5. Create inventory
         Inventory inventory = InventoryMapper.toEntity(requestDto, warehouse, product);
         Inventory savedInventory = inventoryRepository.save(inventory);
+        eventPublisher.publishEvent(new InventoryChangedEvent(
+                warehouse.getId(), product.getId(),
+                savedInventory.getQtyOnHand(), savedInventory.getQtyReserved()
+        ));
+        if (savedInventory.getReorderThreshold() != null) {
+            eventPublisher.publishEvent(new ReorderThresholdChangedEvent(
+                    warehouse.getId(), product.getId(), savedInventory.getReorderThreshold()
+            ));
+        }
 
         // 6. Convert to DTO
         InventoryResponseDto responseDto = InventoryMapper.toResponseDto(savedInventory);
@@ -90,20 +147,31 @@ public class InventoryService {
     }
 
     public ApiResponse<List<InventoryResponseDto>> getAllInventories() {
-        List<InventoryResponseDto> inventories = inventoryRepository.findAll()
+        List<InventoryResponseDto> inventories = inventoryRepository.findAllRows()
                 .stream()
                 .map(InventoryMapper::toResponseDto)
                 .toList();
         return new ApiResponse<>("Inventories retrieved successfully", inventories);
     }
 
+    public ApiResponse<CursorPageDto<InventoryResponseDto>> getInventoriesPage(Long after, Integer limit) {
+        int size = keysetListing.limit(limit);
+        List<InventoryRow> rows = inventoryRepository.findRowsAfter(after, keysetListing.window(size));
+        return new ApiResponse<>("Inventories retrieved successfully",
+                keysetListing.page(rows, size, InventoryRow::id, InventoryMapper::toResponseDto));
+    }
+
+    public long streamAllInventories(OutputStream out) throws IOException {
+        return keysetListing.writeNdjson(out, inventoryRepository.streamAllRows(), InventoryMapper::toResponseDto);
+    }
+
     public ApiResponse<List<InventoryResponseDto>> getInventoriesByWarehouse(Long warehouseId) {
         // Verify warehouse exists
         if (!warehouseRepository.existsById(warehouseId)) {
             throw new ResourceNotFoundException("Warehouse", "id", warehouseId);
         }
 
-        List<InventoryResponseDto> inventories = inventoryRepository.findByWarehouseId(warehouseId)
+        List<InventoryResponseDto> inventories = inventoryRepository.findRowsByWarehouseId(warehouseId)
                 .stream()
                 .map(InventoryMapper::toResponseDto)
                 .toList();
@@ -116,7 +184,7 @@ public class InventoryService {
             throw new ResourceNotFoundException("Product", "id", productId);
         }
 
-        List<InventoryResponseDto> inventories = inventoryRepository.findByProductId(productId)
+        List<InventoryResponseDto> inventories = inventoryRepository.findRowsByProductId(productId)
                 .stream()
                 .map(InventoryMapper::toResponseDto)
                 .toList();
@@ -130,7 +198,7 @@ public class InventoryService {
         }
 
         List<InventoryResponseDto> inventories = inventoryRepository
-                .findLowStockInWarehouse(warehouseId, threshold != null ? threshold : 10)
+                .findLowStockRowsInWarehouse(warehouseId, threshold != null ? threshold : 10)
                 .stream()
                 .map(InventoryMapper::toResponseDto)
                 .toList();
@@ -138,6 +206,7 @@ public class InventoryService {
     }
 
     @Transactional
+    @RetryOnConflict
     public ApiResponse<InventoryResponseDto> updateInventory(Long id, InventoryRequestDto requestDto) {
         // 1. Find inventory
         Inventory inventory = inventoryRepository.findById(id)
@@ -174,8 +243,21 @@ public class InventoryService {
         validateQuantities(requestDto.getQtyOnHand(), requestDto.getQtyReserved());
 
         // 6. Update inventory
+        InventoryChangedEvent removedStock = new InventoryChangedEvent(
+                inventory.getWarehouse().getId(), inventory.getProduct().getId(),
+                -inventory.getQtyOnHand(), -inventory.getQtyReserved()
+        );
+        Integer oldQtyOnHand = inventory.getQtyOnHand();
+        Integer previousThreshold = inventory.getReorderThreshold();
         InventoryMapper.updateEntityFromDto(requestDto, inventory, warehouse, product);
         Inventory savedInventory = inventoryRepository.save(inventory);
+        publishQuantityChange(removedStock, savedInventory);
+        publishThresholdChange(removedStock, previousThreshold, savedInventory);
+
+        // Journal the on-hand change, as adjustQuantities does
+        if (!oldQtyOnHand.equals(savedInventory.getQtyOnHand())) {
+            recordAdjustment(savedInventory, savedInventory.getQtyOnHand() - oldQtyOnHand);
+        }
 
         // 7. Convert to DTO
         InventoryResponseDto responseDto = InventoryMapper.toResponseDto(savedInventory);
@@ -184,6 +266,7 @@ public class InventoryService {
     }
 
     @Transactional
+    @RetryOnConflict
     public ApiResponse<InventoryResponseDto> adjustQuantities(Long id, Integer qtyOnHand, Integer qtyReserved) {
         Inventory inventory = inventoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory", "id", id));
@@ -194,22 +277,16 @@ public class InventoryService {
             validateQuantities(qtyOnHand, qtyReserved);
         }
 
+        InventoryChangedEvent removedStock = new InventoryChangedEvent(
+                inventory.getWarehouse().getId(), inventory.getProduct().getId(),
+                -inventory.getQtyOnHand(), -inventory.getQtyReserved()
+        );
         InventoryMapper.updateQuantities(inventory, qtyOnHand, qtyReserved);
         Inventory savedInventory = inventoryRepository.save(inventory);
+        publishQuantityChange(removedStock, savedInventory);
 
         if (qtyOnHand != null && !oldQtyOnHand.equals(qtyOnHand)) {
-            Integer quantityDifference = qtyOnHand - oldQtyOnHand;
-
-            movementService.recordMovement(
-                    savedInventory.getId(),
-                    MovementType.ADJUSTMENT,
-                    Math.abs(quantityDifference), // Always positive
-                    "ADJ-" + System.currentTimeMillis(),
-                    "Inventory adjustment - " +
-                            (quantityDifference > 0 ? "Added " : "Removed ") +
-                            Math.abs(quantityDifference) + " units - " +
-                            savedInventory.getProduct().getName()
-            );
+            recordAdjustment(savedInventory, qtyOnHand - oldQtyOnHand);
         }
 
         InventoryResponseDto responseDto = InventoryMapper.toResponseDto(savedInventory);
@@ -217,52 +294,260 @@ public class InventoryService {
     }
 
     @Transactional
-    public ApiResponse<Void> deleteInventory(Long id) {
-        if (!inventoryRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Inventory", "id", id);
+    @RetryOnConflict
+    public ApiResponse<InventoryResponseDto> setReorderThreshold(Long id, ReorderThresholdRequestDto requestDto) {
+        Inventory inventory = inventoryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "id", id));
+
+        Integer previousThreshold = inventory.getReorderThreshold();
+        inventory.setReorderThreshold(requestDto.getReorderThreshold());
+        Inventory savedInventory = inventoryRepository.save(inventory);
+        if (!Objects.equals(previousThreshold, savedInventory.getReorderThreshold())) {
+            eventPublisher.publishEvent(new ReorderThresholdChangedEvent(
+                    savedInventory.getWarehouse().getId(), savedInventory.getProduct().getId(),
+                    savedInventory.getReorderThreshold()
+            ));
         }
 
-        inventoryRepository.deleteById(id);
+        InventoryResponseDto responseDto = InventoryMapper.toResponseDto(savedInventory);
+        return new ApiResponse<>("Reorder threshold updated successfully", responseDto);
+    }
+
+    /**
+     * Rows of a warehouse below their own reorder threshold, served from the
+     * LowStockMonitor; the database is only queried until the monitor is warmed.
+     */
+    public ApiResponse<LowStockSnapshotDto> getReorderAlerts(Long warehouseId) {
+        verifyWarehouseExists(warehouseId);
+
+        LowStockSnapshotDto snapshot = lowStockMonitor.snapshot(warehouseId).orElseGet(() ->
+                new LowStockSnapshotDto(warehouseId, 0L, inventoryRepository.findBelowReorderThreshold(warehouseId)
+                        .stream()
+                        .map(level -> new LowStockItemDto(level.productId(), level.available(), level.reorderThreshold()))
+                        .toList()));
+        return new ApiResponse<>("Reorder alerts retrieved successfully", snapshot);
+    }
+
+    /**
+     * Server-sent events of the low-stock set of a warehouse: the current set first,
+     * then the new one every time a row crosses its reorder threshold.
+     */
+    public SseEmitter watchReorderAlerts(Long warehouseId) {
+        verifyWarehouseExists(warehouseId);
+
+        SseEmitter emitter = new SseEmitter(businessRulesConfig.getLowStockStreamTimeoutMs());
+        Runnable unsubscribe = lowStockMonitor.subscribe(warehouseId, snapshot -> sendReorderAlerts(emitter, snapshot));
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+
+        try {
+            sendReorderAlerts(emitter, getReorderAlerts(warehouseId).getData());
+        } catch (UncheckedIOException e) {
+            unsubscribe.run();
+        }
+        return emitter;
+    }
+
+    @Transactional
+    @RetryOnConflict
+    public ApiResponse<Void> deleteInventory(Long id) {
+        Inventory inventory = inventoryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "id", id));
+
+        inventoryRepository.delete(inventory);
+        publishRemoval(inventory);
+        publishThresholdRemoval(inventory);
         return new ApiResponse<>("Inventory deleted successfully", null);
     }
 
     @Transactional
+    @RetryOnConflict
     public ApiResponse<Void> deleteInventoryByWarehouseAndProduct(Long warehouseId, Long productId) {
-        if (!inventoryRepository.existsByWarehouseIdAndProductId(warehouseId, productId)) {
-            throw new ResourceNotFoundException(
-                    "Inventory not found for warehouse " + warehouseId + " and product " + productId
-            );
-        }
+        Inventory inventory = inventoryRepository.findByWarehouseIdAndProductId(warehouseId, productId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Inventory not found for warehouse " + warehouseId + " and product " + productId
+                ));
 
-        inventoryRepository.deleteByWarehouseIdAndProductId(warehouseId, productId);
+        inventoryRepository.delete(inventory);
+        publishRemoval(inventory);
+        publishThresholdRemoval(inventory);
         return new ApiResponse<>("Inventory deleted successfully", null);
     }
 
+    // Stock aggregates are polled by client UIs: served from StockLevelCache, loaded
+    // (existence check included) only on a miss
     public ApiResponse<Integer> getTotalStockByProduct(Long productId) {
-        // Verify product exists
-        if (!productRepository.existsById(productId)) {
-            throw new ResourceNotFoundException("Product", "id", productId);
-        }
-
-        Integer totalStock = inventoryRepository.getTotalStockByProduct(productId);
+        int totalStock = stockLevelCache.totalStock(productId, () -> {
+            verifyProductExists(productId);
+            return inventoryRepository.getTotalStockByProduct(productId);
+        });
         return new ApiResponse<>("Total stock retrieved successfully", totalStock);
     }
 
     public ApiResponse<Integer> getAvailableStockByProduct(Long productId) {
-        // Verify product exists
-        if (!productRepository.existsById(productId)) {
-            throw new ResourceNotFoundException("Product", "id", productId);
-        }
+        int availableStock = stockLevelCache.availableStock(productId, () -> {
+            verifyProductExists(productId);
+            return inventoryRepository.getAvailableStockByProduct(productId);
+        });
+        return new ApiResponse<>("Available stock retrieved successfully", availableStock);
+    }
 
-        Integer availableStock = inventoryRepository.getAvailableStockByProduct(productId);
+    public ApiResponse<Integer> getAvailableStock(Long warehouseId, Long productId) {
+        int availableStock = stockLevelCache.availableStock(warehouseId, productId, () -> {
+            if (!warehouseRepository.existsById(warehouseId)) {
+                throw new ResourceNotFoundException("Warehouse", "id", warehouseId);
+            }
+            verifyProductExists(productId);
+            return inventoryRepository.getAvailableStock(warehouseId, productId);
+        });
         return new ApiResponse<>("Available stock retrieved successfully", availableStock);
     }
 
+    /**
+     * Units shipped over the last 7, 30 and 90 days, for one warehouse or all of them,
+     * read from the ShipmentVelocityTracker counters. The product is only looked up
+     * when nothing was shipped for it.
+     */
+    public ApiResponse<ShipmentVelocityDto> getShipmentVelocity(Long productId, Long warehouseId) {
+        if (!shipmentVelocityTracker.hasShipments(productId)) {
+            verifyProductExists(productId);
+        }
+        ShipmentVelocityDto velocity = shipmentVelocityTracker.velocity(productId, warehouseId);
+        return new ApiResponse<>("Shipment velocity retrieved successfully", velocity);
+    }
+
+    /**
+     * Available stock of many products at once, answered by a single grouped query
+     * instead of one SUM per product. Products without inventory report 0.
+     */
+    public ApiResponse<List<ProductAvailabilityDto>> getAvailability(AvailabilityRequestDto requestDto) {
+        List<Long> productIds = requestDto.getProductIds().stream().distinct().toList();
+        int maxBatchSize = businessRulesConfig.getMaxAvailabilityBatchSize();
+        if (productIds.size() > maxBatchSize) {
+            throw new InvalidOperationException(
+                    "Too many products in one batch: " + productIds.size() + " (max " + maxBatchSize + ")"
+            );
+        }
+
+        List<Long> warehouseIds = requestDto.getWarehouseIds();
+        List<AvailableQuantity> rows = warehouseIds == null || warehouseIds.isEmpty()
+                ? inventoryRepository.findAvailableByProductIds(productIds)
+                : inventoryRepository.findAvailableByProductIdsAndWarehouseIds(productIds, warehouseIds);
+
+        Map<Long, List<WarehouseAvailabilityDto>> byProduct = new HashMap<>();
+        for (AvailableQuantity row : rows) {
+            byProduct.computeIfAbsent(row.productId(), id -> new ArrayList<>())
+                    .add(new WarehouseAvailabilityDto(row.warehouseId(), row.available().intValue()));
+        }
+
+        List<ProductAvailabilityDto> availability = productIds.stream()
+                .map(productId -> {
+                    List<WarehouseAvailabilityDto> warehouses = byProduct.getOrDefault(productId, List.of());
+                    int available = warehouses.stream().mapToInt(WarehouseAvailabilityDto::getAvailable).sum();
+                    return new ProductAvailabilityDto(productId, available, warehouses);
+                })
+                .toList();
+        return new ApiResponse<>("Availability retrieved successfully", availability);
+    }
+
     public ApiResponse<Long> countInventories() {
         long count = inventoryRepository.count();
         return new ApiResponse<>("Total inventories counted successfully", count);
     }
 
+    // Helper method: Journal a signed on-hand change as an ADJUSTMENT movement
+    private void recordAdjustment(Inventory inventory, int quantityDifference) {
+        movementService.recordMovements(List.of(new MovementEntry(
+                inventory.getId(),
+                inventory.getWarehouse().getId(),
+                inventory.getProduct().getId(),
+                MovementType.ADJUSTMENT,
+                quantityDifference, // Signed: negative when stock was removed
+                "ADJ-" + System.currentTimeMillis(),
+                "Inventory adjustment - " +
+                        (quantityDifference > 0 ? "Added " : "Removed ") +
+                        Math.abs(quantityDifference) + " units - " +
+                        inventory.getProduct().getName()
+        )));
+    }
+
+    // Helper method: Publish the difference between the previous quantities and the saved ones
+    private void publishQuantityChange(InventoryChangedEvent removedStock, Inventory savedInventory) {
+        Long warehouseId = savedInventory.getWarehouse().getId();
+        Long productId = savedInventory.getProduct().getId();
+
+        if (warehouseId.equals(removedStock.warehouseId()) && productId.equals(removedStock.productId())) {
+            int onHandDelta = savedInventory.getQtyOnHand() + removedStock.onHandDelta();
+            int reservedDelta = savedInventory.getQtyReserved() + removedStock.reservedDelta();
+            if (onHandDelta != 0 || reservedDelta != 0) {
+                eventPublisher.publishEvent(new InventoryChangedEvent(warehouseId, productId, onHandDelta, reservedDelta));
+            }
+            return;
+        }
+
+        // Moved to another warehouse or product: remove the old quantities and add the new ones
+        eventPublisher.publishEvent(removedStock);
+        eventPublisher.publishEvent(new InventoryChangedEvent(
+                warehouseId, productId, savedInventory.getQtyOnHand(), savedInventory.getQtyReserved()
+        ));
+    }
+
+    // Helper method: The quantities of a deleted inventory leave the in-memory views
+    private void publishRemoval(Inventory inventory) {
+        eventPublisher.publishEvent(new InventoryChangedEvent(
+                inventory.getWarehouse().getId(), inventory.getProduct().getId(),
+                -inventory.getQtyOnHand(), -inventory.getQtyReserved()
+        ));
+    }
+
+    // Helper method: The reorder threshold follows the row when it moves to another cell
+    private void publishThresholdChange(InventoryChangedEvent removedStock, Integer previousThreshold,
+                                        Inventory savedInventory) {
+        Long warehouseId = savedInventory.getWarehouse().getId();
+        Long productId = savedInventory.getProduct().getId();
+        Integer threshold = savedInventory.getReorderThreshold();
+        boolean moved = !warehouseId.equals(removedStock.warehouseId()) || !productId.equals(removedStock.productId());
+
+        if (moved && previousThreshold != null) {
+            eventPublisher.publishEvent(new ReorderThresholdChangedEvent(
+                    removedStock.warehouseId(), removedStock.productId(), null
+            ));
+        }
+        if (threshold != null && (moved || !threshold.equals(previousThreshold))) {
+            eventPublisher.publishEvent(new ReorderThresholdChangedEvent(warehouseId, productId, threshold));
+        }
+    }
+
+    // Helper method: A deleted inventory is no longer watched
+    private void publishThresholdRemoval(Inventory inventory) {
+        if (inventory.getReorderThreshold() != null) {
+            eventPublisher.publishEvent(new ReorderThresholdChangedEvent(
+                    inventory.getWarehouse().getId(), inventory.getProduct().getId(), null
+            ));
+        }
+    }
+
+    private static void sendReorderAlerts(SseEmitter emitter, LowStockSnapshotDto snapshot) {
+        try {
+            emitter.send(SseEmitter.event().name("reorder-alerts").data(snapshot));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void verifyWarehouseExists(Long warehouseId) {
+        if (!warehouseRepository.existsById(warehouseId)) {
+            throw new ResourceNotFoundException("Warehouse", "id", warehouseId);
+        }
+    }
+
+    private void verifyProductExists(Long productId) {
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Product", "id", productId);
+        }
+    }
+
     // Helper method: Validate quantities
     private void validateQuantities(Integer qtyOnHand, Integer qtyReserved) {
         if (qtyReserved > qtyOnHand) {
@@ -0,0 +1,183 @@
+package org.project.digital_logistics.service;
+
+import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.inventory.InventoryOnHandDto;
+import org.project.digital_logistics.exception.InvalidOperationException;
+import org.project.digital_logistics.exception.ResourceNotFoundException;
+import org.project.digital_logistics.model.InventorySnapshot;
+import org.project.digital_logistics.repository.InventoryMovementRepository;
+import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.repository.InventorySnapshotRepository;
+import org.project.digital_logistics.repository.WarehouseRepository;
+import org.project.digital_logistics.repository.projection.InventoryQuantity;
+import org.project.digital_logistics.repository.projection.InventoryRow;
+import org.project.digital_logistics.service.journal.MovementPartitionManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Rebuilds the on-hand quantity of inventories as of any past time.
+ * <p>
+ * The nearest snapshot before the requested time is replayed forward with the movements
+ * that follow it. Without one, the first snapshot after it (or the current row) is
+ * replayed backward. Either way only the movements between the two times are read,
+ * through the (inventory_id, occurred_at) index, never the whole history.
+ * <p>
+ * Once movement partitions are dropped (business.movement-retention-months), times before
+ * the oldest kept month are rejected, and snapshots taken before it are never replayed forward.
+ */
+@Service
+@Transactional(readOnly = true)
+public class InventorySnapshotService {
+
+    private final InventorySnapshotRepository snapshotRepository;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryMovementRepository movementRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final MovementPartitionManager partitionManager;
+
+    @Autowired
+    public InventorySnapshotService(InventorySnapshotRepository snapshotRepository,
+                                    InventoryRepository inventoryRepository,
+                                    InventoryMovementRepository movementRepository,
+                                    WarehouseRepository warehouseRepository,
+                                    MovementPartitionManager partitionManager) {
+        this.snapshotRepository = snapshotRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.movementRepository = movementRepository;
+        this.warehouseRepository = warehouseRepository;
+        this.partitionManager = partitionManager;
+    }
+
+    /**
+     * Snapshot the on-hand quantity of every inventory.
+     *
+     * @return the number of snapshots written
+     */
+    @Transactional
+    public int takeSnapshot() {
+        return snapshotRepository.snapshotAll(LocalDateTime.now());
+    }
+
+    @Transactional
+    public int purgeSnapshotsBefore(LocalDateTime before) {
+        return snapshotRepository.deleteTakenBefore(before);
+    }
+
+    public ApiResponse<InventoryOnHandDto> getOnHandAt(Long inventoryId, LocalDateTime at) {
+        LocalDateTime retainedSince = checkRetained(at);
+        InventoryRow inventory = inventoryRepository.findRowById(inventoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "id", inventoryId));
+
+        if (!existedAt(inventory, at)) {
+            return new ApiResponse<>("Inventory on-hand quantity rebuilt successfully", toDto(inventory, at, 0, null));
+        }
+
+        InventoryOnHandDto onHand;
+        Optional<InventorySnapshot> before = snapshotRepository
+                .findFirstByInventoryIdAndTakenAtLessThanEqualOrderByTakenAtDesc(inventoryId, at)
+                .filter(snapshot -> isRetained(snapshot.getTakenAt(), retainedSince));
+        if (before.isPresent()) {
+            InventorySnapshot snapshot = before.get();
+            long replayed = movementRepository.sumSignedQuantity(inventoryId, snapshot.getTakenAt(), at);
+            onHand = toDto(inventory, at, snapshot.getQtyOnHand() + replayed, snapshot.getTakenAt());
+        } else {
+            Optional<InventorySnapshot> after = snapshotRepository
+                    .findFirstByInventoryIdAndTakenAtGreaterThanOrderByTakenAt(inventoryId, at);
+            int qtyOnHand = after.map(InventorySnapshot::getQtyOnHand).orElse(inventory.qtyOnHand());
+            LocalDateTime until = after.map(InventorySnapshot::getTakenAt).orElseGet(LocalDateTime::now);
+            long replayed = movementRepository.sumSignedQuantity(inventoryId, at, until);
+            onHand = toDto(inventory, at, qtyOnHand - replayed, after.map(InventorySnapshot::getTakenAt).orElse(null));
+        }
+        return new ApiResponse<>("Inventory on-hand quantity rebuilt successfully", onHand);
+    }
+
+    public ApiResponse<List<InventoryOnHandDto>> getWarehouseOnHandAt(Long warehouseId, LocalDateTime at) {
+        LocalDateTime retainedSince = checkRetained(at);
+        if (!warehouseRepository.existsById(warehouseId)) {
+            throw new ResourceNotFoundException("Warehouse", "id", warehouseId);
+        }
+
+        List<InventoryRow> inventories = inventoryRepository.findRowsByWarehouseId(warehouseId)
+                .stream()
+                .filter(inventory -> existedAt(inventory, at))
+                .toList();
+
+        // Base quantities from one snapshot run, moved to "at" by the signed movements in between
+        Map<Long, Integer> quantities = new HashMap<>();
+        LocalDateTime runAt = null;
+        Optional<LocalDateTime> before = snapshotRepository.findLastRunAtOrBefore(warehouseId, at)
+                .filter(taken -> isRetained(taken, retainedSince));
+        Optional<LocalDateTime> after = before.isPresent()
+                ? Optional.empty()
+                : snapshotRepository.findFirstRunAfter(warehouseId, at);
+        if (before.isPresent() || after.isPresent()) {
+            runAt = before.orElseGet(after::get);
+            int sign = before.isPresent() ? 1 : -1;
+            Map<Long, Long> replayed = before.isPresent()
+                    ? sumByInventory(warehouseId, runAt, at)
+                    : sumByInventory(warehouseId, at, runAt);
+            for (InventorySnapshot snapshot : snapshotRepository.findByWarehouseIdAndTakenAt(warehouseId, runAt)) {
+                long delta = replayed.getOrDefault(snapshot.getInventoryId(), 0L);
+                quantities.put(snapshot.getInventoryId(), (int) (snapshot.getQtyOnHand() + sign * delta));
+            }
+        }
+
+        // Inventories created after the run: replay back from their current quantity
+        Map<Long, Long> sinceAt = inventories.stream().allMatch(inventory -> quantities.containsKey(inventory.id()))
+                ? Map.of()
+                : sumByInventory(warehouseId, at, LocalDateTime.now());
+
+        LocalDateTime snapshotTakenAt = runAt;
+        List<InventoryOnHandDto> onHand = inventories.stream()
+                .map(inventory -> quantities.containsKey(inventory.id())
+                        ? toDto(inventory, at, quantities.get(inventory.id()), snapshotTakenAt)
+                        : toDto(inventory, at, inventory.qtyOnHand() - sinceAt.getOrDefault(inventory.id(), 0L), null))
+                .toList();
+        return new ApiResponse<>("Warehouse on-hand quantities rebuilt successfully", onHand);
+    }
+
+    private Map<Long, Long> sumByInventory(Long warehouseId, LocalDateTime from, LocalDateTime to) {
+        return movementRepository.sumSignedQuantityByInventory(warehouseId, from, to)
+                .stream()
+                .collect(Collectors.toMap(InventoryQuantity::inventoryId, InventoryQuantity::quantity));
+    }
+
+    // The movements before the oldest kept partition are gone: nothing before it can be rebuilt
+    private LocalDateTime checkRetained(LocalDateTime at) {
+        LocalDateTime retainedSince = partitionManager.retainedSince();
+        if (!isRetained(at, retainedSince)) {
+            throw new InvalidOperationException("On-hand quantities can only be rebuilt from " + retainedSince
+                    + ": older inventory movements are no longer retained");
+        }
+        return retainedSince;
+    }
+
+    private static boolean isRetained(LocalDateTime time, LocalDateTime retainedSince) {
+        return retainedSince == null || !time.isBefore(retainedSince);
+    }
+
+    private static boolean existedAt(InventoryRow inventory, LocalDateTime at) {
+        return inventory.createdAt() == null || !inventory.createdAt().isAfter(at);
+    }
+
+    private static InventoryOnHandDto toDto(InventoryRow inventory, LocalDateTime at, long qtyOnHand,
+                                            LocalDateTime snapshotTakenAt) {
+        return InventoryOnHandDto.builder()
+                .inventoryId(inventory.id())
+                .warehouseId(inventory.warehouseId())
+                .warehouseCode(inventory.warehouseCode())
+                .productId(inventory.productId())
+                .productSku(inventory.productSku())
+                .productName(inventory.productName())
+                .at(at)
+                .qtyOnHand((int) qtyOnHand)
+                .snapshotTakenAt(snapshotTakenAt)
+                .build();
+    }
+}
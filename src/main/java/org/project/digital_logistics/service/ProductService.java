@@ -1,6 +1,7 @@
 package org.project.digital_logistics.service;
 
 import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.CursorPageDto;
 import org.project.digital_logistics.dto.product.ProductRequestDto;
 import org.project.digital_logistics.dto.product.ProductResponseDto;
 import org.project.digital_logistics.exception.DuplicateResourceException;
@@ -8,6 +9,7 @@ import org.project.digital_logistics.exception.ResourceNotFoundException;
 import org.project.digital_logistics.mapper.ProductMapper;
 import org.project.digital_logistics.model.Product;
 import org.project.digital_logistics.repository.ProductRepository;
+import org.project.digital_logistics.service.listing.KeysetListing;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +17,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 @Service
@@ -26,17 +30,20 @@ public class ProductService {
     private final ProductMapper productMapper;
     private final FileStorageService fileStorageService;
     private final S3Service s3Service;
+    private final KeysetListing keysetListing;
 
     @Autowired
     public ProductService(
             ProductRepository productRepository,
             ProductMapper productMapper,
             FileStorageService fileStorageService,
-            @Autowired(required = false) S3Service s3Service) {
+            @Autowired(required = false) S3Service s3Service,
+            KeysetListing keysetListing) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
         this.fileStorageService = fileStorageService;
         this.s3Service = s3Service;
+        this.keysetListing = keysetListing;
     }
 
     @Transactional
@@ -77,6 +84,17 @@ public class ProductService {
         return new ApiResponse<>("Products retrieved successfully", products);
     }
 
+    public ApiResponse<CursorPageDto<ProductResponseDto>> getProductsPage(Long after, Integer limit) {
+        int size = keysetListing.limit(limit);
+        List<Product> rows = productRepository.findPageAfter(after, keysetListing.window(size));
+        return new ApiResponse<>("Products retrieved successfully",
+                keysetListing.page(rows, size, Product::getId, productMapper::toResponseDto));
+    }
+
+    public long streamAllProducts(OutputStream out) throws IOException {
+        return keysetListing.writeNdjson(out, productRepository.streamAll(), productMapper::toResponseDto);
+    }
+
     public ApiResponse<List<ProductResponseDto>> getProductsByCategory(String category) {
         List<ProductResponseDto> products = productRepository.findByCategory(category)
                 .stream()
@@ -1,23 +1,34 @@
 package org.project.digital_logistics.service;
 
 import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.CursorPageDto;
 import org.project.digital_logistics.dto.purchaseorder.PurchaseOrderLineDto;
 import org.project.digital_logistics.dto.purchaseorder.PurchaseOrderRequestDto;
 import org.project.digital_logistics.dto.purchaseorder.PurchaseOrderResponseDto;
 import org.project.digital_logistics.enums.PurchaseOrderStatus;
+import org.project.digital_logistics.event.InventoryChangedEvent;
+import org.project.digital_logistics.event.StatusChangedEvent;
 import org.project.digital_logistics.exception.InvalidOperationException;
 import org.project.digital_logistics.exception.ResourceNotFoundException;
 import org.project.digital_logistics.mapper.PurchaseOrderMapper;
 import org.project.digital_logistics.model.*;
 import org.project.digital_logistics.model.enums.MovementType;
-import org.project.digital_logistics.model.enums.OrderStatus;
+import org.project.digital_logistics.model.enums.StatusCounterType;
 import org.project.digital_logistics.repository.*;
+import org.project.digital_logistics.service.InventoryMovementService.MovementEntry;
+import org.project.digital_logistics.service.listing.KeysetListing;
+import org.project.digital_logistics.service.retry.RetryOnConflict;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -30,7 +41,8 @@ public class PurchaseOrderService {
     private final InventoryRepository inventoryRepository;
     private final WarehouseRepository warehouseRepository;
     private final InventoryMovementService movementService;
-    private final SalesOrderRepository salesOrderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetListing keysetListing;
 
     @Autowired
     public PurchaseOrderService(PurchaseOrderRepository purchaseOrderRepository,
@@ -39,17 +51,20 @@ public class PurchaseOrderService {
                                 InventoryRepository inventoryRepository,
                                 WarehouseRepository warehouseRepository,
                                 InventoryMovementService movementService,
-                                SalesOrderRepository salesOrderRepository) {
+                                ApplicationEventPublisher eventPublisher,
+                                KeysetListing keysetListing) {
         this.purchaseOrderRepository = purchaseOrderRepository;
         this.supplierRepository = supplierRepository;
         this.productRepository = productRepository;
         this.inventoryRepository = inventoryRepository;
         this.warehouseRepository = warehouseRepository;
         this.movementService = movementService;
-        this.salesOrderRepository = salesOrderRepository;
+        this.eventPublisher = eventPublisher;
+        this.keysetListing = keysetListing;
     }
 
     @Transactional
+    @RetryOnConflict
     public ApiResponse<PurchaseOrderResponseDto> createPurchaseOrder(PurchaseOrderRequestDto requestDto) {
         Supplier supplier = supplierRepository.findById(requestDto.getSupplierId())
                 .orElseThrow(() -> new ResourceNotFoundException("Supplier", "id", requestDto.getSupplierId()));
@@ -68,6 +83,7 @@ public class PurchaseOrderService {
         }
 
         PurchaseOrder savedOrder = purchaseOrderRepository.save(purchaseOrder);
+        eventPublisher.publishEvent(StatusChangedEvent.created(StatusCounterType.PURCHASE_ORDER, purchaseOrder.getStatus()));
 
         PurchaseOrderResponseDto responseDto = PurchaseOrderMapper.toResponseDto(savedOrder);
 
@@ -90,6 +106,19 @@ public class PurchaseOrderService {
         return new ApiResponse<>("Purchase orders retrieved successfully", orders);
     }
 
+    public ApiResponse<CursorPageDto<PurchaseOrderResponseDto>> getPurchaseOrdersPage(Long after, Integer limit) {
+        int size = keysetListing.limit(limit);
+        List<Long> ids = purchaseOrderRepository.findIdsAfter(after, keysetListing.window(size));
+        List<PurchaseOrder> orders = ids.isEmpty() ? List.of() : purchaseOrderRepository.findAllWithLinesByIdIn(ids);
+        return new ApiResponse<>("Purchase orders retrieved successfully",
+                keysetListing.page(orders, size, PurchaseOrder::getId, PurchaseOrderMapper::toResponseDto));
+    }
+
+    public long streamAllPurchaseOrders(OutputStream out) throws IOException {
+        return keysetListing.writeNdjsonInChunks(out, purchaseOrderRepository.streamAllIds(),
+                purchaseOrderRepository::findAllWithLinesByIdIn, PurchaseOrderMapper::toResponseDto);
+    }
+
     public ApiResponse<List<PurchaseOrderResponseDto>> getPurchaseOrdersByStatus(PurchaseOrderStatus status) {
         List<PurchaseOrderResponseDto> orders = purchaseOrderRepository.findByStatus(status)
                 .stream()
@@ -111,6 +140,7 @@ public class PurchaseOrderService {
     }
 
     @Transactional
+    @RetryOnConflict
     public ApiResponse<PurchaseOrderResponseDto> updatePurchaseOrder(Long id, PurchaseOrderRequestDto requestDto) {
         PurchaseOrder purchaseOrder = purchaseOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("PurchaseOrder", "id", id));
@@ -147,6 +177,7 @@ public class PurchaseOrderService {
 
     //  APPROVE Purchase Order
     @Transactional
+    @RetryOnConflict
     public ApiResponse<PurchaseOrderResponseDto> approvePurchaseOrder(Long id) {
         PurchaseOrder purchaseOrder = purchaseOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("PurchaseOrder", "id", id));
@@ -159,7 +190,7 @@ public class PurchaseOrderService {
         }
 
         // Update status
-        purchaseOrder.setStatus(PurchaseOrderStatus.APPROVED);
+        changeStatus(purchaseOrder, PurchaseOrderStatus.APPROVED);
         purchaseOrder.setApprovedAt(LocalDateTime.now());
 
         PurchaseOrder savedOrder = purchaseOrderRepository.save(purchaseOrder);
@@ -170,6 +201,7 @@ public class PurchaseOrderService {
 
     //  RECEIVE Purchase Order (+ Update Inventory)
     @Transactional
+    @RetryOnConflict
     public ApiResponse<PurchaseOrderResponseDto> receivePurchaseOrder(Long id, Long warehouseId) {
         PurchaseOrder purchaseOrder = purchaseOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("PurchaseOrder", "id", id));
@@ -183,6 +215,7 @@ public class PurchaseOrderService {
         Warehouse warehouse = warehouseRepository.findById(warehouseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Warehouse", "id", warehouseId));
 
+        List<MovementEntry> movements = new ArrayList<>();
         for (PurchaseOrderLine line : purchaseOrder.getOrderLines()) {
             Product product = line.getProduct();
             Integer quantity = line.getQuantity();
@@ -200,145 +233,33 @@ public class PurchaseOrderService {
             // Add received quantity
             inventory.setQtyOnHand(inventory.getQtyOnHand() + quantity);
             Inventory savedInventory = inventoryRepository.save(inventory);
+            eventPublisher.publishEvent(InventoryChangedEvent.received(warehouseId, product.getId(), quantity));
 
-            movementService.recordMovement(
+            movements.add(new MovementEntry(
                     savedInventory.getId(),
+                    warehouseId,
+                    product.getId(),
                     MovementType.INBOUND,
                     quantity,
                     "PO-" + id,
                     "Purchase order reception - " + product.getName()
-            );
+            ));
         }
+        movementService.recordMovements(movements);
 
-        purchaseOrder.setStatus(PurchaseOrderStatus.RECEIVED);
+        changeStatus(purchaseOrder, PurchaseOrderStatus.RECEIVED);
         purchaseOrder.setReceivedAt(LocalDateTime.now());
 
         PurchaseOrder savedOrder = purchaseOrderRepository.save(purchaseOrder);
 
-        // Check if this PO is related to a Sales Order and try to auto-reserve
-        String autoReserveMessage = "";
-        if (savedOrder.getRelatedSalesOrderId() != null) {
-            autoReserveMessage = tryAutoReserveSalesOrder(savedOrder.getRelatedSalesOrderId());
-        }
-
         PurchaseOrderResponseDto responseDto = PurchaseOrderMapper.toResponseDto(savedOrder);
 
-        String finalMessage = "Purchase order received successfully and inventory updated";
-        if (!autoReserveMessage.isEmpty()) {
-            finalMessage += "\n\n" + autoReserveMessage;
-        }
-
-        return new ApiResponse<>(finalMessage, responseDto);
-    }
-
-    /**
-     * Try to automatically reserve a Sales Order if all required stock is now available
-     */
-    private String tryAutoReserveSalesOrder(Long salesOrderId) {
-        try {
-            SalesOrder salesOrder = salesOrderRepository.findById(salesOrderId).orElse(null);
-
-            if (salesOrder == null || salesOrder.getStatus() != OrderStatus.BACKORDER) {
-                return "";
-            }
-
-            // Check if ALL products now have enough stock
-            boolean allStockAvailable = true;
-            for (SalesOrderLine line : salesOrder.getOrderLines()) {
-                Product product = line.getProduct();
-                Integer requestedQty = line.getQuantity();
-
-                Integer totalAvailable = inventoryRepository.findByProductId(product.getId())
-                        .stream()
-                        .mapToInt(inv -> inv.getQtyOnHand() - inv.getQtyReserved())
-                        .sum();
-
-                if (totalAvailable < requestedQty) {
-                    allStockAvailable = false;
-                    break;
-                }
-            }
-
-            if (allStockAvailable) {
-                // All stock is now available! Reserve the stock automatically
-                boolean reservationSuccess = performStockReservation(salesOrder);
-
-                if (reservationSuccess) {
-                    return "Bonne nouvelle! Tous les produits de la commande #" + salesOrderId +
-                           " sont maintenant en stock et ont été réservés automatiquement. Status: RESERVED";
-                } else {
-                    // If reservation fails, change status back to CREATED so client can try
-                    salesOrder.setStatus(OrderStatus.CREATED);
-                    salesOrderRepository.save(salesOrder);
-                    return "Tous les produits de la commande #" + salesOrderId +
-                           " sont maintenant en stock. Status changé à CREATED. Le client peut maintenant réserver.";
-                }
-            } else {
-                return "Stock reçu, mais d'autres produits sont encore en attente pour la commande #" + salesOrderId;
-            }
-
-        } catch (Exception e) {
-            System.err.println("Error trying to auto-reserve Sales Order " + salesOrderId + ": " + e.getMessage());
-            return "";
-        }
-    }
-
-    /**
-     * Perform actual stock reservation for a Sales Order
-     * Updates qtyReserved in inventories and changes status to RESERVED
-     */
-    private boolean performStockReservation(SalesOrder salesOrder) {
-        try {
-            // For each product in the sales order, reserve stock from available inventories
-            for (SalesOrderLine line : salesOrder.getOrderLines()) {
-                Product product = line.getProduct();
-                Integer requestedQty = line.getQuantity();
-                Integer remainingQty = requestedQty;
-
-                // Get all inventories for this product sorted by available quantity (descending)
-                List<Inventory> inventories = inventoryRepository.findByProductId(product.getId())
-                        .stream()
-                        .filter(inv -> (inv.getQtyOnHand() - inv.getQtyReserved()) > 0)
-                        .sorted((a, b) -> Integer.compare(
-                                b.getQtyOnHand() - b.getQtyReserved(),
-                                a.getQtyOnHand() - a.getQtyReserved()
-                        ))
-                        .toList();
-
-                // Reserve stock from each warehouse
-                for (Inventory inventory : inventories) {
-                    if (remainingQty <= 0) break;
-
-                    Integer available = inventory.getQtyOnHand() - inventory.getQtyReserved();
-                    Integer toReserve = Math.min(available, remainingQty);
-
-                    // Update reserved quantity
-                    inventory.setQtyReserved(inventory.getQtyReserved() + toReserve);
-                    inventoryRepository.save(inventory);
-
-                    remainingQty -= toReserve;
-                }
-
-                // Check if all quantity was reserved
-                if (remainingQty > 0) {
-                    // Rollback reservations and return false
-                    return false;
-                }
-            }
-
-            // All stock reserved successfully, update status
-            salesOrder.setStatus(OrderStatus.RESERVED);
-            salesOrder.setReservedAt(LocalDateTime.now());
-            salesOrderRepository.save(salesOrder);
-
-            return true;
-        } catch (Exception e) {
-            System.err.println("Error performing stock reservation: " + e.getMessage());
-            return false;
-        }
+        // Waiting BACKORDER orders are reserved asynchronously by BackorderAllocationEngine
+        return new ApiResponse<>("Purchase order received successfully and inventory updated", responseDto);
     }
 
     @Transactional
+    @RetryOnConflict
     public ApiResponse<PurchaseOrderResponseDto> cancelPurchaseOrder(Long id) {
         PurchaseOrder purchaseOrder = purchaseOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("PurchaseOrder", "id", id));
@@ -353,7 +274,7 @@ public class PurchaseOrderService {
             throw new InvalidOperationException("Purchase order is already canceled");
         }
 
-        purchaseOrder.setStatus(PurchaseOrderStatus.CANCELED);
+        changeStatus(purchaseOrder, PurchaseOrderStatus.CANCELED);
         purchaseOrder.setCanceledAt(LocalDateTime.now());
 
         PurchaseOrder savedOrder = purchaseOrderRepository.save(purchaseOrder);
@@ -363,6 +284,7 @@ public class PurchaseOrderService {
     }
 
     @Transactional
+    @RetryOnConflict
     public ApiResponse<Void> deletePurchaseOrder(Long id) {
         PurchaseOrder purchaseOrder = purchaseOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("PurchaseOrder", "id", id));
@@ -376,6 +298,8 @@ public class PurchaseOrderService {
         }
 
         purchaseOrderRepository.deleteById(id);
+        eventPublisher.publishEvent(StatusChangedEvent.removed(
+                StatusCounterType.PURCHASE_ORDER, purchaseOrder.getStatus(), 1));
         return new ApiResponse<>("Purchase order deleted successfully", null);
     }
 
@@ -391,9 +315,11 @@ public class PurchaseOrderService {
 
     /**
      * Create a Purchase Order automatically for out-of-stock products
-     * This is triggered when a Sales Order cannot be reserved due to insufficient stock
+     * This is triggered when a Sales Order cannot be reserved due to insufficient stock.
+     * Runs in its own transaction, so a failure here does not mark the caller's reservation rollback-only
      */
-    @Transactional
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @RetryOnConflict
     public PurchaseOrder createAutoPurchaseOrder(Product product, Integer quantity, Long salesOrderId) {
         // Find a supplier for this product (use the first available supplier)
         // In a real scenario, you might want to select based on product-supplier relationships
@@ -416,6 +342,14 @@ public class PurchaseOrderService {
 
         purchaseOrder.addOrderLine(line);
 
-        return purchaseOrderRepository.save(purchaseOrder);
+        PurchaseOrder savedOrder = purchaseOrderRepository.save(purchaseOrder);
+        eventPublisher.publishEvent(StatusChangedEvent.created(StatusCounterType.PURCHASE_ORDER, purchaseOrder.getStatus()));
+        return savedOrder;
+    }
+
+    private void changeStatus(PurchaseOrder purchaseOrder, PurchaseOrderStatus status) {
+        eventPublisher.publishEvent(StatusChangedEvent.transition(
+                StatusCounterType.PURCHASE_ORDER, purchaseOrder.getStatus(), status));
+        purchaseOrder.setStatus(status);
     }
 }
\ No newline at end of file
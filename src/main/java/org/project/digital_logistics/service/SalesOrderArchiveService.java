@@ -0,0 +1,129 @@
+package org.project.digital_logistics.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.project.digital_logistics.dto.salesorder.SalesOrderResponseDto;
+import org.project.digital_logistics.event.StatusChangedEvent;
+import org.project.digital_logistics.mapper.SalesOrderMapper;
+import org.project.digital_logistics.mapper.ShipmentMapper;
+import org.project.digital_logistics.model.ArchivedSalesOrder;
+import org.project.digital_logistics.model.SalesOrder;
+import org.project.digital_logistics.model.Shipment;
+import org.project.digital_logistics.model.enums.OrderStatus;
+import org.project.digital_logistics.model.enums.StatusCounterType;
+import org.project.digital_logistics.repository.ArchivedSalesOrderRepository;
+import org.project.digital_logistics.repository.SalesOrderRepository;
+import org.project.digital_logistics.repository.ShipmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Moves finished sales orders (CANCELED / DELIVERED) out of the hot tables into
+ * archived_sales_orders, and reads them back for lookups by id.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SalesOrderArchiveService {
+
+    static final Set<OrderStatus> ARCHIVABLE_STATUSES = EnumSet.of(OrderStatus.CANCELED, OrderStatus.DELIVERED);
+
+    private final SalesOrderRepository salesOrderRepository;
+    private final ShipmentRepository shipmentRepository;
+    private final ArchivedSalesOrderRepository archivedSalesOrderRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public SalesOrderArchiveService(SalesOrderRepository salesOrderRepository,
+                                    ShipmentRepository shipmentRepository,
+                                    ArchivedSalesOrderRepository archivedSalesOrderRepository,
+                                    ObjectMapper objectMapper,
+                                    ApplicationEventPublisher eventPublisher) {
+        this.salesOrderRepository = salesOrderRepository;
+        this.shipmentRepository = shipmentRepository;
+        this.archivedSalesOrderRepository = archivedSalesOrderRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Archive the next chunk of orders created before the given time.
+     *
+     * @return the number of orders archived (0 once there is nothing left)
+     */
+    @Transactional
+    public int archiveNextChunk(LocalDateTime createdBefore, int chunkSize) {
+        List<Long> orderIds = salesOrderRepository.findIdsToArchive(
+                ARCHIVABLE_STATUSES, createdBefore, PageRequest.of(0, chunkSize));
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Shipment> shipmentsByOrder = shipmentRepository.findBySalesOrderIdIn(orderIds)
+                .stream()
+                .collect(Collectors.toMap(shipment -> shipment.getSalesOrder().getId(), Function.identity()));
+
+        LocalDateTime archivedAt = LocalDateTime.now();
+        List<SalesOrder> orders = salesOrderRepository.findAllWithLinesByIdIn(orderIds);
+        List<ArchivedSalesOrder> archived = orders.stream()
+                .map(order -> toArchive(order, shipmentsByOrder.get(order.getId()), archivedAt))
+                .toList();
+        archivedSalesOrderRepository.saveAll(archived);
+
+        shipmentRepository.deleteBySalesOrderIdIn(orderIds);
+        salesOrderRepository.deleteLinesByOrderIdIn(orderIds);
+        salesOrderRepository.deleteByIdIn(orderIds);
+
+        publishRemoved(StatusCounterType.SALES_ORDER, orders.stream().map(SalesOrder::getStatus));
+        publishRemoved(StatusCounterType.SHIPMENT, shipmentsByOrder.values().stream().map(Shipment::getStatus));
+
+        return orderIds.size();
+    }
+
+    private void publishRemoved(StatusCounterType type, Stream<? extends Enum<?>> statuses) {
+        statuses.collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .forEach((status, count) -> eventPublisher.publishEvent(StatusChangedEvent.removed(type, status, count)));
+    }
+
+    public Optional<SalesOrderResponseDto> findArchivedOrder(Long id) {
+        return archivedSalesOrderRepository.findById(id)
+                .map(archived -> fromJson(archived.getOrderPayload(), SalesOrderResponseDto.class));
+    }
+
+    private ArchivedSalesOrder toArchive(SalesOrder order, Shipment shipment, LocalDateTime archivedAt) {
+        return ArchivedSalesOrder.builder()
+                .id(order.getId())
+                .clientId(order.getClient() != null ? order.getClient().getId() : null)
+                .status(order.getStatus())
+                .createdAt(order.getCreatedAt())
+                .archivedAt(archivedAt)
+                .orderPayload(toJson(SalesOrderMapper.toResponseDto(order)))
+                .shipmentPayload(shipment != null ? toJson(ShipmentMapper.toResponseDto(shipment)) : null)
+                .build();
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize archived sales order", e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read archived sales order", e);
+        }
+    }
+}
@@ -1,30 +1,56 @@
 package org.project.digital_logistics.service;
 
+import lombok.extern.slf4j.Slf4j;
 import org.project.digital_logistics.config.BusinessRulesConfig;
 import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.CursorPageDto;
 import org.project.digital_logistics.dto.salesorder.SalesOrderLineDto;
+import org.project.digital_logistics.dto.salesorder.SalesOrderReserveResultDto;
 import org.project.digital_logistics.dto.salesorder.SalesOrderRequestDto;
 import org.project.digital_logistics.dto.salesorder.SalesOrderResponseDto;
+import org.project.digital_logistics.event.InventoryChangedEvent;
+import org.project.digital_logistics.event.SalesOrderReservedEvent;
+import org.project.digital_logistics.event.StatusChangedEvent;
 import org.project.digital_logistics.model.enums.MovementType;
 import org.project.digital_logistics.model.enums.OrderStatus;
+import org.project.digital_logistics.model.enums.ReservationOutcome;
+import org.project.digital_logistics.model.enums.StatusCounterType;
 import org.project.digital_logistics.exception.InsufficientStockException;
 import org.project.digital_logistics.exception.InvalidOperationException;
 import org.project.digital_logistics.exception.ResourceNotFoundException;
 import org.project.digital_logistics.mapper.SalesOrderMapper;
 import org.project.digital_logistics.model.*;
 import org.project.digital_logistics.repository.*;
+import org.project.digital_logistics.service.InventoryMovementService.MovementEntry;
+import org.project.digital_logistics.service.allocation.WarehouseAllocator;
+import org.project.digital_logistics.service.allocation.WarehouseAllocation;
+import org.project.digital_logistics.service.stock.StockLedger;
+import org.project.digital_logistics.repository.projection.SalesOrderLineRow;
+import org.project.digital_logistics.repository.projection.SalesOrderSummary;
+import org.project.digital_logistics.service.listing.KeysetListing;
+import org.project.digital_logistics.service.retry.RetryOnConflict;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
+@Slf4j
 public class SalesOrderService {
 
+    // Guarded UPDATE attempts per warehouse before falling back to the next one
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
     private final SalesOrderRepository salesOrderRepository;
     private final ClientRepository clientRepository;
     private final ProductRepository productRepository;
@@ -33,6 +59,12 @@ public class SalesOrderService {
     private final ShipmentService shipmentService;
     private final PurchaseOrderService purchaseOrderService;
     private final BusinessRulesConfig businessRulesConfig;
+    private final WarehouseRepository warehouseRepository;
+    private final StockLedger stockLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WarehouseAllocator warehouseAllocator;
+    private final SalesOrderArchiveService salesOrderArchiveService;
+    private final KeysetListing keysetListing;
 
     @Autowired
     public SalesOrderService(SalesOrderRepository salesOrderRepository,
@@ -42,7 +74,13 @@ public class SalesOrderService {
                              InventoryMovementService movementService,
                              ShipmentService shipmentService,
                              PurchaseOrderService purchaseOrderService,
-                             BusinessRulesConfig businessRulesConfig) {
+                             BusinessRulesConfig businessRulesConfig,
+                             WarehouseRepository warehouseRepository,
+                             StockLedger stockLedger,
+                             ApplicationEventPublisher eventPublisher,
+                             WarehouseAllocator warehouseAllocator,
+                             SalesOrderArchiveService salesOrderArchiveService,
+                             KeysetListing keysetListing) {
         this.salesOrderRepository = salesOrderRepository;
         this.clientRepository = clientRepository;
         this.productRepository = productRepository;
@@ -51,19 +89,28 @@ public class SalesOrderService {
         this.shipmentService = shipmentService;
         this.purchaseOrderService = purchaseOrderService;
         this.businessRulesConfig = businessRulesConfig;
+        this.warehouseRepository = warehouseRepository;
+        this.stockLedger = stockLedger;
+        this.eventPublisher = eventPublisher;
+        this.warehouseAllocator = warehouseAllocator;
+        this.salesOrderArchiveService = salesOrderArchiveService;
+        this.keysetListing = keysetListing;
     }
 
     private static class StockAllocation {
         Warehouse warehouse;
+        Long productId;
         Integer quantity;
 
-        StockAllocation(Warehouse warehouse, Integer quantity) {
+        StockAllocation(Warehouse warehouse, Long productId, Integer quantity) {
             this.warehouse = warehouse;
+            this.productId = productId;
             this.quantity = quantity;
         }
     }
 
     @Transactional
+    @RetryOnConflict
     public ApiResponse<SalesOrderResponseDto> createSalesOrder(SalesOrderRequestDto requestDto, Long authenticatedClientId) {
         // 1. Fetch Client
         Client client = clientRepository.findById(authenticatedClientId)
@@ -114,6 +161,7 @@ public class SalesOrderService {
 
         // 4. Save order with CREATED status
         SalesOrder savedOrder = salesOrderRepository.save(salesOrder);
+        eventPublisher.publishEvent(StatusChangedEvent.created(StatusCounterType.SALES_ORDER, OrderStatus.CREATED));
 
         String message = "Sales order created successfully with status CREATED. " +
                 "To reserve stock, call the reserve endpoint.";
@@ -128,54 +176,64 @@ public class SalesOrderService {
         List<SalesOrderLine> originalLines = new ArrayList<>(salesOrder.getOrderLines());
         salesOrder.getOrderLines().clear();
 
-        // Allocate stock from warehouses
+        // Every allocation reserved so far, so a later shortage can give the stock back
+        List<StockAllocation> reservedAllocations = new ArrayList<>();
+
+        // Reserve stock in the warehouses
         for (SalesOrderLine originalLine : originalLines) {
             Product product = originalLine.getProduct();
             Integer requestedQty = originalLine.getQuantity();
 
-            List<StockAllocation> allocations = allocateStockAcrossWarehouses(product.getId(), requestedQty);
+            List<StockAllocation> allocations = reserveStockAcrossWarehouses(product.getId(), requestedQty);
 
             if (allocations.isEmpty()) {
+                releaseAllocations(reservedAllocations);
                 throw new InsufficientStockException(
                         "Cannot reserve stock for product: " + product.getName()
                 );
             }
+            reservedAllocations.addAll(allocations);
 
-            // Reserve stock and create lines
+            // Create one line per warehouse
             for (StockAllocation allocation : allocations) {
-                Inventory inventory = inventoryRepository
-                        .findByWarehouseIdAndProductId(allocation.warehouse.getId(), product.getId())
-                        .orElseThrow(() -> new ResourceNotFoundException("Inventory not found"));
-
-                // Reserve stock
-                inventory.setQtyReserved(inventory.getQtyReserved() + allocation.quantity);
-                inventoryRepository.save(inventory);
-
-                // Create line
-                SalesOrderLine line = SalesOrderMapper.toLineEntity(
-                        SalesOrderLineDto.builder()
-                                .productId(product.getId())
-                                .quantity(allocation.quantity)
-                                .unitPrice(originalLine.getUnitPrice())
-                                .build(),
-                        salesOrder,
-                        product,
-                        allocation.warehouse,
-                        allocation.quantity,
-                        false
-                );
-                salesOrder.addOrderLine(line);
+                addReservedLine(salesOrder, originalLine, allocation.warehouse, allocation.quantity);
             }
         }
 
         // Update status
-        salesOrder.setStatus(OrderStatus.RESERVED);
+        changeStatus(salesOrder, OrderStatus.RESERVED);
         salesOrder.setReservedAt(LocalDateTime.now());
 
-        return salesOrderRepository.save(salesOrder);
+        SalesOrder savedOrder = salesOrderRepository.save(salesOrder);
+        eventPublisher.publishEvent(new SalesOrderReservedEvent(salesOrder.getId(), salesOrder.getReservedAt()));
+        return savedOrder;
+    }
+
+    private void changeStatus(SalesOrder salesOrder, OrderStatus status) {
+        eventPublisher.publishEvent(StatusChangedEvent.transition(
+                StatusCounterType.SALES_ORDER, salesOrder.getStatus(), status));
+        salesOrder.setStatus(status);
+    }
+
+    private void addReservedLine(SalesOrder salesOrder, SalesOrderLine originalLine, Warehouse warehouse, Integer quantity) {
+        Product product = originalLine.getProduct();
+        SalesOrderLine line = SalesOrderMapper.toLineEntity(
+                SalesOrderLineDto.builder()
+                        .productId(product.getId())
+                        .quantity(quantity)
+                        .unitPrice(originalLine.getUnitPrice())
+                        .build(),
+                salesOrder,
+                product,
+                warehouse,
+                quantity,
+                false
+        );
+        salesOrder.addOrderLine(line);
     }
 
     @Transactional
+    @RetryOnConflict
     public ApiResponse<SalesOrderResponseDto> reserveStock(Long id) {
         SalesOrder salesOrder = salesOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("SalesOrder", "id", id));
@@ -203,10 +261,11 @@ public class SalesOrderService {
             Product product = line.getProduct();
             Integer requestedQty = line.getQuantity();
 
-            Integer totalAvailable = inventoryRepository.findByProductId(product.getId())
-                    .stream()
-                    .mapToInt(inv -> inv.getQtyOnHand() - inv.getQtyReserved())
-                    .sum();
+            Integer totalAvailable = stockLedger.availableStock(product.getId())
+                    .orElseGet(() -> inventoryRepository.findByProductId(product.getId())
+                            .stream()
+                            .mapToInt(inv -> inv.getQtyOnHand() - inv.getQtyReserved())
+                            .sum());
 
             if (totalAvailable < requestedQty) {
                 Integer missingQty = requestedQty - totalAvailable;
@@ -229,7 +288,7 @@ public class SalesOrderService {
         // If some products have insufficient stock
         if (!allStockAvailable) {
             // Change status to BACKORDER
-            salesOrder.setStatus(OrderStatus.BACKORDER);
+            changeStatus(salesOrder, OrderStatus.BACKORDER);
             salesOrderRepository.save(salesOrder);
 
             StringBuilder message = new StringBuilder();
@@ -269,37 +328,310 @@ public class SalesOrderService {
         }
     }
 
-    private List<StockAllocation> allocateStockAcrossWarehouses(Long productId, Integer requestedQty) {
-        List<StockAllocation> allocations = new ArrayList<>();
-        Integer remaining = requestedQty;
+    /**
+     * Reserve a BACKORDER order once all of its products are back in stock, split across
+     * warehouses like {@link #reserveStock(Long)}.
+     *
+     * The order row is locked first: a concurrent run or cancelOrder waits for this
+     * transaction and then sees its result. Always runs in its own transaction, as the
+     * BackorderAllocationEngine may call it from the AFTER_COMMIT phase of a receipt.
+     * Returns false, leaving the order in BACKORDER, while a product is still short;
+     * throws InsufficientStockException, rolling this order back, when the stock was
+     * taken concurrently.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @RetryOnConflict
+    public boolean reserveBackorderedOrder(Long orderId) {
+        SalesOrder salesOrder = salesOrderRepository.lockById(orderId).orElse(null);
+        if (salesOrder == null || salesOrder.getStatus() != OrderStatus.BACKORDER) {
+            return false;
+        }
 
-        List<Inventory> inventories = inventoryRepository.findByProductId(productId)
-                .stream()
-                .filter(inv -> (inv.getQtyOnHand() - inv.getQtyReserved()) > 0)
-                .sorted((a, b) -> Integer.compare(
-                        b.getQtyOnHand() - b.getQtyReserved(),
-                        a.getQtyOnHand() - a.getQtyReserved()
-                ))
+        // productId -> quantity needed by the whole order
+        Map<Long, Integer> neededByProduct = new HashMap<>();
+        for (SalesOrderLine line : salesOrder.getOrderLines()) {
+            neededByProduct.merge(line.getProduct().getId(), line.getQuantity(), Integer::sum);
+        }
+
+        // Read from the database: the ledger only sees committed reservations
+        for (Map.Entry<Long, Integer> entry : neededByProduct.entrySet()) {
+            if (inventoryRepository.getAvailableStockByProduct(entry.getKey()) < entry.getValue()) {
+                return false;
+            }
+        }
+
+        performStockReservation(salesOrder);
+        return true;
+    }
+
+    /**
+     * Reserve several CREATED orders in a single transaction.
+     * The CREATED orders are locked first in id order, then the inventory rows of every
+     * product involved with one SELECT ... FOR UPDATE in (productId, warehouseId) order:
+     * the same order -> inventory lock order as cancelOrder and the expiry scheduler, so
+     * parallel batches cannot deadlock nor reserve the same order twice. The orders are
+     * then allocated in memory, in the order they were given.
+     */
+    @Transactional
+    @RetryOnConflict
+    public ApiResponse<List<SalesOrderReserveResultDto>> reserveStockBatch(List<Long> orderIds) {
+        List<Long> distinctIds = orderIds.stream().distinct().toList();
+        int maxBatchSize = businessRulesConfig.getMaxBatchReserveSize();
+        if (distinctIds.size() > maxBatchSize) {
+            throw new InvalidOperationException(
+                    "Too many orders in one batch: " + distinctIds.size() + " (max " + maxBatchSize + ")"
+            );
+        }
+
+        // Read after the lock: a batch that waited sees what the previous one committed
+        Set<Long> lockedIds = distinctIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(salesOrderRepository.lockIdsInStatus(distinctIds, OrderStatus.CREATED));
+
+        Map<Long, SalesOrder> ordersById = new HashMap<>();
+        for (SalesOrder salesOrder : salesOrderRepository.findAllById(distinctIds)) {
+            ordersById.put(salesOrder.getId(), salesOrder);
+        }
+
+        Set<Long> productIds = new TreeSet<>();
+        for (SalesOrder salesOrder : ordersById.values()) {
+            if (isReservable(salesOrder, lockedIds)) {
+                salesOrder.getOrderLines().forEach(line -> productIds.add(line.getProduct().getId()));
+            }
+        }
+
+        // productId -> locked inventory rows
+        Map<Long, List<Inventory>> lockedInventories = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            for (Inventory inventory : inventoryRepository.lockByProductIdsInOrder(productIds)) {
+                lockedInventories.computeIfAbsent(inventory.getProduct().getId(), k -> new ArrayList<>())
+                        .add(inventory);
+            }
+        }
+
+        List<SalesOrderReserveResultDto> results = new ArrayList<>();
+        Map<ReservationOutcome, Integer> outcomeCounts = new EnumMap<>(ReservationOutcome.class);
+
+        for (Long orderId : distinctIds) {
+            SalesOrder salesOrder = ordersById.get(orderId);
+            SalesOrderReserveResultDto result;
+
+            if (salesOrder == null) {
+                result = reserveResult(orderId, ReservationOutcome.FAILED, "Sales order not found", null);
+            } else if (!isReservable(salesOrder, lockedIds)) {
+                result = reserveResult(orderId, ReservationOutcome.FAILED,
+                        "Can only reserve stock for CREATED orders. Current status: " + salesOrder.getStatus(),
+                        salesOrder);
+            } else {
+                result = reserveLockedOrder(salesOrder, lockedInventories);
+            }
+
+            outcomeCounts.merge(result.getOutcome(), 1, Integer::sum);
+            results.add(result);
+        }
+
+        List<Inventory> touchedInventories = lockedInventories.values().stream()
+                .flatMap(List::stream)
                 .toList();
+        if (!touchedInventories.isEmpty()) {
+            inventoryRepository.saveAll(touchedInventories);
+        }
 
-        for (Inventory inventory : inventories) {
-            if (remaining <= 0) break;
+        String message = String.format("Batch reservation done: %d reserved, %d backorder, %d failed",
+                outcomeCounts.getOrDefault(ReservationOutcome.RESERVED, 0),
+                outcomeCounts.getOrDefault(ReservationOutcome.BACKORDER, 0),
+                outcomeCounts.getOrDefault(ReservationOutcome.FAILED, 0));
+        return new ApiResponse<>(message, results);
+    }
 
-            Integer available = inventory.getQtyOnHand() - inventory.getQtyReserved();
-            Integer toAllocate = Math.min(available, remaining);
+    private static boolean isReservable(SalesOrder salesOrder, Set<Long> lockedIds) {
+        return salesOrder.getStatus() == OrderStatus.CREATED && lockedIds.contains(salesOrder.getId());
+    }
 
-            allocations.add(new StockAllocation(inventory.getWarehouse(), toAllocate));
-            remaining -= toAllocate;
+    /**
+     * Allocate one order against inventory rows already locked by the batch.
+     * The whole order is checked first, so it is either fully reserved or put in BACKORDER.
+     */
+    private SalesOrderReserveResultDto reserveLockedOrder(SalesOrder salesOrder,
+                                                          Map<Long, List<Inventory>> lockedInventories) {
+        // productId -> quantity requested by the whole order
+        Map<Long, Integer> requestedByProduct = new LinkedHashMap<>();
+        Map<Long, Product> products = new HashMap<>();
+        for (SalesOrderLine line : salesOrder.getOrderLines()) {
+            requestedByProduct.merge(line.getProduct().getId(), line.getQuantity(), Integer::sum);
+            products.put(line.getProduct().getId(), line.getProduct());
         }
 
+        Map<Long, Integer> missingByProduct = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> entry : requestedByProduct.entrySet()) {
+            int available = lockedInventories.getOrDefault(entry.getKey(), List.of()).stream()
+                    .mapToInt(inv -> inv.getQtyOnHand() - inv.getQtyReserved())
+                    .sum();
+            if (available < entry.getValue()) {
+                missingByProduct.put(entry.getKey(), entry.getValue() - available);
+            }
+        }
+
+        if (!missingByProduct.isEmpty()) {
+            for (Map.Entry<Long, Integer> entry : missingByProduct.entrySet()) {
+                Product product = products.get(entry.getKey());
+                // Own transaction: a failure must not roll back the rest of the batch
+                try {
+                    purchaseOrderService.createAutoPurchaseOrder(product, entry.getValue(), salesOrder.getId());
+                } catch (Exception e) {
+                    log.warn("Failed to create auto purchase order for product {} of sales order {}: {}",
+                            product.getName(), salesOrder.getId(), e.getMessage());
+                }
+            }
+
+            changeStatus(salesOrder, OrderStatus.BACKORDER);
+            SalesOrder savedOrder = salesOrderRepository.save(salesOrder);
+            return reserveResult(salesOrder.getId(), ReservationOutcome.BACKORDER,
+                    "Stock insuffisant pour " + missingByProduct.size() + " produit(s), commande en attente de réapprovisionnement",
+                    savedOrder);
+        }
+
+        List<SalesOrderLine> originalLines = new ArrayList<>(salesOrder.getOrderLines());
+        salesOrder.getOrderLines().clear();
+
+        for (SalesOrderLine originalLine : originalLines) {
+            Long productId = originalLine.getProduct().getId();
+            int quantity = originalLine.getQuantity();
+
+            Map<Long, Inventory> inventoriesByWarehouse = new HashMap<>();
+            Map<Long, Integer> availableByWarehouse = new HashMap<>();
+            for (Inventory inventory : lockedInventories.get(productId)) {
+                inventoriesByWarehouse.put(inventory.getWarehouse().getId(), inventory);
+                availableByWarehouse.put(inventory.getWarehouse().getId(),
+                        inventory.getQtyOnHand() - inventory.getQtyReserved());
+            }
+
+            // The whole order was checked above, so the plan covers the line
+            for (WarehouseAllocation allocation : warehouseAllocator.plan(availableByWarehouse, quantity)) {
+                Inventory inventory = inventoriesByWarehouse.get(allocation.warehouseId());
+
+                inventory.setQtyReserved(inventory.getQtyReserved() + allocation.quantity());
+                eventPublisher.publishEvent(InventoryChangedEvent.reserved(
+                        inventory.getWarehouse().getId(), productId, allocation.quantity()));
+
+                addReservedLine(salesOrder, originalLine, inventory.getWarehouse(), allocation.quantity());
+            }
+        }
+
+        changeStatus(salesOrder, OrderStatus.RESERVED);
+        salesOrder.setReservedAt(LocalDateTime.now());
+        SalesOrder savedOrder = salesOrderRepository.save(salesOrder);
+        eventPublisher.publishEvent(new SalesOrderReservedEvent(salesOrder.getId(), salesOrder.getReservedAt()));
+
+        return reserveResult(salesOrder.getId(), ReservationOutcome.RESERVED, "Stock réservé avec succès", savedOrder);
+    }
+
+    private SalesOrderReserveResultDto reserveResult(Long orderId, ReservationOutcome outcome,
+                                                     String message, SalesOrder salesOrder) {
+        return SalesOrderReserveResultDto.builder()
+                .orderId(orderId)
+                .outcome(outcome)
+                .message(message)
+                .order(SalesOrderMapper.toResponseDto(salesOrder))
+                .build();
+    }
+
+    /**
+     * Reserve the requested quantity along the allocation strategy's plan.
+     * Each warehouse is reserved with a guarded UPDATE; if another order took part of the stock
+     * in the meantime, what is left there is reserved and the rest is planned again over the
+     * other warehouses. When the quantity cannot be fully reserved, the partial reservations
+     * are released and an empty list is returned.
+     */
+    private List<StockAllocation> reserveStockAcrossWarehouses(Long productId, Integer requestedQty) {
+        Map<Long, Warehouse> warehouses = new HashMap<>();
+        Map<Long, Integer> availableByWarehouse = findAvailableByWarehouse(productId, warehouses);
+        // warehouseId -> quantity reserved, in reservation order
+        Map<Long, Integer> reservedByWarehouse = new LinkedHashMap<>();
+        int remaining = requestedQty;
+
+        while (remaining > 0) {
+            List<WarehouseAllocation> plan = warehouseAllocator.plan(availableByWarehouse, remaining);
+            if (plan.isEmpty()) break;
+
+            for (WarehouseAllocation planned : plan) {
+                Long warehouseId = planned.warehouseId();
+                int reserved = reserveUpTo(warehouseId, productId, planned.quantity());
+                // A short warehouse has nothing left: the next plan draws from the others
+                availableByWarehouse.put(warehouseId, reserved < planned.quantity()
+                        ? 0
+                        : availableByWarehouse.get(warehouseId) - reserved);
+                if (reserved == 0) {
+                    continue;
+                }
+
+                eventPublisher.publishEvent(InventoryChangedEvent.reserved(warehouseId, productId, reserved));
+                reservedByWarehouse.merge(warehouseId, reserved, Integer::sum);
+                remaining -= reserved;
+            }
+        }
+
+        List<StockAllocation> allocations = new ArrayList<>();
+        reservedByWarehouse.forEach((warehouseId, quantity) -> allocations.add(new StockAllocation(
+                warehouses.computeIfAbsent(warehouseId, id -> warehouseRepository.getReferenceById(id)),
+                productId,
+                quantity)));
+
         if (remaining > 0) {
+            releaseAllocations(allocations);
             return Collections.emptyList();
         }
 
         return allocations;
     }
 
+    /**
+     * Reserve up to quantity in one warehouse. The planned quantity may be stale (ledger
+     * lag, concurrent reservations), so when the guarded UPDATE matches no row the actual
+     * available quantity is re-read and the smaller quantity tried again.
+     *
+     * @return the quantity reserved, 0 when the warehouse has nothing left
+     */
+    private int reserveUpTo(Long warehouseId, Long productId, int quantity) {
+        int toReserve = quantity;
+        for (int attempt = 0; attempt < MAX_RESERVE_ATTEMPTS && toReserve > 0; attempt++) {
+            if (inventoryRepository.reserveIfAvailable(warehouseId, productId, toReserve) > 0) {
+                return toReserve;
+            }
+            toReserve = Math.min(inventoryRepository.getAvailableStock(warehouseId, productId), quantity);
+        }
+        return 0;
+    }
+
+    /**
+     * Available stock of a product per warehouse, read from the stock ledger when it is warm,
+     * from the inventories table otherwise. Warehouses read from the table are put in warehouses.
+     */
+    private Map<Long, Integer> findAvailableByWarehouse(Long productId, Map<Long, Warehouse> warehouses) {
+        return stockLedger.availableByWarehouse(productId)
+                .<Map<Long, Integer>>map(HashMap::new)
+                .orElseGet(() -> {
+                    Map<Long, Integer> available = new HashMap<>();
+                    for (Inventory inv : inventoryRepository.findByProductId(productId)) {
+                        warehouses.put(inv.getWarehouse().getId(), inv.getWarehouse());
+                        available.put(inv.getWarehouse().getId(), inv.getQtyOnHand() - inv.getQtyReserved());
+                    }
+                    return available;
+                });
+    }
+
+    private void releaseAllocations(List<StockAllocation> allocations) {
+        for (StockAllocation allocation : allocations) {
+            Long warehouseId = allocation.warehouse.getId();
+            if (inventoryRepository.releaseReservation(warehouseId, allocation.productId, allocation.quantity) > 0) {
+                eventPublisher.publishEvent(
+                        InventoryChangedEvent.released(warehouseId, allocation.productId, allocation.quantity));
+            }
+        }
+    }
+
     @Transactional
+    @RetryOnConflict
     public ApiResponse<SalesOrderResponseDto> shipOrder(Long id) {
         SalesOrder salesOrder = salesOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("SalesOrder", "id", id));
@@ -313,6 +645,7 @@ public class SalesOrderService {
         // Validation du cut-off time
         validateShipmentCutoffTime();
 
+        List<MovementEntry> movements = new ArrayList<>();
         for (SalesOrderLine line : salesOrder.getOrderLines()) {
             Integer shippedQty = line.getQuantity();
             Long productId = line.getProduct().getId();
@@ -325,19 +658,23 @@ public class SalesOrderService {
             inventory.setQtyOnHand(inventory.getQtyOnHand() - shippedQty);
             inventory.setQtyReserved(inventory.getQtyReserved() - shippedQty);
             Inventory savedInventory = inventoryRepository.save(inventory);
+            eventPublisher.publishEvent(InventoryChangedEvent.shipped(warehouseId, productId, shippedQty));
 
-            movementService.recordMovement(
+            movements.add(new MovementEntry(
                     savedInventory.getId(),
+                    warehouseId,
+                    productId,
                     MovementType.OUTBOUND,
                     shippedQty,
                     "SO-" + id,
                     "Sales order shipment - " + line.getProduct().getName() +
                             " from warehouse " + line.getWarehouse().getName() +
                             " to client " + salesOrder.getClient().getName()
-            );
+            ));
         }
+        movementService.recordMovements(movements);
 
-        salesOrder.setStatus(OrderStatus.SHIPPED);
+        changeStatus(salesOrder, OrderStatus.SHIPPED);
         salesOrder.setShippedAt(LocalDateTime.now());
 
         SalesOrder savedOrder = salesOrderRepository.save(salesOrder);
@@ -417,6 +754,7 @@ public class SalesOrderService {
     }
 
     @Transactional
+    @RetryOnConflict
     public ApiResponse<SalesOrderResponseDto> deliverOrder(Long id) {
         SalesOrder salesOrder = salesOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("SalesOrder", "id", id));
@@ -427,7 +765,7 @@ public class SalesOrderService {
             );
         }
 
-        salesOrder.setStatus(OrderStatus.DELIVERED);
+        changeStatus(salesOrder, OrderStatus.DELIVERED);
         salesOrder.setDeliveredAt(LocalDateTime.now());
 
         SalesOrder savedOrder = salesOrderRepository.save(salesOrder);
@@ -437,8 +775,10 @@ public class SalesOrderService {
     }
 
     @Transactional
+    @RetryOnConflict
     public ApiResponse<SalesOrderResponseDto> cancelOrder(Long id) {
-        SalesOrder salesOrder = salesOrderRepository.findById(id)
+        // Locked: a backorder reservation in progress commits first, its stock is then released below
+        SalesOrder salesOrder = salesOrderRepository.lockById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("SalesOrder", "id", id));
 
         if (salesOrder.getStatus() == OrderStatus.SHIPPED ||
@@ -460,11 +800,13 @@ public class SalesOrderService {
                 if (inventory != null) {
                     inventory.setQtyReserved(inventory.getQtyReserved() - line.getQuantity());
                     inventoryRepository.save(inventory);
+                    eventPublisher.publishEvent(InventoryChangedEvent.released(
+                            line.getWarehouse().getId(), line.getProduct().getId(), line.getQuantity()));
                 }
             }
         }
 
-        salesOrder.setStatus(OrderStatus.CANCELED);
+        changeStatus(salesOrder, OrderStatus.CANCELED);
 
         SalesOrder savedOrder = salesOrderRepository.save(salesOrder);
         SalesOrderResponseDto responseDto = SalesOrderMapper.toResponseDto(savedOrder);
@@ -473,25 +815,45 @@ public class SalesOrderService {
     }
 
     public ApiResponse<SalesOrderResponseDto> getSalesOrderById(Long id) {
-        SalesOrder salesOrder = salesOrderRepository.findById(id)
+        // Orders moved to archived_sales_orders are still readable by id
+        SalesOrderResponseDto responseDto = salesOrderRepository.findById(id)
+                .map(SalesOrderMapper::toResponseDto)
+                .or(() -> salesOrderArchiveService.findArchivedOrder(id))
                 .orElseThrow(() -> new ResourceNotFoundException("SalesOrder", "id", id));
 
-        SalesOrderResponseDto responseDto = SalesOrderMapper.toResponseDto(salesOrder);
         return new ApiResponse<>("Sales order retrieved successfully", responseDto);
     }
 
     public ApiResponse<List<SalesOrderResponseDto>> getAllSalesOrders() {
-        List<SalesOrderResponseDto> orders = salesOrderRepository.findAll()
+        List<SalesOrderResponseDto> orders = salesOrderRepository.findAllSummaries()
                 .stream()
-                .map(SalesOrderMapper::toResponseDto)
+                .map(withLines(salesOrderRepository.findAllLineRows()))
                 .toList();
         return new ApiResponse<>("Sales orders retrieved successfully", orders);
     }
 
+    public ApiResponse<CursorPageDto<SalesOrderResponseDto>> getSalesOrdersPage(Long after, Integer limit) {
+        int size = keysetListing.limit(limit);
+        List<SalesOrderSummary> summaries = salesOrderRepository.findSummariesAfter(after, keysetListing.window(size));
+        List<Long> ids = summaries.stream().map(SalesOrderSummary::id).toList();
+        List<SalesOrderLineRow> lines = ids.isEmpty() ? List.of() : salesOrderRepository.findLineRowsByOrderIdIn(ids);
+        return new ApiResponse<>("Sales orders retrieved successfully",
+                keysetListing.page(summaries, size, SalesOrderSummary::id, withLines(lines)));
+    }
+
+    public long streamAllSalesOrders(OutputStream out) throws IOException {
+        return keysetListing.writeNdjsonInChunks(out, salesOrderRepository.streamAllIds(),
+                ids -> salesOrderRepository.findSummariesByIdIn(ids)
+                        .stream()
+                        .map(withLines(salesOrderRepository.findLineRowsByOrderIdIn(ids)))
+                        .toList(),
+                Function.identity());
+    }
+
     public ApiResponse<List<SalesOrderResponseDto>> getSalesOrdersByStatus(OrderStatus status) {
-        List<SalesOrderResponseDto> orders = salesOrderRepository.findByStatus(status)
+        List<SalesOrderResponseDto> orders = salesOrderRepository.findSummariesByStatus(status)
                 .stream()
-                .map(SalesOrderMapper::toResponseDto)
+                .map(withLines(salesOrderRepository.findLineRowsByStatus(status)))
                 .toList();
         return new ApiResponse<>("Sales orders retrieved successfully", orders);
     }
@@ -501,13 +863,23 @@ public class SalesOrderService {
             throw new ResourceNotFoundException("Client", "id", clientId);
         }
 
-        List<SalesOrderResponseDto> orders = salesOrderRepository.findByClientId(clientId)
+        List<SalesOrderResponseDto> orders = salesOrderRepository.findSummariesByClientId(clientId)
                 .stream()
-                .map(SalesOrderMapper::toResponseDto)
+                .map(withLines(salesOrderRepository.findLineRowsByClientId(clientId)))
                 .toList();
         return new ApiResponse<>("Client sales orders retrieved successfully", orders);
     }
 
+    /**
+     * Attach its lines to each order summary: list views are built from projections,
+     * without loading any SalesOrder entity.
+     */
+    private Function<SalesOrderSummary, SalesOrderResponseDto> withLines(List<SalesOrderLineRow> lines) {
+        Map<Long, List<SalesOrderLineRow>> linesByOrder = lines.stream()
+                .collect(Collectors.groupingBy(SalesOrderLineRow::salesOrderId));
+        return summary -> SalesOrderMapper.toResponseDto(summary, linesByOrder.getOrDefault(summary.id(), List.of()));
+    }
+
     public ApiResponse<Long> countSalesOrders() {
         long count = salesOrderRepository.count();
         return new ApiResponse<>("Total sales orders counted successfully", count);
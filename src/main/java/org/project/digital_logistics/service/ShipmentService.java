@@ -1,11 +1,14 @@
 package org.project.digital_logistics.service;
 
 import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.CursorPageDto;
 import org.project.digital_logistics.dto.shipment.ShipmentResponseDto;
+import org.project.digital_logistics.event.StatusChangedEvent;
 import org.project.digital_logistics.model.Carrier;
 import org.project.digital_logistics.model.enums.OrderStatus;
 import org.project.digital_logistics.model.enums.ShipmentStatus;
 import org.project.digital_logistics.model.enums.CarrierStatus;
+import org.project.digital_logistics.model.enums.StatusCounterType;
 import org.project.digital_logistics.exception.InvalidOperationException;
 import org.project.digital_logistics.exception.ResourceNotFoundException;
 import org.project.digital_logistics.mapper.ShipmentMapper;
@@ -14,10 +17,15 @@ import org.project.digital_logistics.model.Shipment;
 import org.project.digital_logistics.repository.CarrierRepository;
 import org.project.digital_logistics.repository.SalesOrderRepository;
 import org.project.digital_logistics.repository.ShipmentRepository;
+import org.project.digital_logistics.repository.projection.ShipmentRow;
+import org.project.digital_logistics.service.listing.KeysetListing;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -29,16 +37,22 @@ public class ShipmentService {
     private final SalesOrderRepository salesOrderRepository;
     private final CarrierRepository carrierRepository;
     private final CarrierService carrierService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetListing keysetListing;
 
     @Autowired
     public ShipmentService(ShipmentRepository shipmentRepository,
                            SalesOrderRepository salesOrderRepository,
                            CarrierRepository carrierRepository,
-                           CarrierService carrierService) {
+                           CarrierService carrierService,
+                           ApplicationEventPublisher eventPublisher,
+                           KeysetListing keysetListing) {
         this.shipmentRepository = shipmentRepository;
         this.salesOrderRepository = salesOrderRepository;
         this.carrierRepository = carrierRepository;
         this.carrierService = carrierService;
+        this.eventPublisher = eventPublisher;
+        this.keysetListing = keysetListing;
     }
 
     @Transactional
@@ -49,7 +63,15 @@ public class ShipmentService {
         }
 
         Shipment shipment = ShipmentMapper.createFromSalesOrder(salesOrder);
-        return shipmentRepository.save(shipment);
+        Shipment savedShipment = shipmentRepository.save(shipment);
+        eventPublisher.publishEvent(StatusChangedEvent.created(StatusCounterType.SHIPMENT, shipment.getStatus()));
+        return savedShipment;
+    }
+
+    private void changeStatus(Shipment shipment, ShipmentStatus status) {
+        eventPublisher.publishEvent(StatusChangedEvent.transition(
+                StatusCounterType.SHIPMENT, shipment.getStatus(), status));
+        shipment.setStatus(status);
     }
 
     public ApiResponse<ShipmentResponseDto> getShipmentById(Long id) {
@@ -81,15 +103,26 @@ public class ShipmentService {
     }
 
     public ApiResponse<List<ShipmentResponseDto>> getAllShipments() {
-        List<ShipmentResponseDto> shipments = shipmentRepository.findAll()
+        List<ShipmentResponseDto> shipments = shipmentRepository.findAllRows()
                 .stream()
                 .map(ShipmentMapper::toResponseDto)
                 .toList();
         return new ApiResponse<>("Shipments retrieved successfully", shipments);
     }
 
+    public ApiResponse<CursorPageDto<ShipmentResponseDto>> getShipmentsPage(Long after, Integer limit) {
+        int size = keysetListing.limit(limit);
+        List<ShipmentRow> rows = shipmentRepository.findRowsAfter(after, keysetListing.window(size));
+        return new ApiResponse<>("Shipments retrieved successfully",
+                keysetListing.page(rows, size, ShipmentRow::id, ShipmentMapper::toResponseDto));
+    }
+
+    public long streamAllShipments(OutputStream out) throws IOException {
+        return keysetListing.writeNdjson(out, shipmentRepository.streamAllRows(), ShipmentMapper::toResponseDto);
+    }
+
     public ApiResponse<List<ShipmentResponseDto>> getShipmentsByStatus(ShipmentStatus status) {
-        List<ShipmentResponseDto> shipments = shipmentRepository.findByStatus(status)
+        List<ShipmentResponseDto> shipments = shipmentRepository.findRowsByStatus(status)
                 .stream()
                 .map(ShipmentMapper::toResponseDto)
                 .toList();
@@ -107,7 +140,7 @@ public class ShipmentService {
             );
         }
 
-        shipment.setStatus(ShipmentStatus.IN_TRANSIT);
+        changeStatus(shipment, ShipmentStatus.IN_TRANSIT);
         shipment.setShippedDate(LocalDateTime.now());
 
         Shipment savedShipment = shipmentRepository.save(shipment);
@@ -127,11 +160,13 @@ public class ShipmentService {
             );
         }
 
-        shipment.setStatus(ShipmentStatus.DELIVERED);
+        changeStatus(shipment, ShipmentStatus.DELIVERED);
         shipment.setDeliveredDate(LocalDateTime.now());
 
         SalesOrder salesOrder = shipment.getSalesOrder();
         if (salesOrder.getStatus() == OrderStatus.SHIPPED) {
+            eventPublisher.publishEvent(StatusChangedEvent.transition(
+                    StatusCounterType.SALES_ORDER, OrderStatus.SHIPPED, OrderStatus.DELIVERED));
             salesOrder.setStatus(OrderStatus.DELIVERED);
             salesOrder.setDeliveredAt(LocalDateTime.now());
             salesOrderRepository.save(salesOrder);
@@ -176,6 +211,7 @@ public class ShipmentService {
         }
 
         shipmentRepository.deleteById(id);
+        eventPublisher.publishEvent(StatusChangedEvent.removed(StatusCounterType.SHIPMENT, shipment.getStatus(), 1));
         return new ApiResponse<>("Shipment deleted successfully", null);
     }
 
@@ -206,7 +242,7 @@ public class ShipmentService {
         }
 
         shipment.setCarrier(carrier);
-        shipment.setStatus(ShipmentStatus.IN_TRANSIT);
+        changeStatus(shipment, ShipmentStatus.IN_TRANSIT);
         Shipment savedShipment = shipmentRepository.save(shipment);
 
         carrierService.incrementDailyShipments(carrierId);
@@ -245,7 +281,7 @@ public class ShipmentService {
                         );
                     }
 
-                    shipment.setStatus(ShipmentStatus.IN_TRANSIT);
+                    changeStatus(shipment, ShipmentStatus.IN_TRANSIT);
                     shipment.setCarrier(carrier);
                     return shipmentRepository.save(shipment);
                 })
@@ -269,7 +305,7 @@ public class ShipmentService {
             throw new ResourceNotFoundException("Carrier", "id", carrierId);
         }
 
-        List<ShipmentResponseDto> shipments = shipmentRepository.findByCarrierId(carrierId)
+        List<ShipmentResponseDto> shipments = shipmentRepository.findRowsByCarrierId(carrierId)
                 .stream()
                 .map(ShipmentMapper::toResponseDto)
                 .toList();
@@ -282,7 +318,7 @@ public class ShipmentService {
     }
 
     public ApiResponse<Long> countShipmentsByStatus(ShipmentStatus status) {
-        long count = shipmentRepository.findByStatus(status).size();
+        long count = shipmentRepository.countByStatus(status);
         return new ApiResponse<>("Shipments counted successfully", count);
     }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package org.project.digital_logistics.service.allocation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decides in which order the warehouses holding a product are drawn from.
+ *
+ * Callers reserve the quantities of {@link #plan}, greedy along the returned order
+ * (min(available, remaining) per warehouse), and plan again when a warehouse's stock
+ * was taken concurrently, so a strategy only has to rank the candidates. Candidates
+ * always have available > 0.
+ */
+public interface AllocationStrategy {
+
+    Comparator<WarehouseStock> LARGEST_AVAILABLE_FIRST = Comparator
+            .comparingInt(WarehouseStock::available).reversed()
+            .thenComparing(WarehouseStock::warehouseId);
+
+    AllocationStrategyType type();
+
+    List<WarehouseStock> rank(List<WarehouseStock> candidates, int requestedQty);
+
+    /**
+     * Whether candidates must carry the warehouse capacity.
+     */
+    default boolean usesCapacity() {
+        return false;
+    }
+
+    /**
+     * Quantities the greedy reservation would take along a ranked list,
+     * or an empty list when the total stock does not cover the request.
+     */
+    static List<WarehouseAllocation> plan(List<WarehouseStock> ranked, int requestedQty) {
+        List<WarehouseAllocation> allocations = new ArrayList<>();
+        int remaining = requestedQty;
+
+        for (WarehouseStock stock : ranked) {
+            if (remaining <= 0) break;
+            int quantity = Math.min(stock.available(), remaining);
+            allocations.add(new WarehouseAllocation(stock.warehouseId(), quantity));
+            remaining -= quantity;
+        }
+
+        return remaining > 0 ? List.of() : allocations;
+    }
+}
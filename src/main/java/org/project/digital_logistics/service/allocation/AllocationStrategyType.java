@@ -0,0 +1,7 @@
+package org.project.digital_logistics.service.allocation;
+
+public enum AllocationStrategyType {
+    LARGEST_FIRST,
+    FEWEST_SPLITS,
+    CAPACITY_AWARE
+}
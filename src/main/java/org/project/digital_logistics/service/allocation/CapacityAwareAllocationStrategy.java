@@ -0,0 +1,45 @@
+package org.project.digital_logistics.service.allocation;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Draws first from the warehouses where the product fills the largest share of
+ * Warehouse.capacity, to free room where it is scarcest. Warehouses able to cover
+ * the whole quantity come first so the order stays in one warehouse when possible.
+ * Warehouses without a capacity are ranked last.
+ */
+@Component
+public class CapacityAwareAllocationStrategy implements AllocationStrategy {
+
+    @Override
+    public AllocationStrategyType type() {
+        return AllocationStrategyType.CAPACITY_AWARE;
+    }
+
+    @Override
+    public boolean usesCapacity() {
+        return true;
+    }
+
+    @Override
+    public List<WarehouseStock> rank(List<WarehouseStock> candidates, int requestedQty) {
+        Comparator<WarehouseStock> coversFirst = Comparator
+                .comparing((WarehouseStock stock) -> stock.available() < requestedQty);
+
+        return candidates.stream()
+                .sorted(coversFirst
+                        .thenComparing(Comparator.comparingDouble(CapacityAwareAllocationStrategy::fillRatio).reversed())
+                        .thenComparing(LARGEST_AVAILABLE_FIRST))
+                .toList();
+    }
+
+    private static double fillRatio(WarehouseStock stock) {
+        if (stock.capacity() == null || stock.capacity() <= 0) {
+            return 0;
+        }
+        return (double) stock.available() / stock.capacity();
+    }
+}
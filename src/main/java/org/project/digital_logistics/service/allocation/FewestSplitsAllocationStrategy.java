@@ -0,0 +1,42 @@
+package org.project.digital_logistics.service.allocation;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ships from a single warehouse whenever one can cover the whole quantity,
+ * choosing the smallest one that fits so large stocks stay available for large orders.
+ * Otherwise falls back to largest-first, which needs the fewest warehouses to reach the quantity.
+ */
+@Component
+public class FewestSplitsAllocationStrategy implements AllocationStrategy {
+
+    @Override
+    public AllocationStrategyType type() {
+        return AllocationStrategyType.FEWEST_SPLITS;
+    }
+
+    @Override
+    public List<WarehouseStock> rank(List<WarehouseStock> candidates, int requestedQty) {
+        WarehouseStock bestFit = null;
+        for (WarehouseStock stock : candidates) {
+            if (stock.available() >= requestedQty
+                    && (bestFit == null || stock.available() < bestFit.available())) {
+                bestFit = stock;
+            }
+        }
+
+        List<WarehouseStock> ranked = new ArrayList<>(candidates.size());
+        if (bestFit != null) {
+            ranked.add(bestFit);
+        }
+        WarehouseStock first = bestFit;
+        candidates.stream()
+                .filter(stock -> stock != first)
+                .sorted(LARGEST_AVAILABLE_FIRST)
+                .forEach(ranked::add);
+        return ranked;
+    }
+}
@@ -0,0 +1,24 @@
+package org.project.digital_logistics.service.allocation;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Largest available warehouse first (historical behaviour).
+ */
+@Component
+public class LargestFirstAllocationStrategy implements AllocationStrategy {
+
+    @Override
+    public AllocationStrategyType type() {
+        return AllocationStrategyType.LARGEST_FIRST;
+    }
+
+    @Override
+    public List<WarehouseStock> rank(List<WarehouseStock> candidates, int requestedQty) {
+        return candidates.stream()
+                .sorted(LARGEST_AVAILABLE_FIRST)
+                .toList();
+    }
+}
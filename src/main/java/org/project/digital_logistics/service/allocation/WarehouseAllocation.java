@@ -0,0 +1,7 @@
+package org.project.digital_logistics.service.allocation;
+
+/**
+ * Quantity planned in one warehouse.
+ */
+public record WarehouseAllocation(Long warehouseId, int quantity) {
+}
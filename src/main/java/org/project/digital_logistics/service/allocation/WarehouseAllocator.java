@@ -0,0 +1,76 @@
+package org.project.digital_logistics.service.allocation;
+
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.model.Warehouse;
+import org.project.digital_logistics.repository.WarehouseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Ranks the warehouses to reserve from with the strategy selected by
+ * business.allocation-strategy (largest-first by default).
+ */
+@Component
+public class WarehouseAllocator {
+
+    private final Map<AllocationStrategyType, AllocationStrategy> strategies = new EnumMap<>(AllocationStrategyType.class);
+    private final BusinessRulesConfig businessRulesConfig;
+    private final WarehouseRepository warehouseRepository;
+
+    @Autowired
+    public WarehouseAllocator(List<AllocationStrategy> strategies,
+                              BusinessRulesConfig businessRulesConfig,
+                              WarehouseRepository warehouseRepository) {
+        strategies.forEach(strategy -> this.strategies.put(strategy.type(), strategy));
+        this.businessRulesConfig = businessRulesConfig;
+        this.warehouseRepository = warehouseRepository;
+    }
+
+    /**
+     * @param availableByWarehouse warehouseId -> available quantity of the product
+     * @return the warehouses with stock, in the order they should be drawn from
+     */
+    public List<WarehouseStock> rank(Map<Long, Integer> availableByWarehouse, int requestedQty) {
+        AllocationStrategy strategy = activeStrategy();
+
+        Map<Long, Integer> capacities = strategy.usesCapacity()
+                ? loadCapacities(availableByWarehouse.keySet())
+                : Map.of();
+
+        List<WarehouseStock> candidates = availableByWarehouse.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(entry -> new WarehouseStock(entry.getKey(), entry.getValue(), capacities.get(entry.getKey())))
+                .toList();
+
+        return strategy.rank(candidates, requestedQty);
+    }
+
+    /**
+     * The quantities to reserve per warehouse, along the {@link #rank} order,
+     * or an empty list when the stock does not cover the request.
+     */
+    public List<WarehouseAllocation> plan(Map<Long, Integer> availableByWarehouse, int requestedQty) {
+        return AllocationStrategy.plan(rank(availableByWarehouse, requestedQty), requestedQty);
+    }
+
+    public AllocationStrategy activeStrategy() {
+        AllocationStrategyType type = businessRulesConfig.getAllocationStrategy();
+        AllocationStrategy strategy = strategies.get(type);
+        if (strategy == null) {
+            throw new IllegalStateException("No allocation strategy registered for " + type);
+        }
+        return strategy;
+    }
+
+    private Map<Long, Integer> loadCapacities(Collection<Long> warehouseIds) {
+        Map<Long, Integer> capacities = new HashMap<>();
+        for (Warehouse warehouse : warehouseRepository.findAllById(warehouseIds)) {
+            if (warehouse.getCapacity() != null) {
+                capacities.put(warehouse.getId(), warehouse.getCapacity());
+            }
+        }
+        return capacities;
+    }
+}
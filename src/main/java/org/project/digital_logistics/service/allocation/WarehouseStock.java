@@ -0,0 +1,12 @@
+package org.project.digital_logistics.service.allocation;
+
+/**
+ * Stock of one product available in one warehouse, as seen by an allocation strategy.
+ * capacity is only filled for strategies that ask for it (null otherwise).
+ */
+public record WarehouseStock(Long warehouseId, int available, Integer capacity) {
+
+    public WarehouseStock(Long warehouseId, int available) {
+        this(warehouseId, available, null);
+    }
+}
@@ -0,0 +1,84 @@
+package org.project.digital_logistics.service.backorder;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.event.StockReceivedEvent;
+import org.project.digital_logistics.exception.InsufficientStockException;
+import org.project.digital_logistics.model.enums.OrderStatus;
+import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.repository.SalesOrderRepository;
+import org.project.digital_logistics.repository.projection.BackorderDemand;
+import org.project.digital_logistics.service.SalesOrderService;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Re-allocates received stock to the BACKORDER sales orders waiting for it.
+ *
+ * Runs on the backorder executor once the receiving transaction has committed,
+ * so receiving a purchase order does not wait for the waiting orders to be reserved.
+ * Orders are served first come, first served (createdAt); an order still missing
+ * another product is skipped and stays in BACKORDER.
+ *
+ * Each order is reserved by {@link SalesOrderService#reserveBackorderedOrder(Long)} in its
+ * own transaction under a lock on the order row, so two runs for different products, or a
+ * concurrent cancellation, cannot both act on the same order.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BackorderAllocationEngine {
+
+    private final SalesOrderRepository salesOrderRepository;
+    private final InventoryRepository inventoryRepository;
+    private final SalesOrderService salesOrderService;
+
+    @Async("backorderExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockReceived(StockReceivedEvent event) {
+        allocate(event.productId());
+    }
+
+    /**
+     * @return the number of sales orders moved from BACKORDER to RESERVED
+     */
+    public int allocate(Long productId) {
+        List<BackorderDemand> demands = salesOrderRepository.findDemandForProduct(OrderStatus.BACKORDER, productId);
+        if (demands.isEmpty()) {
+            return 0;
+        }
+
+        long available = inventoryRepository.getAvailableStockByProduct(productId);
+        int reservedOrders = 0;
+
+        for (BackorderDemand demand : demands) {
+            if (available <= 0) break;
+            if (demand.quantity() > available) {
+                continue;
+            }
+
+            if (reserve(demand.orderId())) {
+                available -= demand.quantity();
+                reservedOrders++;
+            }
+        }
+
+        log.info("Backorder : {} commande(s) réservée(s) sur {} en attente du produit {}",
+                reservedOrders, demands.size(), productId);
+        return reservedOrders;
+    }
+
+    private boolean reserve(Long orderId) {
+        try {
+            return salesOrderService.reserveBackorderedOrder(orderId);
+        } catch (InsufficientStockException e) {
+            // Stock taken by a concurrent reservation: the order stays in BACKORDER
+            log.debug("Backorder : commande {} toujours en attente ({})", orderId, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package org.project.digital_logistics.service.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.exception.DuplicateResourceException;
+import org.project.digital_logistics.exception.InvalidOperationException;
+import org.project.digital_logistics.model.IdempotencyRecord;
+import org.project.digital_logistics.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Exécute une requête au plus une fois par Idempotency-Key.
+ * <p>
+ * Trois niveaux : un cache LRU borné avec TTL pour les rejeux fréquents,
+ * une map des exécutions en cours (les doublons concurrents attendent la même exécution)
+ * et la table idempotency_keys, qui réserve la clé entre instances et survit aux redémarrages.
+ * Les réponses 5xx ne sont pas mémorisées : le client peut réessayer.
+ * <p>
+ * Une réservation sans réponse est un bail de business.idempotency-lease-seconds : si l'instance
+ * meurt pendant l'exécution, une nouvelle tentative reprend la clé une fois le bail expiré,
+ * au lieu d'obtenir un conflit jusqu'à l'expiration de la clé.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final BusinessRulesConfig businessRulesConfig;
+
+    private final Map<String, CachedResponse> cache;
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    public interface Execution<E extends Exception> {
+        StoredResponse execute() throws E;
+    }
+
+    public record Result(StoredResponse response, boolean replayed) {
+    }
+
+    private record CachedResponse(StoredResponse response, LocalDateTime expiresAt) {
+    }
+
+    @Autowired
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              BusinessRulesConfig businessRulesConfig) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.businessRulesConfig = businessRulesConfig;
+
+        int maxEntries = businessRulesConfig.getIdempotencyCacheSize();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public <E extends Exception> Result execute(String key, String requestHash, Execution<E> execution) throws E {
+        StoredResponse cached = fromCache(key);
+        if (cached != null) {
+            return replay(key, requestHash, cached);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return replay(key, requestHash, awaitInFlight(key, running));
+        }
+
+        try {
+            Optional<StoredResponse> stored = claim(key, requestHash);
+            if (stored.isPresent()) {
+                mine.complete(stored.get());
+                return replay(key, requestHash, stored.get());
+            }
+
+            StoredResponse response = runAndStore(key, requestHash, execution);
+            mine.complete(response);
+            return new Result(response, false);
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (cache) {
+            cache.values().removeIf(entry -> entry.expiresAt().isBefore(now));
+        }
+        return idempotencyRecordRepository.deleteExpired(now);
+    }
+
+    /**
+     * Réserve la clé en base. Retourne la réponse déjà enregistrée si la clé a été
+     * exécutée auparavant (autre instance ou avant un redémarrage).
+     */
+    private Optional<StoredResponse> claim(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lockedUntil = now.plusSeconds(businessRulesConfig.getIdempotencyLeaseSeconds());
+
+        Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findById(key);
+        if (existing.isPresent()) {
+            IdempotencyRecord record = existing.get();
+            if (record.getExpiresAt().isAfter(now)) {
+                if (record.isCompleted() || !record.isLeaseExpired(now)) {
+                    return Optional.of(toStoredResponse(record));
+                }
+                // Bail expiré : la requête originale est morte sans réponse, la clé est reprise
+                if (idempotencyRecordRepository.takeOver(key, requestHash, now, lockedUntil) > 0) {
+                    log.info("Idempotency-Key {} reprise après expiration du bail", key);
+                    return Optional.empty();
+                }
+                return idempotencyRecordRepository.findById(key).map(this::toStoredResponse);
+            }
+            // Clé expirée pas encore purgée : elle peut être réutilisée
+            idempotencyRecordRepository.delete(record);
+        }
+
+        try {
+            idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                    .id(key)
+                    .requestHash(requestHash)
+                    .expiresAt(now.plusHours(businessRulesConfig.getIdempotencyTtlHours()))
+                    .lockedUntil(lockedUntil)
+                    .build());
+            return Optional.empty();
+        } catch (DataIntegrityViolationException e) {
+            // Une autre instance a réservé la clé entre la lecture et l'insertion
+            return idempotencyRecordRepository.findById(key).map(this::toStoredResponse);
+        }
+    }
+
+    private <E extends Exception> StoredResponse runAndStore(String key, String requestHash, Execution<E> execution)
+            throws E {
+        StoredResponse response;
+        try {
+            response = execution.execute();
+        } catch (Exception e) {
+            idempotencyRecordRepository.deleteById(key);
+            throw e;
+        }
+
+        if (response.status() >= 500) {
+            idempotencyRecordRepository.deleteById(key);
+            return response;
+        }
+
+        StoredResponse stored = new StoredResponse(requestHash, response.status(), response.contentType(), response.body());
+        idempotencyRecordRepository.complete(key, stored.status(), stored.contentType(), stored.body());
+        putInCache(key, stored);
+        return stored;
+    }
+
+    private StoredResponse awaitInFlight(String key, CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(businessRulesConfig.getIdempotencyWaitSeconds(), TimeUnit.SECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            throw inProgress(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress(key);
+        }
+    }
+
+    private Result replay(String key, String requestHash, StoredResponse response) {
+        if (response.status() == 0) {
+            throw inProgress(key);
+        }
+        if (response.status() >= 500) {
+            // Exécution concurrente échouée : rien n'a été mémorisé
+            throw inProgress(key);
+        }
+        if (!response.requestHash().equals(requestHash)) {
+            throw new InvalidOperationException(
+                    "Idempotency-Key déjà utilisée avec une requête différente");
+        }
+        return new Result(response, true);
+    }
+
+    private DuplicateResourceException inProgress(String key) {
+        log.debug("Idempotency-Key {} : requête originale encore en cours", key);
+        return new DuplicateResourceException("Une requête avec cette Idempotency-Key est déjà en cours de traitement");
+    }
+
+    private StoredResponse toStoredResponse(IdempotencyRecord record) {
+        if (!record.isCompleted()) {
+            return new StoredResponse(record.getRequestHash(), 0, null, null);
+        }
+        StoredResponse response = new StoredResponse(
+                record.getRequestHash(), record.getStatusCode(), record.getContentType(), record.getResponseBody());
+        putInCache(record.getId(), response, record.getExpiresAt());
+        return response;
+    }
+
+    private StoredResponse fromCache(String key) {
+        synchronized (cache) {
+            CachedResponse entry = cache.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt().isBefore(LocalDateTime.now())) {
+                cache.remove(key);
+                return null;
+            }
+            return entry.response();
+        }
+    }
+
+    private void putInCache(String key, StoredResponse response) {
+        putInCache(key, response, LocalDateTime.now().plusHours(businessRulesConfig.getIdempotencyTtlHours()));
+    }
+
+    private void putInCache(String key, StoredResponse response, LocalDateTime expiresAt) {
+        synchronized (cache) {
+            cache.put(key, new CachedResponse(response, expiresAt));
+        }
+    }
+}
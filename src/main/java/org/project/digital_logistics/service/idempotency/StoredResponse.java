@@ -0,0 +1,7 @@
+package org.project.digital_logistics.service.idempotency;
+
+/**
+ * Response captured the first time a key was executed, replayed as-is on retries.
+ */
+public record StoredResponse(String requestHash, int status, String contentType, byte[] body) {
+}
@@ -0,0 +1,210 @@
+package org.project.digital_logistics.service.importing;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * PostgreSQL staging table of a bulk inventory import.
+ * <p>
+ * Rows are streamed into a temporary table with COPY, as text, so a malformed value
+ * never aborts the COPY: every check then runs as one set-based UPDATE that stamps
+ * an error on the offending rows, and the remaining rows are upserted into
+ * inventories with a single INSERT ... ON CONFLICT. The table is dropped on commit,
+ * so every call must run inside the import transaction.
+ */
+@Component
+public class InventoryImportStaging {
+
+    static final String TABLE = "inventory_import_staging";
+
+    // COPY data is sent to the server in chunks of this size
+    private static final int COPY_CHUNK_BYTES = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    public InventoryImportStaging(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Create the staging table and open a COPY into it.
+     */
+    public StagingCopy beginCopy() {
+        jdbcTemplate.execute("CREATE TEMP TABLE " + TABLE + " (" +
+                "line_no BIGINT NOT NULL, " +
+                "warehouse_id TEXT, product_id TEXT, qty_on_hand TEXT, " +
+                "wid BIGINT, pid BIGINT, on_hand INTEGER, " +
+                "inventory_id BIGINT, previous_on_hand INTEGER, " +
+                "error TEXT) ON COMMIT DROP");
+        try {
+            // Same connection as the transaction, so COPY sees the temporary table
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                    "COPY " + TABLE + " (line_no, warehouse_id, product_id, qty_on_hand) FROM STDIN WITH (FORMAT csv)");
+            return new StagingCopy(copyIn);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not start the COPY into " + TABLE, e);
+        }
+    }
+
+    /**
+     * Run every check on the staged rows, set-based. Existing inventories are locked in
+     * (product, warehouse) order, like {@code lockByProductIdsInOrder}, before their
+     * quantity is read.
+     */
+    public void validate() {
+        reject("COALESCE(btrim(warehouse_id), '') = '' OR COALESCE(btrim(product_id), '') = '' " +
+                "OR COALESCE(btrim(qty_on_hand), '') = ''", "'warehouseId, productId and qtyOnHand are required'");
+        reject("btrim(warehouse_id) !~ '^[0-9]{1,18}$' OR btrim(product_id) !~ '^[0-9]{1,18}$'",
+                "'warehouseId and productId must be numeric ids'");
+        reject("btrim(qty_on_hand) !~ '^[0-9]{1,9}$'", "'qtyOnHand must be a non-negative integer'");
+
+        jdbcTemplate.update("UPDATE " + TABLE + " SET wid = btrim(warehouse_id)::bigint, " +
+                "pid = btrim(product_id)::bigint, on_hand = btrim(qty_on_hand)::integer WHERE error IS NULL");
+
+        reject("NOT EXISTS (SELECT 1 FROM warehouses w WHERE w.id = wid)", "'Warehouse not found with id: ' || wid");
+        reject("NOT EXISTS (SELECT 1 FROM products p WHERE p.id = pid)", "'Product not found with id: ' || pid");
+
+        // Same cell twice in the upload: the last line wins
+        jdbcTemplate.update("UPDATE " + TABLE + " s SET error = 'Superseded by line ' || d.last_line " +
+                "FROM (SELECT line_no, MAX(line_no) OVER (PARTITION BY wid, pid) AS last_line " +
+                "FROM " + TABLE + " WHERE error IS NULL) d " +
+                "WHERE s.line_no = d.line_no AND d.line_no <> d.last_line");
+
+        jdbcTemplate.queryForList("SELECT i.id FROM inventories i JOIN " + TABLE + " s " +
+                "ON i.warehouse_id = s.wid AND i.product_id = s.pid WHERE s.error IS NULL " +
+                "ORDER BY i.product_id, i.warehouse_id FOR UPDATE OF i", Long.class);
+        jdbcTemplate.update("UPDATE " + TABLE + " s SET inventory_id = i.id, previous_on_hand = i.qty_on_hand " +
+                "FROM inventories i WHERE i.warehouse_id = s.wid AND i.product_id = s.pid AND s.error IS NULL");
+
+        jdbcTemplate.update("UPDATE " + TABLE + " s SET error = 'qtyOnHand ' || s.on_hand || " +
+                "' is below the reserved quantity ' || i.qty_reserved " +
+                "FROM inventories i WHERE i.id = s.inventory_id AND s.error IS NULL AND s.on_hand < i.qty_reserved");
+    }
+
+    /**
+     * Upsert the valid rows that change something into inventories.
+     *
+     * @return the rows created or whose on-hand quantity changed
+     */
+    public List<StagedChange> upsert() {
+        jdbcTemplate.update("INSERT INTO inventories " +
+                "(warehouse_id, product_id, qty_on_hand, qty_reserved, version, created_at, updated_at) " +
+                "SELECT wid, pid, on_hand, 0, 0, LOCALTIMESTAMP, LOCALTIMESTAMP FROM " + TABLE + " " +
+                "WHERE error IS NULL AND (previous_on_hand IS NULL OR previous_on_hand <> on_hand) " +
+                "ON CONFLICT (warehouse_id, product_id) DO UPDATE " +
+                "SET qty_on_hand = EXCLUDED.qty_on_hand, updated_at = EXCLUDED.updated_at, " +
+                "version = inventories.version + 1");
+        jdbcTemplate.update("UPDATE " + TABLE + " s SET inventory_id = i.id FROM inventories i " +
+                "WHERE s.inventory_id IS NULL AND s.error IS NULL AND i.warehouse_id = s.wid AND i.product_id = s.pid");
+
+        return jdbcTemplate.query("SELECT line_no, inventory_id, wid, pid, " +
+                        "on_hand - COALESCE(previous_on_hand, 0) AS delta, previous_on_hand IS NULL AS created " +
+                        "FROM " + TABLE + " WHERE error IS NULL " +
+                        "AND (previous_on_hand IS NULL OR previous_on_hand <> on_hand) ORDER BY line_no",
+                (rs, rowNum) -> new StagedChange(rs.getLong("line_no"), rs.getLong("inventory_id"),
+                        rs.getLong("wid"), rs.getLong("pid"), rs.getInt("delta"), rs.getBoolean("created")));
+    }
+
+    public List<StagedError> errors() {
+        return jdbcTemplate.query("SELECT line_no, error FROM " + TABLE + " WHERE error IS NOT NULL ORDER BY line_no",
+                (rs, rowNum) -> new StagedError(rs.getLong("line_no"), rs.getString("error")));
+    }
+
+    private void reject(String condition, String message) {
+        jdbcTemplate.update("UPDATE " + TABLE + " SET error = " + message +
+                " WHERE error IS NULL AND (" + condition + ")");
+    }
+
+    public record StagedChange(long line, Long inventoryId, Long warehouseId, Long productId,
+                               int delta, boolean created) {
+    }
+
+    public record StagedError(long line, String message) {
+    }
+
+    /**
+     * Open COPY into the staging table. Rows are encoded as CSV and sent in chunks.
+     * Closing without {@link #finish()} cancels the COPY.
+     */
+    public static class StagingCopy implements Closeable {
+
+        private final CopyIn copyIn;
+        private final ByteArrayOutputStream chunk = new ByteArrayOutputStream(COPY_CHUNK_BYTES);
+        private long rows;
+
+        StagingCopy(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        public void add(long line, String warehouseId, String productId, String qtyOnHand) {
+            StringBuilder row = new StringBuilder().append(line);
+            for (String value : new String[]{warehouseId, productId, qtyOnHand}) {
+                row.append(',');
+                if (value != null) {
+                    row.append('"').append(value.replace("\"", "\"\"")).append('"');
+                }
+            }
+            row.append('\n');
+            chunk.writeBytes(row.toString().getBytes(StandardCharsets.UTF_8));
+            rows++;
+            if (chunk.size() >= COPY_CHUNK_BYTES) {
+                flush();
+            }
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        /**
+         * Send the last chunk and end the COPY.
+         *
+         * @return the number of rows staged
+         */
+        public long finish() {
+            flush();
+            try {
+                return copyIn.endCopy();
+            } catch (SQLException e) {
+                throw new IllegalStateException("COPY into " + TABLE + " failed", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (copyIn.isActive()) {
+                try {
+                    copyIn.cancelCopy();
+                } catch (SQLException ignored) {
+                    // The transaction is rolled back anyway
+                }
+            }
+        }
+
+        private void flush() {
+            if (chunk.size() == 0) {
+                return;
+            }
+            try {
+                copyIn.writeToCopy(chunk.toByteArray(), 0, chunk.size());
+            } catch (SQLException e) {
+                throw new IllegalStateException("COPY into " + TABLE + " failed", e);
+            }
+            chunk.reset();
+        }
+    }
+}
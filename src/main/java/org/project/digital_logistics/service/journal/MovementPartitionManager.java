@@ -0,0 +1,176 @@
+package org.project.digital_logistics.service.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Partitions mensuelles de inventory_movements (business.movement-partitioning-enabled),
+ * une fois la table convertie par migration_inventory_movements_partitioning.sql.
+ * <p>
+ * Crée à l'avance les partitions des business.movement-partitions-ahead prochains mois,
+ * pour que la partition DEFAULT reste vide. Les mois plus vieux que
+ * business.movement-retention-months sont résumés dans inventory_movement_rollups
+ * (quantité et nombre de mouvements par inventaire, mois et type) puis détachés et
+ * supprimés, dans une même transaction.
+ */
+@Component
+@Slf4j
+public class MovementPartitionManager {
+
+    static final String TABLE = "inventory_movements";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BusinessRulesConfig businessRulesConfig;
+
+    public MovementPartitionManager(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    BusinessRulesConfig businessRulesConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.businessRulesConfig = businessRulesConfig;
+    }
+
+    public boolean isEnabled() {
+        return Boolean.TRUE.equals(businessRulesConfig.getMovementPartitioningEnabled());
+    }
+
+    /**
+     * Début du plus vieux mois encore présent dans inventory_movements, ou null
+     * tant qu'aucune partition n'est supprimée (partitionnement désactivé ou rétention à 0).
+     */
+    public LocalDateTime retainedSince() {
+        int retention = businessRulesConfig.getMovementRetentionMonths();
+        if (!isEnabled() || retention <= 0) {
+            return null;
+        }
+        return oldestKept(YearMonth.now(), retention).atDay(1).atStartOfDay();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            maintain(YearMonth.now());
+        } catch (Exception e) {
+            log.error("Maintenance des partitions de {} impossible: {}", TABLE, e.getMessage());
+        }
+    }
+
+    /**
+     * Crée les partitions manquantes de current à current + movement-partitions-ahead
+     * et supprime celles sorties de la rétention.
+     */
+    public Maintenance maintain(YearMonth current) {
+        if (!isPartitioned()) {
+            log.warn("{} n'est pas partitionnée : exécuter migration_inventory_movements_partitioning.sql", TABLE);
+            return new Maintenance(0, 0);
+        }
+
+        Set<YearMonth> existing = existingPartitions();
+        int created = 0;
+        for (int ahead = 0; ahead <= businessRulesConfig.getMovementPartitionsAhead(); ahead++) {
+            YearMonth month = current.plusMonths(ahead);
+            if (!existing.contains(month)) {
+                createPartition(month);
+                created++;
+            }
+        }
+
+        int dropped = 0;
+        int retention = businessRulesConfig.getMovementRetentionMonths();
+        if (retention > 0) {
+            YearMonth oldestKept = oldestKept(current, retention);
+            for (YearMonth month : existing) {
+                if (month.isBefore(oldestKept)) {
+                    dropPartition(month);
+                    dropped++;
+                }
+            }
+        }
+        return new Maintenance(created, dropped);
+    }
+
+    private static YearMonth oldestKept(YearMonth current, int retention) {
+        return current.minusMonths(retention);
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_MONTH);
+    }
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid " +
+                        "WHERE c.relname = ?", Integer.class, TABLE);
+        return count != null && count > 0;
+    }
+
+    private Set<YearMonth> existingPartitions() {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+                        "WHERE p.relname = ?", String.class, TABLE);
+        Set<YearMonth> months = new TreeSet<>();
+        names.stream().map(MovementPartitionManager::monthOf).filter(Objects::nonNull).forEach(months::add);
+        return months;
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF " + TABLE +
+                " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        log.info("Partition {} créée", partitionName(month));
+    }
+
+    private void dropPartition(YearMonth month) {
+        String partition = partitionName(month);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (Boolean.TRUE.equals(businessRulesConfig.getMovementRollupEnabled())) {
+                jdbcTemplate.update("INSERT INTO inventory_movement_rollups " +
+                        "(inventory_id, month, type, quantity, movement_count) " +
+                        "SELECT inventory_id, ?, type, SUM(quantity), COUNT(*) FROM " + partition +
+                        " GROUP BY inventory_id, type", month.atDay(1));
+            }
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+        });
+        log.info("Partition {} supprimée (rétention de {} mois)", partition,
+                businessRulesConfig.getMovementRetentionMonths());
+    }
+
+    private static YearMonth monthOf(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_MONTH);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public record Maintenance(int created, int dropped) {
+    }
+}
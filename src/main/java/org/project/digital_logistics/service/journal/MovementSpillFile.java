@@ -0,0 +1,178 @@
+package org.project.digital_logistics.service.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.service.journal.MovementWriteBehind.PendingMovement;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Fichier de débordement local des mouvements en attente, une ligne NDJSON par mouvement.
+ * <p>
+ * Le fichier est découpé en segments numérotés : le writer ferme le segment courant à
+ * chaque flush et supprime l'ancien une fois sa transaction validée. Tout segment fermé
+ * encore présent sur le disque contient donc des mouvements pas encore en base.
+ * <p>
+ * Les mouvements d'une transaction sont d'abord écrits dans un segment de commit à part,
+ * avant son commit. Ceux restés sur le disque au démarrage sont renumérotés en segments
+ * fermés, et donc rejoués comme eux.
+ */
+@Slf4j
+final class MovementSpillFile implements Closeable {
+
+    private static final String PREFIX = "movements-";
+    private static final String COMMIT_PREFIX = "commit-";
+    private static final String SUFFIX = ".ndjson";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    private long sequence;
+    private Path current;
+    private FileChannel channel;
+
+    private MovementSpillFile(Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+    }
+
+    static MovementSpillFile open(Path directory, ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(directory);
+        MovementSpillFile spill = new MovementSpillFile(directory, objectMapper);
+        long last = spill.segments().stream().mapToLong(MovementSpillFile::sequenceOf).max().orElse(0);
+        // Transactions jamais remises au writer (arrêt brutal après leur beforeCommit)
+        for (Path orphan : spill.list(COMMIT_PREFIX)) {
+            Files.move(orphan, spill.segmentPath(++last));
+        }
+        spill.openSegment(last + 1);
+        return spill;
+    }
+
+    /**
+     * Écrit les mouvements d'une transaction dans un nouveau segment de commit, forcé sur
+     * disque. Sans état partagé : peut être appelé sans verrou.
+     *
+     * @return le segment, à supprimer une fois les mouvements remis au writer ou annulés
+     */
+    Path writeCommitSegment(List<PendingMovement> movements) throws IOException {
+        Path segment = directory.resolve(COMMIT_PREFIX + UUID.randomUUID() + SUFFIX);
+        try (FileChannel out = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            write(out, movements);
+            out.force(false);
+        }
+        return segment;
+    }
+
+    /**
+     * Ajoute les mouvements au segment courant et force l'écriture sur disque
+     * (un fsync par appel, pas par mouvement).
+     */
+    void append(List<PendingMovement> movements) throws IOException {
+        write(channel, movements);
+        channel.force(false);
+    }
+
+    /**
+     * Ferme le segment courant et en ouvre un nouveau.
+     *
+     * @return le segment fermé
+     */
+    Path rotate() throws IOException {
+        Path closed = current;
+        channel.close();
+        openSegment(sequence + 1);
+        return closed;
+    }
+
+    /**
+     * Segments fermés, du plus ancien au plus récent.
+     */
+    List<Path> closedSegments() throws IOException {
+        return segments().stream()
+                .filter(segment -> !segment.equals(current))
+                .toList();
+    }
+
+    List<PendingMovement> read(Path segment) throws IOException {
+        List<PendingMovement> movements = new ArrayList<>();
+        for (String line : Files.readAllLines(segment, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                movements.add(objectMapper.readValue(line, PendingMovement.class));
+            } catch (IOException e) {
+                // Dernière ligne tronquée par un arrêt brutal : elle n'a jamais été acquittée
+                log.warn("Ligne illisible ignorée dans {}: {}", segment.getFileName(), e.getMessage());
+            }
+        }
+        return movements;
+    }
+
+    void delete(Path segment) throws IOException {
+        Files.deleteIfExists(segment);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        if (Files.size(current) == 0) {
+            Files.deleteIfExists(current);
+        }
+    }
+
+    private void write(FileChannel out, List<PendingMovement> movements) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (PendingMovement movement : movements) {
+            lines.write(objectMapper.writeValueAsBytes(movement));
+            lines.write('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private void openSegment(long next) throws IOException {
+        sequence = next;
+        current = segmentPath(next);
+        channel = FileChannel.open(current, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%s%019d%s", PREFIX, sequence, SUFFIX));
+    }
+
+    private List<Path> segments() throws IOException {
+        return list(PREFIX);
+    }
+
+    private List<Path> list(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(prefix) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
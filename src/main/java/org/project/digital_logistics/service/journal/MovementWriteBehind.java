@@ -0,0 +1,423 @@
+package org.project.digital_logistics.service.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.dto.stats.MovementJournalStatsDto;
+import org.project.digital_logistics.model.InventoryMovement;
+import org.project.digital_logistics.repository.InventoryMovementRepository;
+import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.service.InventoryMovementService.MovementEntry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Mode write-behind du journal des mouvements (business.movement-write-behind-enabled).
+ * <p>
+ * Juste avant le commit de l'appelant (beforeCommit), ses mouvements sont écrits et forcés
+ * sur disque dans un segment de commit ; un rollback le supprime. Une fois la transaction
+ * validée, ils sont écrits dans le fichier de débordement local puis placés dans un tampon
+ * borné, et le segment de commit est supprimé. Un thread dédié les insère par group commit :
+ * une transaction dès que business.movement-flush-batch-size mouvements attendent, ou au
+ * plus tard toutes les business.movement-flush-interval-ms.
+ * <p>
+ * Tampon plein : l'appelant attend jusqu'à business.movement-offer-timeout-ms, puis écrit
+ * lui-même le reste (comme le CallerRunsPolicy de AsyncConfig). Les segments non flushés,
+ * de commit compris, sont rejoués au démarrage ; un arrêt brutal entre le commit et la
+ * suppression d'un segment peut donc rejouer un lot (au moins une fois, jamais perdu).
+ */
+@Component
+@Slf4j
+public class MovementWriteBehind {
+
+    private static final long BACKPRESSURE_PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final InventoryMovementRepository movementRepository;
+    private final InventoryRepository inventoryRepository;
+    private final BusinessRulesConfig businessRulesConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    // lock : ajout dans le tampon + segment courant ; flushLock : un seul flush à la fois
+    private final Object lock = new Object();
+    private final Object flushLock = new Object();
+
+    private ArrayBlockingQueue<PendingMovement> buffer;
+    private MovementSpillFile spill;
+    private volatile boolean spillBacklog;
+    private volatile Thread writer;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong callerWrites = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushMillis = new AtomicLong();
+    private volatile long lastFlushMillis;
+
+    public MovementWriteBehind(InventoryMovementRepository movementRepository,
+                               InventoryRepository inventoryRepository,
+                               BusinessRulesConfig businessRulesConfig,
+                               PlatformTransactionManager transactionManager) {
+        this.movementRepository = movementRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.businessRulesConfig = businessRulesConfig;
+        // Les écritures de repli tournent dans afterCompletion, où l'ancienne transaction est encore liée
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!Boolean.TRUE.equals(businessRulesConfig.getMovementWriteBehindEnabled())) {
+            return;
+        }
+        try {
+            open();
+        } catch (IOException e) {
+            log.error("Fichier de débordement {} inutilisable, journal des mouvements en mode synchrone: {}",
+                    businessRulesConfig.getMovementSpillDirectory(), e.getMessage());
+            return;
+        }
+
+        Thread thread = new Thread(this::run, "movement-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+        log.info("Journal des mouvements en write-behind (tampon {}, lots de {}, {} ms)",
+                businessRulesConfig.getMovementBufferSize(), businessRulesConfig.getMovementFlushBatchSize(),
+                businessRulesConfig.getMovementFlushIntervalMs());
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread current = writer;
+        writer = null;
+        if (current == null) {
+            return;
+        }
+        LockSupport.unpark(current);
+        try {
+            current.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        synchronized (lock) {
+            try {
+                spill.close();
+            } catch (IOException e) {
+                log.warn("Fermeture du fichier de débordement: {}", e.getMessage());
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return writer != null;
+    }
+
+    /**
+     * Confie les mouvements au writer après la validation de la transaction courante :
+     * un rollback de l'appelant ne laisse donc aucun mouvement orphelin. Ils sont sur disque
+     * avant le commit, un arrêt brutal juste après celui-ci ne les perd pas.
+     * occurredAt est l'horodatage commun des mouvements, repris par leurs événements.
+     */
+    public void submit(List<MovementEntry> entries, LocalDateTime occurredAt) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<PendingMovement> pending = entries.stream()
+                .map(entry -> new PendingMovement(entry, occurredAt))
+                .toList();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(pending);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private Path segment;
+            private boolean inserted;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                try {
+                    segment = spill.writeCommitSegment(pending);
+                } catch (IOException e) {
+                    // Sans segment de commit, les mouvements sont insérés avec la transaction
+                    log.error("Segment de commit impossible, {} mouvement(s) insérés dans la transaction: {}",
+                            pending.size(), e.getMessage());
+                    movementRepository.saveAll(toMovements(pending));
+                    inserted = true;
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED && !inserted) {
+                    try {
+                        write(pending);
+                    } catch (RuntimeException e) {
+                        log.error("Écriture de {} mouvement(s) impossible, rejoués au redémarrage: {}",
+                                pending.size(), e.getMessage());
+                        return;
+                    }
+                }
+                // Issue inconnue : le segment est gardé et rejoué au redémarrage
+                if (segment != null && status != STATUS_UNKNOWN) {
+                    deleteSegment(segment);
+                }
+            }
+        });
+    }
+
+    public MovementJournalStatsDto getStats() {
+        long flushCount = flushes.get();
+        int segments = 0;
+        if (isEnabled()) {
+            synchronized (lock) {
+                try {
+                    segments = spill.closedSegments().size();
+                } catch (IOException e) {
+                    log.warn("Lecture du répertoire de débordement: {}", e.getMessage());
+                }
+            }
+        }
+        return MovementJournalStatsDto.builder()
+                .writeBehindEnabled(isEnabled())
+                .queueDepth(buffer != null ? buffer.size() : 0)
+                .queueCapacity(businessRulesConfig.getMovementBufferSize())
+                .spillSegments(segments)
+                .enqueued(enqueued.get())
+                .flushed(flushed.get())
+                .callerWrites(callerWrites.get())
+                .flushes(flushCount)
+                .failedFlushes(failedFlushes.get())
+                .lastFlushMillis(lastFlushMillis)
+                .maxFlushMillis(maxFlushMillis.get())
+                .avgFlushMillis(flushCount == 0 ? 0 : totalFlushNanos.get() / 1_000_000.0 / flushCount)
+                .build();
+    }
+
+    void open() throws IOException {
+        buffer = new ArrayBlockingQueue<>(businessRulesConfig.getMovementBufferSize());
+        spill = MovementSpillFile.open(Path.of(businessRulesConfig.getMovementSpillDirectory()), objectMapper);
+        spillBacklog = true;
+        int replayed = replaySpill();
+        if (replayed > 0) {
+            log.info("{} mouvement(s) non flushé(s) rejoué(s) depuis le fichier de débordement", replayed);
+        }
+    }
+
+    /**
+     * Place les mouvements dans le tampon, en attendant de la place au plus
+     * business.movement-offer-timeout-ms.
+     *
+     * @return les mouvements refusés, à écrire par l'appelant
+     */
+    List<PendingMovement> offer(List<PendingMovement> pending) {
+        long deadline = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(businessRulesConfig.getMovementOfferTimeoutMs());
+        int accepted = 0;
+        try {
+            while (accepted < pending.size()) {
+                accepted += append(pending.subList(accepted, pending.size()));
+                if (accepted < pending.size()) {
+                    if (System.nanoTime() - deadline >= 0) {
+                        break;
+                    }
+                    LockSupport.parkNanos(BACKPRESSURE_PAUSE_NANOS);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Écriture dans le fichier de débordement impossible: {}", e.getMessage());
+        }
+        enqueued.addAndGet(accepted);
+
+        Thread current = writer;
+        if (current != null && buffer.size() >= businessRulesConfig.getMovementFlushBatchSize()) {
+            LockSupport.unpark(current);
+        }
+        return pending.subList(accepted, pending.size());
+    }
+
+    /**
+     * Un group commit : vide le tampon, ferme le segment correspondant et l'insère
+     * dans une seule transaction.
+     *
+     * @return le nombre de mouvements insérés
+     */
+    int flush() {
+        synchronized (flushLock) {
+            int written = spillBacklog ? replaySpill() : 0;
+
+            List<PendingMovement> batch = new ArrayList<>();
+            Path segment;
+            synchronized (lock) {
+                buffer.drainTo(batch);
+                if (batch.isEmpty()) {
+                    return written;
+                }
+                try {
+                    segment = spill.rotate();
+                } catch (IOException e) {
+                    // Les mouvements restent dans le segment courant, rejoué au prochain démarrage
+                    log.error("Rotation du fichier de débordement impossible: {}", e.getMessage());
+                    segment = null;
+                }
+            }
+
+            if (!persist(batch)) {
+                spillBacklog = true;
+                return written;
+            }
+            if (segment != null) {
+                deleteSegment(segment);
+            }
+            return written + batch.size();
+        }
+    }
+
+    private int append(List<PendingMovement> pending) throws IOException {
+        synchronized (lock) {
+            int room = Math.min(buffer.remainingCapacity(), pending.size());
+            if (room == 0) {
+                return 0;
+            }
+            List<PendingMovement> accepted = pending.subList(0, room);
+            spill.append(accepted);
+            buffer.addAll(accepted);
+            return room;
+        }
+    }
+
+    private void write(List<PendingMovement> pending) {
+        List<PendingMovement> rejected = isEnabled() ? offer(pending) : pending;
+        if (!rejected.isEmpty()) {
+            if (isEnabled()) {
+                log.warn("Tampon du journal plein: {} mouvement(s) écrit(s) par l'appelant", rejected.size());
+            }
+            callerWrites.addAndGet(rejected.size());
+            transactionTemplate.executeWithoutResult(status -> movementRepository.saveAll(toMovements(rejected)));
+        }
+    }
+
+    private void run() {
+        while (writer == Thread.currentThread()) {
+            awaitBatch();
+            try {
+                flush();
+            } catch (Exception e) {
+                log.error("Erreur du writer du journal des mouvements: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void awaitBatch() {
+        long deadline = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(businessRulesConfig.getMovementFlushIntervalMs());
+        while (writer == Thread.currentThread()
+                && buffer.size() < businessRulesConfig.getMovementFlushBatchSize()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    /**
+     * Insère les segments fermés restés sur le disque (arrêt brutal, flush en échec).
+     */
+    private int replaySpill() {
+        List<Path> segments;
+        synchronized (lock) {
+            try {
+                segments = spill.closedSegments();
+            } catch (IOException e) {
+                log.error("Lecture du répertoire de débordement impossible: {}", e.getMessage());
+                return 0;
+            }
+        }
+
+        int replayed = 0;
+        for (Path segment : segments) {
+            List<PendingMovement> movements;
+            try {
+                movements = spill.read(segment);
+            } catch (IOException e) {
+                log.error("Segment {} illisible: {}", segment.getFileName(), e.getMessage());
+                return replayed;
+            }
+            if (!movements.isEmpty() && !persist(movements)) {
+                return replayed;
+            }
+            deleteSegment(segment);
+            replayed += movements.size();
+        }
+        spillBacklog = false;
+        return replayed;
+    }
+
+    private boolean persist(List<PendingMovement> batch) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> movementRepository.saveAll(toMovements(batch)));
+        } catch (Exception e) {
+            failedFlushes.incrementAndGet();
+            log.error("Échec du flush de {} mouvement(s), conservés sur disque: {}", batch.size(), e.getMessage());
+            return false;
+        }
+        long elapsed = System.nanoTime() - start;
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        flushed.addAndGet(batch.size());
+        flushes.incrementAndGet();
+        totalFlushNanos.addAndGet(elapsed);
+        maxFlushMillis.accumulateAndGet(elapsedMillis, Math::max);
+        lastFlushMillis = elapsedMillis;
+        return true;
+    }
+
+    private void deleteSegment(Path segment) {
+        try {
+            spill.delete(segment);
+        } catch (IOException e) {
+            log.warn("Suppression du segment {} impossible: {}", segment.getFileName(), e.getMessage());
+        }
+    }
+
+    private List<InventoryMovement> toMovements(List<PendingMovement> pending) {
+        return pending.stream()
+                .map(movement -> InventoryMovement.builder()
+                        .inventory(inventoryRepository.getReferenceById(movement.entry().inventoryId()))
+                        .type(movement.entry().type())
+                        .quantity(movement.entry().quantity())
+                        .occurredAt(movement.occurredAt())
+                        .referenceDocument(movement.entry().referenceDocument())
+                        .description(movement.entry().description())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Un mouvement en attente, horodaté au moment du commit de l'opération et non du flush.
+     */
+    record PendingMovement(MovementEntry entry, LocalDateTime occurredAt) {
+    }
+}
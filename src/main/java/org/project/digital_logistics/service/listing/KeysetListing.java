@@ -0,0 +1,143 @@
+package org.project.digital_logistics.service.listing;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.dto.CursorPageDto;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Shared plumbing of the list endpoints: keyset pages on the id, and NDJSON streams
+ * that write one row per line so memory stays flat whatever the size of the table.
+ */
+@Component
+public class KeysetListing {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private final BusinessRulesConfig businessRulesConfig;
+    private final ObjectMapper objectMapper;
+    // Rows are flushed per chunk, not after each value
+    private final ObjectWriter rowWriter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public KeysetListing(BusinessRulesConfig businessRulesConfig, ObjectMapper objectMapper) {
+        this.businessRulesConfig = businessRulesConfig;
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Page size actually served: the default when none is asked, capped to the maximum.
+     */
+    public int limit(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return businessRulesConfig.getListPageSize();
+        }
+        return Math.min(requested, businessRulesConfig.getMaxListPageSize());
+    }
+
+    /**
+     * One extra row is read to know whether another page follows.
+     */
+    public Pageable window(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    public <E, D> CursorPageDto<D> page(List<E> rows, int limit,
+                                        Function<E, Long> idOf, Function<E, D> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+
+        return CursorPageDto.<D>builder()
+                .items(pageRows.stream().map(mapper).toList())
+                .nextCursor(hasMore ? idOf.apply(pageRows.get(pageRows.size() - 1)) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Write every row of the stream as one JSON line. The persistence context is
+     * cleared every chunk so already written entities can be garbage collected.
+     * Must run inside a transaction, which keeps the cursor open.
+     */
+    public <E, D> long writeNdjson(OutputStream out, Stream<E> rows, Function<E, D> mapper) throws IOException {
+        int chunkSize = businessRulesConfig.getStreamChunkSize();
+        long written = 0;
+
+        try (rows; JsonGenerator generator = newGenerator(out)) {
+            Iterator<E> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writeLine(generator, mapper.apply(iterator.next()));
+                if (++written % chunkSize == 0) {
+                    endChunk(generator);
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Same as {@link #writeNdjson(OutputStream, Stream, Function)} for entities that fetch
+     * a collection: only the ids are streamed, and each chunk of ids is loaded with
+     * its lines by the given loader, which must return them in id order.
+     */
+    public <E, D> long writeNdjsonInChunks(OutputStream out, Stream<Long> ids,
+                                           Function<List<Long>, List<E>> loader,
+                                           Function<E, D> mapper) throws IOException {
+        int chunkSize = businessRulesConfig.getStreamChunkSize();
+        List<Long> chunk = new ArrayList<>(chunkSize);
+        long written = 0;
+
+        try (ids; JsonGenerator generator = newGenerator(out)) {
+            Iterator<Long> iterator = ids.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    for (E row : loader.apply(chunk)) {
+                        writeLine(generator, mapper.apply(row));
+                        written++;
+                    }
+                    chunk.clear();
+                    endChunk(generator);
+                }
+            }
+        }
+        return written;
+    }
+
+    private JsonGenerator newGenerator(OutputStream out) throws IOException {
+        // The servlet stream belongs to the container: flush it, never close it
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are ended explicitly, no separator between root values
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private void writeLine(JsonGenerator generator, Object value) throws IOException {
+        rowWriter.writeValue(generator, value);
+        generator.writeRaw('\n');
+    }
+
+    private void endChunk(JsonGenerator generator) throws IOException {
+        generator.flush();
+        entityManager.clear();
+    }
+}
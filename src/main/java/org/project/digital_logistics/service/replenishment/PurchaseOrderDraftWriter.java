@@ -0,0 +1,101 @@
+package org.project.digital_logistics.service.replenishment;
+
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.enums.PurchaseOrderStatus;
+import org.project.digital_logistics.event.StatusChangedEvent;
+import org.project.digital_logistics.model.enums.StatusCounterType;
+import org.project.digital_logistics.service.replenishment.ReorderEngine.ReorderLine;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the purchase orders drafted by the {@link ReorderEngine}: one CREATED order per
+ * supplier, all orders in one batch and their lines in batches of
+ * business.reorder-insert-batch-size, without loading any entity.
+ */
+@Component
+public class PurchaseOrderDraftWriter {
+
+    private static final String INSERT_ORDER = "INSERT INTO purchase_orders " +
+            "(supplier_id, status, created_at, expected_delivery) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_LINE = "INSERT INTO purchase_order_lines " +
+            "(purchase_order_id, product_id, quantity, unit_price) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusinessRulesConfig businessRulesConfig;
+
+    public PurchaseOrderDraftWriter(JdbcTemplate jdbcTemplate,
+                                    ApplicationEventPublisher eventPublisher,
+                                    BusinessRulesConfig businessRulesConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.businessRulesConfig = businessRulesConfig;
+    }
+
+    /**
+     * @return the number of purchase orders created
+     */
+    @Transactional
+    public int createDrafts(Map<Long, List<ReorderLine>> linesBySupplier, LocalDateTime expectedDelivery) {
+        if (linesBySupplier.isEmpty()) {
+            return 0;
+        }
+        List<Long> supplierIds = new ArrayList<>(linesBySupplier.keySet());
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp delivery = Timestamp.valueOf(expectedDelivery);
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_ORDER, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, supplierIds.get(i));
+                        ps.setString(2, PurchaseOrderStatus.CREATED.name());
+                        ps.setTimestamp(3, createdAt);
+                        ps.setTimestamp(4, delivery);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return supplierIds.size();
+                    }
+                }, keys);
+
+        // Generated ids come back in the order the suppliers were inserted
+        List<Map<String, Object>> orderIds = keys.getKeyList();
+        List<OrderLineRow> rows = new ArrayList<>();
+        for (int i = 0; i < supplierIds.size(); i++) {
+            long orderId = ((Number) orderIds.get(i).values().iterator().next()).longValue();
+            for (ReorderLine line : linesBySupplier.get(supplierIds.get(i))) {
+                rows.add(new OrderLineRow(orderId, line));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_LINE, rows, businessRulesConfig.getReorderInsertBatchSize(), (ps, row) -> {
+            ps.setLong(1, row.orderId());
+            ps.setLong(2, row.line().productId());
+            ps.setInt(3, row.line().quantity());
+            ps.setBigDecimal(4, row.line().unitPrice());
+        });
+
+        eventPublisher.publishEvent(StatusChangedEvent.created(
+                StatusCounterType.PURCHASE_ORDER, PurchaseOrderStatus.CREATED, supplierIds.size()));
+        return supplierIds.size();
+    }
+
+    private record OrderLineRow(long orderId, ReorderLine line) {
+    }
+}
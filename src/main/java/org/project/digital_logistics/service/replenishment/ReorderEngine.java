@@ -0,0 +1,260 @@
+package org.project.digital_logistics.service.replenishment;
+
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.enums.PurchaseOrderStatus;
+import org.project.digital_logistics.model.Supplier;
+import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.repository.ProductRepository;
+import org.project.digital_logistics.repository.PurchaseOrderLineRepository;
+import org.project.digital_logistics.repository.SupplierRepository;
+import org.project.digital_logistics.repository.projection.OpenPurchaseQuantity;
+import org.project.digital_logistics.repository.projection.ProductSupplier;
+import org.project.digital_logistics.repository.projection.ReorderCandidate;
+import org.project.digital_logistics.repository.projection.StockLevel;
+import org.project.digital_logistics.service.stock.ShipmentVelocityTracker;
+import org.project.digital_logistics.service.stock.StockLedger;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+/**
+ * Proactive replenishment: compares the stock position of every active product with a
+ * reorder point derived from its shipment velocity, and drafts purchase orders for the
+ * products at or below it.
+ *
+ * For a product shipping v units a day (30-day average), the reorder point is
+ * v × (lead time + safety days) and the order brings the position up to
+ * v × (lead time + safety days + cover days). The position is the available stock
+ * plus the quantity still expected from CREATED and APPROVED purchase orders, so the
+ * drafts of a previous run are not ordered twice.
+ *
+ * Everything the evaluation needs is read up front with one query per source, or from
+ * the in-memory StockLedger and ShipmentVelocityTracker, so the products are then
+ * evaluated without any I/O on a fork-join pool sized to the cores. Lines are grouped
+ * into one CREATED purchase order per supplier and written in batches by the
+ * {@link PurchaseOrderDraftWriter}. A product is ordered from the supplier of its latest
+ * purchase order, or from the first supplier when it was never ordered.
+ */
+@Component
+@Slf4j
+public class ReorderEngine {
+
+    static final Set<PurchaseOrderStatus> OPEN_STATUSES =
+            EnumSet.of(PurchaseOrderStatus.CREATED, PurchaseOrderStatus.APPROVED);
+
+    private final ProductRepository productRepository;
+    private final PurchaseOrderLineRepository purchaseOrderLineRepository;
+    private final SupplierRepository supplierRepository;
+    private final InventoryRepository inventoryRepository;
+    private final StockLedger stockLedger;
+    private final ShipmentVelocityTracker velocityTracker;
+    private final PurchaseOrderDraftWriter draftWriter;
+    private final BusinessRulesConfig businessRulesConfig;
+
+    public ReorderEngine(ProductRepository productRepository,
+                         PurchaseOrderLineRepository purchaseOrderLineRepository,
+                         SupplierRepository supplierRepository,
+                         InventoryRepository inventoryRepository,
+                         StockLedger stockLedger,
+                         ShipmentVelocityTracker velocityTracker,
+                         PurchaseOrderDraftWriter draftWriter,
+                         BusinessRulesConfig businessRulesConfig) {
+        this.productRepository = productRepository;
+        this.purchaseOrderLineRepository = purchaseOrderLineRepository;
+        this.supplierRepository = supplierRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.stockLedger = stockLedger;
+        this.velocityTracker = velocityTracker;
+        this.draftWriter = draftWriter;
+        this.businessRulesConfig = businessRulesConfig;
+    }
+
+    /**
+     * Evaluate every active product and draft the purchase orders they need.
+     * Skipped while the shipment velocity has not been rebuilt.
+     */
+    public synchronized ReorderRun run() {
+        if (!velocityTracker.isReady()) {
+            log.warn("Reorder run skipped: shipment velocity not rebuilt yet");
+            return new ReorderRun(0, 0, 0, 0);
+        }
+        long start = System.currentTimeMillis();
+
+        List<ReorderCandidate> candidates = productRepository.findReorderCandidates();
+        ReorderInputs inputs = new ReorderInputs(
+                stockLedger.isReady() ? null : availableFromDatabase(),
+                openQuantities(),
+                preferredSuppliers(),
+                supplierRepository.findFirstByOrderByIdAsc().map(Supplier::getId).orElse(null),
+                businessRulesConfig.getReorderLeadTimeDays() + businessRulesConfig.getReorderSafetyStockDays(),
+                businessRulesConfig.getReorderLeadTimeDays() + businessRulesConfig.getReorderSafetyStockDays()
+                        + businessRulesConfig.getReorderCoverDays());
+
+        List<ReorderLine> lines = evaluateAll(candidates, inputs);
+
+        // Without any supplier, there is no one to order from
+        List<ReorderLine> orderable = lines.stream().filter(line -> line.supplierId() != null).toList();
+        if (orderable.size() < lines.size()) {
+            log.warn("Reorder run: {} product(s) below their reorder point have no supplier",
+                    lines.size() - orderable.size());
+        }
+
+        Map<Long, List<ReorderLine>> linesBySupplier = orderable.stream()
+                .collect(Collectors.groupingBy(ReorderLine::supplierId, TreeMap::new, Collectors.toList()));
+        int orders = draftWriter.createDrafts(linesBySupplier,
+                LocalDateTime.now().plusDays(businessRulesConfig.getReorderLeadTimeDays()));
+
+        log.info("Reorder run: {} product(s) evaluated, {} line(s) in {} draft purchase order(s) in {} ms",
+                candidates.size(), orderable.size(), orders, System.currentTimeMillis() - start);
+        return new ReorderRun(candidates.size(), lines.size(), orderable.size(), orders);
+    }
+
+    /**
+     * The line to order for one product, or null when its position is above its reorder point.
+     */
+    ReorderLine evaluate(ReorderCandidate candidate, ReorderInputs inputs) {
+        Long productId = candidate.productId();
+        double perDay = velocityTracker.velocity(productId, null).getAveragePerDay30Days();
+        if (perDay <= 0) {
+            return null;
+        }
+
+        long available = inputs.available() != null
+                ? inputs.available().getOrDefault(productId, 0L)
+                : stockLedger.availableStock(productId).orElse(0);
+        long position = available + inputs.openQuantities().getOrDefault(productId, 0L);
+        long reorderPoint = (long) Math.ceil(perDay * inputs.reorderPointDays());
+        if (position > reorderPoint) {
+            return null;
+        }
+
+        long quantity = (long) Math.ceil(perDay * inputs.targetDays()) - position;
+        if (quantity <= 0) {
+            return null;
+        }
+        return new ReorderLine(
+                inputs.preferredSuppliers().getOrDefault(productId, inputs.defaultSupplierId()),
+                productId,
+                (int) Math.min(quantity, Integer.MAX_VALUE),
+                candidate.originalPrice() != null ? BigDecimal.valueOf(candidate.originalPrice()) : BigDecimal.ZERO);
+    }
+
+    private List<ReorderLine> evaluateAll(List<ReorderCandidate> candidates, ReorderInputs inputs) {
+        int parallelism = businessRulesConfig.getReorderParallelism() > 0
+                ? businessRulesConfig.getReorderParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("reorder-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        try {
+            return pool.invoke(new EvaluateTask(candidates, 0, candidates.size(), inputs,
+                    Math.max(1, businessRulesConfig.getReorderChunkSize())));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Available stock per product, when the ledger cannot answer yet
+    private Map<Long, Long> availableFromDatabase() {
+        Map<Long, Long> available = new HashMap<>();
+        for (StockLevel level : inventoryRepository.findAllStockLevels()) {
+            available.merge(level.productId(), (long) level.qtyOnHand() - level.qtyReserved(), Long::sum);
+        }
+        return available;
+    }
+
+    private Map<Long, Long> openQuantities() {
+        Map<Long, Long> open = new HashMap<>();
+        for (OpenPurchaseQuantity quantity : purchaseOrderLineRepository.sumQuantityByProduct(OPEN_STATUSES)) {
+            open.put(quantity.productId(), quantity.quantity());
+        }
+        return open;
+    }
+
+    // Supplier of the latest purchase order of each product
+    private Map<Long, Long> preferredSuppliers() {
+        Map<Long, ProductSupplier> latest = new HashMap<>();
+        for (ProductSupplier supplier : purchaseOrderLineRepository.findProductSuppliers()) {
+            latest.merge(supplier.productId(), supplier,
+                    (current, candidate) -> candidate.lastPurchaseOrderId() > current.lastPurchaseOrderId()
+                            ? candidate : current);
+        }
+        Map<Long, Long> suppliers = new HashMap<>();
+        latest.forEach((productId, supplier) -> suppliers.put(productId, supplier.supplierId()));
+        return suppliers;
+    }
+
+    /**
+     * Splits the candidates in halves until a range fits in one chunk. The results are
+     * joined left to right, so the lines keep the candidates' product id order.
+     */
+    private final class EvaluateTask extends RecursiveTask<List<ReorderLine>> {
+
+        private final List<ReorderCandidate> candidates;
+        private final int from;
+        private final int to;
+        private final ReorderInputs inputs;
+        private final int chunkSize;
+
+        EvaluateTask(List<ReorderCandidate> candidates, int from, int to, ReorderInputs inputs, int chunkSize) {
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+            this.inputs = inputs;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected List<ReorderLine> compute() {
+            if (to - from <= chunkSize) {
+                List<ReorderLine> lines = new ArrayList<>();
+                for (int index = from; index < to; index++) {
+                    ReorderLine line = evaluate(candidates.get(index), inputs);
+                    if (line != null) {
+                        lines.add(line);
+                    }
+                }
+                return lines;
+            }
+            int middle = (from + to) >>> 1;
+            EvaluateTask left = new EvaluateTask(candidates, from, middle, inputs, chunkSize);
+            left.fork();
+            List<ReorderLine> right = new EvaluateTask(candidates, middle, to, inputs, chunkSize).compute();
+            List<ReorderLine> lines = new ArrayList<>(left.join());
+            lines.addAll(right);
+            return lines;
+        }
+    }
+
+    /**
+     * Read-only data shared by every evaluation. available is null when the StockLedger is used.
+     */
+    record ReorderInputs(Map<Long, Long> available,
+                         Map<Long, Long> openQuantities,
+                         Map<Long, Long> preferredSuppliers,
+                         Long defaultSupplierId,
+                         int reorderPointDays,
+                         int targetDays) {
+    }
+
+    public record ReorderLine(Long supplierId,
+                              Long productId,
+                              int quantity,
+                              BigDecimal unitPrice) {
+    }
+
+    public record ReorderRun(int productsEvaluated,
+                             int productsBelowReorderPoint,
+                             int linesCreated,
+                             int purchaseOrdersCreated) {
+    }
+}
@@ -0,0 +1,93 @@
+package org.project.digital_logistics.service.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.dto.stats.ConflictRetryStatsDto;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retry policy of the {@link RetryOnConflict} methods.
+ * <p>
+ * Ordered before the transaction interceptor, so each attempt runs in a fresh
+ * transaction: the failed one is rolled back (its AFTER_COMMIT listeners never run)
+ * and the next attempt re-reads the rows. Attempts are bounded by
+ * business.conflict-retry-max-attempts and spaced by a full-jitter exponential backoff,
+ * so the writers that collided do not collide again in lockstep.
+ * <p>
+ * A method called inside an already running transaction is not retried here: the
+ * conflict surfaces in the outermost call, which owns the transaction.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@Slf4j
+public class ConflictRetryAspect {
+
+    private final BusinessRulesConfig businessRulesConfig;
+
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong recovered = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+
+    public ConflictRetryAspect(BusinessRulesConfig businessRulesConfig) {
+        this.businessRulesConfig = businessRulesConfig;
+    }
+
+    @Around("@annotation(org.project.digital_logistics.service.retry.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        int maxAttempts = Math.max(1, businessRulesConfig.getConflictRetryMaxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Object result = joinPoint.proceed();
+                if (attempt > 1) {
+                    recovered.incrementAndGet();
+                }
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.incrementAndGet();
+                if (attempt >= maxAttempts) {
+                    exhausted.incrementAndGet();
+                    log.warn("{}: still conflicting after {} attempts", joinPoint.getSignature().toShortString(),
+                            attempt);
+                    throw e;
+                }
+                retries.incrementAndGet();
+                backOff(attempt);
+            }
+        }
+    }
+
+    public ConflictRetryStatsDto getStats() {
+        return ConflictRetryStatsDto.builder()
+                .maxAttempts(businessRulesConfig.getConflictRetryMaxAttempts())
+                .conflicts(conflicts.get())
+                .retries(retries.get())
+                .recovered(recovered.get())
+                .exhausted(exhausted.get())
+                .build();
+    }
+
+    // Full jitter: a random delay between 0 and base * 2^(attempt - 1), capped
+    private void backOff(int attempt) throws InterruptedException {
+        long ceiling = Math.min(businessRulesConfig.getConflictRetryMaxDelayMs(),
+                businessRulesConfig.getConflictRetryBaseDelayMs() << Math.min(attempt - 1, 20));
+        if (ceiling > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.project.digital_logistics.service.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-run the whole transactional method when it loses an optimistic lock
+ * (a versioned row was changed by another transaction before this one committed).
+ * See {@link ConflictRetryAspect}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
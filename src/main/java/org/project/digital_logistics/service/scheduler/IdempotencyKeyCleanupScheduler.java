@@ -0,0 +1,27 @@
+package org.project.digital_logistics.service.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.service.idempotency.IdempotencyService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyKeyCleanupScheduler {
+
+    private final IdempotencyService idempotencyService;
+
+    /**
+     * Tâche planifiée : Supprimer les Idempotency-Key expirées
+     * Exécutée toutes les heures
+     */
+    @Scheduled(cron = "0 15 * * * *")
+    public void purgeExpiredIdempotencyKeys() {
+        int deleted = idempotencyService.purgeExpired();
+        if (deleted > 0) {
+            log.info("{} Idempotency-Key expirée(s) supprimée(s)", deleted);
+        }
+    }
+}
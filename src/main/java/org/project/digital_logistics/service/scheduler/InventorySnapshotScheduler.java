@@ -0,0 +1,32 @@
+package org.project.digital_logistics.service.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.service.InventorySnapshotService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventorySnapshotScheduler {
+
+    private final InventorySnapshotService inventorySnapshotService;
+    private final BusinessRulesConfig businessRulesConfig;
+
+    /**
+     * Tâche planifiée : Photographier le stock de chaque inventaire
+     * Exécutée tous les jours à 1h du matin ; les photos plus vieilles que
+     * business.inventory-snapshot-retention-days jours sont supprimées
+     */
+    @Scheduled(cron = "0 0 1 * * ?")
+    public void snapshotInventories() {
+        int taken = inventorySnapshotService.takeSnapshot();
+        int purged = inventorySnapshotService.purgeSnapshotsBefore(
+                LocalDateTime.now().minusDays(businessRulesConfig.getInventorySnapshotRetentionDays()));
+        log.info("Snapshot des inventaires : {} ligne(s) enregistrée(s), {} ancienne(s) supprimée(s)", taken, purged);
+    }
+}
@@ -0,0 +1,35 @@
+package org.project.digital_logistics.service.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.service.journal.MovementPartitionManager;
+import org.project.digital_logistics.service.journal.MovementPartitionManager.Maintenance;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MovementPartitionScheduler {
+
+    private final MovementPartitionManager movementPartitionManager;
+
+    /**
+     * Tâche planifiée : Créer les partitions mensuelles à venir de inventory_movements
+     * et supprimer celles sorties de la rétention
+     * Exécutée tous les jours à 4h du matin (si business.movement-partitioning-enabled)
+     */
+    @Scheduled(cron = "0 0 4 * * ?")
+    public void maintainMovementPartitions() {
+        if (!movementPartitionManager.isEnabled()) {
+            return;
+        }
+        Maintenance maintenance = movementPartitionManager.maintain(YearMonth.now());
+        if (maintenance.created() > 0 || maintenance.dropped() > 0) {
+            log.info("Partitions des mouvements : {} créée(s), {} supprimée(s)",
+                    maintenance.created(), maintenance.dropped());
+        }
+    }
+}
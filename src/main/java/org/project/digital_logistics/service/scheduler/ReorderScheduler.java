@@ -0,0 +1,28 @@
+package org.project.digital_logistics.service.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.service.replenishment.ReorderEngine;
+import org.project.digital_logistics.service.replenishment.ReorderEngine.ReorderRun;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReorderScheduler {
+
+    private final ReorderEngine reorderEngine;
+
+    /**
+     * Tâche planifiée : Réapprovisionner les produits sous leur point de commande
+     * Exécutée tous les jours à 2h30 par défaut (business.reorder-cron) ; crée un bon
+     * de commande CREATED par fournisseur pour les produits actifs concernés
+     */
+    @Scheduled(cron = "${business.reorder-cron:0 30 2 * * ?}")
+    public void runReorder() {
+        ReorderRun run = reorderEngine.run();
+        log.info("Réapprovisionnement : {} produit(s) évalué(s), {} ligne(s) dans {} bon(s) de commande",
+                run.productsEvaluated(), run.linesCreated(), run.purchaseOrdersCreated());
+    }
+}
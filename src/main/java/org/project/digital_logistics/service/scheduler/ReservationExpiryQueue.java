@@ -0,0 +1,168 @@
+package org.project.digital_logistics.service.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.event.SalesOrderReservedEvent;
+import org.project.digital_logistics.model.enums.OrderStatus;
+import org.project.digital_logistics.repository.SalesOrderRepository;
+import org.project.digital_logistics.repository.projection.ExpiredReservation;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Échéances des réservations en mémoire, pour annuler chaque réservation à
+ * reservedAt + business.reservation-ttl-hours exactement au lieu d'attendre le balayage horaire.
+ *
+ * La file est reconstruite depuis la base au démarrage et alimentée par les
+ * SalesOrderReservedEvent une fois leur transaction validée. Un thread dédié attend la
+ * prochaine échéance et annule les commandes via SalesOrderValidationScheduler, qui
+ * revérifie le statut : une commande expédiée ou annulée entre-temps est simplement ignorée.
+ */
+@Component
+@Slf4j
+public class ReservationExpiryQueue {
+
+    private static final long RETRY_DELAY_MS = 60_000;
+
+    private final SalesOrderRepository salesOrderRepository;
+    private final SalesOrderValidationScheduler validationScheduler;
+    private final BusinessRulesConfig businessRulesConfig;
+
+    private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+    private volatile Thread worker;
+
+    public ReservationExpiryQueue(SalesOrderRepository salesOrderRepository,
+                                  SalesOrderValidationScheduler validationScheduler,
+                                  BusinessRulesConfig businessRulesConfig) {
+        this.salesOrderRepository = salesOrderRepository;
+        this.validationScheduler = validationScheduler;
+        this.businessRulesConfig = businessRulesConfig;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        int loaded = rebuild();
+        log.info("File d'expiration des réservations : {} réservation(s) en cours chargée(s)", loaded);
+
+        worker = new Thread(this::run, "reservation-expiry");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread current = worker;
+        worker = null;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSalesOrderReserved(SalesOrderReservedEvent event) {
+        schedule(event.salesOrderId(), event.reservedAt());
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    int rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        Pageable chunk = PageRequest.of(0, businessRulesConfig.getReservationExpiryChunkSize());
+        int loaded = 0;
+
+        List<ExpiredReservation> reservations = salesOrderRepository
+                .findFirstReservedBefore(OrderStatus.RESERVED, now, chunk);
+        while (!reservations.isEmpty()) {
+            reservations.forEach(reservation -> schedule(reservation.id(), reservation.reservedAt()));
+            loaded += reservations.size();
+
+            ExpiredReservation last = reservations.get(reservations.size() - 1);
+            reservations = salesOrderRepository.findNextReservedBefore(
+                    OrderStatus.RESERVED, now, last.reservedAt(), last.id(), chunk);
+        }
+        return loaded;
+    }
+
+    void schedule(Long salesOrderId, LocalDateTime reservedAt) {
+        if (salesOrderId == null || reservedAt == null) {
+            return;
+        }
+        long expiresAt = reservedAt.plusHours(businessRulesConfig.getReservationTtlHours())
+                .atZone(ZoneId.systemDefault())
+                .toInstant()
+                .toEpochMilli();
+        deadlines.add(new Deadline(salesOrderId, expiresAt));
+    }
+
+    /**
+     * Annule les réservations arrivées à échéance, par lots.
+     */
+    int expireDue() {
+        List<Deadline> due = new ArrayList<>();
+        deadlines.drainTo(due, businessRulesConfig.getReservationExpiryChunkSize());
+        if (due.isEmpty()) {
+            return 0;
+        }
+        return cancel(due);
+    }
+
+    private void run() {
+        while (worker == Thread.currentThread()) {
+            try {
+                List<Deadline> due = new ArrayList<>();
+                due.add(deadlines.take());
+                deadlines.drainTo(due, businessRulesConfig.getReservationExpiryChunkSize() - 1);
+                cancel(due);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private int cancel(List<Deadline> due) {
+        List<Long> orderIds = due.stream().map(Deadline::salesOrderId).toList();
+        try {
+            int canceled = validationScheduler.cancelExpiredOrders(orderIds);
+            if (canceled > 0) {
+                log.info("{} réservation(s) expirée(s) annulée(s) à l'échéance", canceled);
+            }
+            return canceled;
+        } catch (Exception e) {
+            log.error("Erreur lors de l'annulation des réservations {}: {} (nouvel essai dans 1 minute)",
+                    orderIds, e.getMessage());
+            long retryAt = System.currentTimeMillis() + RETRY_DELAY_MS;
+            due.forEach(deadline -> deadlines.add(new Deadline(deadline.salesOrderId(), retryAt)));
+            return 0;
+        }
+    }
+
+    private record Deadline(Long salesOrderId, long expiresAtMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiresAtMillis, ((Deadline) other).expiresAtMillis);
+        }
+    }
+}
@@ -3,16 +3,25 @@ package org.project.digital_logistics.service.scheduler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.project.digital_logistics.config.BusinessRulesConfig;
-import org.project.digital_logistics.model.Inventory;
+import org.project.digital_logistics.event.InventoryChangedEvent;
+import org.project.digital_logistics.event.StatusChangedEvent;
 import org.project.digital_logistics.model.SalesOrder;
-import org.project.digital_logistics.model.SalesOrderLine;
 import org.project.digital_logistics.model.enums.OrderStatus;
-import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.model.enums.StatusCounterType;
 import org.project.digital_logistics.repository.SalesOrderRepository;
+import org.project.digital_logistics.repository.projection.ExpiredReservation;
+import org.project.digital_logistics.repository.projection.ReservedQuantity;
+import org.project.digital_logistics.service.SalesOrderArchiveService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -21,111 +30,152 @@ import java.util.List;
 @Slf4j
 public class SalesOrderValidationScheduler {
 
+    // Jamais sous zéro : une ligne qui a dérivé libère ce qu'elle a au lieu de rien
+    private static final String RELEASE_RESERVED = "UPDATE inventories " +
+            "SET qty_reserved = GREATEST(qty_reserved - ?, 0), updated_at = ?, version = version + 1 " +
+            "WHERE warehouse_id = ? AND product_id = ?";
+
     private final SalesOrderRepository salesOrderRepository;
-    private final InventoryRepository inventoryRepository;
     private final BusinessRulesConfig businessRulesConfig;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final SalesOrderArchiveService salesOrderArchiveService;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
      * Tâche planifiée : Annuler automatiquement les réservations expirées
-     * Exécutée toutes les heures
+     * Exécutée toutes les heures, en filet de sécurité : les réservations sont normalement
+     * annulées à leur échéance exacte par ReservationExpiryQueue
+     *
+     * Parcourt les commandes RESERVED par keyset (reserved_at, id) en lots de
+     * business.reservation-expiry-chunk-size, chaque lot dans sa propre transaction,
+     * pour garder une mémoire et une durée constantes quel que soit le volume de sales_orders.
      */
     @Scheduled(cron = "0 0 * * * ?") // Toutes les heures à la minute 0
-    @Transactional
     public void cancelExpiredReservations() {
         log.info("🔍 Début de la vérification des réservations expirées...");
 
         LocalDateTime expirationTime = LocalDateTime.now()
                 .minusHours(businessRulesConfig.getReservationTtlHours());
+        Pageable chunk = PageRequest.of(0, businessRulesConfig.getReservationExpiryChunkSize());
 
-        // Trouver toutes les Sales Orders RESERVED qui ont dépassé le TTL
-        List<SalesOrder> expiredOrders = salesOrderRepository.findAll()
-                .stream()
-                .filter(order -> order.getStatus() == OrderStatus.RESERVED)
-                .filter(order -> order.getReservedAt() != null)
-                .filter(order -> order.getReservedAt().isBefore(expirationTime))
-                .toList();
-
-        if (expiredOrders.isEmpty()) {
-            log.info("Aucune réservation expirée trouvée.");
-            return;
-        }
-
-        log.info("réservation(s) expirée(s) trouvée(s). Annulation en cours...", expiredOrders.size());
+        List<ExpiredReservation> expired = salesOrderRepository
+                .findFirstReservedBefore(OrderStatus.RESERVED, expirationTime, chunk);
 
+        int foundCount = 0;
         int canceledCount = 0;
-        for (SalesOrder order : expiredOrders) {
+        while (!expired.isEmpty()) {
+            foundCount += expired.size();
+            List<Long> orderIds = expired.stream().map(ExpiredReservation::id).toList();
+
             try {
-                cancelExpiredReservation(order);
-                canceledCount++;
-                log.info("Sales Order #{} annulée (réservée depuis {} heures)",
-                        order.getId(),
-                        java.time.Duration.between(order.getReservedAt(), LocalDateTime.now()).toHours());
+                canceledCount += cancelExpiredOrders(orderIds);
             } catch (Exception e) {
-                log.error("Erreur lors de l'annulation de la Sales Order #{}: {}",
-                        order.getId(), e.getMessage());
+                log.error("Erreur lors de l'annulation du lot de Sales Orders {}: {}", orderIds, e.getMessage());
             }
+
+            ExpiredReservation last = expired.get(expired.size() - 1);
+            expired = salesOrderRepository.findNextReservedBefore(
+                    OrderStatus.RESERVED, expirationTime, last.reservedAt(), last.id(), chunk);
+        }
+
+        if (foundCount == 0) {
+            log.info("Aucune réservation expirée trouvée.");
+            return;
         }
 
         log.info("Résultat : {} réservation(s) expirée(s) annulée(s) sur {} trouvée(s)",
-                canceledCount, expiredOrders.size());
+                canceledCount, foundCount);
     }
 
     /**
-     * Annule une réservation expirée et libère le stock
+     * Annule des réservations expirées dans une transaction dédiée.
+     * Utilisé par le balayage horaire et par ReservationExpiryQueue à l'échéance exacte.
+     *
+     * @return le nombre de commandes effectivement annulées
      */
-    private void cancelExpiredReservation(SalesOrder order) {
+    public int cancelExpiredOrders(List<Long> orderIds) {
+        Integer canceled = transactionTemplate.execute(status -> cancelExpiredChunk(orderIds));
+        return canceled != null ? canceled : 0;
+    }
+
+    /**
+     * Annule un lot de réservations expirées et libère le stock.
+     * Les commandes sont verrouillées puis revérifiées (elles ont pu être expédiées entre-temps),
+     * le stock est libéré par une seule mise à jour par ligne d'inventaire, envoyées en un batch JDBC.
+     * Une ligne dont la quantité réservée a dérivé sous la quantité à libérer est ramenée à zéro :
+     * les commandes passent CANCELED, leur stock ne doit pas rester bloqué.
+     */
+    private int cancelExpiredChunk(List<Long> orderIds) {
+        List<Long> lockedIds = salesOrderRepository.lockIdsInStatus(orderIds, OrderStatus.RESERVED);
+        if (lockedIds.isEmpty()) {
+            return 0;
+        }
+
         // Libérer les quantités réservées dans les inventaires
-        for (SalesOrderLine line : order.getOrderLines()) {
-            Inventory inventory = inventoryRepository
-                    .findByWarehouseIdAndProductId(
-                            line.getWarehouse().getId(),
-                            line.getProduct().getId()
-                    )
-                    .orElse(null);
-
-            if (inventory != null) {
-                int previousReserved = inventory.getQtyReserved();
-                inventory.setQtyReserved(inventory.getQtyReserved() - line.getQuantity());
-                inventoryRepository.save(inventory);
-
-                log.debug("Stock libéré - Produit: {}, Warehouse: {}, Quantité: {} (réservé: {} → {})",
-                        line.getProduct().getName(),
-                        line.getWarehouse().getName(),
-                        line.getQuantity(),
-                        previousReserved,
-                        inventory.getQtyReserved());
+        List<ReservedQuantity> releases = salesOrderRepository.sumQuantitiesByInventory(lockedIds);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] updated = releases.isEmpty()
+                ? new int[0][]
+                : jdbcTemplate.batchUpdate(RELEASE_RESERVED, releases, releases.size(), (ps, reserved) -> {
+                    ps.setInt(1, reserved.quantity().intValue());
+                    ps.setTimestamp(2, now);
+                    ps.setLong(3, reserved.warehouseId());
+                    ps.setLong(4, reserved.productId());
+                });
+
+        int position = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                ReservedQuantity reserved = releases.get(position++);
+                int quantity = reserved.quantity().intValue();
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    // Le StockLedger corrige un éventuel écart au prochain rapprochement
+                    eventPublisher.publishEvent(InventoryChangedEvent.released(
+                            reserved.warehouseId(), reserved.productId(), quantity));
+                    log.debug("Stock libéré - Produit: {}, Warehouse: {}, Quantité: {}",
+                            reserved.productId(), reserved.warehouseId(), quantity);
+                } else {
+                    log.warn("Ligne d'inventaire introuvable pour libérer {} unité(s) - Produit: {}, Warehouse: {}",
+                            quantity, reserved.productId(), reserved.warehouseId());
+                }
             }
         }
 
         // Changer le statut à CANCELED
-        order.setStatus(OrderStatus.CANCELED);
-        salesOrderRepository.save(order);
+        salesOrderRepository.updateStatus(lockedIds, OrderStatus.CANCELED);
+        eventPublisher.publishEvent(StatusChangedEvent.transition(
+                StatusCounterType.SALES_ORDER, OrderStatus.RESERVED, OrderStatus.CANCELED, lockedIds.size()));
+        log.info("Sales Orders {} annulées (réservation expirée)", lockedIds);
+        return lockedIds.size();
     }
 
     /**
-     * Tâche planifiée : Vérifier et nettoyer les anciennes commandes annulées
+     * Tâche planifiée : Archiver les anciennes commandes terminées (CANCELED / DELIVERED)
      * Exécutée tous les jours à 2h du matin
+     *
+     * Les commandes de plus de business.archive-after-days jours sont déplacées par lots
+     * dans archived_sales_orders (une transaction par lot) pour garder les tables chaudes petites.
      */
     @Scheduled(cron = "0 0 2 * * ?") // Tous les jours à 2h du matin
-    @Transactional
-    public void cleanupOldCanceledOrders() {
-        log.info("Début du nettoyage des anciennes commandes annulées...");
-
-        LocalDateTime cleanupThreshold = LocalDateTime.now().minusDays(30);
-
-        List<SalesOrder> oldCanceledOrders = salesOrderRepository.findAll()
-                .stream()
-                .filter(order -> order.getStatus() == OrderStatus.CANCELED)
-                .filter(order -> order.getCreatedAt() != null)
-                .filter(order -> order.getCreatedAt().isBefore(cleanupThreshold))
-                .toList();
-
-        if (!oldCanceledOrders.isEmpty()) {
-            log.info("{} commande(s) annulée(s) de plus de 30 jours trouvée(s) (peuvent être archivées)",
-                    oldCanceledOrders.size());
-            // Ici vous pouvez ajouter une logique d'archivage si nécessaire
+    public void archiveOldOrders() {
+        log.info("Début de l'archivage des anciennes commandes terminées...");
+
+        LocalDateTime archiveThreshold = LocalDateTime.now().minusDays(businessRulesConfig.getArchiveAfterDays());
+        int chunkSize = businessRulesConfig.getArchiveChunkSize();
+
+        int archivedCount = 0;
+        int archived;
+        do {
+            archived = salesOrderArchiveService.archiveNextChunk(archiveThreshold, chunkSize);
+            archivedCount += archived;
+        } while (archived == chunkSize);
+
+        if (archivedCount > 0) {
+            log.info("{} commande(s) terminée(s) de plus de {} jours archivée(s)",
+                    archivedCount, businessRulesConfig.getArchiveAfterDays());
         } else {
-            log.info("Aucune ancienne commande annulée à nettoyer.");
+            log.info("Aucune ancienne commande à archiver.");
         }
     }
 
@@ -0,0 +1,29 @@
+package org.project.digital_logistics.service.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.service.stock.ShipmentVelocityTracker;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShipmentVelocityFlushScheduler {
+
+    private final ShipmentVelocityTracker shipmentVelocityTracker;
+
+    /**
+     * Tâche planifiée : Enregistrer les compteurs de vélocité des expéditions
+     * Exécutée toutes les minutes par défaut (business.velocity-flush-interval-ms) ;
+     * seuls les jours modifiés depuis le dernier enregistrement sont écrits
+     */
+    @Scheduled(fixedDelayString = "${business.velocity-flush-interval-ms:60000}",
+            initialDelayString = "${business.velocity-flush-interval-ms:60000}")
+    public void flushShipmentVelocity() {
+        int saved = shipmentVelocityTracker.flush();
+        if (saved > 0) {
+            log.debug("Vélocité des expéditions : {} jour(s) enregistré(s)", saved);
+        }
+    }
+}
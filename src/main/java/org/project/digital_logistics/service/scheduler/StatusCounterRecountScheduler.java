@@ -0,0 +1,29 @@
+package org.project.digital_logistics.service.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.service.stats.StatusCounterService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatusCounterRecountScheduler {
+
+    private final StatusCounterService statusCounterService;
+
+    /**
+     * Tâche planifiée : Recompter les statuts depuis les tables et corriger les compteurs
+     * Exécutée tous les jours à 3h du matin (après l'archivage de 2h)
+     */
+    @Scheduled(cron = "0 0 3 * * ?")
+    public void recountStatusCounters() {
+        int corrected = statusCounterService.recountAll();
+        if (corrected > 0) {
+            log.warn("Compteurs de statuts : {} compteur(s) désynchronisé(s) corrigé(s)", corrected);
+        } else {
+            log.info("Compteurs de statuts synchronisés avec les tables");
+        }
+    }
+}
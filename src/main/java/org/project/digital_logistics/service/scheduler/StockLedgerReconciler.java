@@ -0,0 +1,47 @@
+package org.project.digital_logistics.service.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.service.stock.LowStockMonitor;
+import org.project.digital_logistics.service.stock.StockLedger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockLedgerReconciler {
+
+    private final StockLedger stockLedger;
+    private final LowStockMonitor lowStockMonitor;
+    private final InventoryRepository inventoryRepository;
+
+    /**
+     * Tâche planifiée : Comparer le ledger en mémoire avec la table inventories
+     * Exécutée toutes les 5 minutes par défaut (business.ledger-reconcile-interval-ms)
+     */
+    @Scheduled(fixedDelayString = "${business.ledger-reconcile-interval-ms:300000}",
+            initialDelayString = "${business.ledger-reconcile-interval-ms:300000}")
+    public void reconcileStockLedger() {
+        if (!stockLedger.isReady()) {
+            return;
+        }
+
+        int corrected = stockLedger.reconcile(inventoryRepository.findAllStockLevels());
+
+        if (corrected > 0) {
+            log.warn("Stock ledger : {} cellule(s) désynchronisée(s) corrigée(s) depuis la base", corrected);
+        } else {
+            log.debug("Stock ledger synchronisé avec la table inventories");
+        }
+
+        if (lowStockMonitor.isReady()) {
+            int monitorCorrected = lowStockMonitor.reconcile(inventoryRepository.findAllReorderLevels());
+            if (monitorCorrected > 0) {
+                log.warn("Moniteur de stock bas : {} cellule(s) désynchronisée(s) corrigée(s) depuis la base",
+                        monitorCorrected);
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package org.project.digital_logistics.service.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.stats.StatusCountsDto;
+import org.project.digital_logistics.enums.PurchaseOrderStatus;
+import org.project.digital_logistics.event.StatusChangedEvent;
+import org.project.digital_logistics.model.StatusCounter;
+import org.project.digital_logistics.model.enums.OrderStatus;
+import org.project.digital_logistics.model.enums.ShipmentStatus;
+import org.project.digital_logistics.model.enums.StatusCounterType;
+import org.project.digital_logistics.repository.PurchaseOrderRepository;
+import org.project.digital_logistics.repository.SalesOrderRepository;
+import org.project.digital_logistics.repository.ShipmentRepository;
+import org.project.digital_logistics.repository.StatusCounterRepository;
+import org.project.digital_logistics.repository.projection.StatusCount;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Compteurs matérialisés par statut pour les commandes clients, expéditions et commandes fournisseurs.
+ * <p>
+ * Les services publient un {@link StatusChangedEvent} à chaque transition ; l'écouteur est synchrone
+ * et s'exécute dans la transaction de l'appelant, le compteur est donc validé ou annulé avec elle.
+ * Un recomptage (démarrage + nuit) réaligne les compteurs sur les tables.
+ * <p>
+ * Chaque statut est réparti sur business.status-counter-slots lignes : une transition incrémente
+ * un créneau tiré au hasard, de sorte que les transactions concurrentes vers un même statut ne
+ * se sérialisent pas sur une seule ligne. Les lectures font la somme des créneaux.
+ */
+@Service
+@Slf4j
+public class StatusCounterService {
+
+    private static final Map<StatusCounterType, List<String>> STATUSES = Map.of(
+            StatusCounterType.SALES_ORDER, names(OrderStatus.values()),
+            StatusCounterType.SHIPMENT, names(ShipmentStatus.values()),
+            StatusCounterType.PURCHASE_ORDER, names(PurchaseOrderStatus.values())
+    );
+
+    private final StatusCounterRepository statusCounterRepository;
+    private final SalesOrderRepository salesOrderRepository;
+    private final ShipmentRepository shipmentRepository;
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BusinessRulesConfig businessRulesConfig;
+
+    @Autowired
+    public StatusCounterService(StatusCounterRepository statusCounterRepository,
+                                SalesOrderRepository salesOrderRepository,
+                                ShipmentRepository shipmentRepository,
+                                PurchaseOrderRepository purchaseOrderRepository,
+                                TransactionTemplate transactionTemplate,
+                                BusinessRulesConfig businessRulesConfig) {
+        this.statusCounterRepository = statusCounterRepository;
+        this.salesOrderRepository = salesOrderRepository;
+        this.shipmentRepository = shipmentRepository;
+        this.purchaseOrderRepository = purchaseOrderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.businessRulesConfig = businessRulesConfig;
+    }
+
+    @EventListener
+    @Transactional
+    public void onStatusChanged(StatusChangedEvent event) {
+        if (Objects.equals(event.fromStatus(), event.toStatus()) || event.count() == 0) {
+            return;
+        }
+
+        // Toujours dans le même ordre : deux transitions croisées ne peuvent pas s'interbloquer
+        SortedMap<String, Long> deltas = new TreeMap<>();
+        if (event.fromStatus() != null) {
+            deltas.put(event.fromStatus(), -event.count());
+        }
+        if (event.toStatus() != null) {
+            deltas.put(event.toStatus(), event.count());
+        }
+
+        // Créneau absent (base neuve avant le premier recomptage) : l'upsert le crée
+        int slot = ThreadLocalRandom.current().nextInt(slots());
+        deltas.forEach((status, delta) ->
+                statusCounterRepository.increment(event.type().name(), status, slot, delta));
+    }
+
+    @Transactional(readOnly = true)
+    public ApiResponse<StatusCountsDto> getStatusCounts() {
+        Map<StatusCounterType, Map<String, Long>> counts = new EnumMap<>(StatusCounterType.class);
+        STATUSES.forEach((type, statuses) -> {
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            statuses.forEach(status -> byStatus.put(status, 0L));
+            counts.put(type, byStatus);
+        });
+
+        for (StatusCounter counter : statusCounterRepository.findAll()) {
+            counts.get(counter.getEntityType()).merge(counter.getStatus(), counter.getCount(), Long::sum);
+        }
+
+        StatusCountsDto dto = StatusCountsDto.builder()
+                .salesOrders(counts.get(StatusCounterType.SALES_ORDER))
+                .shipments(counts.get(StatusCounterType.SHIPMENT))
+                .purchaseOrders(counts.get(StatusCounterType.PURCHASE_ORDER))
+                .build();
+        return new ApiResponse<>("Status counts retrieved successfully", dto);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recountOnStartup() {
+        recountAll();
+    }
+
+    /**
+     * Recompte chaque type dans sa propre transaction.
+     *
+     * @return le nombre de compteurs qui étaient faux
+     */
+    public int recountAll() {
+        int corrected = 0;
+        for (StatusCounterType type : StatusCounterType.values()) {
+            Integer fixed = transactionTemplate.execute(status -> recount(type));
+            corrected += fixed != null ? fixed : 0;
+        }
+        return corrected;
+    }
+
+    /**
+     * Les compteurs du type sont verrouillés avant le GROUP BY : une transition en cours
+     * attend la fin du recomptage et applique son delta sur la valeur recomptée, sans perte ni double compte.
+     * Le total est reporté sur le créneau 0, les autres sont remis à zéro ; les créneaux manquants sont créés
+     * ici pour qu'aucune transition n'insère de ligne que ce verrou n'aurait pas couverte.
+     */
+    private int recount(StatusCounterType type) {
+        Map<String, List<StatusCounter>> existing = statusCounterRepository.lockByEntityType(type).stream()
+                .collect(Collectors.groupingBy(StatusCounter::getStatus));
+
+        Map<String, Long> actual = countByStatus(type).stream()
+                .collect(Collectors.toMap(c -> c.status().name(), StatusCount::count));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<StatusCounter> toSave = new ArrayList<>();
+        int corrected = 0;
+
+        for (String status : STATUSES.get(type)) {
+            long count = actual.getOrDefault(status, 0L);
+            Map<Integer, StatusCounter> bySlot = new TreeMap<>();
+            existing.getOrDefault(status, List.of()).forEach(counter -> bySlot.put(counter.getSlot(), counter));
+
+            long counted = bySlot.values().stream().mapToLong(StatusCounter::getCount).sum();
+            if (!bySlot.isEmpty() && counted != count) {
+                log.warn("Compteur {} {} corrigé : {} -> {}", type, status, counted, count);
+                corrected++;
+            }
+
+            for (int slot = 0; slot < slots(); slot++) {
+                bySlot.computeIfAbsent(slot, missing -> StatusCounter.builder()
+                        .entityType(type).status(status).slot(missing).build());
+            }
+            bySlot.forEach((slot, counter) -> {
+                counter.setCount(slot == 0 ? count : 0L);
+                counter.setRecountedAt(now);
+                toSave.add(counter);
+            });
+        }
+
+        statusCounterRepository.saveAll(toSave);
+        return corrected;
+    }
+
+    private List<StatusCount> countByStatus(StatusCounterType type) {
+        return switch (type) {
+            case SALES_ORDER -> salesOrderRepository.countGroupedByStatus();
+            case SHIPMENT -> shipmentRepository.countGroupedByStatus();
+            case PURCHASE_ORDER -> purchaseOrderRepository.countGroupedByStatus();
+        };
+    }
+
+    private int slots() {
+        return Math.max(1, businessRulesConfig.getStatusCounterSlots());
+    }
+
+    private static List<String> names(Enum<?>[] values) {
+        return Arrays.stream(values).map(Enum::name).toList();
+    }
+}
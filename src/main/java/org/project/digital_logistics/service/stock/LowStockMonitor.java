@@ -0,0 +1,296 @@
+package org.project.digital_logistics.service.stock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.dto.inventory.LowStockItemDto;
+import org.project.digital_logistics.dto.inventory.LowStockSnapshotDto;
+import org.project.digital_logistics.event.InventoryChangedEvent;
+import org.project.digital_logistics.event.ReorderThresholdChangedEvent;
+import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.repository.projection.ReorderLevel;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Incremental low-stock monitor: the set of rows of each warehouse whose available
+ * quantity (on hand - reserved) is below their reorder threshold.
+ *
+ * Warmed from the inventories table at startup, then every committed
+ * {@link InventoryChangedEvent} and {@link ReorderThresholdChangedEvent} is applied to
+ * its cell and only that cell is checked against its threshold, instead of scanning the
+ * warehouse. A snapshot of the set costs O(size of the set). When a row enters or leaves
+ * the set, the new snapshot is pushed to the warehouse's subscribers from the
+ * lowStockExecutor, so a burst of changes results in a single push.
+ *
+ * Like the {@link StockLedger}, the database stays the source of truth: until the monitor
+ * is warmed, callers get an empty Optional and fall back to a query, and
+ * {@link #reconcile(List)} corrects the cells that drifted.
+ */
+@Component
+@Slf4j
+public class LowStockMonitor {
+
+    private final InventoryRepository inventoryRepository;
+    private final Executor lowStockExecutor;
+
+    private volatile Map<Long, WarehouseCells> warehouses = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    // Subscribers outlive a re-warm, so they are kept apart from the cells
+    private final Map<Long, Subscribers> subscribers = new ConcurrentHashMap<>();
+
+    // Cells seen drifting by the previous reconciliation, with the database value seen then
+    private final Map<CellKey, ReorderLevel> driftSuspects = new HashMap<>();
+
+    public LowStockMonitor(InventoryRepository inventoryRepository,
+                           @Qualifier("lowStockExecutor") Executor lowStockExecutor) {
+        this.inventoryRepository = inventoryRepository;
+        this.lowStockExecutor = lowStockExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        Map<Long, WarehouseCells> fresh = new ConcurrentHashMap<>();
+        List<ReorderLevel> levels = inventoryRepository.findAllReorderLevels();
+
+        for (ReorderLevel level : levels) {
+            fresh.computeIfAbsent(level.warehouseId(), id -> new WarehouseCells())
+                    .reset(level.productId(), level.available(), level.reorderThreshold());
+        }
+
+        warehouses = fresh;
+        ready = true;
+        fresh.keySet().forEach(this::schedulePush);
+        log.info("Low-stock monitor warmed with {} inventory row(s) in {} ms",
+                levels.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        int availableDelta = event.onHandDelta() - event.reservedDelta();
+        if (availableDelta != 0 && cells(event.warehouseId()).addAvailable(event.productId(), availableDelta)) {
+            schedulePush(event.warehouseId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReorderThresholdChanged(ReorderThresholdChangedEvent event) {
+        if (cells(event.warehouseId()).setThreshold(event.productId(), event.reorderThreshold())) {
+            schedulePush(event.warehouseId());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Rows of a warehouse below their reorder threshold, ordered by product id.
+     */
+    public Optional<LowStockSnapshotDto> snapshot(Long warehouseId) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        WarehouseCells cells = warehouses.get(warehouseId);
+        if (cells == null) {
+            return Optional.of(new LowStockSnapshotDto(warehouseId, 0L, List.of()));
+        }
+        return Optional.of(cells.snapshot(warehouseId));
+    }
+
+    /**
+     * Receive the low-stock set of a warehouse every time it changes.
+     * A subscriber that throws is dropped.
+     *
+     * @return the action that cancels the subscription
+     */
+    public Runnable subscribe(Long warehouseId, Consumer<LowStockSnapshotDto> subscriber) {
+        Subscribers warehouseSubscribers = subscribers.computeIfAbsent(warehouseId, id -> new Subscribers());
+        warehouseSubscribers.consumers.add(subscriber);
+        return () -> warehouseSubscribers.consumers.remove(subscriber);
+    }
+
+    public int subscriberCount(Long warehouseId) {
+        Subscribers warehouseSubscribers = subscribers.get(warehouseId);
+        return warehouseSubscribers != null ? warehouseSubscribers.consumers.size() : 0;
+    }
+
+    /**
+     * Compare the monitor with the database and fix the cells that drifted.
+     * As in {@link StockLedger#reconcile(List)}, a cell is only corrected when the same
+     * drift is observed on two consecutive runs. Returns the number of corrected cells.
+     */
+    public synchronized int reconcile(List<ReorderLevel> databaseLevels) {
+        if (!ready) {
+            return 0;
+        }
+
+        Map<CellKey, ReorderLevel> expected = new HashMap<>();
+        for (ReorderLevel level : databaseLevels) {
+            expected.put(new CellKey(level.warehouseId(), level.productId()), level);
+        }
+
+        Map<CellKey, ReorderLevel> drifted = new HashMap<>();
+        warehouses.forEach((warehouseId, cells) -> cells.forEachCell((productId, cell) -> {
+            CellKey key = new CellKey(warehouseId, productId);
+            ReorderLevel databaseLevel = expected.getOrDefault(key, new ReorderLevel(warehouseId, productId, 0, null));
+            if (!cell.matches(databaseLevel)) {
+                drifted.put(key, databaseLevel);
+            }
+        }));
+        expected.forEach((key, databaseLevel) -> {
+            WarehouseCells cells = warehouses.get(key.warehouseId());
+            if (cells == null || !cells.contains(key.productId())) {
+                drifted.put(key, databaseLevel);
+            }
+        });
+
+        int corrected = 0;
+        for (Map.Entry<CellKey, ReorderLevel> entry : drifted.entrySet()) {
+            ReorderLevel databaseLevel = entry.getValue();
+            if (!databaseLevel.equals(driftSuspects.get(entry.getKey()))) {
+                continue;
+            }
+            if (cells(databaseLevel.warehouseId())
+                    .reset(databaseLevel.productId(), databaseLevel.available(), databaseLevel.reorderThreshold())) {
+                schedulePush(databaseLevel.warehouseId());
+            }
+            corrected++;
+            log.warn("Low-stock monitor drift corrected - Warehouse: {}, Product: {} → db (available={}, threshold={})",
+                    databaseLevel.warehouseId(), databaseLevel.productId(),
+                    databaseLevel.available(), databaseLevel.reorderThreshold());
+        }
+
+        driftSuspects.clear();
+        driftSuspects.putAll(drifted);
+        return corrected;
+    }
+
+    private WarehouseCells cells(Long warehouseId) {
+        return warehouses.computeIfAbsent(warehouseId, id -> new WarehouseCells());
+    }
+
+    // At most one pending push per warehouse: it reads the set when it runs, so it
+    // carries every change made before it
+    private void schedulePush(Long warehouseId) {
+        Subscribers warehouseSubscribers = subscribers.get(warehouseId);
+        if (warehouseSubscribers == null || warehouseSubscribers.consumers.isEmpty()
+                || !warehouseSubscribers.pushPending.compareAndSet(false, true)) {
+            return;
+        }
+        lowStockExecutor.execute(() -> {
+            warehouseSubscribers.pushPending.set(false);
+            snapshot(warehouseId).ifPresent(snapshot -> push(warehouseId, warehouseSubscribers, snapshot));
+        });
+    }
+
+    private void push(Long warehouseId, Subscribers warehouseSubscribers, LowStockSnapshotDto snapshot) {
+        for (Consumer<LowStockSnapshotDto> subscriber : warehouseSubscribers.consumers) {
+            try {
+                subscriber.accept(snapshot);
+            } catch (RuntimeException e) {
+                warehouseSubscribers.consumers.remove(subscriber);
+                log.debug("Low-stock subscriber of warehouse {} dropped: {}", warehouseId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Cells of one warehouse and the product ids of those below their threshold.
+     * Each change and its membership check happen under the warehouse's lock, so the
+     * set always matches the cells.
+     */
+    private static final class WarehouseCells {
+
+        private final Map<Long, Cell> cells = new HashMap<>();
+        private final SortedSet<Long> low = new TreeSet<>();
+        private long version;
+
+        synchronized boolean addAvailable(Long productId, int delta) {
+            Cell cell = cells.computeIfAbsent(productId, id -> new Cell());
+            cell.available += delta;
+            return updateMembership(productId, cell);
+        }
+
+        synchronized boolean setThreshold(Long productId, Integer threshold) {
+            Cell cell = cells.computeIfAbsent(productId, id -> new Cell());
+            cell.threshold = threshold;
+            return updateMembership(productId, cell);
+        }
+
+        synchronized boolean reset(Long productId, int available, Integer threshold) {
+            Cell cell = cells.computeIfAbsent(productId, id -> new Cell());
+            cell.available = available;
+            cell.threshold = threshold;
+            return updateMembership(productId, cell);
+        }
+
+        synchronized boolean contains(Long productId) {
+            return cells.containsKey(productId);
+        }
+
+        synchronized void forEachCell(BiConsumer<Long, Cell> action) {
+            cells.forEach((productId, cell) -> action.accept(productId, cell.copy()));
+        }
+
+        synchronized LowStockSnapshotDto snapshot(Long warehouseId) {
+            List<LowStockItemDto> items = new ArrayList<>(low.size());
+            for (Long productId : low) {
+                Cell cell = cells.get(productId);
+                items.add(new LowStockItemDto(productId, cell.available, cell.threshold));
+            }
+            return new LowStockSnapshotDto(warehouseId, version, items);
+        }
+
+        // Returns true when the row entered or left the low-stock set
+        private boolean updateMembership(Long productId, Cell cell) {
+            boolean changed = cell.isLow() ? low.add(productId) : low.remove(productId);
+            if (changed) {
+                version++;
+            }
+            return changed;
+        }
+    }
+
+    private static final class Cell {
+
+        private int available;
+        private Integer threshold;
+
+        boolean isLow() {
+            return threshold != null && available < threshold;
+        }
+
+        boolean matches(ReorderLevel level) {
+            return available == level.available() && Objects.equals(threshold, level.reorderThreshold());
+        }
+
+        Cell copy() {
+            Cell copy = new Cell();
+            copy.available = available;
+            copy.threshold = threshold;
+            return copy;
+        }
+    }
+
+    private static final class Subscribers {
+
+        private final List<Consumer<LowStockSnapshotDto>> consumers = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean pushPending = new AtomicBoolean();
+    }
+
+    private record CellKey(Long warehouseId, Long productId) {
+    }
+}
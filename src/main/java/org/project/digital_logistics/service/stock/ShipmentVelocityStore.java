@@ -0,0 +1,90 @@
+package org.project.digital_logistics.service.stock;
+
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.repository.ShipmentVelocityDayRepository;
+import org.project.digital_logistics.repository.projection.ShippedQuantity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persistence of the {@link ShipmentVelocityTracker} day buckets in shipment_velocity_days.
+ * A flush writes the absolute quantity of every day that changed since the previous one,
+ * with batched UPDATEs and an INSERT batch for the days not saved yet.
+ */
+@Component
+public class ShipmentVelocityStore {
+
+    private static final String UPDATE_DAY = "UPDATE shipment_velocity_days SET shipped_qty = ?, flushed_at = ? " +
+            "WHERE product_id = ? AND warehouse_id = ? AND ship_date = ?";
+    private static final String INSERT_DAY = "INSERT INTO shipment_velocity_days " +
+            "(product_id, warehouse_id, ship_date, shipped_qty, flushed_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final ShipmentVelocityDayRepository velocityDayRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final BusinessRulesConfig businessRulesConfig;
+
+    public ShipmentVelocityStore(ShipmentVelocityDayRepository velocityDayRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 BusinessRulesConfig businessRulesConfig) {
+        this.velocityDayRepository = velocityDayRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.businessRulesConfig = businessRulesConfig;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ShippedQuantity> loadSince(LocalDate from) {
+        return velocityDayRepository.findShippedSince(from);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> lastFlushedAt() {
+        return velocityDayRepository.findLastFlushedAt();
+    }
+
+    /**
+     * Save the given days and purge the ones that left the longest window.
+     */
+    @Transactional
+    public void save(List<ShippedQuantity> days, LocalDateTime flushedAt, LocalDate purgeBefore) {
+        if (!days.isEmpty()) {
+            Timestamp at = Timestamp.valueOf(flushedAt);
+            int batchSize = businessRulesConfig.getVelocityFlushBatchSize();
+            int[][] updated = jdbcTemplate.batchUpdate(UPDATE_DAY, days, batchSize, (ps, day) -> {
+                ps.setLong(1, day.quantity());
+                ps.setTimestamp(2, at);
+                ps.setLong(3, day.productId());
+                ps.setLong(4, day.warehouseId());
+                ps.setObject(5, day.day());
+            });
+
+            List<ShippedQuantity> missing = new ArrayList<>();
+            int position = 0;
+            for (int[] batch : updated) {
+                for (int count : batch) {
+                    ShippedQuantity day = days.get(position++);
+                    if (count == 0) {
+                        missing.add(day);
+                    }
+                }
+            }
+            if (!missing.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_DAY, missing, batchSize, (ps, day) -> {
+                    ps.setLong(1, day.productId());
+                    ps.setLong(2, day.warehouseId());
+                    ps.setObject(3, day.day());
+                    ps.setLong(4, day.quantity());
+                    ps.setTimestamp(5, at);
+                });
+            }
+        }
+        velocityDayRepository.deleteShippedBefore(purgeBefore);
+    }
+}
@@ -0,0 +1,310 @@
+package org.project.digital_logistics.service.stock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.dto.inventory.ShipmentVelocityDto;
+import org.project.digital_logistics.event.StockShippedEvent;
+import org.project.digital_logistics.repository.InventoryMovementRepository;
+import org.project.digital_logistics.repository.projection.ShippedQuantity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolling-window shipment velocity: units shipped over the last 7, 30 and 90 days,
+ * per (productId, warehouseId) and per product across warehouses.
+ *
+ * Each counter is a ring of one bucket per day plus one running total per window.
+ * A shipment adds to today's bucket and to every total; when the day changes, the
+ * buckets leaving each window are subtracted from its total, so a read costs the same
+ * whatever the traffic. Counters are fed by {@link StockShippedEvent}s once their
+ * transaction has committed.
+ *
+ * The days that changed are saved by {@link #flush()} (ShipmentVelocityFlushScheduler).
+ * At startup the counters are rebuilt from the saved days plus the OUTBOUND movements
+ * journaled after the last flush; without any saved day, from the last 90 days of the
+ * journal. Until then, reads aggregate the journal of the requested product.
+ *
+ * The replay reads the movements up to a cutoff fixed before its query. Shipments
+ * committed meanwhile are queued and applied to the rebuilt counters, and only the
+ * shipments that occurred after the cutoff are ever counted from events, so a
+ * shipment is counted either by the replay or by its event, never by both.
+ */
+@Component
+@Slf4j
+public class ShipmentVelocityTracker {
+
+    static final int[] WINDOWS = {7, 30, 90};
+    static final int RING_DAYS = 90;
+
+    private final InventoryMovementRepository movementRepository;
+    private final ShipmentVelocityStore velocityStore;
+    private final Clock clock;
+
+    private volatile Map<CellKey, Counter> cells = new ConcurrentHashMap<>();
+    private volatile Map<Long, Counter> products = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+    // Movements up to this time are counted by the replay
+    private volatile LocalDateTime replayedUntil;
+
+    // Shipments committed before the rebuilt counters are in place; guarded by itself
+    private final Queue<StockShippedEvent> pendingShipments = new ArrayDeque<>();
+
+    // Days changed since the last flush
+    private final Set<DirtyDay> dirtyDays = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ShipmentVelocityTracker(InventoryMovementRepository movementRepository,
+                                   ShipmentVelocityStore velocityStore) {
+        this(movementRepository, velocityStore, Clock.systemDefaultZone());
+    }
+
+    ShipmentVelocityTracker(InventoryMovementRepository movementRepository,
+                            ShipmentVelocityStore velocityStore,
+                            Clock clock) {
+        this.movementRepository = movementRepository;
+        this.velocityStore = velocityStore;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDateTime replayUntil = LocalDateTime.now(clock);
+        LocalDate firstDay = replayUntil.toLocalDate().minusDays(RING_DAYS - 1);
+        LocalDateTime windowStart = firstDay.atStartOfDay();
+
+        List<ShippedQuantity> saved = velocityStore.loadSince(firstDay);
+        LocalDateTime replayFrom = velocityStore.lastFlushedAt()
+                .filter(flushedAt -> flushedAt.isAfter(windowStart))
+                .orElse(windowStart);
+        List<ShippedQuantity> replayed = movementRepository.sumShippedPerDayBetween(replayFrom, replayUntil);
+
+        Map<CellKey, Counter> freshCells = new ConcurrentHashMap<>();
+        Map<Long, Counter> freshProducts = new ConcurrentHashMap<>();
+        long today = today().toEpochDay();
+        for (List<ShippedQuantity> days : List.of(saved, replayed)) {
+            for (ShippedQuantity day : days) {
+                long epochDay = day.day().toEpochDay();
+                freshCells.computeIfAbsent(new CellKey(day.productId(), day.warehouseId()), key -> new Counter(today))
+                        .add(epochDay, day.quantity(), today);
+                freshProducts.computeIfAbsent(day.productId(), id -> new Counter(today))
+                        .add(epochDay, day.quantity(), today);
+            }
+        }
+        // Replayed days are not saved yet
+        replayed.forEach(day -> dirtyDays.add(new DirtyDay(day.productId(), day.warehouseId(), day.day())));
+
+        int queued;
+        synchronized (pendingShipments) {
+            cells = freshCells;
+            products = freshProducts;
+            replayedUntil = replayUntil;
+            queued = pendingShipments.size();
+            for (StockShippedEvent event; (event = pendingShipments.poll()) != null; ) {
+                apply(event);
+            }
+            ready = true;
+        }
+        log.info("Shipment velocity rebuilt from {} saved day(s), {} replayed day(s) and {} queued shipment(s) in {} ms",
+                saved.size(), replayed.size(), queued, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockShipped(StockShippedEvent event) {
+        if (event.quantity() <= 0) {
+            return;
+        }
+        if (!ready) {
+            synchronized (pendingShipments) {
+                if (!ready) {
+                    pendingShipments.add(event);
+                    return;
+                }
+            }
+        }
+        apply(event);
+    }
+
+    // Shipments up to the cutoff are already in the replayed days
+    private void apply(StockShippedEvent event) {
+        if (!event.occurredAt().isAfter(replayedUntil)) {
+            return;
+        }
+        LocalDate day = event.occurredAt().toLocalDate();
+        long epochDay = day.toEpochDay();
+        long today = today().toEpochDay();
+        cells.computeIfAbsent(new CellKey(event.productId(), event.warehouseId()), key -> new Counter(today))
+                .add(epochDay, event.quantity(), today);
+        products.computeIfAbsent(event.productId(), id -> new Counter(today))
+                .add(epochDay, event.quantity(), today);
+        dirtyDays.add(new DirtyDay(event.productId(), event.warehouseId(), day));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean hasShipments(Long productId) {
+        return products.containsKey(productId);
+    }
+
+    /**
+     * Velocity of a product in one warehouse, or across all warehouses when warehouseId is null.
+     */
+    public ShipmentVelocityDto velocity(Long productId, Long warehouseId) {
+        LocalDate day = today();
+        long today = day.toEpochDay();
+        Counter counter;
+        if (ready) {
+            counter = warehouseId != null
+                    ? cells.get(new CellKey(productId, warehouseId))
+                    : products.get(productId);
+        } else {
+            counter = fromJournal(productId, warehouseId, day);
+        }
+        long[] totals = counter != null ? counter.totals(today) : new long[WINDOWS.length];
+
+        return ShipmentVelocityDto.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .asOf(day)
+                .shippedLast7Days(totals[0])
+                .shippedLast30Days(totals[1])
+                .shippedLast90Days(totals[2])
+                .averagePerDay7Days((double) totals[0] / WINDOWS[0])
+                .averagePerDay30Days((double) totals[1] / WINDOWS[1])
+                .averagePerDay90Days((double) totals[2] / WINDOWS[2])
+                .build();
+    }
+
+    /**
+     * Save the days that changed since the previous flush.
+     *
+     * @return the number of days saved
+     */
+    public synchronized int flush() {
+        if (!ready) {
+            return 0;
+        }
+        LocalDateTime flushedAt = LocalDateTime.now(clock);
+        LocalDate today = flushedAt.toLocalDate();
+
+        List<DirtyDay> drained = new ArrayList<>();
+        for (Iterator<DirtyDay> iterator = dirtyDays.iterator(); iterator.hasNext(); ) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+
+        List<ShippedQuantity> days = new ArrayList<>(drained.size());
+        for (DirtyDay dirty : drained) {
+            Counter counter = cells.get(new CellKey(dirty.productId(), dirty.warehouseId()));
+            if (counter != null && !dirty.day().isBefore(today.minusDays(RING_DAYS - 1))) {
+                days.add(new ShippedQuantity(dirty.productId(), dirty.warehouseId(), dirty.day(),
+                        counter.shippedOn(dirty.day().toEpochDay(), today.toEpochDay())));
+            }
+        }
+
+        try {
+            velocityStore.save(days, flushedAt, today.minusDays(RING_DAYS - 1));
+        } catch (RuntimeException e) {
+            // Saved again by the next flush
+            dirtyDays.addAll(drained);
+            throw e;
+        }
+        return days.size();
+    }
+
+    private Counter fromJournal(Long productId, Long warehouseId, LocalDate day) {
+        long today = day.toEpochDay();
+        Counter counter = new Counter(today);
+        movementRepository.sumShippedPerDayOfProductSince(productId, day.minusDays(RING_DAYS - 1).atStartOfDay())
+                .stream()
+                .filter(shipped -> warehouseId == null || warehouseId.equals(shipped.warehouseId()))
+                .forEach(shipped -> counter.add(shipped.day().toEpochDay(), shipped.quantity(), today));
+        return counter;
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    /**
+     * Ring of {@link #RING_DAYS} daily buckets, the bucket of a day sits at day % RING_DAYS,
+     * and the running total of each window.
+     */
+    static final class Counter {
+
+        private final long[] buckets = new long[RING_DAYS];
+        private final long[] totals = new long[WINDOWS.length];
+        // Epoch day of the newest bucket
+        private long lastDay;
+
+        Counter(long today) {
+            this.lastDay = today;
+        }
+
+        synchronized void add(long day, long quantity, long today) {
+            advance(today);
+            long age = lastDay - day;
+            if (age < 0 || age >= RING_DAYS) {
+                return;
+            }
+            buckets[slot(day)] += quantity;
+            for (int window = 0; window < WINDOWS.length; window++) {
+                if (age < WINDOWS[window]) {
+                    totals[window] += quantity;
+                }
+            }
+        }
+
+        synchronized long[] totals(long today) {
+            advance(today);
+            return totals.clone();
+        }
+
+        synchronized long shippedOn(long day, long today) {
+            advance(today);
+            long age = lastDay - day;
+            return age >= 0 && age < RING_DAYS ? buckets[slot(day)] : 0;
+        }
+
+        // Each new day drops, from every window, the bucket that just left it, then
+        // reuses the slot of the day that left the ring
+        private void advance(long today) {
+            if (today <= lastDay) {
+                return;
+            }
+            if (today - lastDay >= RING_DAYS) {
+                Arrays.fill(buckets, 0);
+                Arrays.fill(totals, 0);
+            } else {
+                for (long day = lastDay + 1; day <= today; day++) {
+                    for (int window = 0; window < WINDOWS.length; window++) {
+                        totals[window] -= buckets[slot(day - WINDOWS[window])];
+                    }
+                    buckets[slot(day)] = 0;
+                }
+            }
+            lastDay = today;
+        }
+
+        private static int slot(long day) {
+            return (int) Math.floorMod(day, (long) RING_DAYS);
+        }
+    }
+
+    private record CellKey(Long productId, Long warehouseId) {
+    }
+
+    private record DirtyDay(Long productId, Long warehouseId, LocalDate day) {
+    }
+}
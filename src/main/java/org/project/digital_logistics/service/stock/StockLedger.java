@@ -0,0 +1,180 @@
+package org.project.digital_logistics.service.stock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.project.digital_logistics.event.InventoryChangedEvent;
+import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.repository.projection.StockLevel;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory available-to-promise ledger, keyed by (productId, warehouseId).
+ *
+ * Each cell packs qtyOnHand and qtyReserved into a single AtomicLong so both are
+ * read and updated together with a CAS, without any lock. The ledger is warmed from
+ * the inventories table at startup and kept in sync with {@link InventoryChangedEvent}s
+ * once their transaction has committed.
+ *
+ * The database stays the source of truth: reservations are still decided by the
+ * guarded UPDATE in InventoryRepository, the ledger only answers availability
+ * questions and picks the warehouses to try. Until it is warmed, callers get an
+ * empty Optional and fall back to the database.
+ */
+@Component
+@Slf4j
+public class StockLedger {
+
+    private final InventoryRepository inventoryRepository;
+
+    private volatile Map<Long, Map<Long, AtomicLong>> levels = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    // Cells seen drifting by the previous reconciliation, with the database value seen then
+    private final Map<StockKey, Long> driftSuspects = new HashMap<>();
+
+    public StockLedger(InventoryRepository inventoryRepository) {
+        this.inventoryRepository = inventoryRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        Map<Long, Map<Long, AtomicLong>> fresh = new ConcurrentHashMap<>();
+        List<StockLevel> stockLevels = inventoryRepository.findAllStockLevels();
+
+        for (StockLevel level : stockLevels) {
+            fresh.computeIfAbsent(level.productId(), id -> new ConcurrentHashMap<>())
+                    .put(level.warehouseId(), new AtomicLong(pack(level.qtyOnHand(), level.qtyReserved())));
+        }
+
+        levels = fresh;
+        ready = true;
+        log.info("Stock ledger warmed with {} inventory row(s) in {} ms",
+                stockLevels.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        AtomicLong cell = levels
+                .computeIfAbsent(event.productId(), id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(event.warehouseId(), id -> new AtomicLong(pack(0, 0)));
+
+        cell.updateAndGet(current -> pack(
+                onHand(current) + event.onHandDelta(),
+                reserved(current) + event.reservedDelta()
+        ));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Total available quantity (on hand - reserved) of a product across all warehouses.
+     */
+    public Optional<Integer> availableStock(Long productId) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        int total = 0;
+        for (AtomicLong cell : levels.getOrDefault(productId, Collections.emptyMap()).values()) {
+            long current = cell.get();
+            total += onHand(current) - reserved(current);
+        }
+        return Optional.of(total);
+    }
+
+    /**
+     * Available quantity of a product per warehouse id.
+     */
+    public Optional<Map<Long, Integer>> availableByWarehouse(Long productId) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Map<Long, Integer> available = new HashMap<>();
+        levels.getOrDefault(productId, Collections.emptyMap()).forEach((warehouseId, cell) -> {
+            long current = cell.get();
+            available.put(warehouseId, onHand(current) - reserved(current));
+        });
+        return Optional.of(available);
+    }
+
+    /**
+     * Compare the ledger with the database and fix the cells that drifted.
+     * A cell is only corrected when the same drift is observed on two consecutive
+     * runs, so that a commit whose event has not been applied yet is not mistaken
+     * for drift. Returns the number of corrected cells.
+     */
+    public synchronized int reconcile(List<StockLevel> databaseLevels) {
+        if (!ready) {
+            return 0;
+        }
+
+        Map<StockKey, Long> expected = new HashMap<>();
+        for (StockLevel level : databaseLevels) {
+            expected.put(new StockKey(level.productId(), level.warehouseId()),
+                    pack(level.qtyOnHand(), level.qtyReserved()));
+        }
+
+        Map<StockKey, Long> drifted = new HashMap<>();
+        levels.forEach((productId, warehouses) -> warehouses.forEach((warehouseId, cell) -> {
+            StockKey key = new StockKey(productId, warehouseId);
+            long databaseValue = expected.getOrDefault(key, pack(0, 0));
+            if (cell.get() != databaseValue) {
+                drifted.put(key, databaseValue);
+            }
+        }));
+        expected.forEach((key, databaseValue) -> {
+            Map<Long, AtomicLong> warehouses = levels.get(key.productId());
+            if (warehouses == null || !warehouses.containsKey(key.warehouseId())) {
+                drifted.put(key, databaseValue);
+            }
+        });
+
+        int corrected = 0;
+        for (Map.Entry<StockKey, Long> entry : drifted.entrySet()) {
+            StockKey key = entry.getKey();
+            long databaseValue = entry.getValue();
+            Long previous = driftSuspects.get(key);
+            if (previous == null || previous != databaseValue) {
+                continue;
+            }
+
+            long ledgerValue = levels
+                    .computeIfAbsent(key.productId(), id -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(key.warehouseId(), id -> new AtomicLong(pack(0, 0)))
+                    .getAndSet(databaseValue);
+            corrected++;
+            log.warn("Stock ledger drift corrected - Warehouse: {}, Product: {}, ledger (onHand={}, reserved={}) → db (onHand={}, reserved={})",
+                    key.warehouseId(), key.productId(),
+                    onHand(ledgerValue), reserved(ledgerValue),
+                    onHand(databaseValue), reserved(databaseValue));
+        }
+
+        driftSuspects.clear();
+        driftSuspects.putAll(drifted);
+        return corrected;
+    }
+
+    private static long pack(int onHand, int reserved) {
+        return ((long) onHand << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    private static int onHand(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    private static int reserved(long packed) {
+        return (int) packed;
+    }
+
+    private record StockKey(Long productId, Long warehouseId) {
+    }
+}
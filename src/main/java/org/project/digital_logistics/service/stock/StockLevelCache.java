@@ -0,0 +1,161 @@
+package org.project.digital_logistics.service.stock;
+
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.dto.stats.StockCacheStatsDto;
+import org.project.digital_logistics.event.InventoryChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of the stock aggregates polled by client UIs: total and available
+ * stock per product, available stock per (warehouse, product).
+ *
+ * Bounded LRU (business.stock-cache-size) with a TTL (business.stock-cache-ttl-seconds).
+ * Every committed {@link InventoryChangedEvent} drops the entries of its product and cell,
+ * so a value is never served stale past the commit that changed it; the TTL only bounds
+ * what a write bypassing the services (SQL console, another instance) can leave behind.
+ *
+ * A load that overlaps a commit must not put back the value it read before the commit:
+ * each product stripe carries a generation bumped by every invalidation, and a loaded
+ * value is only stored if its stripe did not move while it was read.
+ */
+@Component
+public class StockLevelCache {
+
+    private static final int STRIPES = 64;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final Map<Object, Entry> entries;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private record Entry(int value, long expiresAt) {
+    }
+
+    private record ProductTotal(Long productId) {
+    }
+
+    private record ProductAvailable(Long productId) {
+    }
+
+    private record CellAvailable(Long warehouseId, Long productId) {
+    }
+
+    @Autowired
+    public StockLevelCache(BusinessRulesConfig businessRulesConfig) {
+        this.maxEntries = businessRulesConfig.getStockCacheSize();
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(businessRulesConfig.getStockCacheTtlSeconds());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public int totalStock(Long productId, Supplier<Integer> loader) {
+        return get(new ProductTotal(productId), productId, loader);
+    }
+
+    public int availableStock(Long productId, Supplier<Integer> loader) {
+        return get(new ProductAvailable(productId), productId, loader);
+    }
+
+    public int availableStock(Long warehouseId, Long productId, Supplier<Integer> loader) {
+        return get(new CellAvailable(warehouseId, productId), productId, loader);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        invalidate(event.warehouseId(), event.productId());
+    }
+
+    public void invalidate(Long warehouseId, Long productId) {
+        synchronized (entries) {
+            generations.incrementAndGet(stripe(productId));
+            int removed = 0;
+            removed += entries.remove(new ProductTotal(productId)) != null ? 1 : 0;
+            removed += entries.remove(new ProductAvailable(productId)) != null ? 1 : 0;
+            removed += entries.remove(new CellAvailable(warehouseId, productId)) != null ? 1 : 0;
+            invalidations.addAndGet(removed);
+        }
+    }
+
+    public StockCacheStatsDto getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        return StockCacheStatsDto.builder()
+                .size(size)
+                .maxSize(maxEntries)
+                .ttlSeconds(TimeUnit.NANOSECONDS.toSeconds(ttlNanos))
+                .hits(hitCount)
+                .misses(misses.get())
+                .hitRatio(lookups == 0 ? 0 : (double) hitCount / lookups)
+                .evictions(evictions.get())
+                .expirations(expirations.get())
+                .invalidations(invalidations.get())
+                .build();
+    }
+
+    private int get(Object key, Long productId, Supplier<Integer> loader) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.expiresAt() < 0) {
+                    hits.incrementAndGet();
+                    return entry.value();
+                }
+                entries.remove(key);
+                expirations.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+
+        int stripe = stripe(productId);
+        long generation = generations.get(stripe);
+        int value = loader.get();
+        if (maxEntries > 0 && readsCommittedData()) {
+            synchronized (entries) {
+                if (generations.get(stripe) == generation) {
+                    entries.put(key, new Entry(value, System.nanoTime() + ttlNanos));
+                }
+            }
+        }
+        return value;
+    }
+
+    // Inside a read-write transaction the value may include changes that are not committed yet
+    private static boolean readsCommittedData() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static int stripe(Long productId) {
+        return Math.floorMod(productId.hashCode(), STRIPES);
+    }
+}
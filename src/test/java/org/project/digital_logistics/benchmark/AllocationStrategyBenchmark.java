@@ -0,0 +1,121 @@
+package org.project.digital_logistics.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.project.digital_logistics.service.allocation.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares allocation latency and warehouse splits of the allocation strategies
+ * on a synthetic catalogue of 1 000 warehouses and 100 000 SKUs.
+ *
+ * Each allocation ranks the candidates and plans the quantities with
+ * {@link AllocationStrategy#plan}, as SalesOrderService does through the WarehouseAllocator.
+ *
+ * Run from the IDE (main method) or with:
+ *   mvn -Pbenchmark test-compile exec:java
+ *
+ * Besides the average time per order, JMH reports the "orders" and "splits" counters:
+ * splits / orders is the average number of warehouses (so of order lines, movements
+ * and shipments) per allocated order line.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AllocationStrategyBenchmark {
+
+    private static final int WAREHOUSES = 1_000;
+    private static final int SKUS = 100_000;
+    private static final int ORDERS = 4_096;
+
+    @Param({"LARGEST_FIRST", "FEWEST_SPLITS", "CAPACITY_AWARE"})
+    public AllocationStrategyType strategyType;
+
+    @Param({"5", "25"})
+    public int warehousesPerSku;
+
+    private AllocationStrategy strategy;
+    private List<List<WarehouseStock>> stockBySku;
+    private int[] orderSkus;
+    private int[] orderQuantities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        strategy = switch (strategyType) {
+            case LARGEST_FIRST -> new LargestFirstAllocationStrategy();
+            case FEWEST_SPLITS -> new FewestSplitsAllocationStrategy();
+            case CAPACITY_AWARE -> new CapacityAwareAllocationStrategy();
+        };
+
+        Random random = new Random(42);
+
+        int[] capacities = new int[WAREHOUSES];
+        for (int w = 0; w < WAREHOUSES; w++) {
+            capacities[w] = 500 + random.nextInt(50_000);
+        }
+
+        stockBySku = new ArrayList<>(SKUS);
+        for (int sku = 0; sku < SKUS; sku++) {
+            Set<Integer> warehouses = new HashSet<>();
+            while (warehouses.size() < warehousesPerSku) {
+                warehouses.add(random.nextInt(WAREHOUSES));
+            }
+            List<WarehouseStock> stocks = new ArrayList<>(warehousesPerSku);
+            for (int w : warehouses) {
+                stocks.add(new WarehouseStock((long) w, 1 + random.nextInt(200), capacities[w]));
+            }
+            stockBySku.add(stocks);
+        }
+
+        orderSkus = new int[ORDERS];
+        orderQuantities = new int[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            orderSkus[i] = random.nextInt(SKUS);
+            orderQuantities[i] = 1 + random.nextInt(250);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SplitCounters {
+        public long orders;
+        public long splits;
+
+        private int next;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            orders = 0;
+            splits = 0;
+        }
+    }
+
+    @Benchmark
+    public void allocate(SplitCounters counters, Blackhole blackhole) {
+        int i = counters.next++ & (ORDERS - 1);
+        List<WarehouseStock> ranked = strategy.rank(stockBySku.get(orderSkus[i]), orderQuantities[i]);
+        List<WarehouseAllocation> plan = AllocationStrategy.plan(ranked, orderQuantities[i]);
+
+        if (!plan.isEmpty()) {
+            counters.orders++;
+            counters.splits += plan.size();
+        }
+        blackhole.consume(plan);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AllocationStrategyBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
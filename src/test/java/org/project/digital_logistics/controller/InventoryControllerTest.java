@@ -10,11 +10,17 @@ import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.web.servlet.MockMvc;
 import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.inventory.InventoryImportResultDto;
 import org.project.digital_logistics.dto.inventory.InventoryRequestDto;
 import org.project.digital_logistics.dto.inventory.InventoryResponseDto;
+import org.project.digital_logistics.dto.inventory.ReorderThresholdRequestDto;
 import org.project.digital_logistics.exception.AccessDeniedException;
 import org.project.digital_logistics.exception.ResourceNotFoundException;
+import org.project.digital_logistics.service.CycleCountService;
+import org.project.digital_logistics.service.InventoryImportService;
+import org.project.digital_logistics.service.InventoryImportService.ImportFormat;
 import org.project.digital_logistics.service.InventoryService;
+import org.project.digital_logistics.service.InventorySnapshotService;
 import org.project.digital_logistics.service.PermissionService;
 
 import java.util.Arrays;
@@ -37,6 +43,15 @@ class InventoryControllerTest {
     @MockBean
     private InventoryService inventoryService;
 
+    @MockBean
+    private InventorySnapshotService inventorySnapshotService;
+
+    @MockBean
+    private InventoryImportService inventoryImportService;
+
+    @MockBean
+    private CycleCountService cycleCountService;
+
     @MockBean
     private PermissionService permissionService;
 
@@ -280,6 +295,35 @@ class InventoryControllerTest {
         verify(inventoryService).adjustQuantities(1L, 150, 20);
     }
 
+    @Test
+    void setReorderThreshold_ReturnsOk() throws Exception {
+        // Given
+        when(inventoryService.setReorderThreshold(eq(1L), any(ReorderThresholdRequestDto.class)))
+                .thenReturn(new ApiResponse<>("Reorder threshold updated", responseDto));
+
+        // When & Then
+        mockMvc.perform(patch("/api/inventories/1/reorder-threshold")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReorderThresholdRequestDto(25)))
+                        .session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Reorder threshold updated"));
+
+        verify(inventoryService).setReorderThreshold(1L, new ReorderThresholdRequestDto(25));
+    }
+
+    @Test
+    void setReorderThreshold_Negative_ReturnsBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(patch("/api/inventories/1/reorder-threshold")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReorderThresholdRequestDto(-1)))
+                        .session(session))
+                .andExpect(status().isBadRequest());
+
+        verify(inventoryService, never()).setReorderThreshold(any(), any());
+    }
+
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
     // DELETE INVENTORY TESTS
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -381,4 +425,25 @@ class InventoryControllerTest {
 
         verify(inventoryService).countInventories();
     }
-}
\ No newline at end of file
+
+    @Test
+    void importInventories_Csv_StreamsBodyToService() throws Exception {
+        // Given
+        InventoryImportResultDto result = InventoryImportResultDto.builder()
+                .totalRows(2L).created(1).updated(1).unchanged(0L).rejected(0).errors(List.of())
+                .build();
+        when(inventoryImportService.importInventories(any(), eq(ImportFormat.CSV)))
+                .thenReturn(new ApiResponse<>("Inventories imported successfully", result));
+
+        // When & Then
+        mockMvc.perform(post("/api/inventories/import")
+                        .contentType("text/csv")
+                        .content("warehouseId,productId,qtyOnHand\n1,1,100\n1,2,50\n")
+                        .session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.created").value(1))
+                .andExpect(jsonPath("$.data.updated").value(1));
+
+        verify(inventoryImportService).importInventories(any(), eq(ImportFormat.CSV));
+    }
+}
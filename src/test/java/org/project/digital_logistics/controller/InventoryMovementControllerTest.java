@@ -19,6 +19,8 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -102,7 +104,7 @@ class InventoryMovementControllerTest {
         // Given
         doNothing().when(permissionService).requireWarehouseManager(any());
         List<InventoryMovementResponseDto> movements = Arrays.asList(responseDto);
-        when(movementService.getMovementsByInventory(1L))
+        when(movementService.getMovementsByInventory(eq(1L), isNull(), isNull()))
                 .thenReturn(new ApiResponse<>("Inventory movements retrieved successfully", movements));
 
         // When & Then
@@ -115,7 +117,7 @@ class InventoryMovementControllerTest {
                 .andExpect(jsonPath("$.data[0].referenceDocument").value("PO-123"));
 
         verify(permissionService).requireWarehouseManager(any());
-        verify(movementService).getMovementsByInventory(1L);
+        verify(movementService).getMovementsByInventory(eq(1L), isNull(), isNull());
     }
 
     @Test
@@ -130,7 +132,7 @@ class InventoryMovementControllerTest {
                 .andExpect(status().isForbidden());
 
         verify(permissionService).requireWarehouseManager(any());
-        verify(movementService, never()).getMovementsByInventory(any());
+        verify(movementService, never()).getMovementsByInventory(any(), any(), any());
     }
 
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -142,7 +144,7 @@ class InventoryMovementControllerTest {
         // Given
         doNothing().when(permissionService).requireWarehouseManager(any());
         List<InventoryMovementResponseDto> movements = Arrays.asList(responseDto);
-        when(movementService.getMovementsByWarehouse(1L))
+        when(movementService.getMovementsByWarehouse(eq(1L), isNull(), isNull()))
                 .thenReturn(new ApiResponse<>("Warehouse movements retrieved successfully", movements));
 
         // When & Then
@@ -155,7 +157,7 @@ class InventoryMovementControllerTest {
                 .andExpect(jsonPath("$.data[0].type").value("INBOUND"));
 
         verify(permissionService).requireWarehouseManager(any());
-        verify(movementService).getMovementsByWarehouse(1L);
+        verify(movementService).getMovementsByWarehouse(eq(1L), isNull(), isNull());
     }
 
     @Test
@@ -170,6 +172,6 @@ class InventoryMovementControllerTest {
                 .andExpect(status().isForbidden());
 
         verify(permissionService).requireWarehouseManager(any());
-        verify(movementService, never()).getMovementsByWarehouse(any());
+        verify(movementService, never()).getMovementsByWarehouse(any(), any(), any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,179 @@
+package org.project.digital_logistics.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.digital_logistics.enums.PurchaseOrderStatus;
+import org.project.digital_logistics.mapper.InventoryMovementMapper;
+import org.project.digital_logistics.mapper.PurchaseOrderMapper;
+import org.project.digital_logistics.mapper.SalesOrderMapper;
+import org.project.digital_logistics.mapper.ShipmentMapper;
+import org.project.digital_logistics.model.*;
+import org.project.digital_logistics.model.enums.MovementType;
+import org.project.digital_logistics.model.enums.OrderStatus;
+import org.project.digital_logistics.model.enums.Role;
+import org.project.digital_logistics.model.enums.ShipmentStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every list endpoint must run the same number of SQL statements whatever the number of rows:
+ * the repository method loads what the mapper reads, the mapper never triggers a lazy load.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class FetchPlanStatementCountTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SalesOrderRepository salesOrderRepository;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private InventoryMovementRepository movementRepository;
+
+    private StatementCounter statementCounter;
+
+    private User manager;
+    private Carrier carrier;
+    private Supplier supplier;
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        statementCounter = new StatementCounter(entityManagerFactory);
+
+        manager = em.persist(User.builder()
+                .name("Manager").email("manager@test.com").passwordHash("x").role(Role.WAREHOUSE_MANAGER).active(true)
+                .build());
+        carrier = em.persist(Carrier.builder().code("CAR-1").name("Carrier").build());
+        supplier = em.persist(Supplier.builder().name("Supplier").build());
+    }
+
+    @Test
+    void salesOrderLists_ConstantStatementCount() {
+        assertConstant("findAll sales orders", () -> salesOrderRepository.findAll().stream()
+                .map(SalesOrderMapper::toResponseDto).toList().size());
+        assertConstant("findByStatus sales orders", () -> salesOrderRepository.findByStatus(OrderStatus.SHIPPED).stream()
+                .map(SalesOrderMapper::toResponseDto).toList().size());
+    }
+
+    @Test
+    void purchaseOrderLists_ConstantStatementCount() {
+        assertConstant("findAll purchase orders", () -> purchaseOrderRepository.findAll().stream()
+                .map(PurchaseOrderMapper::toResponseDto).toList().size());
+        assertConstant("findBySupplierId purchase orders", () -> purchaseOrderRepository.findBySupplierId(supplier.getId())
+                .stream().map(PurchaseOrderMapper::toResponseDto).toList().size());
+    }
+
+    @Test
+    void shipmentLists_ConstantStatementCount() {
+        assertConstant("findAll shipments", () -> shipmentRepository.findAll().stream()
+                .map(ShipmentMapper::toResponseDto).toList().size());
+        assertConstant("findByStatus shipments", () -> shipmentRepository.findByStatus(ShipmentStatus.IN_TRANSIT).stream()
+                .map(ShipmentMapper::toResponseDto).toList().size());
+        assertConstant("findByCarrierId shipments", () -> shipmentRepository.findByCarrierId(carrier.getId()).stream()
+                .map(ShipmentMapper::toResponseDto).toList().size());
+    }
+
+    @Test
+    void movementLists_ConstantStatementCount() {
+        assertConstant("findAll movements", () -> movementRepository.findAll().stream()
+                .map(InventoryMovementMapper::toResponseDto).toList().size());
+        assertConstant("findRecentMovements", () -> movementRepository
+                .findRecentMovements(LocalDateTime.now().minusDays(1), PageRequest.of(0, 50)).stream()
+                .map(InventoryMovementMapper::toResponseDto).toList().size());
+    }
+
+    /**
+     * Runs the list with 1 then 5 orders (and their lines, shipments, movements):
+     * both runs must take a single statement and return every row.
+     */
+    private void assertConstant(String description, IntSupplier listAndMap) {
+        seedOrders(1);
+        long withOne = countStatements(listAndMap, 1);
+
+        seedOrders(4);
+        long withFive = countStatements(listAndMap, 5);
+
+        assertEquals(1, withOne, description + " avec 1 ligne");
+        assertEquals(withOne, withFive, description + " : le nombre de requêtes dépend du nombre de lignes");
+
+        em.getEntityManager().createQuery("DELETE FROM InventoryMovement").executeUpdate();
+        em.getEntityManager().createQuery("DELETE FROM Shipment").executeUpdate();
+        em.getEntityManager().createQuery("DELETE FROM SalesOrderLine").executeUpdate();
+        em.getEntityManager().createQuery("DELETE FROM SalesOrder").executeUpdate();
+        em.getEntityManager().createQuery("DELETE FROM PurchaseOrderLine").executeUpdate();
+        em.getEntityManager().createQuery("DELETE FROM PurchaseOrder").executeUpdate();
+        em.clear();
+    }
+
+    private long countStatements(IntSupplier listAndMap, int expectedRows) {
+        em.flush();
+        em.clear();
+        int[] rows = new int[1];
+        long statements = statementCounter.count(() -> rows[0] = listAndMap.getAsInt());
+        assertEquals(expectedRows, rows[0]);
+        return statements;
+    }
+
+    private void seedOrders(int count) {
+        for (int i = 0; i < count; i++) {
+            int n = ++sequence;
+            Client client = em.persist(Client.builder()
+                    .name("Client " + n).email("client" + n + "@test.com").passwordHash("x").role(Role.CLIENT).active(true)
+                    .build());
+            Warehouse warehouse = em.persist(Warehouse.builder()
+                    .name("Warehouse " + n).code("WH-" + n).capacity(1000).manager(manager).build());
+            Product first = persistProduct("A" + n);
+            Product second = persistProduct("B" + n);
+
+            SalesOrder order = SalesOrder.builder().client(client).status(OrderStatus.SHIPPED).build();
+            order.addOrderLine(SalesOrderLine.builder().salesOrder(order).product(first).warehouse(warehouse)
+                    .quantity(1).unitPrice(BigDecimal.TEN).build());
+            order.addOrderLine(SalesOrderLine.builder().salesOrder(order).product(second).warehouse(warehouse)
+                    .quantity(2).unitPrice(BigDecimal.ONE).build());
+            em.persist(order);
+
+            em.persist(Shipment.builder().salesOrder(order).carrier(carrier).trackingNumber("TRK-" + n)
+                    .status(ShipmentStatus.IN_TRANSIT).build());
+
+            PurchaseOrder purchaseOrder = PurchaseOrder.builder().supplier(supplier)
+                    .status(PurchaseOrderStatus.APPROVED).build();
+            purchaseOrder.addOrderLine(PurchaseOrderLine.builder().purchaseOrder(purchaseOrder).product(first)
+                    .quantity(5).unitPrice(BigDecimal.ONE).build());
+            purchaseOrder.addOrderLine(PurchaseOrderLine.builder().purchaseOrder(purchaseOrder).product(second)
+                    .quantity(5).unitPrice(BigDecimal.ONE).build());
+            em.persist(purchaseOrder);
+
+            Inventory inventory = em.persist(Inventory.builder().warehouse(warehouse).product(first)
+                    .qtyOnHand(10).qtyReserved(0).build());
+            em.persist(InventoryMovement.builder().inventory(inventory).type(MovementType.INBOUND).quantity(10)
+                    .occurredAt(LocalDateTime.now()).build());
+        }
+    }
+
+    private Product persistProduct(String suffix) {
+        return em.persist(Product.builder().sku("SKU-" + suffix).name("Product " + suffix)
+                .originalPrice(10L).profite(BigDecimal.ONE).build());
+    }
+}
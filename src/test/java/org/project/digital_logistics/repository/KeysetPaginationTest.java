@@ -0,0 +1,121 @@
+package org.project.digital_logistics.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.digital_logistics.model.*;
+import org.project.digital_logistics.model.enums.OrderStatus;
+import org.project.digital_logistics.model.enums.Role;
+import org.project.digital_logistics.model.enums.ShipmentStatus;
+import org.project.digital_logistics.repository.projection.SalesOrderLineRow;
+import org.project.digital_logistics.repository.projection.SalesOrderSummary;
+import org.project.digital_logistics.repository.projection.ShipmentRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Keyset pages must walk every row exactly once, in id order, and the streams must
+ * return the same rows as the pages.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class KeysetPaginationTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private SalesOrderRepository salesOrderRepository;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Long> orderIds = new ArrayList<>();
+    private final List<Long> shipmentIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User manager = em.persist(User.builder()
+                .name("Manager").email("manager@test.com").passwordHash("x").role(Role.WAREHOUSE_MANAGER).active(true)
+                .build());
+        Warehouse warehouse = em.persist(Warehouse.builder()
+                .name("Warehouse").code("WH-1").capacity(1000).manager(manager).build());
+        Carrier carrier = em.persist(Carrier.builder().code("CAR-1").name("Carrier").build());
+
+        for (int n = 1; n <= 5; n++) {
+            Client client = em.persist(Client.builder()
+                    .name("Client " + n).email("client" + n + "@test.com").passwordHash("x").role(Role.CLIENT).active(true)
+                    .build());
+            Product product = em.persist(Product.builder().sku("SKU-" + n).name("Product " + n)
+                    .originalPrice(10L).profite(BigDecimal.ONE).build());
+
+            // Three lines per order: a LIMIT applied to the joined rows would cut orders in half
+            SalesOrder order = SalesOrder.builder().client(client).status(OrderStatus.SHIPPED).build();
+            for (int line = 1; line <= 3; line++) {
+                order.addOrderLine(SalesOrderLine.builder().salesOrder(order).product(product).warehouse(warehouse)
+                        .quantity(line).unitPrice(BigDecimal.ONE).build());
+            }
+            em.persist(order);
+            orderIds.add(order.getId());
+
+            Shipment shipment = em.persist(Shipment.builder().salesOrder(order).carrier(carrier)
+                    .trackingNumber("TRK-" + n).status(ShipmentStatus.IN_TRANSIT).build());
+            shipmentIds.add(shipment.getId());
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void salesOrderPages_WalkEveryOrderOnceWithAllLines() {
+        List<Long> seen = new ArrayList<>();
+        long after = 0L;
+        List<SalesOrderSummary> page;
+
+        do {
+            page = salesOrderRepository.findSummariesAfter(after, PageRequest.of(0, 2));
+            List<Long> ids = page.stream().map(SalesOrderSummary::id).toList();
+            if (!ids.isEmpty()) {
+                List<SalesOrderLineRow> lines = salesOrderRepository.findLineRowsByOrderIdIn(ids);
+                assertEquals(3 * ids.size(), lines.size());
+                seen.addAll(ids);
+                after = ids.get(ids.size() - 1);
+            }
+        } while (page.size() == 2);
+
+        assertEquals(orderIds, seen);
+    }
+
+    @Test
+    void shipmentPage_StartsAfterCursor() {
+        List<ShipmentRow> page = shipmentRepository.findRowsAfter(shipmentIds.get(1), PageRequest.of(0, 2));
+
+        assertEquals(List.of(shipmentIds.get(2), shipmentIds.get(3)), page.stream().map(ShipmentRow::id).toList());
+        assertEquals("Client 3", page.get(0).clientName());
+        assertEquals("CAR-1", page.get(0).carrierCode());
+    }
+
+    @Test
+    void streams_ReturnEveryRowInIdOrder() {
+        try (Stream<Long> ids = salesOrderRepository.streamAllIds()) {
+            assertEquals(orderIds, ids.toList());
+        }
+        try (Stream<Product> products = productRepository.streamAll()) {
+            List<Long> productIds = products.map(Product::getId).toList();
+            assertEquals(5, productIds.size());
+            assertEquals(productIds.stream().sorted().toList(), productIds);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.project.digital_logistics.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.digital_logistics.enums.PurchaseOrderStatus;
+import org.project.digital_logistics.model.*;
+import org.project.digital_logistics.model.enums.MovementType;
+import org.project.digital_logistics.model.enums.OrderStatus;
+import org.project.digital_logistics.model.enums.Role;
+import org.project.digital_logistics.model.enums.ShipmentStatus;
+import org.project.digital_logistics.repository.projection.AvailableQuantity;
+import org.project.digital_logistics.repository.projection.InventoryRow;
+import org.project.digital_logistics.repository.projection.MovementRow;
+import org.project.digital_logistics.repository.projection.OpenPurchaseQuantity;
+import org.project.digital_logistics.repository.projection.ProductSupplier;
+import org.project.digital_logistics.repository.projection.ReorderLevel;
+import org.project.digital_logistics.repository.projection.SalesOrderLineRow;
+import org.project.digital_logistics.repository.projection.SalesOrderSummary;
+import org.project.digital_logistics.repository.projection.ShipmentRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The list views read projections: they must carry the same fields as the entities,
+ * and optional associations must not drop rows.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class ListProjectionQueryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private SalesOrderRepository salesOrderRepository;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryMovementRepository movementRepository;
+
+    @Autowired
+    private PurchaseOrderLineRepository purchaseOrderLineRepository;
+
+    private Client client;
+    private Warehouse warehouse;
+    private Inventory inventory;
+    private SalesOrder order;
+
+    @BeforeEach
+    void setUp() {
+        User manager = em.persist(User.builder()
+                .name("Manager").email("manager@test.com").passwordHash("x").role(Role.WAREHOUSE_MANAGER).active(true)
+                .build());
+        warehouse = em.persist(Warehouse.builder()
+                .name("Warehouse").code("WH-1").capacity(1000).manager(manager).build());
+        client = em.persist(Client.builder()
+                .name("Client").email("client@test.com").passwordHash("x").role(Role.CLIENT).active(true)
+                .phoneNumber("0600000000").address("1 rue du Port")
+                .build());
+        Product product = em.persist(Product.builder().sku("SKU-1").name("Product")
+                .originalPrice(10L).profite(BigDecimal.ONE).build());
+
+        order = SalesOrder.builder().client(client).status(OrderStatus.RESERVED).build();
+        order.addOrderLine(SalesOrderLine.builder().salesOrder(order).product(product).warehouse(warehouse)
+                .quantity(3).unitPrice(new BigDecimal("2.50")).build());
+        em.persist(order);
+
+        inventory = em.persist(Inventory.builder().warehouse(warehouse).product(product)
+                .qtyOnHand(10).qtyReserved(3).build());
+        em.persist(InventoryMovement.builder().inventory(inventory).type(MovementType.INBOUND).quantity(10)
+                .occurredAt(LocalDateTime.now()).referenceDocument("PO-1").build());
+
+        // Not assigned yet: no carrier
+        em.persist(Shipment.builder().salesOrder(order).trackingNumber("TRK-1").status(ShipmentStatus.PLANNED).build());
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void salesOrderSummaryAndLines() {
+        List<SalesOrderSummary> summaries = salesOrderRepository.findSummariesByClientId(client.getId());
+        List<SalesOrderLineRow> lines = salesOrderRepository.findLineRowsByStatus(OrderStatus.RESERVED);
+
+        assertEquals(1, summaries.size());
+        assertEquals("1 rue du Port", summaries.get(0).clientAddress());
+        assertEquals(OrderStatus.RESERVED, summaries.get(0).status());
+        assertEquals(1, lines.size());
+        assertEquals(order.getId(), lines.get(0).salesOrderId());
+        assertEquals("WH-1", lines.get(0).warehouseCode());
+        assertEquals(0, new BigDecimal("2.50").compareTo(lines.get(0).unitPrice()));
+    }
+
+    @Test
+    void shipmentWithoutCarrier_IsStillListed() {
+        List<ShipmentRow> rows = shipmentRepository.findRowsByStatus(ShipmentStatus.PLANNED);
+
+        assertEquals(1, rows.size());
+        assertNull(rows.get(0).carrierId());
+        assertEquals("Client", rows.get(0).clientName());
+        assertEquals(order.getId(), rows.get(0).salesOrderId());
+    }
+
+    @Test
+    void inventoryAndMovementRows() {
+        List<InventoryRow> inventories = inventoryRepository.findLowStockRowsInWarehouse(warehouse.getId(), 8);
+        List<MovementRow> movements = movementRepository.findRowsByWarehouseId(
+                warehouse.getId(), LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1));
+
+        assertEquals(1, inventories.size());
+        assertEquals("SKU-1", inventories.get(0).productSku());
+        assertEquals(3, inventories.get(0).qtyReserved());
+        assertEquals(1, movements.size());
+        assertEquals(inventory.getId(), movements.get(0).inventoryId());
+        assertEquals("PO-1", movements.get(0).referenceDocument());
+    }
+
+    @Test
+    void availableQuantitiesPerProductAndWarehouse() {
+        Long productId = inventory.getProduct().getId();
+
+        List<AvailableQuantity> all = inventoryRepository.findAvailableByProductIds(List.of(productId, -1L));
+        List<AvailableQuantity> otherWarehouse = inventoryRepository.findAvailableByProductIdsAndWarehouseIds(
+                List.of(productId), List.of(-1L));
+
+        assertEquals(List.of(new AvailableQuantity(productId, warehouse.getId(), 7L)), all);
+        assertTrue(otherWarehouse.isEmpty());
+    }
+
+    @Test
+    void reorderLevelsBelowThreshold() {
+        Long productId = inventory.getProduct().getId();
+        List<ReorderLevel> unwatched = inventoryRepository.findBelowReorderThreshold(warehouse.getId());
+
+        Inventory watched = em.find(Inventory.class, inventory.getId());
+        watched.setReorderThreshold(8);
+        em.flush();
+        em.clear();
+
+        assertTrue(unwatched.isEmpty());
+        assertEquals(List.of(new ReorderLevel(warehouse.getId(), productId, 7, 8)),
+                inventoryRepository.findBelowReorderThreshold(warehouse.getId()));
+        assertEquals(List.of(new ReorderLevel(warehouse.getId(), productId, 7, 8)),
+                inventoryRepository.findAllReorderLevels());
+    }
+
+    @Test
+    void openPurchaseQuantitiesAndLatestSupplierPerProduct() {
+        Product product = inventory.getProduct();
+        Supplier first = em.persist(Supplier.builder().name("First").build());
+        Supplier second = em.persist(Supplier.builder().name("Second").build());
+        PurchaseOrder approved = purchaseOrder(first, PurchaseOrderStatus.APPROVED, product, 5);
+        PurchaseOrder created = purchaseOrder(second, PurchaseOrderStatus.CREATED, product, 7);
+        purchaseOrder(first, PurchaseOrderStatus.RECEIVED, product, 100);
+        em.flush();
+        em.clear();
+
+        List<OpenPurchaseQuantity> open = purchaseOrderLineRepository.sumQuantityByProduct(
+                EnumSet.of(PurchaseOrderStatus.CREATED, PurchaseOrderStatus.APPROVED));
+        List<ProductSupplier> suppliers = purchaseOrderLineRepository.findProductSuppliers();
+
+        assertEquals(List.of(new OpenPurchaseQuantity(product.getId(), 12L)), open);
+        assertEquals(2, suppliers.size());
+        assertTrue(suppliers.contains(new ProductSupplier(product.getId(), second.getId(), created.getId())));
+        assertTrue(suppliers.stream().anyMatch(supplier -> supplier.supplierId().equals(first.getId())
+                && supplier.lastPurchaseOrderId() > approved.getId()));
+    }
+
+    private PurchaseOrder purchaseOrder(Supplier supplier, PurchaseOrderStatus status, Product product, int quantity) {
+        PurchaseOrder purchaseOrder = PurchaseOrder.builder().supplier(supplier).status(status).build();
+        purchaseOrder.addOrderLine(PurchaseOrderLine.builder().product(product).quantity(quantity)
+                .unitPrice(BigDecimal.TEN).build());
+        return em.persist(purchaseOrder);
+    }
+}
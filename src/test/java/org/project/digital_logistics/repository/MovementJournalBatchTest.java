@@ -0,0 +1,87 @@
+package org.project.digital_logistics.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.digital_logistics.model.*;
+import org.project.digital_logistics.model.enums.MovementType;
+import org.project.digital_logistics.model.enums.Role;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The movements of one operation must be written as a single JDBC batch: inventories
+ * referenced without SELECT, ids taken from the pooled sequence.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@ActiveProfiles("test")
+class MovementJournalBatchTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryMovementRepository movementRepository;
+
+    private final List<Long> inventoryIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User manager = em.persist(User.builder()
+                .name("Manager").email("manager@test.com").passwordHash("x").role(Role.WAREHOUSE_MANAGER).active(true)
+                .build());
+        Warehouse warehouse = em.persist(Warehouse.builder()
+                .name("Warehouse").code("WH-1").capacity(1000).manager(manager).build());
+        for (int n = 1; n <= 5; n++) {
+            Product product = em.persist(Product.builder().sku("SKU-" + n).name("Product " + n)
+                    .originalPrice(10L).profite(BigDecimal.ONE).build());
+            inventoryIds.add(em.persist(Inventory.builder().warehouse(warehouse).product(product)
+                    .qtyOnHand(10).qtyReserved(0).build()).getId());
+        }
+        // Warm the sequence pool (the pooled optimizer reads the sequence twice on first use)
+        // so the measure only covers the inserts
+        for (int n = 0; n < 2; n++) {
+            em.persist(InventoryMovement.builder().inventory(em.find(Inventory.class, inventoryIds.get(0)))
+                    .type(MovementType.INBOUND).quantity(10).build());
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void fiveMovements_OneBatchedInsert() {
+        StatementCounter statementCounter = new StatementCounter(entityManagerFactory);
+
+        statementCounter.assertStatements(1, "5 mouvements", () -> {
+            List<InventoryMovement> movements = inventoryIds.stream()
+                    .map(id -> InventoryMovement.builder()
+                            .inventory(inventoryRepository.getReferenceById(id))
+                            .type(MovementType.OUTBOUND)
+                            .quantity(1)
+                            .referenceDocument("SO-1")
+                            .build())
+                    .toList();
+            movementRepository.saveAll(movements);
+            em.flush();
+        });
+
+        assertEquals(7, movementRepository.count());
+    }
+}
@@ -0,0 +1,31 @@
+package org.project.digital_logistics.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the JDBC statements Hibernate prepares while a block of code runs,
+ * to catch N+1 queries in repository + mapper code paths.
+ */
+public class StatementCounter {
+
+    private final Statistics statistics;
+
+    public StatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public long count(Runnable block) {
+        statistics.clear();
+        block.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    public void assertStatements(long expected, String description, Runnable block) {
+        assertEquals(expected, count(block), description + " : nombre de requêtes SQL inattendu");
+    }
+}
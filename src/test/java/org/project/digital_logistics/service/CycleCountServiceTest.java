@@ -0,0 +1,195 @@
+package org.project.digital_logistics.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.inventory.CycleCountEntryDto;
+import org.project.digital_logistics.dto.inventory.CycleCountRequestDto;
+import org.project.digital_logistics.dto.inventory.CycleCountResultDto;
+import org.project.digital_logistics.event.InventoryChangedEvent;
+import org.project.digital_logistics.exception.InvalidOperationException;
+import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.repository.projection.InventoryRow;
+import org.project.digital_logistics.service.InventoryMovementService.MovementEntry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CycleCountServiceTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private InventoryMovementService movementService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private BusinessRulesConfig businessRulesConfig = new BusinessRulesConfig();
+
+    @InjectMocks
+    private CycleCountService cycleCountService;
+
+    @Test
+    void applyCycleCount_AdjustsChangedRowsInOneBatch() {
+        // Given
+        when(inventoryRepository.findRowsByIdIn(argThat(ids -> Set.copyOf(ids).equals(Set.of(1L, 2L)))))
+                .thenReturn(List.of(row(1L, "SKU-1", 100, 10), row(2L, "SKU-2", 50, 0)));
+        when(inventoryRepository.findRowsByWarehouseIdAndSkuIn(eq(1L), argThat(skus -> skus.contains("SKU-3"))))
+                .thenReturn(List.of(row(3L, "SKU-3", 20, 0)));
+        givenUpdated(1, 1);
+
+        // When
+        ApiResponse<CycleCountResultDto> response = cycleCountService.applyCycleCount(request(
+                byId(1L, 90),
+                byId(2L, 50),
+                bySku(1L, "SKU-3", 25)
+        ));
+
+        // Then
+        CycleCountResultDto result = response.getData();
+        assertEquals(2, result.getAdjusted());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(0, result.getRejected());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MovementEntry>> movements = ArgumentCaptor.forClass(List.class);
+        verify(movementService).recordMovements(movements.capture());
+        assertEquals(List.of(-10, 5), movements.getValue().stream().map(MovementEntry::quantity).toList());
+        verify(eventPublisher).publishEvent(new InventoryChangedEvent(1L, 1L, -10, 0));
+        verify(eventPublisher).publishEvent(new InventoryChangedEvent(1L, 3L, 5, 0));
+    }
+
+    @Test
+    void applyCycleCount_ReportsInvalidEntries() {
+        // Given
+        when(inventoryRepository.findRowsByIdIn(any())).thenReturn(List.of(row(1L, "SKU-1", 100, 10)));
+        when(inventoryRepository.findRowsByWarehouseIdAndSkuIn(eq(1L), any())).thenReturn(List.of());
+
+        // When
+        ApiResponse<CycleCountResultDto> response = cycleCountService.applyCycleCount(request(
+                byId(1L, 70),
+                byId(1L, 5),
+                byId(99L, 1),
+                bySku(1L, "UNKNOWN", 1),
+                new CycleCountEntryDto(null, 1L, null, 1)
+        ));
+
+        // Then
+        CycleCountResultDto result = response.getData();
+        assertEquals(0, result.getAdjusted());
+        assertEquals(5, result.getRejected());
+        assertEquals("Superseded by entry 1", result.getErrors().get(0).getMessage());
+        assertTrue(result.getErrors().get(1).getMessage().contains("below the reserved quantity"));
+        assertEquals("Inventory not found with id: 99", result.getErrors().get(2).getMessage());
+        assertEquals(3, result.getErrors().get(3).getIndex());
+        assertEquals(4, result.getErrors().get(4).getIndex());
+        verifyNoInteractions(jdbcTemplate, movementService, eventPublisher);
+    }
+
+    @Test
+    void applyCycleCount_RowChangedDuringCount_IsNotJournaled() {
+        // Given
+        when(inventoryRepository.findRowsByIdIn(any()))
+                .thenReturn(List.of(row(1L, "SKU-1", 100, 0), row(2L, "SKU-2", 50, 0)));
+        givenUpdated(0, 1);
+
+        // When
+        ApiResponse<CycleCountResultDto> response = cycleCountService.applyCycleCount(request(
+                byId(1L, 90),
+                byId(2L, 40)
+        ));
+
+        // Then
+        CycleCountResultDto result = response.getData();
+        assertEquals(1, result.getAdjusted());
+        assertEquals("Inventory 1 changed during the count", result.getErrors().get(0).getMessage());
+        verify(eventPublisher, times(1)).publishEvent(any(InventoryChangedEvent.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applyCycleCount_UpdateIsGuardedOnReservationsStillCovered() throws SQLException {
+        // Given
+        when(inventoryRepository.findRowsByIdIn(any())).thenReturn(List.of(row(1L, "SKU-1", 100, 10)));
+        givenUpdated(0);
+
+        // When
+        ApiResponse<CycleCountResultDto> response = cycleCountService.applyCycleCount(request(byId(1L, 20)));
+
+        // Then: reserved grew past 20 since the read, the count is rejected
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Collection<Object>> batch = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<Object>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(sql.capture(), batch.capture(), anyInt(), setter.capture());
+        assertTrue(sql.getValue().endsWith("AND qty_reserved <= ?"));
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, batch.getValue().iterator().next());
+        verify(ps).setInt(5, 20);
+
+        assertEquals(0, response.getData().getAdjusted());
+        assertEquals("Inventory 1 changed during the count", response.getData().getErrors().get(0).getMessage());
+        verifyNoInteractions(movementService);
+    }
+
+    @Test
+    void applyCycleCount_TooManyEntries_ThrowsException() {
+        // Given
+        businessRulesConfig.setMaxCycleCountSize(1);
+
+        // When & Then
+        assertThrows(InvalidOperationException.class,
+                () -> cycleCountService.applyCycleCount(request(byId(1L, 1), byId(2L, 2))));
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenUpdated(int... counts) {
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{counts});
+    }
+
+    private static CycleCountRequestDto request(CycleCountEntryDto... entries) {
+        return new CycleCountRequestDto(List.of(entries));
+    }
+
+    private static CycleCountEntryDto byId(Long inventoryId, int counted) {
+        return new CycleCountEntryDto(inventoryId, null, null, counted);
+    }
+
+    private static CycleCountEntryDto bySku(Long warehouseId, String sku, int counted) {
+        return new CycleCountEntryDto(null, warehouseId, sku, counted);
+    }
+
+    private static InventoryRow row(Long id, String sku, int qtyOnHand, int qtyReserved) {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 0, 0);
+        return new InventoryRow(id, 1L, "WH-001", "Central Warehouse", id, sku, "Product " + id,
+                qtyOnHand, qtyReserved, null, createdAt, createdAt);
+    }
+}
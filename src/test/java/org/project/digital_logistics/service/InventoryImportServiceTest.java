@@ -0,0 +1,152 @@
+package org.project.digital_logistics.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.inventory.InventoryImportResultDto;
+import org.project.digital_logistics.event.InventoryChangedEvent;
+import org.project.digital_logistics.exception.InvalidOperationException;
+import org.project.digital_logistics.model.enums.MovementType;
+import org.project.digital_logistics.service.InventoryImportService.ImportFormat;
+import org.project.digital_logistics.service.InventoryMovementService.MovementEntry;
+import org.project.digital_logistics.service.importing.InventoryImportStaging;
+import org.project.digital_logistics.service.importing.InventoryImportStaging.StagedChange;
+import org.project.digital_logistics.service.importing.InventoryImportStaging.StagedError;
+import org.project.digital_logistics.service.importing.InventoryImportStaging.StagingCopy;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryImportServiceTest {
+
+    @Mock
+    private InventoryImportStaging staging;
+
+    @Mock
+    private StagingCopy copy;
+
+    @Mock
+    private InventoryMovementService movementService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private BusinessRulesConfig businessRulesConfig = new BusinessRulesConfig();
+
+    @InjectMocks
+    private InventoryImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        when(staging.beginCopy()).thenReturn(copy);
+    }
+
+    @Test
+    void importInventories_Csv_StagesRowsByHeaderAndJournalsChanges() throws Exception {
+        // Given: columns in any order, one short line
+        when(copy.finish()).thenReturn(4L);
+        when(staging.upsert()).thenReturn(List.of(
+                new StagedChange(2L, 10L, 1L, 5L, 40, true),
+                new StagedChange(3L, 11L, 1L, 6L, -15, false)
+        ));
+        when(staging.errors()).thenReturn(List.of(new StagedError(6L, "Product not found with id: 99")));
+
+        // When
+        ApiResponse<InventoryImportResultDto> response = importService.importInventories(input(
+                "productId,warehouseId,qtyOnHand\n5,1,40\n6,1,\"85\"\n\n7,1\n99,1,10\n7,1,20\n"), ImportFormat.CSV);
+
+        // Then
+        verify(copy).add(2L, "1", "5", "40");
+        verify(copy).add(3L, "1", "6", "85");
+        verify(copy).add(6L, "1", "99", "10");
+        verify(copy).add(7L, "1", "7", "20");
+        verify(staging).validate();
+
+        InventoryImportResultDto result = response.getData();
+        assertEquals(5L, result.getTotalRows());
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1L, result.getUnchanged());
+        assertEquals(2, result.getRejected());
+        assertEquals(5L, result.getErrors().get(0).getLine());
+        assertEquals("Expected 3 columns, found 2", result.getErrors().get(0).getMessage());
+        assertEquals(6L, result.getErrors().get(1).getLine());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MovementEntry>> movements = ArgumentCaptor.forClass(List.class);
+        verify(movementService).recordMovements(movements.capture());
+        assertEquals(2, movements.getValue().size());
+        assertEquals(MovementType.ADJUSTMENT, movements.getValue().get(1).type());
+        assertEquals(-15, movements.getValue().get(1).quantity());
+        verify(eventPublisher).publishEvent(new InventoryChangedEvent(1L, 6L, -15, 0));
+    }
+
+    @Test
+    void importInventories_Ndjson_ReportsInvalidLinesAndSkipsEmptyJournal() throws Exception {
+        // Given
+        when(copy.finish()).thenReturn(1L);
+        when(staging.upsert()).thenReturn(List.of());
+        when(staging.errors()).thenReturn(List.of());
+
+        // When
+        ApiResponse<InventoryImportResultDto> response = importService.importInventories(input(
+                "{\"warehouseId\":1,\"productId\":5,\"qtyOnHand\":40}\n{oops\n[1,2]\n"), ImportFormat.NDJSON);
+
+        // Then
+        verify(copy).add(1L, "1", "5", "40");
+        InventoryImportResultDto result = response.getData();
+        assertEquals(3L, result.getTotalRows());
+        assertEquals(1L, result.getUnchanged());
+        assertEquals("Invalid JSON", result.getErrors().get(0).getMessage());
+        assertEquals("Expected a JSON object", result.getErrors().get(1).getMessage());
+        verifyNoInteractions(movementService, eventPublisher);
+    }
+
+    @Test
+    void importInventories_MissingCsvColumn_ThrowsException() {
+        // When & Then
+        assertThrows(InvalidOperationException.class, () -> importService.importInventories(
+                input("warehouseId,qtyOnHand\n1,40\n"), ImportFormat.CSV));
+
+        verify(copy).close();
+        verify(staging, never()).validate();
+    }
+
+    @Test
+    void importInventories_TooManyRows_ThrowsException() {
+        // Given
+        businessRulesConfig.setInventoryImportMaxRows(1);
+        when(copy.rows()).thenReturn(0L, 1L);
+
+        // When & Then
+        assertThrows(InvalidOperationException.class, () -> importService.importInventories(
+                input("warehouseId,productId,qtyOnHand\n1,5,40\n1,6,10\n"), ImportFormat.CSV));
+
+        verify(copy, times(1)).add(anyLong(), any(), any(), any());
+        verify(staging, never()).upsert();
+    }
+
+    private static InputStream input(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -6,10 +6,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
 import org.project.digital_logistics.dto.ApiResponse;
 import org.project.digital_logistics.dto.inventorymovement.InventoryMovementRequestDto;
 import org.project.digital_logistics.dto.inventorymovement.InventoryMovementResponseDto;
+import org.project.digital_logistics.event.StockReceivedEvent;
+import org.project.digital_logistics.event.StockShippedEvent;
+import org.project.digital_logistics.exception.InvalidOperationException;
 import org.project.digital_logistics.exception.ResourceNotFoundException;
 import org.project.digital_logistics.model.Inventory;
 import org.project.digital_logistics.model.InventoryMovement;
@@ -18,8 +23,13 @@ import org.project.digital_logistics.model.Warehouse;
 import org.project.digital_logistics.model.enums.MovementType;
 import org.project.digital_logistics.repository.InventoryMovementRepository;
 import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.service.InventoryMovementService.MovementEntry;
+import org.project.digital_logistics.repository.projection.MovementRow;
+import org.project.digital_logistics.service.journal.MovementWriteBehind;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -27,6 +37,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +49,15 @@ class InventoryMovementServiceTest {
     @Mock
     private InventoryRepository inventoryRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MovementWriteBehind movementWriteBehind;
+
+    @Spy
+    private BusinessRulesConfig businessRulesConfig = new BusinessRulesConfig();
+
     @InjectMocks
     private InventoryMovementService movementService;
 
@@ -148,55 +168,93 @@ class InventoryMovementServiceTest {
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
 
     @Test
-    void recordMovement_Success() {
+    void recordMovements_ReferencesInventoriesAndSavesOneBatch() {
         // Given
-        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
-        when(movementRepository.save(any(InventoryMovement.class))).thenReturn(movement);
+        Inventory secondInventory = Inventory.builder().id(2L).warehouse(warehouse).product(product).build();
+        when(inventoryRepository.getReferenceById(1L)).thenReturn(inventory);
+        when(inventoryRepository.getReferenceById(2L)).thenReturn(secondInventory);
 
         // When
-        movementService.recordMovement(
-                1L,
-                MovementType.OUTBOUND,
-                20,
-                "SO-456",
-                "Sales order shipment"
-        );
+        movementService.recordMovements(List.of(
+                new MovementEntry(1L, 1L, 1L, MovementType.OUTBOUND, 20, "SO-456", "Sales order shipment"),
+                new MovementEntry(2L, 1L, 2L, MovementType.OUTBOUND, 5, "SO-456", "Sales order shipment")
+        ));
 
         // Then
-        ArgumentCaptor<InventoryMovement> captor = ArgumentCaptor.forClass(InventoryMovement.class);
-        verify(movementRepository).save(captor.capture());
+        ArgumentCaptor<List<InventoryMovement>> captor = ArgumentCaptor.forClass(List.class);
+        verify(movementRepository).saveAll(captor.capture());
+
+        List<InventoryMovement> savedMovements = captor.getValue();
+        assertEquals(2, savedMovements.size());
+        assertEquals(inventory, savedMovements.get(0).getInventory());
+        assertEquals(MovementType.OUTBOUND, savedMovements.get(0).getType());
+        assertEquals(20, savedMovements.get(0).getQuantity());
+        assertEquals("SO-456", savedMovements.get(0).getReferenceDocument());
+        assertEquals("Sales order shipment", savedMovements.get(0).getDescription());
+        assertEquals(secondInventory, savedMovements.get(1).getInventory());
+
+        verify(inventoryRepository, never()).findById(anyLong());
+        verify(movementRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any(StockReceivedEvent.class));
+    }
 
-        InventoryMovement savedMovement = captor.getValue();
-        assertEquals(inventory, savedMovement.getInventory());
-        assertEquals(MovementType.OUTBOUND, savedMovement.getType());
-        assertEquals(20, savedMovement.getQuantity());
-        assertEquals("SO-456", savedMovement.getReferenceDocument());
-        assertEquals("Sales order shipment", savedMovement.getDescription());
+    @Test
+    void recordMovements_Outbound_PublishesStockShipped() {
+        // Given
+        when(inventoryRepository.getReferenceById(1L)).thenReturn(inventory);
 
-        verify(inventoryRepository).findById(1L);
+        // When
+        movementService.recordMovements(List.of(
+                new MovementEntry(1L, 3L, 4L, MovementType.OUTBOUND, 20, "SO-456", "Sales order shipment")
+        ));
+
+        // Then: the event carries the occurred_at of the journaled row
+        ArgumentCaptor<StockShippedEvent> captor = ArgumentCaptor.forClass(StockShippedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(3L, captor.getValue().warehouseId());
+        assertEquals(4L, captor.getValue().productId());
+        assertEquals(20, captor.getValue().quantity());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InventoryMovement>> saved = ArgumentCaptor.forClass(List.class);
+        verify(movementRepository).saveAll(saved.capture());
+        assertNotNull(captor.getValue().occurredAt());
+        assertEquals(captor.getValue().occurredAt(), saved.getValue().get(0).getOccurredAt());
+        verify(eventPublisher, never()).publishEvent(any(StockReceivedEvent.class));
     }
 
     @Test
-    void recordMovement_InventoryNotFound_ThrowsException() {
+    void recordMovements_Inbound_PublishesStockReceived() {
         // Given
-        when(inventoryRepository.findById(999L)).thenReturn(Optional.empty());
+        when(inventoryRepository.getReferenceById(1L)).thenReturn(inventory);
 
-        // When & Then
-        ResourceNotFoundException exception = assertThrows(
-                ResourceNotFoundException.class,
-                () -> movementService.recordMovement(
-                        999L,
-                        MovementType.ADJUSTMENT,
-                        10,
-                        "ADJ-001",
-                        "Adjustment"
-                )
-        );
+        // When
+        movementService.recordMovements(List.of(
+                new MovementEntry(1L, 3L, 4L, MovementType.INBOUND, 10, "PO-1", "Purchase order reception")
+        ));
 
-        assertTrue(exception.getMessage().contains("Inventory"));
+        // Then
+        ArgumentCaptor<StockReceivedEvent> captor = ArgumentCaptor.forClass(StockReceivedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(3L, captor.getValue().warehouseId());
+        assertEquals(4L, captor.getValue().productId());
+        assertEquals(10, captor.getValue().quantity());
+    }
 
-        verify(inventoryRepository).findById(999L);
-        verify(movementRepository, never()).save(any());
+    @Test
+    void recordMovements_WriteBehind_SubmitsInsteadOfSaving() {
+        // Given
+        when(movementWriteBehind.isEnabled()).thenReturn(true);
+        List<MovementEntry> entries = List.of(
+                new MovementEntry(1L, 3L, 4L, MovementType.INBOUND, 10, "PO-1", "Purchase order reception"));
+
+        // When
+        movementService.recordMovements(entries);
+
+        // Then
+        verify(movementWriteBehind).submit(eq(entries), any(LocalDateTime.class));
+        verify(movementRepository, never()).saveAll(any());
+        verify(inventoryRepository, never()).getReferenceById(anyLong());
+        verify(eventPublisher).publishEvent(any(StockReceivedEvent.class));
     }
 
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -206,17 +264,8 @@ class InventoryMovementServiceTest {
     @Test
     void getAllMovements_Success() {
         // Given
-        InventoryMovement movement2 = InventoryMovement.builder()
-                .id(2L)
-                .inventory(inventory)
-                .type(MovementType.OUTBOUND)
-                .quantity(30)
-                .referenceDocument("SO-789")
-                .description("Sales order")
-                .build();
-
-        List<InventoryMovement> movements = Arrays.asList(movement, movement2);
-        when(movementRepository.findAll()).thenReturn(movements);
+        when(movementRepository.findAllRows())
+                .thenReturn(Arrays.asList(movementRow(1L, MovementType.INBOUND), movementRow(2L, MovementType.OUTBOUND)));
 
         // When
         ApiResponse<List<InventoryMovementResponseDto>> response =
@@ -228,8 +277,9 @@ class InventoryMovementServiceTest {
         assertEquals(2, response.getData().size());
         assertEquals(1L, response.getData().get(0).getId());
         assertEquals(2L, response.getData().get(1).getId());
+        assertEquals(MovementType.OUTBOUND, response.getData().get(1).getType());
 
-        verify(movementRepository).findAll();
+        verify(movementRepository).findAllRows();
     }
 
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -240,11 +290,14 @@ class InventoryMovementServiceTest {
     void getMovementsByInventory_Success() {
         // Given
         when(inventoryRepository.existsById(1L)).thenReturn(true);
-        when(movementRepository.findByInventoryId(1L)).thenReturn(Arrays.asList(movement));
+        LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 2, 1, 0, 0);
+        when(movementRepository.findRowsByInventoryId(1L, from, to))
+                .thenReturn(Arrays.asList(movementRow(1L, MovementType.INBOUND)));
 
         // When
         ApiResponse<List<InventoryMovementResponseDto>> response =
-                movementService.getMovementsByInventory(1L);
+                movementService.getMovementsByInventory(1L, from, to);
 
         // Then
         assertNotNull(response);
@@ -253,7 +306,7 @@ class InventoryMovementServiceTest {
         assertEquals(1L, response.getData().get(0).getId());
 
         verify(inventoryRepository).existsById(1L);
-        verify(movementRepository).findByInventoryId(1L);
+        verify(movementRepository).findRowsByInventoryId(1L, from, to);
     }
 
     @Test
@@ -264,13 +317,25 @@ class InventoryMovementServiceTest {
         // When & Then
         ResourceNotFoundException exception = assertThrows(
                 ResourceNotFoundException.class,
-                () -> movementService.getMovementsByInventory(999L)
+                () -> movementService.getMovementsByInventory(999L, null, null)
         );
 
         assertTrue(exception.getMessage().contains("Inventory"));
 
         verify(inventoryRepository).existsById(999L);
-        verify(movementRepository, never()).findByInventoryId(anyLong());
+        verify(movementRepository, never()).findRowsByInventoryId(anyLong(), any(), any());
+    }
+
+    @Test
+    void getMovementsByInventory_FromAfterTo_ThrowsException() {
+        // Given
+        when(inventoryRepository.existsById(1L)).thenReturn(true);
+        LocalDateTime to = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+        // When & Then
+        assertThrows(InvalidOperationException.class,
+                () -> movementService.getMovementsByInventory(1L, to.plusDays(1), to));
+        verify(movementRepository, never()).findRowsByInventoryId(anyLong(), any(), any());
     }
 
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -280,11 +345,12 @@ class InventoryMovementServiceTest {
     @Test
     void getMovementsByWarehouse_Success() {
         // Given
-        when(movementRepository.findByWarehouseId(1L)).thenReturn(Arrays.asList(movement));
+        when(movementRepository.findRowsByWarehouseId(eq(1L), any(), any()))
+                .thenReturn(Arrays.asList(movementRow(1L, MovementType.INBOUND)));
 
         // When
         ApiResponse<List<InventoryMovementResponseDto>> response =
-                movementService.getMovementsByWarehouse(1L);
+                movementService.getMovementsByWarehouse(1L, null, null);
 
         // Then
         assertNotNull(response);
@@ -292,6 +358,15 @@ class InventoryMovementServiceTest {
         assertEquals(1, response.getData().size());
         assertEquals(1L, response.getData().get(0).getId());
 
-        verify(movementRepository).findByWarehouseId(1L);
+        // Without bounds: the last movement-query-window-days days
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(movementRepository).findRowsByWarehouseId(eq(1L), from.capture(), to.capture());
+        assertEquals(to.getValue().minusDays(90), from.getValue());
+    }
+
+    private MovementRow movementRow(Long id, MovementType type) {
+        return new MovementRow(id, 1L, 1L, "WH-001", "Main Warehouse", 1L, "SKU-001", "Product",
+                type, 50, null, "PO-123", null);
     }
-}
\ No newline at end of file
+}
@@ -5,11 +5,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
 import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.inventory.AvailabilityRequestDto;
 import org.project.digital_logistics.dto.inventory.InventoryRequestDto;
 import org.project.digital_logistics.dto.inventory.InventoryResponseDto;
+import org.project.digital_logistics.dto.inventory.LowStockSnapshotDto;
+import org.project.digital_logistics.dto.inventory.ProductAvailabilityDto;
+import org.project.digital_logistics.dto.inventory.ReorderThresholdRequestDto;
+import org.project.digital_logistics.dto.inventory.ShipmentVelocityDto;
+import org.project.digital_logistics.event.InventoryChangedEvent;
+import org.project.digital_logistics.event.ReorderThresholdChangedEvent;
 import org.project.digital_logistics.exception.DuplicateResourceException;
+import org.project.digital_logistics.exception.InvalidOperationException;
 import org.project.digital_logistics.exception.ResourceNotFoundException;
 import org.project.digital_logistics.model.Inventory;
 import org.project.digital_logistics.model.Product;
@@ -18,6 +28,13 @@ import org.project.digital_logistics.model.enums.MovementType;
 import org.project.digital_logistics.repository.InventoryRepository;
 import org.project.digital_logistics.repository.ProductRepository;
 import org.project.digital_logistics.repository.WarehouseRepository;
+import org.project.digital_logistics.repository.projection.AvailableQuantity;
+import org.project.digital_logistics.repository.projection.InventoryRow;
+import org.project.digital_logistics.repository.projection.ReorderLevel;
+import org.project.digital_logistics.service.stock.LowStockMonitor;
+import org.project.digital_logistics.service.stock.ShipmentVelocityTracker;
+import org.project.digital_logistics.service.stock.StockLevelCache;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -43,6 +60,21 @@ class InventoryServiceTest {
     @Mock
     private InventoryMovementService movementService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private StockLevelCache stockLevelCache = new StockLevelCache(new BusinessRulesConfig());
+
+    @Mock
+    private LowStockMonitor lowStockMonitor;
+
+    @Mock
+    private ShipmentVelocityTracker shipmentVelocityTracker;
+
+    @Spy
+    private BusinessRulesConfig businessRulesConfig = new BusinessRulesConfig();
+
     @InjectMocks
     private InventoryService inventoryService;
 
@@ -231,7 +263,7 @@ class InventoryServiceTest {
     @Test
     void getAllInventories_Success() {
         // Given
-        when(inventoryRepository.findAll()).thenReturn(Arrays.asList(inventory));
+        when(inventoryRepository.findAllRows()).thenReturn(Arrays.asList(inventoryRow()));
 
         // When
         ApiResponse<List<InventoryResponseDto>> response = inventoryService.getAllInventories();
@@ -240,14 +272,16 @@ class InventoryServiceTest {
         assertNotNull(response);
         assertEquals("Inventories retrieved successfully", response.getMessage());
         assertEquals(1, response.getData().size());
-        verify(inventoryRepository).findAll();
+        assertEquals("WH-001", response.getData().get(0).getWarehouseCode());
+        assertEquals(70, response.getData().get(0).getQtyAvailable());
+        verify(inventoryRepository).findAllRows();
     }
 
     @Test
     void getInventoriesByWarehouse_Success() {
         // Given
         when(warehouseRepository.existsById(1L)).thenReturn(true);
-        when(inventoryRepository.findByWarehouseId(1L)).thenReturn(Arrays.asList(inventory));
+        when(inventoryRepository.findRowsByWarehouseId(1L)).thenReturn(Arrays.asList(inventoryRow()));
 
         // When
         ApiResponse<List<InventoryResponseDto>> response =
@@ -258,7 +292,7 @@ class InventoryServiceTest {
         assertEquals("Warehouse inventories retrieved successfully", response.getMessage());
         assertEquals(1, response.getData().size());
         verify(warehouseRepository).existsById(1L);
-        verify(inventoryRepository).findByWarehouseId(1L);
+        verify(inventoryRepository).findRowsByWarehouseId(1L);
     }
 
     @Test
@@ -271,14 +305,14 @@ class InventoryServiceTest {
                 () -> inventoryService.getInventoriesByWarehouse(999L));
 
         verify(warehouseRepository).existsById(999L);
-        verify(inventoryRepository, never()).findByWarehouseId(anyLong());
+        verify(inventoryRepository, never()).findRowsByWarehouseId(anyLong());
     }
 
     @Test
     void getInventoriesByProduct_Success() {
         // Given
         when(productRepository.existsById(1L)).thenReturn(true);
-        when(inventoryRepository.findByProductId(1L)).thenReturn(Arrays.asList(inventory));
+        when(inventoryRepository.findRowsByProductId(1L)).thenReturn(Arrays.asList(inventoryRow()));
 
         // When
         ApiResponse<List<InventoryResponseDto>> response =
@@ -289,7 +323,7 @@ class InventoryServiceTest {
         assertEquals("Product inventories retrieved successfully", response.getMessage());
         assertEquals(1, response.getData().size());
         verify(productRepository).existsById(1L);
-        verify(inventoryRepository).findByProductId(1L);
+        verify(inventoryRepository).findRowsByProductId(1L);
     }
 
     @Test
@@ -302,15 +336,15 @@ class InventoryServiceTest {
                 () -> inventoryService.getInventoriesByProduct(999L));
 
         verify(productRepository).existsById(999L);
-        verify(inventoryRepository, never()).findByProductId(anyLong());
+        verify(inventoryRepository, never()).findRowsByProductId(anyLong());
     }
 
     @Test
     void getLowStockInWarehouse_Success() {
         // Given
         when(warehouseRepository.existsById(1L)).thenReturn(true);
-        when(inventoryRepository.findLowStockInWarehouse(1L, 20))
-                .thenReturn(Arrays.asList(inventory));
+        when(inventoryRepository.findLowStockRowsInWarehouse(1L, 20))
+                .thenReturn(Arrays.asList(inventoryRow()));
 
         // When
         ApiResponse<List<InventoryResponseDto>> response =
@@ -320,15 +354,15 @@ class InventoryServiceTest {
         assertNotNull(response);
         assertEquals("Low stock items retrieved successfully", response.getMessage());
         assertEquals(1, response.getData().size());
-        verify(inventoryRepository).findLowStockInWarehouse(1L, 20);
+        verify(inventoryRepository).findLowStockRowsInWarehouse(1L, 20);
     }
 
     @Test
     void getLowStockInWarehouse_DefaultThreshold_Success() {
         // Given
         when(warehouseRepository.existsById(1L)).thenReturn(true);
-        when(inventoryRepository.findLowStockInWarehouse(1L, 10))
-                .thenReturn(Arrays.asList(inventory));
+        when(inventoryRepository.findLowStockRowsInWarehouse(1L, 10))
+                .thenReturn(Arrays.asList(inventoryRow()));
 
         // When
         ApiResponse<List<InventoryResponseDto>> response =
@@ -336,7 +370,7 @@ class InventoryServiceTest {
 
         // Then
         assertNotNull(response);
-        verify(inventoryRepository).findLowStockInWarehouse(1L, 10); // Default threshold
+        verify(inventoryRepository).findLowStockRowsInWarehouse(1L, 10); // Default threshold
     }
 
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -357,6 +391,24 @@ class InventoryServiceTest {
         assertNotNull(response);
         assertEquals("Inventory updated successfully", response.getMessage());
         verify(inventoryRepository).save(any(Inventory.class));
+        verify(movementService, never()).recordMovements(any());
+    }
+
+    @Test
+    void updateInventory_QtyOnHandChanged_RecordsSignedAdjustment() {
+        // Given
+        requestDto.setQtyOnHand(70);
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+
+        // When
+        inventoryService.updateInventory(1L, requestDto);
+
+        // Then
+        verify(movementService).recordMovements(argThat(movements ->
+                movements.size() == 1
+                        && movements.get(0).type() == MovementType.ADJUSTMENT
+                        && movements.get(0).quantity() == -30));
     }
 
     @Test
@@ -408,8 +460,6 @@ class InventoryServiceTest {
         // Given
         when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
-        doNothing().when(movementService).recordMovement(
-                anyLong(), any(MovementType.class), anyInt(), anyString(), anyString());
 
         // When
         ApiResponse<InventoryResponseDto> response =
@@ -419,8 +469,8 @@ class InventoryServiceTest {
         assertNotNull(response);
         assertEquals("Inventory quantities adjusted successfully", response.getMessage());
         verify(inventoryRepository).save(any(Inventory.class));
-        verify(movementService).recordMovement(
-                anyLong(), eq(MovementType.ADJUSTMENT), anyInt(), anyString(), anyString());
+        verify(movementService).recordMovements(argThat(movements ->
+                movements.size() == 1 && movements.get(0).type() == MovementType.ADJUSTMENT));
     }
 
     @Test
@@ -428,8 +478,6 @@ class InventoryServiceTest {
         // Given
         when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
-        doNothing().when(movementService).recordMovement(
-                anyLong(), any(MovementType.class), anyInt(), anyString(), anyString());
 
         // When
         ApiResponse<InventoryResponseDto> response =
@@ -438,7 +486,7 @@ class InventoryServiceTest {
         // Then
         assertNotNull(response);
         verify(inventoryRepository).save(any(Inventory.class));
-        verify(movementService).recordMovement(anyLong(), any(), anyInt(), anyString(), anyString());
+        verify(movementService).recordMovements(argThat(movements -> movements.size() == 1));
     }
 
     @Test
@@ -451,7 +499,7 @@ class InventoryServiceTest {
                 () -> inventoryService.adjustQuantities(1L, 50, 100)); // Reserved > OnHand
 
         verify(inventoryRepository, never()).save(any());
-        verify(movementService, never()).recordMovement(anyLong(), any(), anyInt(), anyString(), anyString());
+        verify(movementService, never()).recordMovements(any());
     }
 
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -461,8 +509,7 @@ class InventoryServiceTest {
     @Test
     void deleteInventory_Success() {
         // Given
-        when(inventoryRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(inventoryRepository).deleteById(1L);
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
 
         // When
         ApiResponse<Void> response = inventoryService.deleteInventory(1L);
@@ -470,26 +517,40 @@ class InventoryServiceTest {
         // Then
         assertNotNull(response);
         assertEquals("Inventory deleted successfully", response.getMessage());
-        verify(inventoryRepository).deleteById(1L);
+        verify(inventoryRepository).delete(inventory);
+        verify(eventPublisher).publishEvent(new InventoryChangedEvent(
+                1L, 1L, -inventory.getQtyOnHand(), -inventory.getQtyReserved()));
+    }
+
+    @Test
+    void deleteInventory_WithReorderThreshold_StopsWatchingRow() {
+        // Given
+        inventory.setReorderThreshold(20);
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
+
+        // When
+        inventoryService.deleteInventory(1L);
+
+        // Then
+        verify(eventPublisher).publishEvent(new ReorderThresholdChangedEvent(1L, 1L, null));
     }
 
     @Test
     void deleteInventory_NotFound_ThrowsException() {
         // Given
-        when(inventoryRepository.existsById(999L)).thenReturn(false);
+        when(inventoryRepository.findById(999L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(ResourceNotFoundException.class,
                 () -> inventoryService.deleteInventory(999L));
 
-        verify(inventoryRepository, never()).deleteById(anyLong());
+        verify(inventoryRepository, never()).delete(any(Inventory.class));
     }
 
     @Test
     void deleteInventoryByWarehouseAndProduct_Success() {
         // Given
-        when(inventoryRepository.existsByWarehouseIdAndProductId(1L, 1L)).thenReturn(true);
-        doNothing().when(inventoryRepository).deleteByWarehouseIdAndProductId(1L, 1L);
+        when(inventoryRepository.findByWarehouseIdAndProductId(1L, 1L)).thenReturn(Optional.of(inventory));
 
         // When
         ApiResponse<Void> response =
@@ -498,19 +559,20 @@ class InventoryServiceTest {
         // Then
         assertNotNull(response);
         assertEquals("Inventory deleted successfully", response.getMessage());
-        verify(inventoryRepository).deleteByWarehouseIdAndProductId(1L, 1L);
+        verify(inventoryRepository).delete(inventory);
+        verify(eventPublisher).publishEvent(any(InventoryChangedEvent.class));
     }
 
     @Test
     void deleteInventoryByWarehouseAndProduct_NotFound_ThrowsException() {
         // Given
-        when(inventoryRepository.existsByWarehouseIdAndProductId(999L, 999L)).thenReturn(false);
+        when(inventoryRepository.findByWarehouseIdAndProductId(999L, 999L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(ResourceNotFoundException.class,
                 () -> inventoryService.deleteInventoryByWarehouseAndProduct(999L, 999L));
 
-        verify(inventoryRepository, never()).deleteByWarehouseIdAndProductId(anyLong(), anyLong());
+        verify(inventoryRepository, never()).delete(any(Inventory.class));
     }
 
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -573,6 +635,178 @@ class InventoryServiceTest {
         verify(inventoryRepository, never()).getAvailableStockByProduct(anyLong());
     }
 
+    @Test
+    void getAvailableStockByProduct_SecondCallServedFromCache() {
+        // Given
+        when(productRepository.existsById(1L)).thenReturn(true);
+        when(inventoryRepository.getAvailableStockByProduct(1L)).thenReturn(450);
+
+        // When
+        inventoryService.getAvailableStockByProduct(1L);
+        ApiResponse<Integer> response = inventoryService.getAvailableStockByProduct(1L);
+
+        // Then
+        assertEquals(450, response.getData());
+        verify(productRepository, times(1)).existsById(1L);
+        verify(inventoryRepository, times(1)).getAvailableStockByProduct(1L);
+    }
+
+    @Test
+    void getAvailability_GroupsWarehousesPerProductInRequestOrder() {
+        // Given
+        AvailabilityRequestDto request = new AvailabilityRequestDto(List.of(2L, 1L, 3L, 1L), null);
+        when(inventoryRepository.findAvailableByProductIds(List.of(2L, 1L, 3L))).thenReturn(List.of(
+                new AvailableQuantity(1L, 1L, 90L),
+                new AvailableQuantity(1L, 2L, 10L),
+                new AvailableQuantity(2L, 1L, 5L)
+        ));
+
+        // When
+        ApiResponse<List<ProductAvailabilityDto>> response = inventoryService.getAvailability(request);
+
+        // Then
+        List<ProductAvailabilityDto> availability = response.getData();
+        assertEquals(3, availability.size());
+        assertEquals(2L, availability.get(0).getProductId());
+        assertEquals(5, availability.get(0).getAvailable());
+        assertEquals(100, availability.get(1).getAvailable());
+        assertEquals(2, availability.get(1).getWarehouses().size());
+        assertEquals(0, availability.get(2).getAvailable());
+        assertTrue(availability.get(2).getWarehouses().isEmpty());
+        verify(inventoryRepository, never()).findAvailableByProductIdsAndWarehouseIds(any(), any());
+    }
+
+    @Test
+    void getAvailability_WithWarehouses_FiltersInQuery() {
+        // Given
+        AvailabilityRequestDto request = new AvailabilityRequestDto(List.of(1L), List.of(2L));
+        when(inventoryRepository.findAvailableByProductIdsAndWarehouseIds(List.of(1L), List.of(2L)))
+                .thenReturn(List.of(new AvailableQuantity(1L, 2L, 10L)));
+
+        // When
+        ApiResponse<List<ProductAvailabilityDto>> response = inventoryService.getAvailability(request);
+
+        // Then
+        assertEquals(10, response.getData().get(0).getAvailable());
+        assertEquals(2L, response.getData().get(0).getWarehouses().get(0).getWarehouseId());
+    }
+
+    @Test
+    void getAvailability_TooManyProducts_ThrowsException() {
+        // Given
+        businessRulesConfig.setMaxAvailabilityBatchSize(2);
+        AvailabilityRequestDto request = new AvailabilityRequestDto(List.of(1L, 2L, 3L), null);
+
+        // When & Then
+        assertThrows(InvalidOperationException.class, () -> inventoryService.getAvailability(request));
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    void getAvailableStock_InventoryChanged_ReloadsCell() {
+        // Given
+        when(warehouseRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.existsById(1L)).thenReturn(true);
+        when(inventoryRepository.getAvailableStock(1L, 1L)).thenReturn(90, 80);
+
+        // When
+        inventoryService.getAvailableStock(1L, 1L);
+        stockLevelCache.onInventoryChanged(InventoryChangedEvent.reserved(1L, 1L, 10));
+        ApiResponse<Integer> response = inventoryService.getAvailableStock(1L, 1L);
+
+        // Then
+        assertEquals(80, response.getData());
+        verify(inventoryRepository, times(2)).getAvailableStock(1L, 1L);
+    }
+
+    @Test
+    void setReorderThreshold_Success() {
+        // Given
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        ApiResponse<InventoryResponseDto> response =
+                inventoryService.setReorderThreshold(1L, new ReorderThresholdRequestDto(25));
+
+        // Then
+        assertEquals("Reorder threshold updated successfully", response.getMessage());
+        assertEquals(25, response.getData().getReorderThreshold());
+        verify(eventPublisher).publishEvent(new ReorderThresholdChangedEvent(1L, 1L, 25));
+    }
+
+    @Test
+    void setReorderThreshold_Unchanged_PublishesNothing() {
+        // Given
+        inventory.setReorderThreshold(25);
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        inventoryService.setReorderThreshold(1L, new ReorderThresholdRequestDto(25));
+
+        // Then
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void getReorderAlerts_MonitorReady_ServedFromMonitor() {
+        // Given
+        LowStockSnapshotDto snapshot = new LowStockSnapshotDto(1L, 3L, List.of());
+        when(warehouseRepository.existsById(1L)).thenReturn(true);
+        when(lowStockMonitor.snapshot(1L)).thenReturn(Optional.of(snapshot));
+
+        // When
+        ApiResponse<LowStockSnapshotDto> response = inventoryService.getReorderAlerts(1L);
+
+        // Then
+        assertSame(snapshot, response.getData());
+        verify(inventoryRepository, never()).findBelowReorderThreshold(anyLong());
+    }
+
+    @Test
+    void getReorderAlerts_MonitorNotWarmed_FallsBackToQuery() {
+        // Given
+        when(warehouseRepository.existsById(1L)).thenReturn(true);
+        when(lowStockMonitor.snapshot(1L)).thenReturn(Optional.empty());
+        when(inventoryRepository.findBelowReorderThreshold(1L))
+                .thenReturn(List.of(new ReorderLevel(1L, 7L, 4, 10)));
+
+        // When
+        ApiResponse<LowStockSnapshotDto> response = inventoryService.getReorderAlerts(1L);
+
+        // Then
+        assertEquals(1, response.getData().getItems().size());
+        assertEquals(7L, response.getData().getItems().get(0).getProductId());
+        assertEquals(4, response.getData().getItems().get(0).getAvailable());
+    }
+
+    @Test
+    void getShipmentVelocity_KnownProduct_SkipsLookup() {
+        // Given
+        ShipmentVelocityDto velocity = ShipmentVelocityDto.builder().productId(1L).shippedLast7Days(14L).build();
+        when(shipmentVelocityTracker.hasShipments(1L)).thenReturn(true);
+        when(shipmentVelocityTracker.velocity(1L, null)).thenReturn(velocity);
+
+        // When
+        ApiResponse<ShipmentVelocityDto> response = inventoryService.getShipmentVelocity(1L, null);
+
+        // Then
+        assertSame(velocity, response.getData());
+        verify(productRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void getShipmentVelocity_UnknownProduct_ThrowsException() {
+        // Given
+        when(shipmentVelocityTracker.hasShipments(999L)).thenReturn(false);
+        when(productRepository.existsById(999L)).thenReturn(false);
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> inventoryService.getShipmentVelocity(999L, null));
+        verify(shipmentVelocityTracker, never()).velocity(anyLong(), any());
+    }
+
     @Test
     void countInventories_Success() {
         // Given
@@ -587,4 +821,9 @@ class InventoryServiceTest {
         assertEquals(75L, response.getData());
         verify(inventoryRepository).count();
     }
-}
\ No newline at end of file
+
+    private InventoryRow inventoryRow() {
+        return new InventoryRow(1L, 1L, "WH-001", "Main Warehouse", 1L, "SKU-001", "Product",
+                100, 30, null, null, null);
+    }
+}
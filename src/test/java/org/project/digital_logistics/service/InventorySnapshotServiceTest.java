@@ -0,0 +1,226 @@
+package org.project.digital_logistics.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.inventory.InventoryOnHandDto;
+import org.project.digital_logistics.exception.InvalidOperationException;
+import org.project.digital_logistics.exception.ResourceNotFoundException;
+import org.project.digital_logistics.model.InventorySnapshot;
+import org.project.digital_logistics.repository.InventoryMovementRepository;
+import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.repository.InventorySnapshotRepository;
+import org.project.digital_logistics.repository.WarehouseRepository;
+import org.project.digital_logistics.repository.projection.InventoryQuantity;
+import org.project.digital_logistics.repository.projection.InventoryRow;
+import org.project.digital_logistics.service.journal.MovementPartitionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventorySnapshotServiceTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2026, 3, 15, 12, 0);
+    private static final LocalDateTime RUN = LocalDateTime.of(2026, 3, 15, 1, 0);
+
+    @Mock
+    private InventorySnapshotRepository snapshotRepository;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private InventoryMovementRepository movementRepository;
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private MovementPartitionManager partitionManager;
+
+    @InjectMocks
+    private InventorySnapshotService snapshotService;
+
+    private InventoryRow inventory;
+
+    @BeforeEach
+    void setUp() {
+        inventory = row(1L, 80, LocalDateTime.of(2026, 1, 1, 0, 0));
+    }
+
+    @Test
+    void getOnHandAt_ReplaysMovementsAfterNearestSnapshot() {
+        // Given
+        when(inventoryRepository.findRowById(1L)).thenReturn(Optional.of(inventory));
+        when(snapshotRepository.findFirstByInventoryIdAndTakenAtLessThanEqualOrderByTakenAtDesc(1L, AT))
+                .thenReturn(Optional.of(snapshot(1L, 100, RUN)));
+        when(movementRepository.sumSignedQuantity(1L, RUN, AT)).thenReturn(-15L);
+
+        // When
+        ApiResponse<InventoryOnHandDto> response = snapshotService.getOnHandAt(1L, AT);
+
+        // Then
+        assertEquals(85, response.getData().getQtyOnHand());
+        assertEquals(RUN, response.getData().getSnapshotTakenAt());
+        verify(snapshotRepository, never()).findFirstByInventoryIdAndTakenAtGreaterThanOrderByTakenAt(any(), any());
+    }
+
+    @Test
+    void getOnHandAt_NoEarlierSnapshot_ReplaysBackFromCurrentRow() {
+        // Given
+        when(inventoryRepository.findRowById(1L)).thenReturn(Optional.of(inventory));
+        when(snapshotRepository.findFirstByInventoryIdAndTakenAtLessThanEqualOrderByTakenAtDesc(1L, AT))
+                .thenReturn(Optional.empty());
+        when(snapshotRepository.findFirstByInventoryIdAndTakenAtGreaterThanOrderByTakenAt(1L, AT))
+                .thenReturn(Optional.empty());
+        when(movementRepository.sumSignedQuantity(eq(1L), eq(AT), any())).thenReturn(30L);
+
+        // When
+        ApiResponse<InventoryOnHandDto> response = snapshotService.getOnHandAt(1L, AT);
+
+        // Then
+        assertEquals(50, response.getData().getQtyOnHand());
+        assertNull(response.getData().getSnapshotTakenAt());
+    }
+
+    @Test
+    void getOnHandAt_InventoryCreatedLater_ReturnsZero() {
+        // Given
+        when(inventoryRepository.findRowById(1L)).thenReturn(Optional.of(inventory));
+
+        // When
+        ApiResponse<InventoryOnHandDto> response = snapshotService.getOnHandAt(1L, LocalDateTime.of(2025, 6, 1, 0, 0));
+
+        // Then
+        assertEquals(0, response.getData().getQtyOnHand());
+        verifyNoInteractions(snapshotRepository, movementRepository);
+    }
+
+    @Test
+    void getOnHandAt_SnapshotOlderThanRetainedMovements_ReplaysBackInstead() {
+        // Given: the movements between the snapshot and March were dropped with their partition
+        when(partitionManager.retainedSince()).thenReturn(LocalDateTime.of(2026, 3, 1, 0, 0));
+        when(inventoryRepository.findRowById(1L)).thenReturn(Optional.of(inventory));
+        when(snapshotRepository.findFirstByInventoryIdAndTakenAtLessThanEqualOrderByTakenAtDesc(1L, AT))
+                .thenReturn(Optional.of(snapshot(1L, 100, LocalDateTime.of(2026, 2, 20, 1, 0))));
+        when(snapshotRepository.findFirstByInventoryIdAndTakenAtGreaterThanOrderByTakenAt(1L, AT))
+                .thenReturn(Optional.empty());
+        when(movementRepository.sumSignedQuantity(eq(1L), eq(AT), any())).thenReturn(30L);
+
+        // When
+        ApiResponse<InventoryOnHandDto> response = snapshotService.getOnHandAt(1L, AT);
+
+        // Then
+        assertEquals(50, response.getData().getQtyOnHand());
+        assertNull(response.getData().getSnapshotTakenAt());
+    }
+
+    @Test
+    void getOnHandAt_BeforeRetainedMovements_ThrowsException() {
+        // Given
+        when(partitionManager.retainedSince()).thenReturn(LocalDateTime.of(2026, 4, 1, 0, 0));
+
+        // When & Then
+        assertThrows(InvalidOperationException.class, () -> snapshotService.getOnHandAt(1L, AT));
+        verifyNoInteractions(inventoryRepository, snapshotRepository, movementRepository);
+    }
+
+    @Test
+    void getOnHandAt_UnknownInventory_ThrowsException() {
+        // Given
+        when(inventoryRepository.findRowById(99L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> snapshotService.getOnHandAt(99L, AT));
+    }
+
+    @Test
+    void getWarehouseOnHandAt_RebuildsFromOneRunAndCurrentRowsForNewInventories() {
+        // Given: inventory 2 was created after the run, so it has no snapshot
+        InventoryRow created = row(2L, 40, RUN.plusHours(2));
+        when(warehouseRepository.existsById(1L)).thenReturn(true);
+        when(inventoryRepository.findRowsByWarehouseId(1L)).thenReturn(List.of(inventory, created));
+        when(snapshotRepository.findLastRunAtOrBefore(1L, AT)).thenReturn(Optional.of(RUN));
+        when(snapshotRepository.findByWarehouseIdAndTakenAt(1L, RUN)).thenReturn(List.of(snapshot(1L, 100, RUN)));
+        when(movementRepository.sumSignedQuantityByInventory(1L, RUN, AT))
+                .thenReturn(List.of(new InventoryQuantity(1L, -15L), new InventoryQuantity(2L, 5L)));
+        when(movementRepository.sumSignedQuantityByInventory(eq(1L), eq(AT), any()))
+                .thenReturn(List.of(new InventoryQuantity(2L, 10L)));
+
+        // When
+        ApiResponse<List<InventoryOnHandDto>> response = snapshotService.getWarehouseOnHandAt(1L, AT);
+
+        // Then
+        List<InventoryOnHandDto> onHand = response.getData();
+        assertEquals(2, onHand.size());
+        assertEquals(85, onHand.get(0).getQtyOnHand());
+        assertEquals(RUN, onHand.get(0).getSnapshotTakenAt());
+        assertEquals(30, onHand.get(1).getQtyOnHand());
+        assertNull(onHand.get(1).getSnapshotTakenAt());
+        verify(snapshotRepository, never()).findFirstRunAfter(any(), any());
+    }
+
+    @Test
+    void getWarehouseOnHandAt_BeforeFirstRun_ReplaysBackFromNextRun() {
+        // Given
+        LocalDateTime nextRun = AT.plusDays(1);
+        when(warehouseRepository.existsById(1L)).thenReturn(true);
+        when(inventoryRepository.findRowsByWarehouseId(1L)).thenReturn(List.of(inventory));
+        when(snapshotRepository.findLastRunAtOrBefore(1L, AT)).thenReturn(Optional.empty());
+        when(snapshotRepository.findFirstRunAfter(1L, AT)).thenReturn(Optional.of(nextRun));
+        when(snapshotRepository.findByWarehouseIdAndTakenAt(1L, nextRun)).thenReturn(List.of(snapshot(1L, 60, nextRun)));
+        when(movementRepository.sumSignedQuantityByInventory(1L, AT, nextRun))
+                .thenReturn(List.of(new InventoryQuantity(1L, -20L)));
+
+        // When
+        ApiResponse<List<InventoryOnHandDto>> response = snapshotService.getWarehouseOnHandAt(1L, AT);
+
+        // Then
+        assertEquals(80, response.getData().get(0).getQtyOnHand());
+        assertEquals(nextRun, response.getData().get(0).getSnapshotTakenAt());
+        verify(movementRepository, times(1)).sumSignedQuantityByInventory(any(), any(), any());
+    }
+
+    @Test
+    void getWarehouseOnHandAt_BeforeRetainedMovements_ThrowsException() {
+        // Given
+        when(partitionManager.retainedSince()).thenReturn(LocalDateTime.of(2026, 4, 1, 0, 0));
+
+        // When & Then
+        assertThrows(InvalidOperationException.class, () -> snapshotService.getWarehouseOnHandAt(1L, AT));
+        verifyNoInteractions(warehouseRepository, inventoryRepository, snapshotRepository, movementRepository);
+    }
+
+    @Test
+    void getWarehouseOnHandAt_UnknownWarehouse_ThrowsException() {
+        // Given
+        when(warehouseRepository.existsById(99L)).thenReturn(false);
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> snapshotService.getWarehouseOnHandAt(99L, AT));
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    private static InventoryRow row(Long id, int qtyOnHand, LocalDateTime createdAt) {
+        return new InventoryRow(id, 1L, "WH-001", "Central Warehouse", id, "PROD-00" + id, "Product " + id,
+                qtyOnHand, 0, null, createdAt, createdAt);
+    }
+
+    private static InventorySnapshot snapshot(Long inventoryId, int qtyOnHand, LocalDateTime takenAt) {
+        return InventorySnapshot.builder()
+                .inventoryId(inventoryId).warehouseId(1L).productId(inventoryId)
+                .qtyOnHand(qtyOnHand).takenAt(takenAt)
+                .build();
+    }
+}
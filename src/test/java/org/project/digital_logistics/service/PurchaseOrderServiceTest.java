@@ -17,6 +17,7 @@ import org.project.digital_logistics.exception.ResourceNotFoundException;
 import org.project.digital_logistics.model.*;
 import org.project.digital_logistics.model.enums.MovementType;
 import org.project.digital_logistics.repository.*;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -49,6 +50,9 @@ class PurchaseOrderServiceTest {
     @Mock
     private InventoryMovementService movementService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private PurchaseOrderService purchaseOrderService;
 
@@ -407,7 +411,6 @@ class PurchaseOrderServiceTest {
                 .thenReturn(Optional.of(inventory));
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
         when(purchaseOrderRepository.save(any(PurchaseOrder.class))).thenReturn(purchaseOrder);
-        doNothing().when(movementService).recordMovement(anyLong(), any(), anyInt(), anyString(), anyString());
 
         // When
         ApiResponse<PurchaseOrderResponseDto> response =
@@ -418,13 +421,12 @@ class PurchaseOrderServiceTest {
         assertEquals("Purchase order received successfully and inventory updated", response.getMessage());
 
         verify(inventoryRepository).save(any(Inventory.class));
-        verify(movementService).recordMovement(
-                eq(1L),
-                eq(MovementType.INBOUND),
-                eq(10),
-                eq("PO-1"),
-                anyString()
-        );
+        verify(movementService).recordMovements(argThat(movements ->
+                movements.size() == 1
+                        && movements.get(0).inventoryId() == 1L
+                        && movements.get(0).type() == MovementType.INBOUND
+                        && movements.get(0).quantity() == 10
+                        && movements.get(0).referenceDocument().equals("PO-1")));
 
         ArgumentCaptor<PurchaseOrder> captor = ArgumentCaptor.forClass(PurchaseOrder.class);
         verify(purchaseOrderRepository).save(captor.capture());
@@ -508,4 +510,4 @@ class PurchaseOrderServiceTest {
         assertEquals(5L, response.getData());
         verify(purchaseOrderRepository).countByStatus(PurchaseOrderStatus.CREATED);
     }
-}
\ No newline at end of file
+}
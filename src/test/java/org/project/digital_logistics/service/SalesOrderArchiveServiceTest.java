@@ -0,0 +1,130 @@
+package org.project.digital_logistics.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.dto.salesorder.SalesOrderResponseDto;
+import org.project.digital_logistics.model.*;
+import org.project.digital_logistics.model.enums.OrderStatus;
+import org.project.digital_logistics.repository.ArchivedSalesOrderRepository;
+import org.project.digital_logistics.repository.SalesOrderRepository;
+import org.project.digital_logistics.repository.ShipmentRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesOrderArchiveServiceTest {
+
+    @Mock
+    private SalesOrderRepository salesOrderRepository;
+
+    @Mock
+    private ShipmentRepository shipmentRepository;
+
+    @Mock
+    private ArchivedSalesOrderRepository archivedSalesOrderRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SalesOrderArchiveService archiveService;
+
+    private SalesOrder deliveredOrder;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        archiveService = new SalesOrderArchiveService(
+                salesOrderRepository, shipmentRepository, archivedSalesOrderRepository, objectMapper, eventPublisher);
+
+        Client client = Client.builder().id(7L).name("Client").email("client@test.com").build();
+        Product product = Product.builder().id(1L).sku("PROD-001").name("Dell Laptop").build();
+        Warehouse warehouse = Warehouse.builder().id(1L).code("WH-001").name("Central Warehouse").build();
+
+        deliveredOrder = SalesOrder.builder()
+                .id(10L)
+                .client(client)
+                .status(OrderStatus.DELIVERED)
+                .createdAt(LocalDateTime.now().minusDays(60))
+                .deliveredAt(LocalDateTime.now().minusDays(55))
+                .build();
+        SalesOrderLine line = SalesOrderLine.builder()
+                .id(100L).salesOrder(deliveredOrder).product(product).warehouse(warehouse)
+                .quantity(2).unitPrice(BigDecimal.valueOf(500))
+                .build();
+        deliveredOrder.setOrderLines(new ArrayList<>(List.of(line)));
+    }
+
+    @Test
+    void archiveNextChunk_MovesOrdersAndDeletesHotRows() {
+        Shipment shipment = Shipment.builder().id(5L).salesOrder(deliveredOrder).trackingNumber("TRK-1").build();
+        when(salesOrderRepository.findIdsToArchive(eq(SalesOrderArchiveService.ARCHIVABLE_STATUSES), any(), any(Pageable.class)))
+                .thenReturn(List.of(10L));
+        when(shipmentRepository.findBySalesOrderIdIn(List.of(10L))).thenReturn(List.of(shipment));
+        when(salesOrderRepository.findAllWithLinesByIdIn(List.of(10L))).thenReturn(List.of(deliveredOrder));
+
+        int archived = archiveService.archiveNextChunk(LocalDateTime.now().minusDays(30), 500);
+
+        assertEquals(1, archived);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ArchivedSalesOrder>> captor = ArgumentCaptor.forClass(List.class);
+        verify(archivedSalesOrderRepository).saveAll(captor.capture());
+        ArchivedSalesOrder row = captor.getValue().get(0);
+        assertEquals(10L, row.getId());
+        assertEquals(7L, row.getClientId());
+        assertEquals(OrderStatus.DELIVERED, row.getStatus());
+        assertTrue(row.getShipmentPayload().contains("TRK-1"));
+
+        verify(shipmentRepository).deleteBySalesOrderIdIn(List.of(10L));
+        verify(salesOrderRepository).deleteLinesByOrderIdIn(List.of(10L));
+        verify(salesOrderRepository).deleteByIdIn(List.of(10L));
+    }
+
+    @Test
+    void archiveNextChunk_NothingToArchive() {
+        when(salesOrderRepository.findIdsToArchive(any(), any(), any(Pageable.class))).thenReturn(List.of());
+
+        assertEquals(0, archiveService.archiveNextChunk(LocalDateTime.now(), 500));
+
+        verifyNoInteractions(archivedSalesOrderRepository, shipmentRepository);
+        verify(salesOrderRepository, never()).deleteByIdIn(any());
+    }
+
+    @Test
+    void findArchivedOrder_ReadsBackThePayload() {
+        when(salesOrderRepository.findIdsToArchive(any(), any(), any(Pageable.class))).thenReturn(List.of(10L));
+        when(salesOrderRepository.findAllWithLinesByIdIn(List.of(10L))).thenReturn(List.of(deliveredOrder));
+        archiveService.archiveNextChunk(LocalDateTime.now(), 500);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ArchivedSalesOrder>> captor = ArgumentCaptor.forClass(List.class);
+        verify(archivedSalesOrderRepository).saveAll(captor.capture());
+        when(archivedSalesOrderRepository.findById(10L)).thenReturn(Optional.of(captor.getValue().get(0)));
+
+        SalesOrderResponseDto dto = archiveService.findArchivedOrder(10L).orElseThrow();
+
+        assertEquals(10L, dto.getId());
+        assertEquals("Client", dto.getClientName());
+        assertEquals(1, dto.getOrderLines().size());
+        assertEquals(0, BigDecimal.valueOf(1000).compareTo(dto.getTotalAmount()));
+    }
+}
@@ -5,11 +5,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
 import org.project.digital_logistics.exception.InsufficientStockException;
 import org.project.digital_logistics.model.*;
 import org.project.digital_logistics.model.enums.OrderStatus;
 import org.project.digital_logistics.repository.*;
+import org.project.digital_logistics.service.allocation.LargestFirstAllocationStrategy;
+import org.project.digital_logistics.service.allocation.WarehouseAllocator;
+import org.project.digital_logistics.service.stock.StockLedger;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -40,6 +46,16 @@ class SalesOrderBackorderTest {
     @Mock
     private ShipmentService shipmentService;
 
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private WarehouseAllocator warehouseAllocator = new WarehouseAllocator(
+            List.of(new LargestFirstAllocationStrategy()), new BusinessRulesConfig(), null);
+
     @InjectMocks
     private SalesOrderService salesOrderService;
 
@@ -0,0 +1,231 @@
+package org.project.digital_logistics.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.salesorder.SalesOrderReserveResultDto;
+import org.project.digital_logistics.exception.InvalidOperationException;
+import org.project.digital_logistics.exception.ResourceNotFoundException;
+import org.project.digital_logistics.model.*;
+import org.project.digital_logistics.model.enums.OrderStatus;
+import org.project.digital_logistics.model.enums.ReservationOutcome;
+import org.project.digital_logistics.repository.*;
+import org.project.digital_logistics.service.allocation.LargestFirstAllocationStrategy;
+import org.project.digital_logistics.service.allocation.WarehouseAllocator;
+import org.project.digital_logistics.service.stock.StockLedger;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesOrderBatchReserveTest {
+
+    @Mock
+    private SalesOrderRepository salesOrderRepository;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PurchaseOrderService purchaseOrderService;
+
+    @Mock
+    private BusinessRulesConfig businessRulesConfig;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private WarehouseAllocator warehouseAllocator = new WarehouseAllocator(
+            List.of(new LargestFirstAllocationStrategy()), new BusinessRulesConfig(), null);
+
+    @InjectMocks
+    private SalesOrderService salesOrderService;
+
+    private Product product;
+    private Warehouse warehouse1;
+    private Warehouse warehouse2;
+    private Inventory inventory1;
+    private Inventory inventory2;
+
+    @BeforeEach
+    void setUp() {
+        product = Product.builder()
+                .id(1L)
+                .name("Dell Laptop")
+                .sku("PROD-001")
+                .originalPrice(15000L)
+                .profite(BigDecimal.valueOf(0))
+                .active(true)
+                .build();
+
+        warehouse1 = Warehouse.builder().id(1L).code("WH-001").name("Central Warehouse").build();
+        warehouse2 = Warehouse.builder().id(2L).code("WH-002").name("North Warehouse").build();
+
+        inventory1 = Inventory.builder().id(1L).product(product).warehouse(warehouse1)
+                .qtyOnHand(60).qtyReserved(0).build();
+        inventory2 = Inventory.builder().id(2L).product(product).warehouse(warehouse2)
+                .qtyOnHand(40).qtyReserved(0).build();
+
+        lenient().when(businessRulesConfig.getMaxBatchReserveSize()).thenReturn(500);
+        lenient().when(salesOrderRepository.save(any(SalesOrder.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    private SalesOrder createdOrder(Long id, int quantity) {
+        SalesOrder order = SalesOrder.builder().id(id).status(OrderStatus.CREATED).build();
+        SalesOrderLine line = SalesOrderLine.builder()
+                .product(product)
+                .warehouse(warehouse1)
+                .quantity(quantity)
+                .unitPrice(BigDecimal.valueOf(15000.0))
+                .salesOrder(order)
+                .build();
+        order.setOrderLines(new ArrayList<>(List.of(line)));
+        return order;
+    }
+
+    @Test
+    void testBatchReserve_AllocatesOrdersFromLockedRows() {
+        SalesOrder order1 = createdOrder(1L, 50);
+        SalesOrder order2 = createdOrder(2L, 30);
+        givenLocked(List.of(1L, 2L), List.of(1L, 2L));
+        when(salesOrderRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(order1, order2));
+        when(inventoryRepository.lockByProductIdsInOrder(Set.of(1L))).thenReturn(List.of(inventory1, inventory2));
+
+        ApiResponse<List<SalesOrderReserveResultDto>> response = salesOrderService.reserveStockBatch(List.of(1L, 2L));
+
+        List<SalesOrderReserveResultDto> results = response.getData();
+        assertEquals(2, results.size());
+        assertEquals(ReservationOutcome.RESERVED, results.get(0).getOutcome());
+        assertEquals(ReservationOutcome.RESERVED, results.get(1).getOutcome());
+        assertEquals(OrderStatus.RESERVED, order1.getStatus());
+        assertEquals(OrderStatus.RESERVED, order2.getStatus());
+
+        // Order 1 takes 50 from WH-001, order 2 then goes to the largest remaining row (WH-002: 40)
+        assertEquals(50, inventory1.getQtyReserved());
+        assertEquals(30, inventory2.getQtyReserved());
+        assertEquals(warehouse2, order2.getOrderLines().get(0).getWarehouse());
+
+        verify(inventoryRepository).saveAll(List.of(inventory1, inventory2));
+        verify(inventoryRepository, never()).reserveIfAvailable(any(), any(), any());
+    }
+
+    @Test
+    void testBatchReserve_ShortOrderGoesToBackorderWithoutReserving() {
+        SalesOrder order1 = createdOrder(1L, 80);
+        SalesOrder order2 = createdOrder(2L, 30);
+        givenLocked(List.of(1L, 2L), List.of(1L, 2L));
+        when(salesOrderRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(order1, order2));
+        when(inventoryRepository.lockByProductIdsInOrder(Set.of(1L))).thenReturn(List.of(inventory1, inventory2));
+
+        ApiResponse<List<SalesOrderReserveResultDto>> response = salesOrderService.reserveStockBatch(List.of(1L, 2L));
+
+        assertEquals(ReservationOutcome.RESERVED, response.getData().get(0).getOutcome());
+        assertEquals(ReservationOutcome.BACKORDER, response.getData().get(1).getOutcome());
+        assertEquals(OrderStatus.BACKORDER, order2.getStatus());
+        assertEquals(80, inventory1.getQtyReserved() + inventory2.getQtyReserved());
+        verify(purchaseOrderService).createAutoPurchaseOrder(product, 10, 2L);
+    }
+
+    @Test
+    void testBatchReserve_AutoPurchaseOrderFailureKeepsTheBatch() {
+        SalesOrder order1 = createdOrder(1L, 80);
+        SalesOrder order2 = createdOrder(2L, 30);
+        givenLocked(List.of(1L, 2L), List.of(1L, 2L));
+        when(salesOrderRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(order1, order2));
+        when(inventoryRepository.lockByProductIdsInOrder(Set.of(1L))).thenReturn(List.of(inventory1, inventory2));
+        when(purchaseOrderService.createAutoPurchaseOrder(product, 10, 2L))
+                .thenThrow(new ResourceNotFoundException("No supplier available to create auto purchase order"));
+
+        ApiResponse<List<SalesOrderReserveResultDto>> response = salesOrderService.reserveStockBatch(List.of(1L, 2L));
+
+        assertEquals(ReservationOutcome.RESERVED, response.getData().get(0).getOutcome());
+        assertEquals(ReservationOutcome.BACKORDER, response.getData().get(1).getOutcome());
+        verify(inventoryRepository).saveAll(List.of(inventory1, inventory2));
+    }
+
+    @Test
+    void testBatchReserve_OrderNoLongerCreatedOnceLockedFails() {
+        // Order 1 was reserved by a parallel batch while this one waited for its lock
+        SalesOrder reserved = createdOrder(1L, 10);
+        reserved.setStatus(OrderStatus.RESERVED);
+        givenLocked(List.of(1L), List.of());
+        when(salesOrderRepository.findAllById(List.of(1L))).thenReturn(List.of(reserved));
+
+        ApiResponse<List<SalesOrderReserveResultDto>> response = salesOrderService.reserveStockBatch(List.of(1L));
+
+        assertEquals(ReservationOutcome.FAILED, response.getData().get(0).getOutcome());
+        verify(inventoryRepository, never()).lockByProductIdsInOrder(any());
+        verify(salesOrderRepository, never()).save(any());
+    }
+
+    @Test
+    void testBatchReserve_UnknownAndNonCreatedOrdersFail() {
+        SalesOrder shipped = createdOrder(2L, 10);
+        shipped.setStatus(OrderStatus.SHIPPED);
+        when(salesOrderRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(shipped));
+
+        ApiResponse<List<SalesOrderReserveResultDto>> response = salesOrderService.reserveStockBatch(List.of(1L, 2L, 1L));
+
+        assertEquals(2, response.getData().size());
+        assertTrue(response.getData().stream().allMatch(r -> r.getOutcome() == ReservationOutcome.FAILED));
+        verify(inventoryRepository, never()).lockByProductIdsInOrder(any());
+        verify(inventoryRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testBatchReserve_LocksBeforeAllocating() {
+        SalesOrder order1 = createdOrder(1L, 10);
+        givenLocked(List.of(1L), List.of(1L));
+        when(salesOrderRepository.findAllById(List.of(1L))).thenReturn(List.of(order1));
+        when(inventoryRepository.lockByProductIdsInOrder(Set.of(1L))).thenReturn(List.of(inventory1, inventory2));
+
+        salesOrderService.reserveStockBatch(List.of(1L));
+
+        // Orders before inventories, like cancelOrder and the expiry scheduler
+        InOrder inOrder = inOrder(inventoryRepository, salesOrderRepository);
+        inOrder.verify(salesOrderRepository).lockIdsInStatus(List.of(1L), OrderStatus.CREATED);
+        inOrder.verify(salesOrderRepository).findAllById(List.of(1L));
+        inOrder.verify(inventoryRepository).lockByProductIdsInOrder(Set.of(1L));
+        inOrder.verify(salesOrderRepository).save(order1);
+        inOrder.verify(inventoryRepository).saveAll(List.of(inventory1, inventory2));
+    }
+
+    @Test
+    void testBatchReserve_TooManyOrdersRejected() {
+        when(businessRulesConfig.getMaxBatchReserveSize()).thenReturn(1);
+
+        assertThrows(InvalidOperationException.class,
+                () -> salesOrderService.reserveStockBatch(List.of(1L, 2L)));
+        verify(salesOrderRepository, never()).findAllById(any());
+        verify(salesOrderRepository, never()).lockIdsInStatus(any(), any());
+    }
+
+    private void givenLocked(List<Long> orderIds, List<Long> lockedIds) {
+        when(salesOrderRepository.lockIdsInStatus(orderIds, OrderStatus.CREATED)).thenReturn(lockedIds);
+    }
+}
@@ -5,10 +5,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
 import org.project.digital_logistics.model.*;
 import org.project.digital_logistics.model.enums.OrderStatus;
 import org.project.digital_logistics.repository.*;
+import org.project.digital_logistics.service.allocation.LargestFirstAllocationStrategy;
+import org.project.digital_logistics.service.allocation.WarehouseAllocator;
+import org.project.digital_logistics.service.stock.StockLedger;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -42,6 +48,16 @@ class SalesOrderCutoffTimeTest {
     @Mock
     private ShipmentService shipmentService;
 
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private WarehouseAllocator warehouseAllocator = new WarehouseAllocator(
+            List.of(new LargestFirstAllocationStrategy()), new BusinessRulesConfig(), null);
+
     @InjectMocks
     private SalesOrderService salesOrderService;
 
@@ -114,9 +130,7 @@ class SalesOrderCutoffTimeTest {
 
         when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
         when(inventoryRepository.findByProductId(1L)).thenReturn(List.of(inventory));
-        when(inventoryRepository.findByWarehouseIdAndProductId(1L, 1L))
-                .thenReturn(Optional.of(inventory));
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+        when(inventoryRepository.reserveIfAvailable(1L, 1L, 50)).thenReturn(1);
         when(salesOrderRepository.save(any(SalesOrder.class))).thenReturn(salesOrder);
 
         salesOrderService.reserveStock(1L);
@@ -141,9 +155,7 @@ class SalesOrderCutoffTimeTest {
 
         when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
         when(inventoryRepository.findByProductId(1L)).thenReturn(List.of(inventory));
-        when(inventoryRepository.findByWarehouseIdAndProductId(1L, 1L))
-                .thenReturn(Optional.of(inventory));
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+        when(inventoryRepository.reserveIfAvailable(1L, 1L, 50)).thenReturn(1);
         when(salesOrderRepository.save(any(SalesOrder.class))).thenReturn(salesOrder);
 
         salesOrderService.reserveStock(1L);
@@ -167,9 +179,7 @@ class SalesOrderCutoffTimeTest {
 
         when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
         when(inventoryRepository.findByProductId(1L)).thenReturn(List.of(inventory));
-        when(inventoryRepository.findByWarehouseIdAndProductId(1L, 1L))
-                .thenReturn(Optional.of(inventory));
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+        when(inventoryRepository.reserveIfAvailable(1L, 1L, 50)).thenReturn(1);
         when(salesOrderRepository.save(any(SalesOrder.class))).thenReturn(salesOrder);
 
         salesOrderService.reserveStock(1L);
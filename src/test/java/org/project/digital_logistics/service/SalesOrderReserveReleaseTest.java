@@ -5,10 +5,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.exception.InsufficientStockException;
 import org.project.digital_logistics.model.*;
 import org.project.digital_logistics.model.enums.OrderStatus;
 import org.project.digital_logistics.repository.*;
+import org.project.digital_logistics.service.allocation.LargestFirstAllocationStrategy;
+import org.project.digital_logistics.service.allocation.WarehouseAllocator;
+import org.project.digital_logistics.service.stock.StockLedger;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -16,7 +23,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +47,16 @@ class SalesOrderReserveReleaseTest {
     @Mock
     private ShipmentService shipmentService;
 
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private WarehouseAllocator warehouseAllocator = new WarehouseAllocator(
+            List.of(new LargestFirstAllocationStrategy()), new BusinessRulesConfig(), null);
+
     @InjectMocks
     private SalesOrderService salesOrderService;
 
@@ -96,20 +113,19 @@ class SalesOrderReserveReleaseTest {
         // Given
         when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
         when(inventoryRepository.findByProductId(1L)).thenReturn(List.of(inventory));
-        when(inventoryRepository.findByWarehouseIdAndProductId(1L, 1L))
-                .thenReturn(Optional.of(inventory));
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+        when(inventoryRepository.reserveIfAvailable(1L, 1L, 50)).thenReturn(1);
         when(salesOrderRepository.save(any(SalesOrder.class))).thenReturn(salesOrder);
 
         // When
         salesOrderService.reserveStock(1L);
 
         // Then
-        assertEquals(50, inventory.getQtyReserved());
-        assertEquals(100, inventory.getQtyOnHand());
         assertEquals(OrderStatus.RESERVED, salesOrder.getStatus());
+        assertEquals(1, salesOrder.getOrderLines().size());
+        assertEquals(50, salesOrder.getOrderLines().get(0).getQuantity());
 
-        verify(inventoryRepository, atLeastOnce()).save(inventory);
+        verify(inventoryRepository).reserveIfAvailable(1L, 1L, 50);
+        verify(inventoryRepository, never()).save(any(Inventory.class));
     }
 
     @Test
@@ -118,7 +134,7 @@ class SalesOrderReserveReleaseTest {
         inventory.setQtyReserved(50);
         salesOrder.setStatus(OrderStatus.RESERVED);
 
-        when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
+        when(salesOrderRepository.lockById(1L)).thenReturn(Optional.of(salesOrder));
         when(inventoryRepository.findByWarehouseIdAndProductId(1L, 1L))
                 .thenReturn(Optional.of(inventory));
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
@@ -158,15 +174,172 @@ class SalesOrderReserveReleaseTest {
 
         when(salesOrderRepository.findById(2L)).thenReturn(Optional.of(salesOrder2));
         when(inventoryRepository.findByProductId(1L)).thenReturn(List.of(inventory));
-        when(inventoryRepository.findByWarehouseIdAndProductId(1L, 1L))
-                .thenReturn(Optional.of(inventory));
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+        when(inventoryRepository.reserveIfAvailable(1L, 1L, 20)).thenReturn(1);
         when(salesOrderRepository.save(any(SalesOrder.class))).thenReturn(salesOrder2);
 
         // When
         salesOrderService.reserveStock(2L);
 
+        // Then: only the delta is sent, the database adds it to the existing 30
+        verify(inventoryRepository).reserveIfAvailable(1L, 1L, 20);
+        assertEquals(OrderStatus.RESERVED, salesOrder2.getStatus());
+    }
+
+    @Test
+    void testReserveStock_FallsBackToNextWarehouseWhenStockTaken() {
+        // Given
+        Warehouse warehouse2 = Warehouse.builder()
+                .id(2L)
+                .code("WH-002")
+                .name("North Warehouse")
+                .build();
+
+        Inventory inventory2 = Inventory.builder()
+                .id(2L)
+                .product(product)
+                .warehouse(warehouse2)
+                .qtyOnHand(60)
+                .qtyReserved(0)
+                .build();
+
+        when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
+        when(inventoryRepository.findByProductId(1L)).thenReturn(List.of(inventory, inventory2));
+        // Warehouse 1 was emptied by a concurrent reservation
+        when(inventoryRepository.reserveIfAvailable(1L, 1L, 50)).thenReturn(0);
+        when(inventoryRepository.reserveIfAvailable(2L, 1L, 50)).thenReturn(1);
+        when(salesOrderRepository.save(any(SalesOrder.class))).thenReturn(salesOrder);
+
+        // When
+        salesOrderService.reserveStock(1L);
+
+        // Then
+        assertEquals(OrderStatus.RESERVED, salesOrder.getStatus());
+        assertEquals(1, salesOrder.getOrderLines().size());
+        assertEquals(2L, salesOrder.getOrderLines().get(0).getWarehouse().getId());
+    }
+
+    @Test
+    void testReserveStock_ReservesWhatIsLeftWhenStockPartlyTaken() {
+        // Given
+        Warehouse warehouse2 = Warehouse.builder()
+                .id(2L)
+                .code("WH-002")
+                .name("North Warehouse")
+                .build();
+
+        Inventory inventory2 = Inventory.builder()
+                .id(2L)
+                .product(product)
+                .warehouse(warehouse2)
+                .qtyOnHand(60)
+                .qtyReserved(0)
+                .build();
+
+        when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
+        when(inventoryRepository.findByProductId(1L)).thenReturn(List.of(inventory, inventory2));
+        // A concurrent reservation left only 20 in warehouse 1
+        when(inventoryRepository.reserveIfAvailable(1L, 1L, 50)).thenReturn(0);
+        when(inventoryRepository.getAvailableStock(1L, 1L)).thenReturn(20);
+        when(inventoryRepository.reserveIfAvailable(1L, 1L, 20)).thenReturn(1);
+        when(inventoryRepository.reserveIfAvailable(2L, 1L, 30)).thenReturn(1);
+        when(salesOrderRepository.save(any(SalesOrder.class))).thenReturn(salesOrder);
+
+        // When
+        salesOrderService.reserveStock(1L);
+
+        // Then
+        assertEquals(OrderStatus.RESERVED, salesOrder.getStatus());
+        assertEquals(2, salesOrder.getOrderLines().size());
+        assertEquals(1L, salesOrder.getOrderLines().get(0).getWarehouse().getId());
+        assertEquals(20, salesOrder.getOrderLines().get(0).getQuantity());
+        assertEquals(2L, salesOrder.getOrderLines().get(1).getWarehouse().getId());
+        assertEquals(30, salesOrder.getOrderLines().get(1).getQuantity());
+    }
+
+    @Test
+    void testReserveStock_PartialReservationReleasedOnShortage() {
+        // Given
+        inventory.setQtyOnHand(30);
+
+        Warehouse warehouse2 = Warehouse.builder()
+                .id(2L)
+                .code("WH-002")
+                .name("North Warehouse")
+                .build();
+
+        Inventory inventory2 = Inventory.builder()
+                .id(2L)
+                .product(product)
+                .warehouse(warehouse2)
+                .qtyOnHand(30)
+                .qtyReserved(0)
+                .build();
+
+        when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
+        when(inventoryRepository.findByProductId(1L)).thenReturn(List.of(inventory, inventory2));
+        when(inventoryRepository.reserveIfAvailable(1L, 1L, 30)).thenReturn(1);
+        // Warehouse 2 was emptied by a concurrent reservation
+        when(inventoryRepository.reserveIfAvailable(2L, 1L, 20)).thenReturn(0);
+
+        // When / Then
+        assertThrows(InsufficientStockException.class, () -> salesOrderService.reserveStock(1L));
+
+        verify(inventoryRepository).releaseReservation(1L, 1L, 30);
+        verify(salesOrderRepository, never()).save(any(SalesOrder.class));
+    }
+
+    @Test
+    void testReserveBackorderedOrder_SplitsLinesAcrossWarehouses() {
+        // Given
+        salesOrder.setStatus(OrderStatus.BACKORDER);
+        inventory.setQtyOnHand(30);
+
+        Warehouse warehouse2 = Warehouse.builder()
+                .id(2L)
+                .code("WH-002")
+                .name("North Warehouse")
+                .build();
+
+        Inventory inventory2 = Inventory.builder()
+                .id(2L)
+                .product(product)
+                .warehouse(warehouse2)
+                .qtyOnHand(20)
+                .qtyReserved(0)
+                .build();
+
+        when(salesOrderRepository.lockById(1L)).thenReturn(Optional.of(salesOrder));
+        when(inventoryRepository.getAvailableStockByProduct(1L)).thenReturn(50);
+        when(inventoryRepository.findByProductId(1L)).thenReturn(List.of(inventory, inventory2));
+        when(inventoryRepository.reserveIfAvailable(1L, 1L, 30)).thenReturn(1);
+        when(inventoryRepository.reserveIfAvailable(2L, 1L, 20)).thenReturn(1);
+        when(salesOrderRepository.save(any(SalesOrder.class))).thenReturn(salesOrder);
+
+        // When
+        boolean reserved = salesOrderService.reserveBackorderedOrder(1L);
+
+        // Then: each line keeps the warehouse it was reserved in, so shipping debits the right rows
+        assertTrue(reserved);
+        assertEquals(OrderStatus.RESERVED, salesOrder.getStatus());
+        assertEquals(2, salesOrder.getOrderLines().size());
+        assertEquals(1L, salesOrder.getOrderLines().get(0).getWarehouse().getId());
+        assertEquals(30, salesOrder.getOrderLines().get(0).getQuantity());
+        assertEquals(2L, salesOrder.getOrderLines().get(1).getWarehouse().getId());
+        assertEquals(20, salesOrder.getOrderLines().get(1).getQuantity());
+    }
+
+    @Test
+    void testReserveBackorderedOrder_NoLongerInBackorder_ReservesNothing() {
+        // Given: canceled while the allocation engine was waiting for the row lock
+        salesOrder.setStatus(OrderStatus.CANCELED);
+        when(salesOrderRepository.lockById(1L)).thenReturn(Optional.of(salesOrder));
+
+        // When
+        boolean reserved = salesOrderService.reserveBackorderedOrder(1L);
+
         // Then
-        assertEquals(50, inventory.getQtyReserved());
+        assertFalse(reserved);
+        verify(inventoryRepository, never()).reserveIfAvailable(anyLong(), anyLong(), anyInt());
+        verify(salesOrderRepository, never()).save(any(SalesOrder.class));
     }
-}
\ No newline at end of file
+}
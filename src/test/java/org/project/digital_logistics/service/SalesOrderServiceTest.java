@@ -6,7 +6,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
 import org.project.digital_logistics.dto.ApiResponse;
 import org.project.digital_logistics.dto.salesorder.SalesOrderLineDto;
 import org.project.digital_logistics.dto.salesorder.SalesOrderRequestDto;
@@ -18,6 +20,13 @@ import org.project.digital_logistics.model.*;
 import org.project.digital_logistics.model.enums.MovementType;
 import org.project.digital_logistics.model.enums.OrderStatus;
 import org.project.digital_logistics.repository.*;
+import org.project.digital_logistics.repository.projection.SalesOrderLineRow;
+import org.project.digital_logistics.repository.projection.SalesOrderSummary;
+import org.project.digital_logistics.service.InventoryMovementService.MovementEntry;
+import org.project.digital_logistics.service.allocation.LargestFirstAllocationStrategy;
+import org.project.digital_logistics.service.allocation.WarehouseAllocator;
+import org.project.digital_logistics.service.stock.StockLedger;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -50,6 +59,19 @@ class SalesOrderServiceTest {
     @Mock
     private ShipmentService shipmentService;
 
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SalesOrderArchiveService salesOrderArchiveService;
+
+    @Spy
+    private WarehouseAllocator warehouseAllocator = new WarehouseAllocator(
+            List.of(new LargestFirstAllocationStrategy()), new BusinessRulesConfig(), null);
+
     @InjectMocks
     private SalesOrderService salesOrderService;
 
@@ -301,9 +323,6 @@ class SalesOrderServiceTest {
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
         when(salesOrderRepository.save(any(SalesOrder.class))).thenReturn(salesOrder);
         when(shipmentService.autoCreateShipment(any(SalesOrder.class))).thenReturn(shipment);
-        doNothing().when(movementService).recordMovement(
-                anyLong(), any(MovementType.class), anyInt(), anyString(), anyString());
-
         // When
         ApiResponse<SalesOrderResponseDto> response = salesOrderService.shipOrder(1L);
 
@@ -313,8 +332,14 @@ class SalesOrderServiceTest {
         assertTrue(response.getMessage().contains("TRACK-12345"));
 
         verify(inventoryRepository).save(any(Inventory.class));
-        verify(movementService).recordMovement(
-                eq(1L), eq(MovementType.OUTBOUND), eq(10), eq("SO-1"), anyString());
+        ArgumentCaptor<List<MovementEntry>> movements = ArgumentCaptor.forClass(List.class);
+        verify(movementService).recordMovements(movements.capture());
+        assertEquals(1, movements.getValue().size());
+        MovementEntry movement = movements.getValue().get(0);
+        assertEquals(1L, movement.inventoryId());
+        assertEquals(MovementType.OUTBOUND, movement.type());
+        assertEquals(10, movement.quantity());
+        assertEquals("SO-1", movement.referenceDocument());
         verify(shipmentService).autoCreateShipment(any(SalesOrder.class));
 
         ArgumentCaptor<SalesOrder> captor = ArgumentCaptor.forClass(SalesOrder.class);
@@ -351,8 +376,7 @@ class SalesOrderServiceTest {
         assertThrows(ResourceNotFoundException.class,
                 () -> salesOrderService.shipOrder(1L));
 
-        verify(movementService, never()).recordMovement(
-                anyLong(), any(), anyInt(), anyString(), anyString());
+        verify(movementService, never()).recordMovements(any());
     }
 
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -401,7 +425,7 @@ class SalesOrderServiceTest {
     @Test
     void cancelOrder_CreatedStatus_Success() {
         // Given
-        when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
+        when(salesOrderRepository.lockById(1L)).thenReturn(Optional.of(salesOrder));
         when(salesOrderRepository.save(any(SalesOrder.class))).thenReturn(salesOrder);
 
         // When
@@ -423,7 +447,7 @@ class SalesOrderServiceTest {
         salesOrder.setStatus(OrderStatus.RESERVED);
         inventory.setQtyReserved(10);
 
-        when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
+        when(salesOrderRepository.lockById(1L)).thenReturn(Optional.of(salesOrder));
         when(inventoryRepository.findByWarehouseIdAndProductId(1L, 1L))
                 .thenReturn(Optional.of(inventory));
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
@@ -442,7 +466,7 @@ class SalesOrderServiceTest {
     void cancelOrder_ShippedStatus_ThrowsException() {
         // Given
         salesOrder.setStatus(OrderStatus.SHIPPED);
-        when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
+        when(salesOrderRepository.lockById(1L)).thenReturn(Optional.of(salesOrder));
 
         // When & Then
         assertThrows(InvalidOperationException.class,
@@ -455,7 +479,7 @@ class SalesOrderServiceTest {
     void cancelOrder_DeliveredStatus_ThrowsException() {
         // Given
         salesOrder.setStatus(OrderStatus.DELIVERED);
-        when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
+        when(salesOrderRepository.lockById(1L)).thenReturn(Optional.of(salesOrder));
 
         // When & Then
         assertThrows(InvalidOperationException.class,
@@ -493,12 +517,32 @@ class SalesOrderServiceTest {
                 () -> salesOrderService.getSalesOrderById(999L));
 
         verify(salesOrderRepository).findById(999L);
+        verify(salesOrderArchiveService).findArchivedOrder(999L);
+    }
+
+    @Test
+    void getSalesOrderById_Archived_ReadsFromArchive() {
+        // Given
+        SalesOrderResponseDto archived = SalesOrderResponseDto.builder()
+                .id(42L)
+                .status(OrderStatus.DELIVERED)
+                .build();
+        when(salesOrderRepository.findById(42L)).thenReturn(Optional.empty());
+        when(salesOrderArchiveService.findArchivedOrder(42L)).thenReturn(Optional.of(archived));
+
+        // When
+        ApiResponse<SalesOrderResponseDto> response = salesOrderService.getSalesOrderById(42L);
+
+        // Then
+        assertEquals(42L, response.getData().getId());
+        assertEquals(OrderStatus.DELIVERED, response.getData().getStatus());
     }
 
     @Test
     void getAllSalesOrders_Success() {
         // Given
-        when(salesOrderRepository.findAll()).thenReturn(Arrays.asList(salesOrder));
+        when(salesOrderRepository.findAllSummaries()).thenReturn(Arrays.asList(orderSummary()));
+        when(salesOrderRepository.findAllLineRows()).thenReturn(Arrays.asList(lineRow(1L), lineRow(2L)));
 
         // When
         ApiResponse<List<SalesOrderResponseDto>> response =
@@ -508,14 +552,19 @@ class SalesOrderServiceTest {
         assertNotNull(response);
         assertEquals("Sales orders retrieved successfully", response.getMessage());
         assertEquals(1, response.getData().size());
-        verify(salesOrderRepository).findAll();
+        assertEquals(2, response.getData().get(0).getOrderLines().size());
+        assertEquals(new BigDecimal("40.00"), response.getData().get(0).getTotalAmount());
+        assertEquals(4, response.getData().get(0).getTotalItems());
+        verify(salesOrderRepository).findAllSummaries();
     }
 
     @Test
     void getSalesOrdersByStatus_Success() {
         // Given
-        when(salesOrderRepository.findByStatus(OrderStatus.CREATED))
-                .thenReturn(Arrays.asList(salesOrder));
+        when(salesOrderRepository.findSummariesByStatus(OrderStatus.CREATED))
+                .thenReturn(Arrays.asList(orderSummary()));
+        when(salesOrderRepository.findLineRowsByStatus(OrderStatus.CREATED))
+                .thenReturn(Arrays.asList(lineRow(1L)));
 
         // When
         ApiResponse<List<SalesOrderResponseDto>> response =
@@ -524,14 +573,15 @@ class SalesOrderServiceTest {
         // Then
         assertNotNull(response);
         assertEquals(1, response.getData().size());
-        verify(salesOrderRepository).findByStatus(OrderStatus.CREATED);
+        verify(salesOrderRepository).findSummariesByStatus(OrderStatus.CREATED);
     }
 
     @Test
     void getSalesOrdersByClient_Success() {
         // Given
         when(clientRepository.existsById(1L)).thenReturn(true);
-        when(salesOrderRepository.findByClientId(1L)).thenReturn(Arrays.asList(salesOrder));
+        when(salesOrderRepository.findSummariesByClientId(1L)).thenReturn(Arrays.asList(orderSummary()));
+        when(salesOrderRepository.findLineRowsByClientId(1L)).thenReturn(List.of());
 
         // When
         ApiResponse<List<SalesOrderResponseDto>> response =
@@ -542,7 +592,7 @@ class SalesOrderServiceTest {
         assertEquals("Client sales orders retrieved successfully", response.getMessage());
         assertEquals(1, response.getData().size());
         verify(clientRepository).existsById(1L);
-        verify(salesOrderRepository).findByClientId(1L);
+        verify(salesOrderRepository).findSummariesByClientId(1L);
     }
 
     @Test
@@ -555,7 +605,7 @@ class SalesOrderServiceTest {
                 () -> salesOrderService.getSalesOrdersByClient(999L));
 
         verify(clientRepository).existsById(999L);
-        verify(salesOrderRepository, never()).findByClientId(anyLong());
+        verify(salesOrderRepository, never()).findSummariesByClientId(anyLong());
     }
 
     @Test
@@ -571,4 +621,14 @@ class SalesOrderServiceTest {
         assertEquals(15L, response.getData());
         verify(salesOrderRepository).count();
     }
-}
\ No newline at end of file
+
+    private SalesOrderSummary orderSummary() {
+        return new SalesOrderSummary(1L, 1L, "Client", "client@test.com", null, null,
+                OrderStatus.CREATED, null, null, null, null);
+    }
+
+    private SalesOrderLineRow lineRow(Long id) {
+        return new SalesOrderLineRow(1L, id, 1L, "SKU-001", "Product", 1L, "WH-001", "Main Warehouse",
+                2, new BigDecimal("10.00"), false);
+    }
+}
@@ -5,11 +5,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
 import org.project.digital_logistics.exception.InvalidOperationException;
 import org.project.digital_logistics.model.*;
 import org.project.digital_logistics.model.enums.OrderStatus;
 import org.project.digital_logistics.repository.*;
+import org.project.digital_logistics.service.allocation.LargestFirstAllocationStrategy;
+import org.project.digital_logistics.service.allocation.WarehouseAllocator;
+import org.project.digital_logistics.service.stock.StockLedger;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -41,6 +47,16 @@ class SalesOrderStatusTransitionTest {
     @Mock
     private ShipmentService shipmentService;
 
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private WarehouseAllocator warehouseAllocator = new WarehouseAllocator(
+            List.of(new LargestFirstAllocationStrategy()), new BusinessRulesConfig(), null);
+
     @InjectMocks
     private SalesOrderService salesOrderService;
 
@@ -107,9 +123,7 @@ class SalesOrderStatusTransitionTest {
     void testTransition_CREATED_to_RESERVED() {
         when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
         when(inventoryRepository.findByProductId(1L)).thenReturn(List.of(inventory));
-        when(inventoryRepository.findByWarehouseIdAndProductId(1L, 1L))
-                .thenReturn(Optional.of(inventory));
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+        when(inventoryRepository.reserveIfAvailable(1L, 1L, 50)).thenReturn(1);
         when(salesOrderRepository.save(any(SalesOrder.class))).thenReturn(salesOrder);
 
         salesOrderService.reserveStock(1L);
@@ -158,7 +172,7 @@ class SalesOrderStatusTransitionTest {
 
     @Test
     void testTransition_CREATED_to_CANCELED() {
-        when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
+        when(salesOrderRepository.lockById(1L)).thenReturn(Optional.of(salesOrder));
         when(salesOrderRepository.save(any(SalesOrder.class))).thenReturn(salesOrder);
 
         salesOrderService.cancelOrder(1L);
@@ -171,7 +185,7 @@ class SalesOrderStatusTransitionTest {
         salesOrder.setStatus(OrderStatus.RESERVED);
         inventory.setQtyReserved(50);
 
-        when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
+        when(salesOrderRepository.lockById(1L)).thenReturn(Optional.of(salesOrder));
         when(inventoryRepository.findByWarehouseIdAndProductId(1L, 1L))
                 .thenReturn(Optional.of(inventory));
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
@@ -199,7 +213,7 @@ class SalesOrderStatusTransitionTest {
     void testInvalidTransition_SHIPPED_to_CANCELED() {
         salesOrder.setStatus(OrderStatus.SHIPPED);
 
-        when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
+        when(salesOrderRepository.lockById(1L)).thenReturn(Optional.of(salesOrder));
 
         InvalidOperationException exception = assertThrows(
                 InvalidOperationException.class,
@@ -213,7 +227,7 @@ class SalesOrderStatusTransitionTest {
     void testInvalidTransition_DELIVERED_to_CANCELED() {
         salesOrder.setStatus(OrderStatus.DELIVERED);
 
-        when(salesOrderRepository.findById(1L)).thenReturn(Optional.of(salesOrder));
+        when(salesOrderRepository.lockById(1L)).thenReturn(Optional.of(salesOrder));
 
         InvalidOperationException exception = assertThrows(
                 InvalidOperationException.class,
@@ -11,6 +11,7 @@ import org.project.digital_logistics.model.*;
 import org.project.digital_logistics.model.enums.CarrierStatus;
 import org.project.digital_logistics.model.enums.ShipmentStatus;
 import org.project.digital_logistics.repository.*;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -36,6 +37,9 @@ class ShipmentCapacitySlotTest {
     @Mock
     private CarrierService carrierService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ShipmentService shipmentService;
 
@@ -18,6 +18,8 @@ import org.project.digital_logistics.model.enums.ShipmentStatus;
 import org.project.digital_logistics.repository.CarrierRepository;
 import org.project.digital_logistics.repository.SalesOrderRepository;
 import org.project.digital_logistics.repository.ShipmentRepository;
+import org.project.digital_logistics.repository.projection.ShipmentRow;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -45,6 +47,9 @@ class ShipmentServiceTest {
     @Mock
     private CarrierService carrierService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ShipmentService shipmentService;
 
@@ -222,7 +227,7 @@ class ShipmentServiceTest {
     @Test
     void getAllShipments_Success() {
         // Given
-        when(shipmentRepository.findAll()).thenReturn(Arrays.asList(shipment));
+        when(shipmentRepository.findAllRows()).thenReturn(Arrays.asList(shipmentRow()));
 
         // When
         ApiResponse<List<ShipmentResponseDto>> response = shipmentService.getAllShipments();
@@ -230,14 +235,14 @@ class ShipmentServiceTest {
         // Then
         assertNotNull(response);
         assertEquals(1, response.getData().size());
-        verify(shipmentRepository).findAll();
+        verify(shipmentRepository).findAllRows();
     }
 
     @Test
     void getShipmentsByStatus_Success() {
         // Given
-        when(shipmentRepository.findByStatus(ShipmentStatus.PLANNED))
-                .thenReturn(Arrays.asList(shipment));
+        when(shipmentRepository.findRowsByStatus(ShipmentStatus.PLANNED))
+                .thenReturn(Arrays.asList(shipmentRow()));
 
         // When
         ApiResponse<List<ShipmentResponseDto>> response =
@@ -246,7 +251,7 @@ class ShipmentServiceTest {
         // Then
         assertNotNull(response);
         assertEquals(1, response.getData().size());
-        verify(shipmentRepository).findByStatus(ShipmentStatus.PLANNED);
+        verify(shipmentRepository).findRowsByStatus(ShipmentStatus.PLANNED);
     }
 
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -519,7 +524,7 @@ class ShipmentServiceTest {
     void getShipmentsByCarrier_Success() {
         // Given
         when(carrierRepository.existsById(1L)).thenReturn(true);
-        when(shipmentRepository.findByCarrierId(1L)).thenReturn(Arrays.asList(shipment));
+        when(shipmentRepository.findRowsByCarrierId(1L)).thenReturn(Arrays.asList(shipmentRow()));
 
         // When
         ApiResponse<List<ShipmentResponseDto>> response =
@@ -529,7 +534,7 @@ class ShipmentServiceTest {
         assertNotNull(response);
         assertEquals(1, response.getData().size());
         verify(carrierRepository).existsById(1L);
-        verify(shipmentRepository).findByCarrierId(1L);
+        verify(shipmentRepository).findRowsByCarrierId(1L);
     }
 
     @Test
@@ -561,8 +566,7 @@ class ShipmentServiceTest {
     @Test
     void countShipmentsByStatus_Success() {
         // Given
-        when(shipmentRepository.findByStatus(ShipmentStatus.IN_TRANSIT))
-                .thenReturn(Arrays.asList(shipment, shipment));
+        when(shipmentRepository.countByStatus(ShipmentStatus.IN_TRANSIT)).thenReturn(2L);
 
         // When
         ApiResponse<Long> response =
@@ -571,6 +575,13 @@ class ShipmentServiceTest {
         // Then
         assertNotNull(response);
         assertEquals(2L, response.getData());
-        verify(shipmentRepository).findByStatus(ShipmentStatus.IN_TRANSIT);
+        verify(shipmentRepository).countByStatus(ShipmentStatus.IN_TRANSIT);
+        verify(shipmentRepository, never()).findByStatus(any());
+    }
+
+    // Shipment not yet assigned: the carrier columns of the projection are null
+    private ShipmentRow shipmentRow() {
+        return new ShipmentRow(1L, 1L, "Client", "client@test.com", null, null, null, null, null,
+                "TRK-001", ShipmentStatus.PLANNED, null, null, null, null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package org.project.digital_logistics.service.allocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AllocationStrategyTest {
+
+    private final List<WarehouseStock> candidates = List.of(
+            new WarehouseStock(1L, 100, 1000),
+            new WarehouseStock(2L, 40, 50),
+            new WarehouseStock(3L, 60, 2000)
+    );
+
+    private static List<Long> ids(List<WarehouseStock> ranked) {
+        return ranked.stream().map(WarehouseStock::warehouseId).toList();
+    }
+
+    @Test
+    void largestFirst_RanksByAvailableDescending() {
+        List<WarehouseStock> ranked = new LargestFirstAllocationStrategy().rank(candidates, 50);
+
+        assertEquals(List.of(1L, 3L, 2L), ids(ranked));
+    }
+
+    @Test
+    void fewestSplits_PicksSmallestWarehouseCoveringTheQuantity() {
+        List<WarehouseStock> ranked = new FewestSplitsAllocationStrategy().rank(candidates, 50);
+
+        assertEquals(List.of(3L, 1L, 2L), ids(ranked));
+        assertEquals(List.of(new WarehouseAllocation(3L, 50)), AllocationStrategy.plan(ranked, 50));
+    }
+
+    @Test
+    void fewestSplits_FallsBackToLargestFirstWhenNoWarehouseCovers() {
+        List<WarehouseStock> ranked = new FewestSplitsAllocationStrategy().rank(candidates, 150);
+
+        assertEquals(List.of(1L, 3L, 2L), ids(ranked));
+        assertEquals(2, AllocationStrategy.plan(ranked, 150).size());
+    }
+
+    @Test
+    void capacityAware_PrefersFullestCoveringWarehouse() {
+        List<WarehouseStock> ranked = new CapacityAwareAllocationStrategy().rank(candidates, 30);
+
+        // 40/50 full, then 100/1000, then 60/2000
+        assertEquals(List.of(2L, 1L, 3L), ids(ranked));
+    }
+
+    @Test
+    void capacityAware_CoveringWarehousesComeFirst() {
+        List<WarehouseStock> ranked = new CapacityAwareAllocationStrategy().rank(candidates, 50);
+
+        assertEquals(List.of(1L, 3L, 2L), ids(ranked));
+    }
+
+    @Test
+    void plan_ReturnsEmptyWhenStockIsShort() {
+        assertTrue(AllocationStrategy.plan(candidates, 201).isEmpty());
+    }
+}
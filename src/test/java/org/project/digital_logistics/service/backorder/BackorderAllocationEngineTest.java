@@ -0,0 +1,90 @@
+package org.project.digital_logistics.service.backorder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.event.StockReceivedEvent;
+import org.project.digital_logistics.exception.InsufficientStockException;
+import org.project.digital_logistics.model.enums.OrderStatus;
+import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.repository.SalesOrderRepository;
+import org.project.digital_logistics.repository.projection.BackorderDemand;
+import org.project.digital_logistics.service.SalesOrderService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BackorderAllocationEngineTest {
+
+    @Mock
+    private SalesOrderRepository salesOrderRepository;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private SalesOrderService salesOrderService;
+
+    @InjectMocks
+    private BackorderAllocationEngine engine;
+
+    @Test
+    void allocate_ServesOrdersFifoUntilStockRunsOut() {
+        when(salesOrderRepository.findDemandForProduct(OrderStatus.BACKORDER, 1L)).thenReturn(List.of(
+                new BackorderDemand(1L, 30L),
+                new BackorderDemand(2L, 50L),
+                new BackorderDemand(3L, 10L)));
+        when(inventoryRepository.getAvailableStockByProduct(1L)).thenReturn(40);
+        when(salesOrderService.reserveBackorderedOrder(anyLong())).thenReturn(true);
+
+        int reserved = engine.allocate(1L);
+
+        // 30 for the oldest, the middle one needs 50 > 10 left and is skipped, the newest fits
+        assertEquals(2, reserved);
+        InOrder inOrder = inOrder(salesOrderService);
+        inOrder.verify(salesOrderService).reserveBackorderedOrder(1L);
+        inOrder.verify(salesOrderService).reserveBackorderedOrder(3L);
+        verify(salesOrderService, never()).reserveBackorderedOrder(2L);
+    }
+
+    @Test
+    void allocate_OrderStillMissingAnotherProductDoesNotConsumeStock() {
+        when(salesOrderRepository.findDemandForProduct(OrderStatus.BACKORDER, 1L)).thenReturn(List.of(
+                new BackorderDemand(1L, 30L),
+                new BackorderDemand(2L, 30L)));
+        when(inventoryRepository.getAvailableStockByProduct(1L)).thenReturn(30);
+        when(salesOrderService.reserveBackorderedOrder(1L)).thenReturn(false);
+        when(salesOrderService.reserveBackorderedOrder(2L)).thenReturn(true);
+
+        assertEquals(1, engine.allocate(1L));
+    }
+
+    @Test
+    void allocate_StockTakenConcurrently_OrderStaysInBackorder() {
+        when(salesOrderRepository.findDemandForProduct(OrderStatus.BACKORDER, 1L)).thenReturn(List.of(
+                new BackorderDemand(1L, 30L),
+                new BackorderDemand(2L, 10L)));
+        when(inventoryRepository.getAvailableStockByProduct(1L)).thenReturn(40);
+        when(salesOrderService.reserveBackorderedOrder(1L))
+                .thenThrow(new InsufficientStockException("Cannot reserve stock for product: Dell Laptop"));
+        when(salesOrderService.reserveBackorderedOrder(2L)).thenReturn(true);
+
+        assertEquals(1, engine.allocate(1L));
+    }
+
+    @Test
+    void onStockReceived_NoWaitingOrders_DoesNothing() {
+        when(salesOrderRepository.findDemandForProduct(OrderStatus.BACKORDER, 1L)).thenReturn(List.of());
+
+        engine.onStockReceived(new StockReceivedEvent(1L, 1L, 100));
+
+        verifyNoInteractions(inventoryRepository, salesOrderService);
+    }
+}
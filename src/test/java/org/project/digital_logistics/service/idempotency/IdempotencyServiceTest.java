@@ -0,0 +1,173 @@
+package org.project.digital_logistics.service.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.exception.DuplicateResourceException;
+import org.project.digital_logistics.exception.InvalidOperationException;
+import org.project.digital_logistics.model.IdempotencyRecord;
+import org.project.digital_logistics.repository.IdempotencyRecordRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String KEY = "client@test.com|POST|/api/sales-orders|abc-123";
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, new BusinessRulesConfig());
+    }
+
+    private StoredResponse created() {
+        executions.incrementAndGet();
+        return new StoredResponse(null, 201, "application/json",
+                "{\"success\":true,\"data\":{\"id\":1}}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void execute_FirstCallRunsThenRetriesReplayFromCache() {
+        IdempotencyService.Result first = idempotencyService.execute(KEY, "hash", this::created);
+        IdempotencyService.Result retry = idempotencyService.execute(KEY, "hash", this::created);
+
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.response().status());
+        assertArrayEquals(first.response().body(), retry.response().body());
+        verify(idempotencyRecordRepository).saveAndFlush(any(IdempotencyRecord.class));
+        verify(idempotencyRecordRepository).complete(eq(KEY), eq(201), eq("application/json"), any());
+        verify(idempotencyRecordRepository, times(1)).findById(KEY);
+    }
+
+    @Test
+    void execute_SameKeyDifferentPayload_Rejected() {
+        idempotencyService.execute(KEY, "hash", this::created);
+
+        assertThrows(InvalidOperationException.class,
+                () -> idempotencyService.execute(KEY, "other-hash", this::created));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_CompletedInDatabase_ReplaysWithoutRunning() {
+        when(idempotencyRecordRepository.findById(KEY)).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .id(KEY).requestHash("hash").statusCode(201).contentType("application/json")
+                .responseBody(new byte[]{1, 2, 3})
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build()));
+
+        IdempotencyService.Result result = idempotencyService.execute(KEY, "hash", this::created);
+
+        assertTrue(result.replayed());
+        assertArrayEquals(new byte[]{1, 2, 3}, result.response().body());
+        assertEquals(0, executions.get());
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void execute_PendingInDatabase_Conflict() {
+        when(idempotencyRecordRepository.findById(KEY)).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .id(KEY).requestHash("hash").expiresAt(LocalDateTime.now().plusHours(1))
+                .lockedUntil(LocalDateTime.now().plusMinutes(1)).build()));
+
+        assertThrows(DuplicateResourceException.class,
+                () -> idempotencyService.execute(KEY, "hash", this::created));
+        assertEquals(0, executions.get());
+        verify(idempotencyRecordRepository, never()).takeOver(any(), any(), any(), any());
+    }
+
+    @Test
+    void execute_PendingLeaseExpired_RetryTakesKeyOver() {
+        when(idempotencyRecordRepository.findById(KEY)).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .id(KEY).requestHash("hash").expiresAt(LocalDateTime.now().plusHours(1))
+                .lockedUntil(LocalDateTime.now().minusSeconds(1)).build()));
+        when(idempotencyRecordRepository.takeOver(eq(KEY), eq("hash"), any(), any())).thenReturn(1);
+
+        IdempotencyService.Result result = idempotencyService.execute(KEY, "hash", this::created);
+
+        assertFalse(result.replayed());
+        assertEquals(1, executions.get());
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any());
+        verify(idempotencyRecordRepository).complete(eq(KEY), eq(201), eq("application/json"), any());
+    }
+
+    @Test
+    void execute_PendingLeaseTakenOverByAnotherRetry_Conflict() {
+        IdempotencyRecord pending = IdempotencyRecord.builder()
+                .id(KEY).requestHash("hash").expiresAt(LocalDateTime.now().plusHours(1))
+                .lockedUntil(LocalDateTime.now().minusSeconds(1)).build();
+        IdempotencyRecord takenOver = IdempotencyRecord.builder()
+                .id(KEY).requestHash("hash").expiresAt(LocalDateTime.now().plusHours(1))
+                .lockedUntil(LocalDateTime.now().plusMinutes(2)).build();
+        when(idempotencyRecordRepository.findById(KEY)).thenReturn(Optional.of(pending), Optional.of(takenOver));
+        when(idempotencyRecordRepository.takeOver(eq(KEY), eq("hash"), any(), any())).thenReturn(0);
+
+        assertThrows(DuplicateResourceException.class,
+                () -> idempotencyService.execute(KEY, "hash", this::created));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void execute_ServerError_NotStored() {
+        IdempotencyService.Result failed = idempotencyService.execute(KEY, "hash",
+                () -> new StoredResponse(null, 500, "application/json", new byte[0]));
+        IdempotencyService.Result retry = idempotencyService.execute(KEY, "hash", this::created);
+
+        assertEquals(500, failed.response().status());
+        assertFalse(retry.replayed());
+        assertEquals(1, executions.get());
+        verify(idempotencyRecordRepository).deleteById(KEY);
+    }
+
+    @Test
+    void execute_ConcurrentDuplicates_ShareOneExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotencyService.Result> original = executor.submit(() ->
+                    idempotencyService.execute(KEY, "hash", () -> {
+                        started.countDown();
+                        release.await(5, TimeUnit.SECONDS);
+                        return created();
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<IdempotencyService.Result> duplicate = executor.submit(() ->
+                    idempotencyService.execute(KEY, "hash", this::created));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertFalse(original.get(5, TimeUnit.SECONDS).replayed());
+            assertTrue(duplicate.get(5, TimeUnit.SECONDS).replayed());
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
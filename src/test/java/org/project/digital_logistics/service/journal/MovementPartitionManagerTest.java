@@ -0,0 +1,121 @@
+package org.project.digital_logistics.service.journal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.service.journal.MovementPartitionManager.Maintenance;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovementPartitionManagerTest {
+
+    private static final YearMonth CURRENT = YearMonth.of(2026, 10);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BusinessRulesConfig config;
+    private MovementPartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        config = new BusinessRulesConfig();
+        config.setMovementPartitionsAhead(2);
+        config.setMovementRetentionMonths(24);
+        partitionManager = new MovementPartitionManager(jdbcTemplate, transactionManager, config);
+    }
+
+    @Test
+    void maintain_CreatesMissingMonthsAndRollsUpExpiredOnes() {
+        // Given
+        givenPartitioned(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq(MovementPartitionManager.TABLE)))
+                .thenReturn(List.of("inventory_movements_p2024_09", "inventory_movements_p2024_10",
+                        "inventory_movements_p2026_10", "inventory_movements_default"));
+
+        // When
+        Maintenance maintenance = partitionManager.maintain(CURRENT);
+
+        // Then
+        assertEquals(2, maintenance.created());
+        assertEquals(1, maintenance.dropped());
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS inventory_movements_p2026_11 PARTITION OF " +
+                "inventory_movements FOR VALUES FROM ('2026-11-01') TO ('2026-12-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS inventory_movements_p2026_12 PARTITION OF " +
+                "inventory_movements FOR VALUES FROM ('2026-12-01') TO ('2027-01-01')");
+
+        InOrder drop = inOrder(jdbcTemplate);
+        drop.verify(jdbcTemplate).update(contains("FROM inventory_movements_p2024_09"), eq(LocalDate.of(2024, 9, 1)));
+        drop.verify(jdbcTemplate).execute("ALTER TABLE inventory_movements DETACH PARTITION inventory_movements_p2024_09");
+        drop.verify(jdbcTemplate).execute("DROP TABLE inventory_movements_p2024_09");
+        verify(jdbcTemplate, never()).execute(contains("p2024_10"));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void maintain_RollupDisabled_DropsWithoutSummary() {
+        // Given
+        config.setMovementRollupEnabled(false);
+        givenPartitioned(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq(MovementPartitionManager.TABLE)))
+                .thenReturn(List.of("inventory_movements_p2020_01", "inventory_movements_p2026_10",
+                        "inventory_movements_p2026_11", "inventory_movements_p2026_12"));
+
+        // When
+        Maintenance maintenance = partitionManager.maintain(CURRENT);
+
+        // Then
+        assertEquals(0, maintenance.created());
+        assertEquals(1, maintenance.dropped());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(jdbcTemplate).execute("DROP TABLE inventory_movements_p2020_01");
+    }
+
+    @Test
+    void maintain_TableNotPartitioned_DoesNothing() {
+        // Given
+        givenPartitioned(false);
+
+        // When
+        Maintenance maintenance = partitionManager.maintain(CURRENT);
+
+        // Then
+        assertEquals(new Maintenance(0, 0), maintenance);
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void retainedSince_StartOfOldestKeptMonthOnlyWhenPartitionsAreDropped() {
+        // Given partitioning disabled, nothing is ever dropped
+        assertNull(partitionManager.retainedSince());
+
+        // When
+        config.setMovementPartitioningEnabled(true);
+
+        // Then
+        assertEquals(YearMonth.now().minusMonths(24).atDay(1).atStartOfDay(), partitionManager.retainedSince());
+        config.setMovementRetentionMonths(0);
+        assertNull(partitionManager.retainedSince());
+    }
+
+    private void givenPartitioned(boolean partitioned) {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(MovementPartitionManager.TABLE)))
+                .thenReturn(partitioned ? 1 : 0);
+    }
+}
@@ -0,0 +1,229 @@
+package org.project.digital_logistics.service.journal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.dto.stats.MovementJournalStatsDto;
+import org.project.digital_logistics.model.Inventory;
+import org.project.digital_logistics.model.InventoryMovement;
+import org.project.digital_logistics.model.enums.MovementType;
+import org.project.digital_logistics.repository.InventoryMovementRepository;
+import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.service.InventoryMovementService.MovementEntry;
+import org.project.digital_logistics.service.journal.MovementWriteBehind.PendingMovement;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovementWriteBehindTest {
+
+    @Mock
+    private InventoryMovementRepository movementRepository;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path spillDirectory;
+
+    private BusinessRulesConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new BusinessRulesConfig();
+        config.setMovementBufferSize(3);
+        config.setMovementOfferTimeoutMs(0L);
+        config.setMovementSpillDirectory(spillDirectory.toString());
+    }
+
+    @Test
+    void flush_WritesBufferedMovementsInOneTransaction() throws IOException {
+        // Given
+        when(inventoryRepository.getReferenceById(anyLong()))
+                .thenAnswer(invocation -> Inventory.builder().id(invocation.getArgument(0)).build());
+        MovementWriteBehind writeBehind = openWriteBehind();
+        LocalDateTime occurredAt = LocalDateTime.of(2025, 1, 15, 10, 30);
+
+        // When
+        List<PendingMovement> rejected = writeBehind.offer(pending(2, occurredAt));
+        int written = writeBehind.flush();
+
+        // Then
+        assertTrue(rejected.isEmpty());
+        assertEquals(2, written);
+
+        ArgumentCaptor<List<InventoryMovement>> captor = ArgumentCaptor.forClass(List.class);
+        verify(movementRepository).saveAll(captor.capture());
+        verify(transactionManager).commit(any());
+        assertEquals(2, captor.getValue().size());
+        assertEquals(1L, captor.getValue().get(0).getInventory().getId());
+        assertEquals(occurredAt, captor.getValue().get(0).getOccurredAt());
+
+        MovementJournalStatsDto stats = writeBehind.getStats();
+        assertEquals(0, stats.getQueueDepth());
+        assertEquals(2, stats.getEnqueued());
+        assertEquals(2, stats.getFlushed());
+        assertEquals(1, stats.getFlushes());
+        assertEquals(1, spillFiles().size());
+    }
+
+    @Test
+    void offer_BufferFull_ReturnsOverflowToCaller() throws IOException {
+        // Given
+        MovementWriteBehind writeBehind = openWriteBehind();
+
+        // When
+        List<PendingMovement> rejected = writeBehind.offer(pending(5, LocalDateTime.now()));
+
+        // Then
+        assertEquals(2, rejected.size());
+        assertEquals(4L, rejected.get(0).entry().inventoryId());
+        assertEquals(3, writeBehind.getStats().getQueueDepth());
+        assertEquals(3, writeBehind.getStats().getEnqueued());
+        verify(movementRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void open_ReplaysUnflushedSpillAfterCrash() throws IOException {
+        // Given: movements accepted, then the process dies before any flush
+        MovementWriteBehind crashed = openWriteBehind();
+        crashed.offer(pending(3, LocalDateTime.now()));
+
+        when(inventoryRepository.getReferenceById(anyLong()))
+                .thenAnswer(invocation -> Inventory.builder().id(invocation.getArgument(0)).build());
+
+        // When
+        MovementWriteBehind restarted = openWriteBehind();
+
+        // Then
+        ArgumentCaptor<List<InventoryMovement>> captor = ArgumentCaptor.forClass(List.class);
+        verify(movementRepository).saveAll(captor.capture());
+        assertEquals(3, captor.getValue().size());
+        assertEquals(MovementType.OUTBOUND, captor.getValue().get(2).getType());
+        assertEquals(3, restarted.getStats().getFlushed());
+        assertEquals(1, spillFiles().size());
+    }
+
+    @Test
+    void flush_Failure_KeepsSegmentAndRetriesNextFlush() throws IOException {
+        // Given
+        when(inventoryRepository.getReferenceById(anyLong()))
+                .thenAnswer(invocation -> Inventory.builder().id(invocation.getArgument(0)).build());
+        when(movementRepository.saveAll(anyList()))
+                .thenThrow(new RuntimeException("connection refused"))
+                .thenReturn(List.of());
+        MovementWriteBehind writeBehind = openWriteBehind();
+        writeBehind.offer(pending(2, LocalDateTime.now()));
+
+        // When
+        int firstFlush = writeBehind.flush();
+        int retry = writeBehind.flush();
+
+        // Then
+        assertEquals(0, firstFlush);
+        assertEquals(2, retry);
+        verify(movementRepository, times(2)).saveAll(anyList());
+        assertEquals(1, writeBehind.getStats().getFailedFlushes());
+        assertEquals(2, writeBehind.getStats().getFlushed());
+        assertEquals(1, spillFiles().size());
+    }
+
+    @Test
+    void submit_SpillsBeforeCommitAndDropsSegmentOnRollback() throws IOException {
+        // Given
+        MovementWriteBehind writeBehind = openWriteBehind();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writeBehind.submit(entries(2), LocalDateTime.now());
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+            // When
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            int spilledBeforeCommit = spillFiles().size();
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Then: the commit segment sits next to the current one until the rollback
+            assertEquals(2, spilledBeforeCommit);
+            assertEquals(1, spillFiles().size());
+            assertEquals(0, writeBehind.getStats().getEnqueued());
+            verify(movementRepository, never()).saveAll(anyList());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void open_ReplaysMovementsOfATransactionCommittedRightBeforeACrash() throws IOException {
+        // Given: spilled in beforeCommit, then the process dies before afterCompletion
+        MovementWriteBehind crashed = openWriteBehind();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            crashed.submit(entries(2), LocalDateTime.now());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.beforeCommit(false));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        when(inventoryRepository.getReferenceById(anyLong()))
+                .thenAnswer(invocation -> Inventory.builder().id(invocation.getArgument(0)).build());
+
+        // When
+        MovementWriteBehind restarted = openWriteBehind();
+
+        // Then
+        ArgumentCaptor<List<InventoryMovement>> captor = ArgumentCaptor.forClass(List.class);
+        verify(movementRepository).saveAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals(2, restarted.getStats().getFlushed());
+        assertEquals(1, spillFiles().size());
+    }
+
+    private MovementWriteBehind openWriteBehind() throws IOException {
+        MovementWriteBehind writeBehind =
+                new MovementWriteBehind(movementRepository, inventoryRepository, config, transactionManager);
+        writeBehind.open();
+        return writeBehind;
+    }
+
+    private List<PendingMovement> pending(int count, LocalDateTime occurredAt) {
+        return entries(count).stream()
+                .map(entry -> new PendingMovement(entry, occurredAt))
+                .toList();
+    }
+
+    private List<MovementEntry> entries(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> new MovementEntry((long) i, 1L, (long) i, MovementType.OUTBOUND, i * 10, "SO-1", "Sales order shipment"))
+                .toList();
+    }
+
+    private List<Path> spillFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            return files.toList();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.project.digital_logistics.service.listing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.dto.CursorPageDto;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class KeysetListingTest {
+
+    private KeysetListing keysetListing;
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        BusinessRulesConfig config = new BusinessRulesConfig();
+        config.setListPageSize(2);
+        config.setMaxListPageSize(3);
+        config.setStreamChunkSize(2);
+
+        entityManager = mock(EntityManager.class);
+        keysetListing = new KeysetListing(config, new ObjectMapper());
+        ReflectionTestUtils.setField(keysetListing, "entityManager", entityManager);
+    }
+
+    @Test
+    void limit_DefaultsAndCaps() {
+        assertEquals(2, keysetListing.limit(null));
+        assertEquals(2, keysetListing.limit(0));
+        assertEquals(1, keysetListing.limit(1));
+        assertEquals(3, keysetListing.limit(1000));
+        assertEquals(4, keysetListing.window(3).getPageSize());
+    }
+
+    @Test
+    void page_WithExtraRow_ReturnsCursorOfLastItem() {
+        CursorPageDto<String> page = keysetListing.page(List.of(10L, 20L, 30L), 2, Function.identity(), id -> "row" + id);
+
+        assertEquals(List.of("row10", "row20"), page.getItems());
+        assertTrue(page.isHasMore());
+        assertEquals(20L, page.getNextCursor());
+    }
+
+    @Test
+    void page_LastPage_HasNoCursor() {
+        CursorPageDto<String> page = keysetListing.page(List.of(10L, 20L), 2, Function.identity(), id -> "row" + id);
+
+        assertEquals(2, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void writeNdjson_OneLinePerRow_ClearsEveryChunk() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = keysetListing.writeNdjson(out, Stream.of(1L, 2L, 3L, 4L, 5L), id -> Map.of("id", id));
+
+        assertEquals(5, written);
+        assertEquals("{\"id\":1}\n{\"id\":2}\n{\"id\":3}\n{\"id\":4}\n{\"id\":5}\n",
+                out.toString(StandardCharsets.UTF_8));
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void writeNdjsonInChunks_LoadsEachChunkOnce() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<List<Long>> loaded = new ArrayList<>();
+
+        long written = keysetListing.writeNdjsonInChunks(out, Stream.of(1L, 2L, 3L),
+                ids -> {
+                    loaded.add(List.copyOf(ids));
+                    return ids;
+                },
+                id -> Map.of("id", id));
+
+        assertEquals(3, written);
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)), loaded);
+        assertEquals("{\"id\":1}\n{\"id\":2}\n{\"id\":3}\n", out.toString(StandardCharsets.UTF_8));
+        verify(entityManager, times(2)).clear();
+    }
+}
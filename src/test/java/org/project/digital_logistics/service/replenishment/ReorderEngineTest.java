@@ -0,0 +1,173 @@
+package org.project.digital_logistics.service.replenishment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.dto.inventory.ShipmentVelocityDto;
+import org.project.digital_logistics.model.Supplier;
+import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.repository.ProductRepository;
+import org.project.digital_logistics.repository.PurchaseOrderLineRepository;
+import org.project.digital_logistics.repository.SupplierRepository;
+import org.project.digital_logistics.repository.projection.OpenPurchaseQuantity;
+import org.project.digital_logistics.repository.projection.ProductSupplier;
+import org.project.digital_logistics.repository.projection.ReorderCandidate;
+import org.project.digital_logistics.repository.projection.StockLevel;
+import org.project.digital_logistics.service.replenishment.ReorderEngine.ReorderLine;
+import org.project.digital_logistics.service.replenishment.ReorderEngine.ReorderRun;
+import org.project.digital_logistics.service.stock.ShipmentVelocityTracker;
+import org.project.digital_logistics.service.stock.StockLedger;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReorderEngineTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PurchaseOrderLineRepository purchaseOrderLineRepository;
+
+    @Mock
+    private SupplierRepository supplierRepository;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private ShipmentVelocityTracker velocityTracker;
+
+    @Mock
+    private PurchaseOrderDraftWriter draftWriter;
+
+    @Spy
+    private BusinessRulesConfig businessRulesConfig = new BusinessRulesConfig();
+
+    @InjectMocks
+    private ReorderEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        // Reorder point at 10 days of shipments, orders up to 24 days; one product per task
+        businessRulesConfig.setReorderLeadTimeDays(7);
+        businessRulesConfig.setReorderSafetyStockDays(3);
+        businessRulesConfig.setReorderCoverDays(14);
+        businessRulesConfig.setReorderParallelism(2);
+        businessRulesConfig.setReorderChunkSize(1);
+    }
+
+    private void givenProducts(Long... productIds) {
+        when(velocityTracker.isReady()).thenReturn(true);
+        when(productRepository.findReorderCandidates()).thenReturn(
+                Arrays.stream(productIds).map(id -> new ReorderCandidate(id, 12L)).toList());
+    }
+
+    @Test
+    void run_OrdersUpToTargetOnlyAtOrBelowTheReorderPoint() {
+        // Given
+        givenProducts(1L, 2L, 3L);
+        when(stockLedger.isReady()).thenReturn(true);
+        when(purchaseOrderLineRepository.sumQuantityByProduct(ReorderEngine.OPEN_STATUSES))
+                .thenReturn(List.of(new OpenPurchaseQuantity(1L, 20L)));
+        when(purchaseOrderLineRepository.findProductSuppliers())
+                .thenReturn(List.of(new ProductSupplier(1L, 5L, 40L), new ProductSupplier(2L, 5L, 40L)));
+        when(supplierRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(Supplier.builder().id(5L).build()));
+        when(velocityTracker.velocity(eq(1L), isNull())).thenReturn(velocity(10.0));
+        when(velocityTracker.velocity(eq(2L), isNull())).thenReturn(velocity(10.0));
+        when(velocityTracker.velocity(eq(3L), isNull())).thenReturn(velocity(0.0));
+        when(stockLedger.availableStock(1L)).thenReturn(Optional.of(50));
+        when(stockLedger.availableStock(2L)).thenReturn(Optional.of(200));
+        when(draftWriter.createDrafts(any(), any())).thenReturn(1);
+
+        // When
+        ReorderRun run = engine.run();
+
+        // Then: 50 available + 20 on order <= 100, ordered up to 240; 200 > 100 is not ordered
+        verify(draftWriter).createDrafts(eq(Map.of(5L, List.of(line(5L, 1L, 170)))), any());
+        assertEquals(new ReorderRun(3, 1, 1, 1), run);
+    }
+
+    @Test
+    void run_ConsolidatesOneOrderPerLatestSupplier() {
+        // Given
+        givenProducts(1L, 2L, 3L, 4L);
+        when(stockLedger.isReady()).thenReturn(false);
+        when(inventoryRepository.findAllStockLevels())
+                .thenReturn(List.of(new StockLevel(1L, 1L, 3, 3), new StockLevel(2L, 4L, 30, 0)));
+        when(purchaseOrderLineRepository.sumQuantityByProduct(ReorderEngine.OPEN_STATUSES)).thenReturn(List.of());
+        when(purchaseOrderLineRepository.findProductSuppliers()).thenReturn(List.of(
+                new ProductSupplier(1L, 5L, 10L),
+                new ProductSupplier(1L, 6L, 20L),
+                new ProductSupplier(2L, 5L, 15L),
+                new ProductSupplier(4L, 6L, 15L)));
+        when(supplierRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(Supplier.builder().id(9L).build()));
+        when(velocityTracker.velocity(anyLong(), isNull())).thenReturn(velocity(1.0));
+        when(draftWriter.createDrafts(any(), any())).thenReturn(3);
+
+        // When
+        ReorderRun run = engine.run();
+
+        // Then: product 3 was never ordered and goes to the first supplier, product 4 has 30 > 10
+        verify(draftWriter).createDrafts(eq(Map.of(
+                5L, List.of(line(5L, 2L, 24)),
+                6L, List.of(line(6L, 1L, 24)),
+                9L, List.of(line(9L, 3L, 24)))), any());
+        verify(stockLedger, never()).availableStock(anyLong());
+        assertEquals(new ReorderRun(4, 3, 3, 3), run);
+    }
+
+    @Test
+    void run_NoSupplier_CreatesNothing() {
+        // Given
+        givenProducts(1L);
+        when(stockLedger.isReady()).thenReturn(true);
+        when(supplierRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.empty());
+        when(velocityTracker.velocity(eq(1L), isNull())).thenReturn(velocity(1.0));
+        when(stockLedger.availableStock(1L)).thenReturn(Optional.of(0));
+
+        // When
+        ReorderRun run = engine.run();
+
+        // Then
+        verify(draftWriter).createDrafts(eq(Map.of()), any());
+        assertEquals(new ReorderRun(1, 1, 0, 0), run);
+    }
+
+    @Test
+    void run_VelocityNotRebuilt_Skipped() {
+        // Given
+        when(velocityTracker.isReady()).thenReturn(false);
+
+        // When
+        ReorderRun run = engine.run();
+
+        // Then
+        assertEquals(new ReorderRun(0, 0, 0, 0), run);
+        verifyNoInteractions(productRepository, purchaseOrderLineRepository, draftWriter);
+    }
+
+    private static ShipmentVelocityDto velocity(double perDay) {
+        return ShipmentVelocityDto.builder().averagePerDay30Days(perDay).build();
+    }
+
+    private static ReorderLine line(Long supplierId, Long productId, int quantity) {
+        return new ReorderLine(supplierId, productId, quantity, BigDecimal.valueOf(12L));
+    }
+}
@@ -0,0 +1,97 @@
+package org.project.digital_logistics.service.retry;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.dto.stats.ConflictRetryStatsDto;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConflictRetryAspectTest {
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    private BusinessRulesConfig config;
+    private ConflictRetryAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        config = new BusinessRulesConfig();
+        config.setConflictRetryMaxAttempts(3);
+        config.setConflictRetryBaseDelayMs(0L);
+        aspect = new ConflictRetryAspect(config);
+    }
+
+    @Test
+    void retry_ConflictThenSuccess_ReturnsResultOfNextAttempt() throws Throwable {
+        // Given
+        when(joinPoint.proceed()).thenThrow(conflict()).thenReturn("done");
+
+        // When
+        Object result = aspect.retry(joinPoint);
+
+        // Then
+        assertEquals("done", result);
+        verify(joinPoint, times(2)).proceed();
+        ConflictRetryStatsDto stats = aspect.getStats();
+        assertEquals(1, stats.getConflicts());
+        assertEquals(1, stats.getRetries());
+        assertEquals(1, stats.getRecovered());
+        assertEquals(0, stats.getExhausted());
+    }
+
+    @Test
+    void retry_ConflictOnEveryAttempt_GivesUpAfterMaxAttempts() throws Throwable {
+        // Given
+        when(joinPoint.proceed()).thenThrow(conflict());
+        when(joinPoint.getSignature()).thenReturn(mock(Signature.class));
+
+        // When & Then
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> aspect.retry(joinPoint));
+        verify(joinPoint, times(3)).proceed();
+        ConflictRetryStatsDto stats = aspect.getStats();
+        assertEquals(3, stats.getConflicts());
+        assertEquals(2, stats.getRetries());
+        assertEquals(1, stats.getExhausted());
+    }
+
+    @Test
+    void retry_OtherException_IsNotRetried() throws Throwable {
+        // Given
+        when(joinPoint.proceed()).thenThrow(new IllegalArgumentException("bad quantity"));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> aspect.retry(joinPoint));
+        verify(joinPoint, times(1)).proceed();
+        assertEquals(0, aspect.getStats().getConflicts());
+    }
+
+    @Test
+    void retry_InsideRunningTransaction_LeavesConflictToOutermostCall() throws Throwable {
+        // Given
+        when(joinPoint.proceed()).thenThrow(conflict());
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // When & Then
+        try {
+            assertThrows(ObjectOptimisticLockingFailureException.class, () -> aspect.retry(joinPoint));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        verify(joinPoint, times(1)).proceed();
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException("Inventory", 1L);
+    }
+}
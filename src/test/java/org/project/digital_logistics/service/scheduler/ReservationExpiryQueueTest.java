@@ -0,0 +1,80 @@
+package org.project.digital_logistics.service.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.event.SalesOrderReservedEvent;
+import org.project.digital_logistics.model.enums.OrderStatus;
+import org.project.digital_logistics.repository.SalesOrderRepository;
+import org.project.digital_logistics.repository.projection.ExpiredReservation;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExpiryQueueTest {
+
+    @Mock
+    private SalesOrderRepository salesOrderRepository;
+
+    @Mock
+    private SalesOrderValidationScheduler validationScheduler;
+
+    @Mock
+    private BusinessRulesConfig businessRulesConfig;
+
+    @InjectMocks
+    private ReservationExpiryQueue expiryQueue;
+
+    @BeforeEach
+    void setUp() {
+        when(businessRulesConfig.getReservationTtlHours()).thenReturn(24);
+        lenient().when(businessRulesConfig.getReservationExpiryChunkSize()).thenReturn(500);
+    }
+
+    @Test
+    void expireDue_CancelsOnlyReservationsPastTheirDeadline() {
+        expiryQueue.onSalesOrderReserved(new SalesOrderReservedEvent(1L, LocalDateTime.now().minusHours(25)));
+        expiryQueue.onSalesOrderReserved(new SalesOrderReservedEvent(2L, LocalDateTime.now().minusHours(24).minusSeconds(1)));
+        expiryQueue.onSalesOrderReserved(new SalesOrderReservedEvent(3L, LocalDateTime.now().minusHours(23)));
+        when(validationScheduler.cancelExpiredOrders(List.of(1L, 2L))).thenReturn(2);
+
+        assertEquals(2, expiryQueue.expireDue());
+        assertEquals(1, expiryQueue.size());
+    }
+
+    @Test
+    void expireDue_FailedCancellationIsRetried() {
+        expiryQueue.onSalesOrderReserved(new SalesOrderReservedEvent(1L, LocalDateTime.now().minusHours(25)));
+        when(validationScheduler.cancelExpiredOrders(List.of(1L))).thenThrow(new IllegalStateException("db down"));
+
+        assertEquals(0, expiryQueue.expireDue());
+        assertEquals(1, expiryQueue.size());
+        assertEquals(0, expiryQueue.expireDue());
+    }
+
+    @Test
+    void rebuild_LoadsReservedOrdersFromDatabase() {
+        LocalDateTime reservedAt = LocalDateTime.now().minusHours(2);
+        when(salesOrderRepository.findFirstReservedBefore(eq(OrderStatus.RESERVED), any(), any(Pageable.class)))
+                .thenReturn(List.of(new ExpiredReservation(1L, reservedAt), new ExpiredReservation(2L, reservedAt)));
+        when(salesOrderRepository.findNextReservedBefore(eq(OrderStatus.RESERVED), any(),
+                eq(reservedAt), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertEquals(2, expiryQueue.rebuild());
+        assertEquals(2, expiryQueue.size());
+        assertEquals(0, expiryQueue.expireDue());
+        verifyNoInteractions(validationScheduler);
+    }
+}
@@ -0,0 +1,118 @@
+package org.project.digital_logistics.service.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.event.InventoryChangedEvent;
+import org.project.digital_logistics.model.enums.OrderStatus;
+import org.project.digital_logistics.repository.SalesOrderRepository;
+import org.project.digital_logistics.repository.projection.ExpiredReservation;
+import org.project.digital_logistics.repository.projection.ReservedQuantity;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesOrderValidationSchedulerTest {
+
+    @Mock
+    private SalesOrderRepository salesOrderRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private BusinessRulesConfig businessRulesConfig;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private SalesOrderValidationScheduler scheduler;
+
+    private final LocalDateTime reservedAt = LocalDateTime.now().minusDays(2);
+
+    @BeforeEach
+    void setUp() {
+        when(businessRulesConfig.getReservationTtlHours()).thenReturn(24);
+        when(businessRulesConfig.getReservationExpiryChunkSize()).thenReturn(2);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    void cancelExpiredReservations_ProcessesChunksByKeyset() {
+        when(salesOrderRepository.findFirstReservedBefore(eq(OrderStatus.RESERVED), any(), any(Pageable.class)))
+                .thenReturn(List.of(new ExpiredReservation(1L, reservedAt), new ExpiredReservation(2L, reservedAt)));
+        when(salesOrderRepository.findNextReservedBefore(eq(OrderStatus.RESERVED), any(),
+                eq(reservedAt), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(new ExpiredReservation(3L, reservedAt.plusMinutes(1))));
+        when(salesOrderRepository.findNextReservedBefore(eq(OrderStatus.RESERVED), any(),
+                eq(reservedAt.plusMinutes(1)), eq(3L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        when(salesOrderRepository.lockIdsInStatus(List.of(1L, 2L), OrderStatus.RESERVED)).thenReturn(List.of(1L, 2L));
+        when(salesOrderRepository.lockIdsInStatus(List.of(3L), OrderStatus.RESERVED)).thenReturn(List.of(3L));
+        when(salesOrderRepository.sumQuantitiesByInventory(List.of(1L, 2L)))
+                .thenReturn(List.of(new ReservedQuantity(1L, 10L, 30L)));
+        when(salesOrderRepository.sumQuantitiesByInventory(List.of(3L)))
+                .thenReturn(List.of(new ReservedQuantity(2L, 10L, 5L)));
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1}});
+
+        scheduler.cancelExpiredReservations();
+
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(jdbcTemplate).batchUpdate(contains("GREATEST(qty_reserved - ?, 0)"),
+                eq(List.of(new ReservedQuantity(1L, 10L, 30L))), eq(1), any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate).batchUpdate(anyString(),
+                eq(List.of(new ReservedQuantity(2L, 10L, 5L))), eq(1), any(ParameterizedPreparedStatementSetter.class));
+        verify(salesOrderRepository).updateStatus(List.of(1L, 2L), OrderStatus.CANCELED);
+        verify(salesOrderRepository).updateStatus(List.of(3L), OrderStatus.CANCELED);
+        verify(eventPublisher).publishEvent(InventoryChangedEvent.released(1L, 10L, 30));
+        verify(salesOrderRepository, never()).findAll();
+    }
+
+    @Test
+    void cancelExpiredReservations_SkipsOrdersNoLongerReserved() {
+        when(salesOrderRepository.findFirstReservedBefore(eq(OrderStatus.RESERVED), any(), any(Pageable.class)))
+                .thenReturn(List.of(new ExpiredReservation(1L, reservedAt)));
+        when(salesOrderRepository.findNextReservedBefore(eq(OrderStatus.RESERVED), any(),
+                eq(reservedAt), eq(1L), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(salesOrderRepository.lockIdsInStatus(List.of(1L), OrderStatus.RESERVED)).thenReturn(List.of());
+
+        scheduler.cancelExpiredReservations();
+
+        verifyNoInteractions(jdbcTemplate);
+        verify(salesOrderRepository, never()).updateStatus(any(), any());
+    }
+
+    @Test
+    void cancelExpiredReservations_NothingExpired() {
+        when(salesOrderRepository.findFirstReservedBefore(eq(OrderStatus.RESERVED), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        scheduler.cancelExpiredReservations();
+
+        verifyNoInteractions(transactionTemplate, jdbcTemplate);
+    }
+}
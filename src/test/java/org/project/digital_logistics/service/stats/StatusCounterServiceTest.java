@@ -0,0 +1,155 @@
+package org.project.digital_logistics.service.stats;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.dto.ApiResponse;
+import org.project.digital_logistics.dto.stats.StatusCountsDto;
+import org.project.digital_logistics.enums.PurchaseOrderStatus;
+import org.project.digital_logistics.event.StatusChangedEvent;
+import org.project.digital_logistics.model.StatusCounter;
+import org.project.digital_logistics.model.enums.OrderStatus;
+import org.project.digital_logistics.model.enums.ShipmentStatus;
+import org.project.digital_logistics.model.enums.StatusCounterType;
+import org.project.digital_logistics.repository.PurchaseOrderRepository;
+import org.project.digital_logistics.repository.SalesOrderRepository;
+import org.project.digital_logistics.repository.ShipmentRepository;
+import org.project.digital_logistics.repository.StatusCounterRepository;
+import org.project.digital_logistics.repository.projection.StatusCount;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatusCounterServiceTest {
+
+    @Mock
+    private StatusCounterRepository statusCounterRepository;
+
+    @Mock
+    private SalesOrderRepository salesOrderRepository;
+
+    @Mock
+    private ShipmentRepository shipmentRepository;
+
+    @Mock
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private BusinessRulesConfig businessRulesConfig = new BusinessRulesConfig();
+
+    @InjectMocks
+    private StatusCounterService statusCounterService;
+
+    @BeforeEach
+    void setUp() {
+        businessRulesConfig.setStatusCounterSlots(4);
+    }
+
+    @Test
+    void onStatusChanged_Transition_MovesOneFromOldToNewStatus() {
+        statusCounterService.onStatusChanged(StatusChangedEvent.transition(
+                StatusCounterType.SALES_ORDER, OrderStatus.CREATED, OrderStatus.RESERVED));
+
+        ArgumentCaptor<Integer> slots = ArgumentCaptor.forClass(Integer.class);
+        verify(statusCounterRepository).increment(eq("SALES_ORDER"), eq("CREATED"), slots.capture(), eq(-1L));
+        verify(statusCounterRepository).increment(eq("SALES_ORDER"), eq("RESERVED"), slots.capture(), eq(1L));
+        verifyNoMoreInteractions(statusCounterRepository);
+    }
+
+    @Test
+    void onStatusChanged_SpreadsTransitionsOverTheConfiguredSlots() {
+        for (int i = 0; i < 200; i++) {
+            statusCounterService.onStatusChanged(StatusChangedEvent.created(StatusCounterType.SHIPMENT, ShipmentStatus.PLANNED));
+        }
+
+        ArgumentCaptor<Integer> slots = ArgumentCaptor.forClass(Integer.class);
+        verify(statusCounterRepository, times(200)).increment(eq("SHIPMENT"), eq("PLANNED"), slots.capture(), eq(1L));
+        assertTrue(slots.getAllValues().stream().allMatch(slot -> slot >= 0 && slot < 4));
+        assertTrue(slots.getAllValues().stream().distinct().count() > 1);
+    }
+
+    @Test
+    void onStatusChanged_SameStatus_Ignored() {
+        statusCounterService.onStatusChanged(StatusChangedEvent.transition(
+                StatusCounterType.SALES_ORDER, OrderStatus.BACKORDER, OrderStatus.BACKORDER));
+
+        verifyNoInteractions(statusCounterRepository);
+    }
+
+    @Test
+    void onStatusChanged_BulkRemoval_DecrementsByCount() {
+        statusCounterService.onStatusChanged(StatusChangedEvent.removed(
+                StatusCounterType.SALES_ORDER, OrderStatus.DELIVERED, 42));
+
+        verify(statusCounterRepository).increment(eq("SALES_ORDER"), eq("DELIVERED"), anyInt(), eq(-42L));
+        verifyNoMoreInteractions(statusCounterRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recountAll_CorrectsDriftedCounters() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+
+        // 7 + 2 counted over two slots, 5 in the table
+        StatusCounter first = StatusCounter.builder()
+                .entityType(StatusCounterType.PURCHASE_ORDER).status("CREATED").slot(0).count(7L).build();
+        StatusCounter other = StatusCounter.builder()
+                .entityType(StatusCounterType.PURCHASE_ORDER).status("CREATED").slot(3).count(2L).build();
+        when(statusCounterRepository.lockByEntityType(any())).thenReturn(List.of());
+        when(statusCounterRepository.lockByEntityType(StatusCounterType.PURCHASE_ORDER)).thenReturn(List.of(first, other));
+        when(purchaseOrderRepository.countGroupedByStatus())
+                .thenReturn(List.of(new StatusCount(PurchaseOrderStatus.CREATED, 5L)));
+
+        int corrected = statusCounterService.recountAll();
+
+        assertEquals(1, corrected);
+        assertEquals(5L, first.getCount());
+        assertEquals(0L, other.getCount());
+        assertNotNull(first.getRecountedAt());
+
+        ArgumentCaptor<List<StatusCounter>> captor = ArgumentCaptor.forClass(List.class);
+        verify(statusCounterRepository, times(3)).saveAll(captor.capture());
+        List<StatusCounter> purchaseOrderCounters = captor.getAllValues().get(2);
+        // Every slot of every status exists after a recount
+        assertEquals(PurchaseOrderStatus.values().length * 4, purchaseOrderCounters.size());
+        assertEquals(5L, purchaseOrderCounters.stream().mapToLong(StatusCounter::getCount).sum());
+        assertTrue(purchaseOrderCounters.stream()
+                .filter(counter -> !counter.getStatus().equals("CREATED"))
+                .allMatch(counter -> counter.getCount() == 0L));
+    }
+
+    @Test
+    void getStatusCounts_SumsTheSlotsOfEveryStatus() {
+        when(statusCounterRepository.findAll()).thenReturn(List.of(
+                StatusCounter.builder().entityType(StatusCounterType.SALES_ORDER).status("RESERVED").slot(0).count(10L).build(),
+                StatusCounter.builder().entityType(StatusCounterType.SALES_ORDER).status("RESERVED").slot(2).count(2L).build(),
+                StatusCounter.builder().entityType(StatusCounterType.SHIPMENT).status("IN_TRANSIT").count(3L).build()
+        ));
+
+        ApiResponse<StatusCountsDto> response = statusCounterService.getStatusCounts();
+
+        Map<String, Long> salesOrders = response.getData().getSalesOrders();
+        assertEquals(OrderStatus.values().length, salesOrders.size());
+        assertEquals(12L, salesOrders.get("RESERVED"));
+        assertEquals(0L, salesOrders.get("CREATED"));
+        assertEquals(3L, response.getData().getShipments().get("IN_TRANSIT"));
+        assertEquals(PurchaseOrderStatus.values().length, response.getData().getPurchaseOrders().size());
+    }
+}
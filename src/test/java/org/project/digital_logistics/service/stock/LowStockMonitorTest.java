@@ -0,0 +1,125 @@
+package org.project.digital_logistics.service.stock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.dto.inventory.LowStockItemDto;
+import org.project.digital_logistics.dto.inventory.LowStockSnapshotDto;
+import org.project.digital_logistics.event.InventoryChangedEvent;
+import org.project.digital_logistics.event.ReorderThresholdChangedEvent;
+import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.repository.projection.ReorderLevel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LowStockMonitorTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    private LowStockMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        // Pushes run on the calling thread
+        monitor = new LowStockMonitor(inventoryRepository, Runnable::run);
+    }
+
+    private void warmUp() {
+        when(inventoryRepository.findAllReorderLevels()).thenReturn(List.of(
+                new ReorderLevel(1L, 10L, 5, 20),
+                new ReorderLevel(1L, 11L, 50, 20),
+                new ReorderLevel(1L, 12L, 0, null),
+                new ReorderLevel(2L, 10L, 1, 5)
+        ));
+        monitor.warmUp();
+    }
+
+    @Test
+    void snapshot_BeforeWarmUp_ReturnsEmpty() {
+        assertEquals(Optional.empty(), monitor.snapshot(1L));
+    }
+
+    @Test
+    void warmUp_KeepsRowsBelowTheirThreshold() {
+        warmUp();
+
+        assertEquals(List.of(new LowStockItemDto(10L, 5, 20)), monitor.snapshot(1L).orElseThrow().getItems());
+        assertEquals(List.of(new LowStockItemDto(10L, 1, 5)), monitor.snapshot(2L).orElseThrow().getItems());
+        assertTrue(monitor.snapshot(99L).orElseThrow().getItems().isEmpty());
+    }
+
+    @Test
+    void onInventoryChanged_RowsCrossingTheirThresholdEnterAndLeaveTheSet() {
+        warmUp();
+
+        monitor.onInventoryChanged(InventoryChangedEvent.reserved(1L, 11L, 35));
+        monitor.onInventoryChanged(InventoryChangedEvent.received(1L, 10L, 15));
+
+        LowStockSnapshotDto snapshot = monitor.snapshot(1L).orElseThrow();
+        assertEquals(List.of(new LowStockItemDto(11L, 15, 20)), snapshot.getItems());
+        assertEquals(3L, snapshot.getVersion());
+    }
+
+    @Test
+    void onReorderThresholdChanged_WatchesAndUnwatchesRows() {
+        warmUp();
+
+        monitor.onReorderThresholdChanged(new ReorderThresholdChangedEvent(1L, 12L, 1));
+        monitor.onReorderThresholdChanged(new ReorderThresholdChangedEvent(1L, 10L, null));
+
+        assertEquals(List.of(new LowStockItemDto(12L, 0, 1)), monitor.snapshot(1L).orElseThrow().getItems());
+    }
+
+    @Test
+    void subscribe_PushedOnlyWhenTheSetChanges() {
+        warmUp();
+        List<LowStockSnapshotDto> pushed = new ArrayList<>();
+        Runnable unsubscribe = monitor.subscribe(1L, pushed::add);
+
+        monitor.onInventoryChanged(InventoryChangedEvent.reserved(1L, 11L, 10)); // 40 left, still above 20
+        monitor.onInventoryChanged(InventoryChangedEvent.reserved(1L, 11L, 30)); // 10 left, below 20
+        monitor.onInventoryChanged(InventoryChangedEvent.reserved(2L, 10L, 1));  // other warehouse
+        unsubscribe.run();
+        monitor.onInventoryChanged(InventoryChangedEvent.received(1L, 11L, 30));
+
+        assertEquals(1, pushed.size());
+        assertEquals(List.of(10L, 11L), pushed.get(0).getItems().stream().map(LowStockItemDto::getProductId).toList());
+    }
+
+    @Test
+    void subscribe_FailingSubscriberIsDropped() {
+        warmUp();
+        monitor.subscribe(1L, snapshot -> {
+            throw new IllegalStateException("client gone");
+        });
+
+        monitor.onInventoryChanged(InventoryChangedEvent.received(1L, 10L, 100));
+
+        assertEquals(0, monitor.subscriberCount(1L));
+    }
+
+    @Test
+    void reconcile_CorrectsDriftSeenTwice() {
+        warmUp();
+        // The database says 10L has been restocked, the event was lost
+        List<ReorderLevel> database = List.of(
+                new ReorderLevel(1L, 10L, 40, 20),
+                new ReorderLevel(1L, 11L, 50, 20),
+                new ReorderLevel(1L, 12L, 0, null),
+                new ReorderLevel(2L, 10L, 1, 5)
+        );
+
+        assertEquals(0, monitor.reconcile(database));
+        assertEquals(1, monitor.reconcile(database));
+        assertTrue(monitor.snapshot(1L).orElseThrow().getItems().isEmpty());
+    }
+}
@@ -0,0 +1,208 @@
+package org.project.digital_logistics.service.stock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.dto.inventory.ShipmentVelocityDto;
+import org.project.digital_logistics.event.StockShippedEvent;
+import org.project.digital_logistics.repository.InventoryMovementRepository;
+import org.project.digital_logistics.repository.projection.ShippedQuantity;
+
+import java.time.*;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShipmentVelocityTrackerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 16);
+
+    @Mock
+    private InventoryMovementRepository movementRepository;
+
+    @Mock
+    private ShipmentVelocityStore velocityStore;
+
+    private MutableClock clock;
+    private ShipmentVelocityTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(TODAY.atTime(10, 0));
+        tracker = new ShipmentVelocityTracker(movementRepository, velocityStore, clock);
+    }
+
+    private void rebuild(List<ShippedQuantity> saved, LocalDateTime lastFlushedAt, List<ShippedQuantity> replayed) {
+        when(velocityStore.loadSince(TODAY.minusDays(89))).thenReturn(saved);
+        when(velocityStore.lastFlushedAt()).thenReturn(Optional.ofNullable(lastFlushedAt));
+        when(movementRepository.sumShippedPerDayBetween(any(), any())).thenReturn(replayed);
+        tracker.rebuild();
+    }
+
+    @Test
+    void rebuild_SumsSavedDaysAndJournalAfterLastFlush() {
+        LocalDateTime lastFlush = TODAY.atTime(9, 0);
+        rebuild(List.of(
+                shipped(10L, 1L, TODAY, 5),
+                shipped(10L, 1L, TODAY.minusDays(10), 20),
+                shipped(10L, 2L, TODAY.minusDays(60), 30)
+        ), lastFlush, List.of(shipped(10L, 1L, TODAY, 3)));
+
+        verify(movementRepository).sumShippedPerDayBetween(lastFlush, clock.now());
+        ShipmentVelocityDto warehouse = tracker.velocity(10L, 1L);
+        ShipmentVelocityDto product = tracker.velocity(10L, null);
+        assertEquals(8L, warehouse.getShippedLast7Days());
+        assertEquals(28L, warehouse.getShippedLast30Days());
+        assertEquals(58L, product.getShippedLast90Days());
+        assertEquals(28.0 / 30, product.getAveragePerDay30Days(), 1e-9);
+    }
+
+    @Test
+    void rebuild_NothingSaved_ReplaysTheWholeWindow() {
+        rebuild(List.of(), null, List.of());
+
+        verify(movementRepository).sumShippedPerDayBetween(TODAY.minusDays(89).atStartOfDay(), clock.now());
+    }
+
+    @Test
+    void rebuild_ShipmentsCommittedMeanwhileAppliedOnceToTheRebuiltCounters() {
+        // Given: one shipment already in the replayed journal, one after the replay cutoff
+        tracker.onStockShipped(new StockShippedEvent(1L, 10L, 4, clock.now().minusMinutes(1)));
+        tracker.onStockShipped(shippedNow(2));
+
+        // When
+        rebuild(List.of(), null, List.of(shipped(10L, 1L, TODAY, 4)));
+
+        // Then
+        assertEquals(6L, tracker.velocity(10L, 1L).getShippedLast7Days());
+        assertEquals(6L, tracker.velocity(10L, null).getShippedLast7Days());
+    }
+
+    @Test
+    void onStockShipped_AlreadyReplayed_NotCountedTwice() {
+        rebuild(List.of(), null, List.of(shipped(10L, 1L, TODAY, 4)));
+
+        // Commit event delivered after the swap, for a movement the replay already read
+        tracker.onStockShipped(new StockShippedEvent(1L, 10L, 4, clock.now()));
+
+        assertEquals(4L, tracker.velocity(10L, 1L).getShippedLast7Days());
+    }
+
+    @Test
+    void onStockShipped_DaysLeaveEachWindowInTurn() {
+        rebuild(List.of(), null, List.of());
+
+        tracker.onStockShipped(shippedNow(12));
+
+        clock.plusDays(6);
+        assertEquals(12L, tracker.velocity(10L, 1L).getShippedLast7Days());
+        clock.plusDays(1);
+        ShipmentVelocityDto afterAWeek = tracker.velocity(10L, 1L);
+        assertEquals(0L, afterAWeek.getShippedLast7Days());
+        assertEquals(12L, afterAWeek.getShippedLast30Days());
+        clock.plusDays(23);
+        assertEquals(0L, tracker.velocity(10L, 1L).getShippedLast30Days());
+        assertEquals(12L, tracker.velocity(10L, 1L).getShippedLast90Days());
+        clock.plusDays(60);
+        assertEquals(0L, tracker.velocity(10L, null).getShippedLast90Days());
+    }
+
+    @Test
+    void onStockShipped_SlotReusedAfterAFullTurnStartsEmpty() {
+        rebuild(List.of(), null, List.of());
+        tracker.onStockShipped(shippedNow(12));
+
+        clock.plusDays(90);
+        tracker.onStockShipped(shippedNow(4));
+
+        assertEquals(4L, tracker.velocity(10L, 1L).getShippedLast90Days());
+    }
+
+    @Test
+    void velocity_BeforeRebuild_AggregatesTheProductJournal() {
+        when(movementRepository.sumShippedPerDayOfProductSince(10L, TODAY.minusDays(89).atStartOfDay()))
+                .thenReturn(List.of(shipped(10L, 1L, TODAY.minusDays(2), 7), shipped(10L, 2L, TODAY, 1)));
+
+        ShipmentVelocityDto velocity = tracker.velocity(10L, 1L);
+
+        assertEquals(7L, velocity.getShippedLast7Days());
+    }
+
+    @Test
+    void flush_SavesChangedDaysOnce() {
+        rebuild(List.of(), null, List.of(shipped(10L, 1L, TODAY.minusDays(1), 6)));
+        tracker.onStockShipped(shippedNow(2));
+        tracker.onStockShipped(shippedNow(3));
+
+        assertEquals(2, tracker.flush());
+        assertEquals(0, tracker.flush());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ShippedQuantity>> days = ArgumentCaptor.forClass(List.class);
+        verify(velocityStore, times(2)).save(days.capture(), eq(clock.now()), eq(TODAY.minusDays(89)));
+        assertTrue(days.getAllValues().get(0).containsAll(List.of(
+                shipped(10L, 1L, TODAY.minusDays(1), 6),
+                shipped(10L, 1L, TODAY, 5))));
+        assertTrue(days.getAllValues().get(1).isEmpty());
+    }
+
+    @Test
+    void flush_Failure_KeepsDaysForTheNextFlush() {
+        rebuild(List.of(), null, List.of());
+        tracker.onStockShipped(shippedNow(2));
+        doThrow(new IllegalStateException("database down")).doNothing()
+                .when(velocityStore).save(any(), any(), any());
+
+        assertThrows(IllegalStateException.class, () -> tracker.flush());
+        assertEquals(1, tracker.flush());
+    }
+
+    // A shipment that occurred after the rebuild's replay cutoff
+    private StockShippedEvent shippedNow(int quantity) {
+        return new StockShippedEvent(1L, 10L, quantity, clock.now().plusMinutes(1));
+    }
+
+    private static ShippedQuantity shipped(Long productId, Long warehouseId, LocalDate day, long quantity) {
+        return new ShippedQuantity(productId, warehouseId, day, quantity);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private LocalDateTime now;
+
+        MutableClock(LocalDateTime now) {
+            this.now = now;
+        }
+
+        void plusDays(long days) {
+            now = now.plusDays(days);
+        }
+
+        LocalDateTime now() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.toInstant(ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.project.digital_logistics.service.stock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.project.digital_logistics.event.InventoryChangedEvent;
+import org.project.digital_logistics.repository.InventoryRepository;
+import org.project.digital_logistics.repository.projection.StockLevel;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockLedgerTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @InjectMocks
+    private StockLedger stockLedger;
+
+    private void warmUp() {
+        when(inventoryRepository.findAllStockLevels()).thenReturn(List.of(
+                new StockLevel(1L, 10L, 100, 20),
+                new StockLevel(2L, 10L, 50, 0)
+        ));
+        stockLedger.warmUp();
+    }
+
+    @Test
+    void availableStock_BeforeWarmUp_ReturnsEmpty() {
+        assertEquals(Optional.empty(), stockLedger.availableStock(10L));
+        assertEquals(Optional.empty(), stockLedger.availableByWarehouse(10L));
+    }
+
+    @Test
+    void warmUp_LoadsAvailabilityPerWarehouse() {
+        warmUp();
+
+        assertEquals(Optional.of(130), stockLedger.availableStock(10L));
+        assertEquals(Map.of(1L, 80, 2L, 50), stockLedger.availableByWarehouse(10L).orElseThrow());
+        assertEquals(Optional.of(0), stockLedger.availableStock(99L));
+    }
+
+    @Test
+    void onInventoryChanged_AppliesDeltas() {
+        warmUp();
+
+        stockLedger.onInventoryChanged(InventoryChangedEvent.reserved(1L, 10L, 30));
+        stockLedger.onInventoryChanged(InventoryChangedEvent.shipped(2L, 10L, 0));
+        stockLedger.onInventoryChanged(InventoryChangedEvent.received(3L, 10L, 15));
+
+        assertEquals(Map.of(1L, 50, 2L, 50, 3L, 15), stockLedger.availableByWarehouse(10L).orElseThrow());
+    }
+
+    @Test
+    void reconcile_CorrectsDriftOnlyWhenSeenTwice() {
+        warmUp();
+        stockLedger.onInventoryChanged(InventoryChangedEvent.reserved(1L, 10L, 5));
+
+        List<StockLevel> database = List.of(
+                new StockLevel(1L, 10L, 100, 20),
+                new StockLevel(2L, 10L, 50, 0)
+        );
+
+        assertEquals(0, stockLedger.reconcile(database));
+        assertEquals(Optional.of(125), stockLedger.availableStock(10L));
+
+        assertEquals(1, stockLedger.reconcile(database));
+        assertEquals(Optional.of(130), stockLedger.availableStock(10L));
+    }
+}
@@ -0,0 +1,95 @@
+package org.project.digital_logistics.service.stock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.digital_logistics.config.BusinessRulesConfig;
+import org.project.digital_logistics.dto.stats.StockCacheStatsDto;
+import org.project.digital_logistics.event.InventoryChangedEvent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockLevelCacheTest {
+
+    private BusinessRulesConfig config;
+    private StockLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        config = new BusinessRulesConfig();
+        config.setStockCacheSize(2);
+        config.setStockCacheTtlSeconds(60L);
+        cache = new StockLevelCache(config);
+    }
+
+    @Test
+    void availableStock_SecondReadIsAHit() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(40, cache.availableStock(10L, () -> loads.incrementAndGet() * 40));
+        assertEquals(40, cache.availableStock(10L, () -> loads.incrementAndGet() * 40));
+
+        StockCacheStatsDto stats = cache.getStats();
+        assertEquals(1, loads.get());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.getHitRatio());
+    }
+
+    @Test
+    void onInventoryChanged_DropsProductAndCellEntries() {
+        cache.totalStock(10L, () -> 100);
+        cache.availableStock(1L, 10L, () -> 80);
+
+        cache.onInventoryChanged(InventoryChangedEvent.reserved(1L, 10L, 5));
+
+        assertEquals(95, cache.totalStock(10L, () -> 95));
+        assertEquals(75, cache.availableStock(1L, 10L, () -> 75));
+        assertEquals(2, cache.getStats().getInvalidations());
+    }
+
+    @Test
+    void onInventoryChanged_OtherWarehouseCellIsKept() {
+        cache.availableStock(2L, 10L, () -> 50);
+
+        cache.onInventoryChanged(InventoryChangedEvent.received(1L, 10L, 5));
+
+        assertEquals(50, cache.availableStock(2L, 10L, () -> 0));
+    }
+
+    @Test
+    void get_BeyondMaxSize_EvictsLeastRecentlyUsed() {
+        cache.availableStock(1L, () -> 1);
+        cache.availableStock(2L, () -> 2);
+        cache.availableStock(1L, () -> -1);
+        cache.availableStock(3L, () -> 3);
+
+        assertEquals(1, cache.availableStock(1L, () -> -1));
+        assertEquals(-2, cache.availableStock(2L, () -> -2));
+        assertEquals(2, cache.getStats().getEvictions());
+        assertEquals(2, cache.getStats().getSize());
+    }
+
+    @Test
+    void get_ExpiredEntry_IsReloaded() {
+        config.setStockCacheTtlSeconds(0L);
+        cache = new StockLevelCache(config);
+
+        cache.totalStock(10L, () -> 100);
+
+        assertEquals(90, cache.totalStock(10L, () -> 90));
+        assertEquals(1, cache.getStats().getExpirations());
+    }
+
+    @Test
+    void get_InvalidatedWhileLoading_DoesNotStoreValue() {
+        cache.totalStock(10L, () -> {
+            cache.invalidate(1L, 10L);
+            return 100;
+        });
+
+        assertEquals(90, cache.totalStock(10L, () -> 90));
+        assertEquals(0, cache.getStats().getHits());
+    }
+}